@@ -0,0 +1,120 @@
+#!/usr/bin/env python3
+#
+# Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+"""
+Compares two JMH result files in JSON format, e.g. stored by run.sh.
+
+For every benchmark and parameter combination present in both files, prints the scores,
+the relative change and whether the change is larger than the error of both scores.
+With results of the gc profile, the allocated bytes per operation are compared as well.
+
+Usage: compare.py [--threshold PERCENT] baseline.json candidate.json
+"""
+
+import argparse
+import json
+import sys
+
+ALLOCATION = "gc.alloc.rate.norm"
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for result in json.load(f):
+            params = result.get("params") or {}
+            key = result["benchmark"]
+            if params:
+                key += "(" + ", ".join("%s=%s" % (k, params[k]) for k in sorted(params)) + ")"
+            results[key] = result
+        return results
+
+
+def short_name(key):
+    # package and class name of the benchmark are the same in both files
+    name, _, params = key.partition("(")
+    name = ".".join(name.split(".")[-2:])
+    return name + ("(" + params if params else "")
+
+
+def metric(result, name=None):
+    if name is None:
+        return result["primaryMetric"]
+    return (result.get("secondaryMetrics") or {}).get(name)
+
+
+def change(base, cand, higher_is_better):
+    if base["score"] == 0:
+        return 0.0, False
+    delta = (cand["score"] - base["score"]) / base["score"] * 100
+    error = (abs(base.get("scoreError") or 0) + abs(cand.get("scoreError") or 0))
+    significant = abs(cand["score"] - base["score"]) > error
+    if not higher_is_better:
+        delta = -delta
+    return delta, significant
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Compares two JMH JSON result files.")
+    parser.add_argument("--threshold", type=float, default=5.0,
+                        help="relative change in percent reported as a regression or improvement (default 5)")
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+    keys = [k for k in baseline if k in candidate]
+    if not keys:
+        print("No benchmark in common")
+        return 1
+
+    width = max(len(short_name(k)) for k in keys)
+    print("%-*s %14s %14s %9s  %s" % (width, "Benchmark", "Baseline", "Candidate", "Change", "Unit"))
+    regressions = 0
+    for key in keys:
+        base = metric(baseline[key])
+        cand = metric(candidate[key])
+        # throughput is better when higher, times are better when lower
+        higher_is_better = baseline[key]["mode"] == "thrpt"
+        delta, significant = change(base, cand, higher_is_better)
+        verdict = ""
+        if significant and abs(delta) >= args.threshold:
+            verdict = "improved" if delta > 0 else "REGRESSED"
+            if delta < 0:
+                regressions += 1
+        print("%-*s %14.3f %14.3f %+8.1f%%  %s %s"
+              % (width, short_name(key), base["score"], cand["score"], delta, base["scoreUnit"], verdict))
+
+        base_alloc = metric(baseline[key], ALLOCATION)
+        cand_alloc = metric(candidate[key], ALLOCATION)
+        if base_alloc and cand_alloc:
+            # the raw change, more bytes per operation is worse
+            delta, _ = change(base_alloc, cand_alloc, True)
+            print("%-*s %14.1f %14.1f %+8.1f%%  %s"
+                  % (width, "  allocated", base_alloc["score"], cand_alloc["score"], delta, base_alloc["scoreUnit"]))
+
+    missing = sorted(set(baseline) ^ set(candidate))
+    for key in missing:
+        print("%s: only in %s" % (short_name(key), "baseline" if key in baseline else "candidate"))
+
+    print("%d regression(s) above %.1f%%" % (regressions, args.threshold))
+    return 1 if regressions else 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Subscriber of the benchmarks, requesting either everything at once or batches of items, the next batch once the
+ * previous one was received. Requests are made by the receiving thread, or by the given executor to have a consumer
+ * running on a different thread than the producer.
+ *
+ * @param <T> item type
+ */
+final class BenchmarkSubscriber<T> implements Flow.Subscriber<T> {
+
+    /**
+     * Demand parameter value for requesting {@link Long#MAX_VALUE} items at once.
+     */
+    static final String UNBOUNDED = "unbounded";
+
+    private final Consumer<? super T> consumer;
+    private final long batch;
+    private final Executor requestExecutor;
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private Flow.Subscription subscription;
+    // accessed by the receiving thread only, published by the latch
+    private long received;
+    private long count;
+    private volatile Throwable error;
+
+    private BenchmarkSubscriber(Consumer<? super T> consumer, long batch, Executor requestExecutor) {
+        this.consumer = consumer;
+        this.batch = batch;
+        this.requestExecutor = requestExecutor;
+    }
+
+    /**
+     * Subscriber requesting on the receiving thread.
+     *
+     * @param consumer consumer of the items, e.g. a blackhole
+     * @param demand   {@value #UNBOUNDED} or the size of the requested batches
+     * @param <T>      item type
+     * @return a new subscriber
+     */
+    static <T> BenchmarkSubscriber<T> create(Consumer<? super T> consumer, String demand) {
+        return new BenchmarkSubscriber<>(consumer, batch(demand), null);
+    }
+
+    /**
+     * Subscriber requesting by the given executor.
+     *
+     * @param consumer        consumer of the items, e.g. a blackhole
+     * @param demand          {@value #UNBOUNDED} or the size of the requested batches
+     * @param requestExecutor executor making the requests
+     * @param <T>             item type
+     * @return a new subscriber
+     */
+    static <T> BenchmarkSubscriber<T> create(Consumer<? super T> consumer, String demand, Executor requestExecutor) {
+        return new BenchmarkSubscriber<>(consumer, batch(demand), requestExecutor);
+    }
+
+    private static long batch(String demand) {
+        return UNBOUNDED.equals(demand) ? Long.MAX_VALUE : Long.parseLong(demand);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        request();
+    }
+
+    @Override
+    public void onNext(T item) {
+        consumer.accept(item);
+        count++;
+        if (batch != Long.MAX_VALUE && ++received == batch) {
+            received = 0;
+            request();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error = throwable;
+        done.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+        done.countDown();
+    }
+
+    /**
+     * Waits for the completion of the stream.
+     *
+     * @return number of received items
+     * @throws InterruptedException  if interrupted
+     * @throws IllegalStateException if the stream failed or did not complete in time
+     */
+    long await() throws InterruptedException {
+        if (!done.await(1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Stream did not complete, received " + count + " items");
+        }
+        Throwable throwable = error;
+        if (throwable != null) {
+            throw new IllegalStateException("Stream failed", throwable);
+        }
+        return count;
+    }
+
+    private void request() {
+        if (requestExecutor == null) {
+            subscription.request(batch);
+        } else {
+            requestExecutor.execute(() -> subscription.request(batch));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Demand accounting by {@link RequestedCounter}, by a single thread and with a requesting and a consuming thread
+ * contending on the counter.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+public class CountersBenchmark {
+
+    private static final Consumer<IllegalArgumentException> ERROR_HANDLER = e -> {
+        throw e;
+    };
+
+    private final RequestedCounter counter = new RequestedCounter();
+
+    /**
+     * One item requested and consumed by the same thread.
+     *
+     * @return whether the item was consumed
+     */
+    @Benchmark
+    @Group("uncontended")
+    public boolean incrementDecrement() {
+        counter.increment(1, ERROR_HANDLER);
+        return counter.tryDecrement();
+    }
+
+    /**
+     * One item requested, contending with {@link #consume()}.
+     *
+     * @return requested items
+     */
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public long request() {
+        counter.increment(1, ERROR_HANDLER);
+        return counter.get();
+    }
+
+    /**
+     * One item consumed if requested, contending with {@link #request()}.
+     *
+     * @return whether an item was consumed
+     */
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public boolean consume() {
+        return counter.tryDecrement();
+    }
+}
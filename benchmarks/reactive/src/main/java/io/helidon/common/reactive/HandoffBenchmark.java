@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Items passed from the benchmark thread to a consumer on another thread, by the operators switching threads and by
+ * the publishers used for request content: {@link OriginThreadPublisher}, where the producer has to wait for the
+ * demand of the consumer, and {@link SubmissionPublisher}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+public class HandoffBenchmark {
+
+    @Param({"10000"})
+    private int count;
+
+    @Param({BenchmarkSubscriber.UNBOUNDED, "32"})
+    private String demand;
+
+    private Multi<Integer> source;
+    private ExecutorService executor;
+
+    /**
+     * Creates the source and the consumer thread.
+     */
+    @Setup
+    public void setup() {
+        List<Integer> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(i);
+        }
+        source = Multi.from(items);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Stops the consumer thread.
+     */
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Items emitted on the consumer thread by {@link Multi#observeOn(java.util.concurrent.Executor)}.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    public long observeOn(Blackhole blackhole) throws InterruptedException {
+        BenchmarkSubscriber<Integer> subscriber = BenchmarkSubscriber.create(blackhole::consume, demand);
+        source.observeOn(executor).subscribe(subscriber);
+        return subscriber.await();
+    }
+
+    /**
+     * The whole stream on the consumer thread by {@link Multi#subscribeOn(java.util.concurrent.Executor)}.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    public long subscribeOn(Blackhole blackhole) throws InterruptedException {
+        BenchmarkSubscriber<Integer> subscriber = BenchmarkSubscriber.create(blackhole::consume, demand);
+        source.subscribeOn(executor).subscribe(subscriber);
+        return subscriber.await();
+    }
+
+    /**
+     * Items submitted while permits are available, demand requested by the consumer thread.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    public long originThreadPublisher(Blackhole blackhole) throws InterruptedException {
+        OriginThreadPublisher<Integer, Integer> publisher = new OriginThreadPublisher<>() { };
+        BenchmarkSubscriber<Integer> subscriber = BenchmarkSubscriber.create(blackhole::consume, demand, executor);
+        publisher.subscribe(subscriber);
+        int i = 0;
+        while (i < count) {
+            if (publisher.tryAcquire() > 0) {
+                publisher.submit(i++);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        publisher.complete();
+        return subscriber.await();
+    }
+
+    /**
+     * Items submitted and delivered by the consumer thread.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public long submissionPublisher(Blackhole blackhole) throws InterruptedException {
+        SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>(executor, 256);
+        BenchmarkSubscriber<Integer> subscriber = BenchmarkSubscriber.create(blackhole::consume, demand);
+        publisher.subscribe(subscriber);
+        for (int i = 0; i < count; i++) {
+            publisher.submit(i);
+        }
+        publisher.close();
+        return subscriber.await();
+    }
+}
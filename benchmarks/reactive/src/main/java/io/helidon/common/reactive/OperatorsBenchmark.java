@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Synchronous operator chains over a {@link Multi} of integers, with unbounded demand or with demand in batches
+ * requested as items are received. The score is a whole stream per operation; run with the GC profiler to see the
+ * bytes allocated per stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+public class OperatorsBenchmark {
+
+    @Param({"1000"})
+    private int count;
+
+    @Param({BenchmarkSubscriber.UNBOUNDED, "1", "32"})
+    private String demand;
+
+    private Multi<Integer> source;
+
+    /**
+     * Creates the source.
+     */
+    @Setup
+    public void setup() {
+        List<Integer> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(i);
+        }
+        source = Multi.from(items);
+    }
+
+    /**
+     * The source without operators.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    public long source(Blackhole blackhole) throws InterruptedException {
+        return run(source, blackhole);
+    }
+
+    /**
+     * A single map.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    public long map(Blackhole blackhole) throws InterruptedException {
+        return run(source.map(i -> i + 1), blackhole);
+    }
+
+    /**
+     * A single map by the processor based implementation, buffering items in a {@link BufferedProcessor}.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public long mapProcessor(Blackhole blackhole) throws InterruptedException {
+        MultiMapProcessor<Integer, Integer> processor = MultiMapProcessor.create(i -> i + 1);
+        source.subscribe(processor);
+        return run(processor, blackhole);
+    }
+
+    /**
+     * Map, filter and map.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    public long mapFilterMap(Blackhole blackhole) throws InterruptedException {
+        return run(source.map(i -> i * 3)
+                           .filter(i -> (i & 1) == 0)
+                           .map(String::valueOf), blackhole);
+    }
+
+    /**
+     * Each item mapped to a publisher of two items.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    public long flatMap(Blackhole blackhole) throws InterruptedException {
+        return run(source.flatMap(i -> Multi.just(i, i)), blackhole);
+    }
+
+    /**
+     * Each item mapped to an iterable of two items.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    public long flatMapIterable(Blackhole blackhole) throws InterruptedException {
+        return run(source.flatMapIterable(i -> List.of(i, i)), blackhole);
+    }
+
+    /**
+     * A {@link Single} with a map per item, i.e. the overhead of many short streams.
+     *
+     * @param blackhole consumes the items
+     * @return received items
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    public long singleMap(Blackhole blackhole) throws InterruptedException {
+        long received = 0;
+        for (int i = 0; i < count; i++) {
+            received += run(Single.just(i).map(item -> item + 1), blackhole);
+        }
+        return received;
+    }
+
+    private <T> long run(Flow.Publisher<T> publisher, Blackhole blackhole) throws InterruptedException {
+        BenchmarkSubscriber<T> subscriber = BenchmarkSubscriber.create(blackhole::consume, demand);
+        publisher.subscribe(subscriber);
+        return subscriber.await();
+    }
+}
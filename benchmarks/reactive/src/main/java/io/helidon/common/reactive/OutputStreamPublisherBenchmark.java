@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Writes of 64 KiB in total to an {@link OutputStreamPublisher}, in writes of the given size, publishing every write
+ * or coalescing them into buffers. The subscriber either requests everything up front, or requests a few buffers at
+ * a time from another thread, so the writing thread waits for demand as it does when streaming a response body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+public class OutputStreamPublisherBenchmark {
+
+    private static final int TOTAL = 64 * 1024;
+
+    @Param({"0", "8192"})
+    private int bufferSize;
+
+    @Param({"16", "512", "8192"})
+    private int writeSize;
+
+    @Param({"same-thread", "cross-thread"})
+    private String consumer;
+
+    private byte[] data;
+    private ExecutorService executor;
+
+    /**
+     * Prepares the written data and the consumer thread.
+     */
+    @Setup
+    public void setup() {
+        data = new byte[writeSize];
+        Arrays.fill(data, (byte) 'a');
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Stops the consumer thread.
+     */
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Writes the data, then closes the stream.
+     *
+     * @param blackhole consumes the published buffers
+     * @return published buffers
+     * @throws IOException          if writing failed
+     * @throws InterruptedException if interrupted
+     */
+    @Benchmark
+    public long write(Blackhole blackhole) throws IOException, InterruptedException {
+        OutputStreamPublisher publisher = new OutputStreamPublisher(bufferSize);
+        BenchmarkSubscriber<ByteBuffer> subscriber = subscriber(publisher, blackhole);
+        publisher.subscribe(subscriber);
+        for (int written = 0; written < TOTAL; written += writeSize) {
+            publisher.write(data);
+        }
+        // the subscriber does not hold anything to release on completion
+        publisher.signalCloseComplete(null);
+        publisher.close();
+        return subscriber.await();
+    }
+
+    private BenchmarkSubscriber<ByteBuffer> subscriber(OutputStreamPublisher publisher, Blackhole blackhole) {
+        Consumer<ByteBuffer> release = buffer -> {
+            blackhole.consume(buffer);
+            publisher.release(buffer);
+        };
+        if ("same-thread".equals(consumer)) {
+            return BenchmarkSubscriber.create(release, BenchmarkSubscriber.UNBOUNDED);
+        }
+        return BenchmarkSubscriber.create(release, "4", executor);
+    }
+}
@@ -0,0 +1,104 @@
+#!/bin/bash
+#
+# Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+set -o pipefail || true  # trace ERR through pipes
+set -o errtrace || true # trace ERR through commands and functions
+set -o errexit || true  # exit the script if any statement returns a non-true return value
+
+on_error(){
+    CODE="${?}" && \
+    set +x && \
+    printf "[ERROR] Error(code=%s) occurred at %s:%s command: %s\n" \
+        "${CODE}" "${BASH_SOURCE}" "${LINENO}" "${BASH_COMMAND}"
+}
+trap on_error ERR
+
+usage(){
+    cat <<EOU
+Runs the benchmarks of a module with a fixed profile and stores the results as JSON.
+
+Usage: $(basename "${0}") [-p profile] [-b] module [benchmark regexp]
+
+  -p profile  quick   one fork, short iterations, to check the benchmarks work
+              default the settings of the benchmark annotations (default)
+              gc      default with the GC profiler, adds allocation rates per operation
+  -b          build the module first
+
+  module      directory of the module in benchmarks, e.g. webserver
+EOU
+}
+
+# Path to this script
+if [ -h "${0}" ] ; then
+  readonly SCRIPT_PATH="$(readlink "${0}")"
+else
+  readonly SCRIPT_PATH="${0}"
+fi
+
+readonly BENCHMARKS_DIR=$(cd $(dirname -- "${SCRIPT_PATH}") ; pwd -P)
+readonly WS_DIR=$(cd "${BENCHMARKS_DIR}/.." ; pwd -P)
+
+PROFILE="default"
+BUILD="false"
+while getopts "p:bh" opt ; do
+    case "${opt}" in
+        p) PROFILE="${OPTARG}" ;;
+        b) BUILD="true" ;;
+        *) usage ; exit 1 ;;
+    esac
+done
+shift $((OPTIND - 1))
+
+if [ -z "${1}" ] || [ ! -d "${BENCHMARKS_DIR}/${1}" ] ; then
+    usage
+    exit 1
+fi
+readonly MODULE="${1}"
+readonly INCLUDE="${2:-.*}"
+
+# Same heap and collector for every run, so results of different revisions are comparable
+readonly JVM_ARGS="-Xms1g -Xmx1g -XX:+UseG1GC -XX:+AlwaysPreTouch"
+
+case "${PROFILE}" in
+    quick)   readonly PROFILE_ARGS="-f 1 -wi 2 -w 1s -i 3 -r 1s" ;;
+    default) readonly PROFILE_ARGS="" ;;
+    gc)      readonly PROFILE_ARGS="-prof gc" ;;
+    *)       usage ; exit 1 ;;
+esac
+
+if [ "${BUILD}" = "true" ] ; then
+    mvn -B -f "${WS_DIR}/pom.xml" -Pbenchmarks -pl "benchmarks/${MODULE}" -am -DskipTests install
+fi
+
+readonly JAR="${BENCHMARKS_DIR}/${MODULE}/target/benchmarks.jar"
+if [ ! -f "${JAR}" ] ; then
+    echo "${JAR} not found, build it with -b"
+    exit 1
+fi
+
+readonly REVISION=$(git -C "${WS_DIR}" rev-parse --short HEAD 2> /dev/null || echo "unknown")
+readonly RESULTS_DIR="${BENCHMARKS_DIR}/${MODULE}/target/results"
+readonly RESULTS="${RESULTS_DIR}/${MODULE}-${PROFILE}-${REVISION}-$(date +%Y%m%d%H%M%S).json"
+mkdir -p "${RESULTS_DIR}"
+
+java -jar "${JAR}" "${INCLUDE}" \
+    -jvmArgsAppend "${JVM_ARGS}" \
+    ${PROFILE_ARGS} \
+    -rf json -rff "${RESULTS}"
+
+echo "Results stored in ${RESULTS}"
+echo "Compare with: ${BENCHMARKS_DIR}/compare.py <baseline.json> ${RESULTS}"
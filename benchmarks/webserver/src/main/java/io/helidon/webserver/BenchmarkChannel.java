@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * In-process channel for the benchmarks: everything written to it is encoded by the given handlers and released
+ * by {@link #drain()}, without any socket or event loop thread involved.
+ */
+final class BenchmarkChannel {
+
+    private final EmbeddedChannel channel;
+    private final ChannelHandlerContext context;
+
+    private BenchmarkChannel(ChannelHandler... handlers) {
+        this.channel = new EmbeddedChannel(handlers);
+        // the last context writes through all the given handlers
+        this.channel.pipeline().addLast(new ChannelInboundHandlerAdapter());
+        this.context = channel.pipeline().lastContext();
+    }
+
+    /**
+     * Channel encoding HTTP responses written to {@link #context()}.
+     *
+     * @return a new channel
+     */
+    static BenchmarkChannel responseChannel() {
+        return new BenchmarkChannel(new HttpResponseEncoder());
+    }
+
+    /**
+     * Channel with the given handlers.
+     *
+     * @param handlers handlers of the pipeline, e.g. the codecs and {@link ForwardingHandler}
+     * @return a new channel
+     */
+    static BenchmarkChannel create(ChannelHandler... handlers) {
+        return new BenchmarkChannel(handlers);
+    }
+
+    /**
+     * A keep-alive {@code GET} request, as decoded by Netty.
+     *
+     * @return request
+     */
+    static HttpRequest request() {
+        return new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+    }
+
+    /**
+     * Context writing to the channel through all its handlers.
+     *
+     * @return channel handler context
+     */
+    ChannelHandlerContext context() {
+        return context;
+    }
+
+    /**
+     * Passes the given bytes to the inbound handlers.
+     *
+     * @param bytes bytes received, released by the pipeline
+     */
+    void receive(ByteBuf bytes) {
+        channel.writeInbound(bytes);
+    }
+
+    /**
+     * Runs pending tasks and releases all written data.
+     *
+     * @return the number of bytes written
+     */
+    long drain() {
+        channel.runPendingTasks();
+        channel.flushOutbound();
+        long bytes = 0;
+        for (Object msg = channel.readOutbound(); msg != null; msg = channel.readOutbound()) {
+            if (msg instanceof ByteBuf) {
+                bytes += ((ByteBuf) msg).readableBytes();
+            }
+            ReferenceCountUtil.release(msg);
+        }
+        // inbound handlers do not pass anything further, but release it if they did
+        channel.releaseInbound();
+        return bytes;
+    }
+
+    /**
+     * Closes the channel.
+     */
+    void close() {
+        channel.finishAndReleaseAll();
+    }
+}
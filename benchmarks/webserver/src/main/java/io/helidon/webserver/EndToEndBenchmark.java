@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpRequestDecoder;
+import io.netty.handler.codec.http.HttpResponseEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole request/response exchanges over one keep-alive connection, in process: request bytes are decoded by Netty,
+ * handled by {@link ForwardingHandler} and the routing, and the encoded response bytes are released. No socket and
+ * no event loop thread are involved, so the results show the cost of the server code only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+public class EndToEndBenchmark {
+
+    private static final String GET = "GET /greet HTTP/1.1\r\n"
+            + "Host: localhost:8080\r\n"
+            + "User-Agent: benchmark\r\n"
+            + "Accept: */*\r\n"
+            + "\r\n";
+    private static final String POST = "POST /echo HTTP/1.1\r\n"
+            + "Host: localhost:8080\r\n"
+            + "User-Agent: benchmark\r\n"
+            + "Accept: */*\r\n"
+            + "Content-Type: text/plain\r\n"
+            + "Content-Length: 13\r\n"
+            + "\r\n"
+            + "Hello World!\n";
+
+    private BenchmarkChannel channel;
+    private ByteBuf getRequest;
+    private ByteBuf postRequest;
+
+    /**
+     * Creates the routing and the connection.
+     */
+    @Setup
+    public void setup() {
+        Routing routing = Routing.builder()
+                .get("/greet", (req, res) -> res.send("Hello World!"))
+                .post("/echo", (req, res) -> req.content().as(String.class).thenAccept(res::send))
+                .build();
+        NettyWebServer webServer = (NettyWebServer) WebServer.create(routing);
+        channel = BenchmarkChannel.create(new HttpRequestDecoder(),
+                                          new HttpResponseEncoder(),
+                                          new ForwardingHandler(routing,
+                                                                webServer,
+                                                                webServer.configuration(),
+                                                                null,
+                                                                new ConcurrentLinkedQueue<>(),
+                                                                null));
+        getRequest = Unpooled.unreleasableBuffer(Unpooled.copiedBuffer(GET, StandardCharsets.US_ASCII));
+        postRequest = Unpooled.unreleasableBuffer(Unpooled.copiedBuffer(POST, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Closes the connection.
+     */
+    @TearDown
+    public void tearDown() {
+        channel.close();
+    }
+
+    /**
+     * A {@code GET} request answered with a short text.
+     *
+     * @return bytes written
+     */
+    @Benchmark
+    public long get() {
+        channel.receive(getRequest.duplicate());
+        return channel.drain();
+    }
+
+    /**
+     * A {@code POST} request with a short text echoed back.
+     *
+     * @return bytes written
+     */
+    @Benchmark
+    public long echo() {
+        channel.receive(postRequest.duplicate());
+        return channel.drain();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Request header access as done by a typical handler: content type, host, cookies and content negotiation, over the
+ * headers of a browser request. Compares headers copied into {@link HashRequestHeaders} with the Netty headers
+ * wrapped by {@link NettyRequestHeaders}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+public class HeadersBenchmark {
+
+    private static final MediaType[] PRODUCED = {MediaType.APPLICATION_JSON, MediaType.TEXT_HTML};
+
+    private HttpHeaders nettyHeaders;
+
+    /**
+     * Prepares the headers of a browser request.
+     */
+    @Setup
+    public void setup() {
+        nettyHeaders = new DefaultHttpHeaders()
+                .add(Http.Header.HOST, "localhost:8080")
+                .add(Http.Header.USER_AGENT, "Mozilla/5.0 (X11; Linux x86_64; rv:73.0) Gecko/20100101 Firefox/73.0")
+                .add(Http.Header.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+                .add(Http.Header.ACCEPT_LANGUAGE, "en-US,en;q=0.5")
+                .add(Http.Header.ACCEPT_ENCODING, "gzip, deflate")
+                .add(Http.Header.COOKIE, "session=6b2a1d34e7f0; theme=dark; tracking=off")
+                .add(Http.Header.CACHE_CONTROL, "max-age=0")
+                .add(Http.Header.CONTENT_TYPE, "application/json; charset=UTF-8")
+                .add(Http.Header.CONTENT_LENGTH, "128");
+    }
+
+    /**
+     * Copies the Netty headers into a map, as {@code BareRequestImpl} does, and accesses them.
+     *
+     * @param blackhole consumes the header values
+     */
+    @Benchmark
+    public void hashRequestHeaders(Blackhole blackhole) {
+        Map<String, List<String>> map = new HashMap<>();
+        for (Map.Entry<String, String> entry : nettyHeaders.entries()) {
+            map.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(entry.getValue());
+        }
+        access(new HashRequestHeaders(map), blackhole);
+    }
+
+    /**
+     * Wraps the Netty headers and accesses them.
+     *
+     * @param blackhole consumes the header values
+     */
+    @Benchmark
+    public void nettyRequestHeaders(Blackhole blackhole) {
+        access(new NettyRequestHeaders(nettyHeaders), blackhole);
+    }
+
+    private static void access(RequestHeaders headers, Blackhole blackhole) {
+        blackhole.consume(headers.first(Http.Header.HOST));
+        blackhole.consume(headers.contentType());
+        blackhole.consume(headers.contentLength());
+        blackhole.consume(headers.cookies().first("session"));
+        blackhole.consume(headers.isAccepted(MediaType.TEXT_HTML));
+        blackhole.consume(headers.bestAccepted(PRODUCED));
+    }
+}
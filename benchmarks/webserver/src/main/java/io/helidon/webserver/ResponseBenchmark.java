@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+import io.netty.handler.codec.http.HttpRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writing of a response through {@link BareResponseImpl} to an in-process channel with the HTTP response encoder:
+ * completion of the response headers, and publishing of the response content as data chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+public class ResponseBenchmark {
+
+    private BenchmarkChannel channel;
+    private HttpRequest request;
+
+    /**
+     * Content of the response.
+     */
+    @State(Scope.Benchmark)
+    public static class Content {
+
+        @Param({"1", "16"})
+        private int chunks;
+
+        @Param({"64", "8192"})
+        private int chunkSize;
+
+        private ByteBuffer chunk;
+
+        /**
+         * Prepares the data of a chunk.
+         */
+        @Setup
+        public void setup() {
+            byte[] bytes = new byte[chunkSize];
+            Arrays.fill(bytes, (byte) 'a');
+            chunk = ByteBuffer.wrap(bytes);
+        }
+    }
+
+    /**
+     * Creates the channel.
+     */
+    @Setup
+    public void setup() {
+        channel = BenchmarkChannel.responseChannel();
+        request = BenchmarkChannel.request();
+    }
+
+    /**
+     * Closes the channel.
+     */
+    @TearDown
+    public void tearDown() {
+        channel.close();
+    }
+
+    /**
+     * Completes typical response headers and an empty response.
+     *
+     * @return bytes written
+     */
+    @Benchmark
+    public long headers() {
+        BareResponseImpl response = newResponse();
+        HashResponseHeaders headers = new HashResponseHeaders(response);
+        headers.contentType(MediaType.APPLICATION_JSON);
+        headers.put(Http.Header.CACHE_CONTROL, "no-cache");
+        headers.put(Http.Header.ETAG, "\"33a64df5\"");
+        headers.addCookie("session", "6b2a1d34e7f0");
+        headers.send();
+        response.onComplete();
+        return channel.drain();
+    }
+
+    /**
+     * Publishes the content chunks, the response is chunked unless it fits a single chunk.
+     *
+     * @param content content to publish
+     * @return bytes written
+     */
+    @Benchmark
+    public long chunks(Content content) {
+        BareResponseImpl response = newResponse();
+        response.writeStatusAndHeaders(Http.Status.OK_200, Map.of());
+        for (int i = 0; i < content.chunks; i++) {
+            response.onNext(DataChunk.create(false, content.chunk.duplicate()));
+        }
+        response.onComplete();
+        return channel.drain();
+    }
+
+    private BareResponseImpl newResponse() {
+        return new BareResponseImpl(channel.context(), request, () -> true, Thread.currentThread(), 1);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.reactive.Multi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Routing of a request through {@link RequestRouting} with many registered routes, from the bare request to the
+ * completed bare response. Only the position of the matching route among the registered ones varies, the handler
+ * sends an empty response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+public class RoutingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int routes;
+
+    @Param({"first", "last", "none"})
+    private String match;
+
+    private Routing routing;
+    private BareRequest request;
+
+    /**
+     * Registers the routes, each with a path parameter.
+     */
+    @Setup
+    public void setup() {
+        Routing.Builder builder = Routing.builder();
+        for (int i = 0; i < routes; i++) {
+            builder.get("/service" + i + "/items/{id}", (req, res) -> res.send());
+        }
+        routing = builder.build();
+        WebServer webServer = WebServer.create(routing);
+
+        String path;
+        switch (match) {
+        case "first":
+            path = "/service0/items/42";
+            break;
+        case "last":
+            path = "/service" + (routes - 1) + "/items/42";
+            break;
+        default:
+            path = "/unknown/items/42";
+        }
+        request = new StubRequest(webServer, URI.create("http://localhost:8080" + path));
+    }
+
+    /**
+     * Routes the request to the matching handler, or to the not found handler.
+     *
+     * @param blackhole consumes the response status
+     */
+    @Benchmark
+    public void route(Blackhole blackhole) {
+        StubResponse response = new StubResponse();
+        routing.route(request, response);
+        blackhole.consume(response.status);
+    }
+
+    private static final class StubRequest implements BareRequest {
+
+        private final WebServer webServer;
+        private final URI uri;
+        private final Map<String, List<String>> headers = Map.of(Http.Header.HOST, List.of("localhost:8080"),
+                                                                 Http.Header.ACCEPT, List.of("*/*"));
+
+        private StubRequest(WebServer webServer, URI uri) {
+            this.webServer = webServer;
+            this.uri = uri;
+        }
+
+        @Override
+        public WebServer webServer() {
+            return webServer;
+        }
+
+        @Override
+        public Http.RequestMethod method() {
+            return Http.Method.GET;
+        }
+
+        @Override
+        public Http.Version version() {
+            return Http.Version.V1_1;
+        }
+
+        @Override
+        public URI uri() {
+            return uri;
+        }
+
+        @Override
+        public String localAddress() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public int localPort() {
+            return 8080;
+        }
+
+        @Override
+        public String remoteAddress() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public int remotePort() {
+            return 50000;
+        }
+
+        @Override
+        public boolean isSecure() {
+            return false;
+        }
+
+        @Override
+        public Map<String, List<String>> headers() {
+            return headers;
+        }
+
+        @Override
+        public Flow.Publisher<DataChunk> bodyPublisher() {
+            return Multi.empty();
+        }
+
+        @Override
+        public long requestId() {
+            return 1;
+        }
+    }
+
+    private static final class StubResponse implements BareResponse {
+
+        private final CompletableFuture<BareResponse> headersFuture = new CompletableFuture<>();
+        private final CompletableFuture<BareResponse> completionFuture = new CompletableFuture<>();
+        private Http.ResponseStatus status;
+
+        @Override
+        public void writeStatusAndHeaders(Http.ResponseStatus status, Map<String, List<String>> headers) {
+            this.status = status;
+            headersFuture.complete(this);
+        }
+
+        @Override
+        public CompletionStage<BareResponse> whenHeadersCompleted() {
+            return headersFuture;
+        }
+
+        @Override
+        public CompletionStage<BareResponse> whenCompleted() {
+            return completionFuture;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(DataChunk data) {
+            data.release();
+        }
+
+        @Override
+        public void onError(Throwable thr) {
+            completionFuture.completeExceptionally(thr);
+        }
+
+        @Override
+        public void onComplete() {
+            completionFuture.complete(this);
+        }
+
+        @Override
+        public long requestId() {
+            return 1;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018,2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,13 @@
 
 package io.helidon.common.http;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -32,6 +34,10 @@ import java.util.function.Supplier;
 public final class MediaType implements AcceptPredicate<MediaType> {
     // must be first, as this is used to create instances of media types
     private static final Map<MediaType, MediaType> KNOWN_TYPES = new HashMap<>();
+    // instances parsed by parse(String); once full, further inputs are parsed every time, so that arbitrary
+    // header values cannot grow the cache
+    private static final int PARSE_CACHE_SIZE = 256;
+    private static final Map<String, MediaType> PARSE_CACHE = new ConcurrentHashMap<>();
 
     /**
      * The media type {@value CHARSET_PARAMETER} parameter name.
@@ -88,6 +94,14 @@ public final class MediaType implements AcceptPredicate<MediaType> {
      * A {@link MediaType} constant representing {@code text/html} media type.
      */
     public static final MediaType TEXT_HTML = createMediaType("text", "html");
+    /**
+     * A {@link MediaType} constant representing {@code text/event-stream} media type used by server-sent events.
+     */
+    public static final MediaType TEXT_EVENT_STREAM = createMediaType("text", "event-stream");
+    /**
+     * A {@link MediaType} constant representing {@code application/x-ndjson} media type, newline delimited JSON.
+     */
+    public static final MediaType APPLICATION_X_NDJSON = createMediaType("application", "x-ndjson");
     /**
      * A {@link MediaType} constant representing OpenAPI yaml.
      * <p>
@@ -150,17 +164,20 @@ public final class MediaType implements AcceptPredicate<MediaType> {
     private static final String CHARSET_ATTRIBUTE = "charset";
     private final String type;
     private final String subtype;
-    private final Map<String, String> parameters = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, String> parameters;
 
     private MediaType(Builder builder) {
 
         this.type = builder.type;
         this.subtype = builder.subtype;
-        this.parameters.putAll(builder.parameters);
+        Map<String, String> parameters = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        parameters.putAll(builder.parameters);
 
         if ((builder.charset != null) && !builder.charset.isEmpty()) {
-            this.parameters.put(CHARSET_PARAMETER, builder.charset);
+            parameters.put(CHARSET_PARAMETER, builder.charset);
         }
+        // instances are shared by parse(String), so the parameters must not be modifiable
+        this.parameters = Collections.unmodifiableMap(parameters);
     }
 
     /**
@@ -181,6 +198,8 @@ public final class MediaType implements AcceptPredicate<MediaType> {
 
     /**
      * Parses a media type from its string representation.
+     * <p>
+     * The same instance is returned for repeated inputs, as long as the bounded cache of parsed values has room.
      *
      * @param input the input string representing a media type
      * @return parsed {@link MediaType} instance
@@ -189,6 +208,18 @@ public final class MediaType implements AcceptPredicate<MediaType> {
      */
     public static MediaType parse(String input) {
         Objects.requireNonNull(input, "Parameter 'input' is null!");
+        MediaType cached = PARSE_CACHE.get(input);
+        if (cached != null) {
+            return cached;
+        }
+        MediaType parsed = parseUncached(input);
+        if (PARSE_CACHE.size() < PARSE_CACHE_SIZE) {
+            PARSE_CACHE.putIfAbsent(input, parsed);
+        }
+        return parsed;
+    }
+
+    private static MediaType parseUncached(String input) {
         MediaType.Tokenizer tokenizer = new MediaType.Tokenizer(input);
         try {
             String type = tokenizer.consumeToken(TOKEN_MATCHER);
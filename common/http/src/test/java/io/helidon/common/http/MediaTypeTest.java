@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableWithSize.iterableWithSize;
 import static org.hamcrest.number.IsCloseTo.closeTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Unit test for {@link MediaType}.
@@ -43,6 +44,14 @@ class MediaTypeTest {
         assertThat(MediaType.parse("application/json"), sameInstance(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    void parseCached() {
+        MediaType mediaType = MediaType.parse("application/vnd.cached+json; q=0.5");
+
+        assertThat(MediaType.parse("application/vnd.cached+json; q=0.5"), sameInstance(mediaType));
+        assertThrows(UnsupportedOperationException.class, () -> mediaType.parameters().put("q", "1"));
+    }
+
     @Test
     public void parseUnknownType() {
         MediaType mediaType = MediaType.parse("unknown-type/unknown-subtype");
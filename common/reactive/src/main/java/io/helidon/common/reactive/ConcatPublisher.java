@@ -17,27 +17,27 @@
 
 package io.helidon.common.reactive;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.Flow;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Concat streams to one.
+ * <p>
+ * The sources are subscribed one after another, each once the previous one completed, while a single
+ * {@link SubscriptionArbiter} carries the outstanding demand over. Subscribing to the next source is trampolined, so
+ * long chains of synchronous sources do not grow the stack; empty sources are skipped without subscribing, and nested
+ * concatenations are flattened into one.
  *
  * @param <T> item type
  */
 public class ConcatPublisher<T> implements Flow.Publisher<T>, Multi<T> {
-    private FirstProcessor firstProcessor;
-    private SecondProcessor secondProcessor;
-    private Flow.Subscriber<T> subscriber;
-    private Flow.Publisher<T> firstPublisher;
-    private Flow.Publisher<T> secondPublisher;
-    private AtomicLong requested = new AtomicLong();
+    private final Flow.Publisher<T>[] sources;
 
-    private ConcatPublisher(Flow.Publisher<T> firstPublisher, Flow.Publisher<T> secondPublisher) {
-        this.firstPublisher = firstPublisher;
-        this.secondPublisher = secondPublisher;
+    private ConcatPublisher(Flow.Publisher<T>[] sources) {
+        this.sources = sources;
     }
 
     /**
@@ -48,111 +48,93 @@ public class ConcatPublisher<T> implements Flow.Publisher<T>, Multi<T> {
      * @param <T>             item type
      * @return {@link ConcatPublisher}
      */
+    @SuppressWarnings("unchecked")
     public static <T> ConcatPublisher<T> create(Flow.Publisher<T> firstPublisher, Flow.Publisher<T> secondPublisher) {
-        return new ConcatPublisher<>(firstPublisher, secondPublisher);
+        List<Flow.Publisher<T>> sources = new ArrayList<>();
+        addSource(sources, Objects.requireNonNull(firstPublisher, "firstPublisher is null!"));
+        addSource(sources, Objects.requireNonNull(secondPublisher, "secondPublisher is null!"));
+        return new ConcatPublisher<>(sources.toArray(new Flow.Publisher[0]));
+    }
+
+    private static <T> void addSource(List<Flow.Publisher<T>> sources, Flow.Publisher<T> source) {
+        if (source instanceof ConcatPublisher) {
+            sources.addAll(List.of(((ConcatPublisher<T>) source).sources));
+        } else {
+            sources.add(source);
+        }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void subscribe(Flow.Subscriber<? super T> subscriber) {
-        this.subscriber = (Flow.Subscriber<T>) subscriber;
-
-        this.firstProcessor = new FirstProcessor();
-        this.secondProcessor = new SecondProcessor();
-
-        firstPublisher.subscribe(firstProcessor);
-
-        subscriber.onSubscribe(new Flow.Subscription() {
-            @Override
-            public void request(long n) {
-                if (!StreamValidationUtils.checkRequestParam(n, subscriber::onError)) {
-                    return;
-                }
-                requested.set(n);
-                if (!firstProcessor.complete) {
-                    firstProcessor.subscription.request(n);
-                } else {
-                    secondProcessor.subscription.request(n);
-                }
-            }
-
-            @Override
-            public void cancel() {
-                firstProcessor.subscription.cancel();
-                secondProcessor.subscription.cancel();
-            }
-        });
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        ConcatSubscriber<T> parent = new ConcatSubscriber<>(subscriber, sources);
+        subscriber.onSubscribe(parent.arbiter);
+        parent.subscribeNext();
     }
 
-    private class FirstProcessor implements Flow.Processor<Object, Object> {
+    private static final class ConcatSubscriber<T> extends AtomicInteger implements Flow.Subscriber<T> {
 
-        private Flow.Subscription subscription;
-        private boolean complete = false;
+        private final Flow.Subscriber<? super T> downstream;
+        private final Flow.Publisher<T>[] sources;
+        private final SubscriptionArbiter arbiter = new SubscriptionArbiter();
+        // accessed only by the thread subscribing the next source
+        private int index;
+        // accessed only by the thread signalling the current source
+        private long produced;
 
-        @Override
-        public void subscribe(Flow.Subscriber<? super Object> s) {
+        private ConcatSubscriber(Flow.Subscriber<? super T> downstream, Flow.Publisher<T>[] sources) {
+            this.downstream = downstream;
+            this.sources = sources;
         }
 
         @Override
         public void onSubscribe(Flow.Subscription subscription) {
-            Objects.requireNonNull(subscription);
-            this.subscription = subscription;
-            secondPublisher.subscribe(secondProcessor);
+            Objects.requireNonNull(subscription, "subscription is null!");
+            arbiter.setSubscription(subscription);
         }
 
         @Override
-        @SuppressWarnings("unchecked")
-        public void onNext(Object o) {
-            requested.decrementAndGet();
-            ConcatPublisher.this.subscriber.onNext((T) o);
+        public void onNext(T item) {
+            produced++;
+            downstream.onNext(item);
         }
 
         @Override
-        public void onError(Throwable t) {
-            complete = true;
-            Optional.ofNullable(secondProcessor.subscription).ifPresent(Flow.Subscription::cancel);
-            subscription.cancel();
-            ConcatPublisher.this.subscriber.onError(t);
+        public void onError(Throwable throwable) {
+            downstream.onError(throwable);
         }
 
         @Override
         public void onComplete() {
-            complete = true;
-            Optional.ofNullable(secondProcessor.subscription).ifPresent(s -> s.request(requested.get()));
-        }
-    }
-
-
-    private class SecondProcessor implements Flow.Processor<Object, Object> {
-
-        private Flow.Subscription subscription;
-
-        @Override
-        public void subscribe(Flow.Subscriber<? super Object> s) {
+            subscribeNext();
         }
 
-        @Override
-        public void onSubscribe(Flow.Subscription subscription) {
-            Objects.requireNonNull(subscription);
-            this.subscription = subscription;
-        }
-
-        @Override
-        @SuppressWarnings("unchecked")
-        public void onNext(Object o) {
-            ConcatPublisher.this.subscriber.onNext((T) o);
-        }
-
-        @Override
-        public void onError(Throwable t) {
-            firstProcessor.subscription.cancel();
-            subscription.cancel();
-            ConcatPublisher.this.subscriber.onError(t);
-        }
-
-        @Override
-        public void onComplete() {
-            ConcatPublisher.this.subscriber.onComplete();
+        private void subscribeNext() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            for (;;) {
+                if (arbiter.isCancelled()) {
+                    return;
+                }
+                if (index == sources.length) {
+                    downstream.onComplete();
+                    return;
+                }
+                Flow.Publisher<T> next = sources[index++];
+                long p = produced;
+                if (p != 0L) {
+                    produced = 0L;
+                    arbiter.produced(p);
+                }
+                if (next instanceof MultiEmpty) {
+                    continue;
+                }
+                next.subscribe(this);
+                if (decrementAndGet() == 0) {
+                    return;
+                }
+            }
         }
     }
 }
@@ -20,23 +20,24 @@ package io.helidon.common.reactive;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.concurrent.Flow;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Publisher from iterable, implemented as trampoline stack-less recursion.
+ * <p>
+ * Every subscriber gets its own iterator. The requested counter doubles as the trampoline: only the thread which
+ * raised it from zero emits, requests made from {@code onNext} are picked up by the running loop.
+ * <p>
+ * Operators that can consume the iterator directly, e.g. {@code flatMapIterable}, use {@link #iterator()} instead
+ * of subscribing.
  *
  * @param <T> item type
  */
-class IterablePublisher<T> implements Flow.Publisher<T> {
-    private Iterable<T> iterable;
-    private AtomicBoolean cancelled = new AtomicBoolean(false);
-    private AtomicBoolean completed = new AtomicBoolean(false);
-    private AtomicBoolean trampolineLock = new AtomicBoolean(false);
-    private final RequestedCounter requestCounter = new RequestedCounter();
-    private final ReentrantLock iterateConcurrentLock = new ReentrantLock();
+class IterablePublisher<T> implements Multi<T> {
+    private final Iterable<T> iterable;
 
-    private IterablePublisher() {
+    private IterablePublisher(Iterable<T> iterable) {
+        this.iterable = Objects.requireNonNull(iterable, "iterable is null!");
     }
 
     /**
@@ -47,58 +48,128 @@ class IterablePublisher<T> implements Flow.Publisher<T> {
      * @return new instance of {@link IterablePublisher}
      */
     static <T> IterablePublisher<T> create(Iterable<T> iterable) {
-        IterablePublisher<T> instance = new IterablePublisher<>();
-        instance.iterable = iterable;
-        return instance;
+        return new IterablePublisher<>(iterable);
+    }
+
+    /**
+     * A new iterator of the published items.
+     *
+     * @return iterator
+     */
+    Iterator<T> iterator() {
+        return iterable.iterator();
     }
 
     @Override
     public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
         final Iterator<T> iterator;
+        final boolean empty;
         try {
             iterator = iterable.iterator();
+            empty = !iterator.hasNext();
         } catch (Throwable t) {
-            subscriber.onError(t);
+            SubscriptionHelper.error(subscriber, t);
+            return;
+        }
+        if (empty) {
+            subscriber.onSubscribe(EmptySubscription.INSTANCE);
+            subscriber.onComplete();
             return;
         }
-        subscriber.onSubscribe(new Flow.Subscription() {
-            @Override
-            public void request(long n) {
-                requestCounter.increment(n, subscriber::onError);
-                trySubmit();
+        subscriber.onSubscribe(new IteratorSubscription<>(subscriber, iterator));
+    }
+
+    private static final class IteratorSubscription<T> extends AtomicLong implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> downstream;
+        private final Iterator<T> iterator;
+
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException requestError;
+
+        private IteratorSubscription(Flow.Subscriber<? super T> downstream, Iterator<T> iterator) {
+            this.downstream = downstream;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void request(long n) {
+            if (!StreamValidationUtils.checkRequestParam(n, e -> requestError = e)) {
+                // enters the loop to signal the error, unless it is running already
+                n = 1L;
+            }
+            if (SubscriptionHelper.addRequest(this, n) == 0L) {
+                emit();
             }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
 
-            private void trySubmit() {
-                if (!trampolineLock.getAndSet(true)) {
+        private void emit() {
+            long emitted = 0L;
+            long requested = get();
+            for (;;) {
+                while (emitted != requested) {
+                    if (isTerminated()) {
+                        return;
+                    }
+                    T item;
+                    boolean hasNext;
                     try {
-                        while (requestCounter.tryDecrement()) {
-                            iterateConcurrentLock.lock();
-                            try {
-                                if (iterator.hasNext() && !cancelled.get()) {
-                                    T next = iterator.next();
-                                    Objects.requireNonNull(next);
-                                    subscriber.onNext(next);
-                                } else {
-                                    if (!completed.getAndSet(true)) {
-                                        subscriber.onComplete();
-                                    }
-                                    break;
-                                }
-                            } finally {
-                                iterateConcurrentLock.unlock();
-                            }
+                        item = Objects.requireNonNull(iterator.next(), "iterator returned null!");
+                    } catch (Throwable t) {
+                        cancelled = true;
+                        downstream.onError(t);
+                        return;
+                    }
+                    downstream.onNext(item);
+                    emitted++;
+                    try {
+                        hasNext = iterator.hasNext();
+                    } catch (Throwable t) {
+                        if (!cancelled) {
+                            cancelled = true;
+                            downstream.onError(t);
+                        }
+                        return;
+                    }
+                    if (!hasNext) {
+                        if (!cancelled) {
+                            cancelled = true;
+                            downstream.onComplete();
                         }
-                    } finally {
-                        trampolineLock.set(false);
+                        return;
                     }
                 }
+                if (isTerminated()) {
+                    return;
+                }
+                requested = get();
+                if (requested == emitted) {
+                    requested = addAndGet(-emitted);
+                    if (requested == 0L) {
+                        return;
+                    }
+                    emitted = 0L;
+                }
             }
+        }
 
-            @Override
-            public void cancel() {
-                cancelled.set(true);
+        private boolean isTerminated() {
+            if (cancelled) {
+                return true;
             }
-        });
+            IllegalArgumentException e = requestError;
+            if (e != null) {
+                cancelled = true;
+                downstream.onError(e);
+                return true;
+            }
+            return false;
+        }
     }
-
 }
@@ -17,9 +17,14 @@ package io.helidon.common.reactive;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Flow;
 import java.util.concurrent.Flow.Publisher;
 import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -33,6 +38,11 @@ import io.helidon.common.mapper.Mapper;
  */
 public interface Multi<T> extends Subscribable<T> {
 
+    /**
+     * Default number of items prefetched by the operators which queue items, e.g. {@link #observeOn(Executor)}.
+     */
+    int DEFAULT_BUFFER_SIZE = 32;
+
     /**
      * Map this {@link Multi} instance to a new {@link Multi} of another type using the given {@link Mapper}.
      *
@@ -42,9 +52,7 @@ public interface Multi<T> extends Subscribable<T> {
      * @throws NullPointerException if mapper is {@code null}
      */
     default <U> Multi<U> map(Mapper<T, U> mapper) {
-        MultiMapProcessor<T, U> processor = MultiMapProcessor.create(mapper);
-        this.subscribe(processor);
-        return processor;
+        return MultiMap.create(this, mapper);
     }
 
     /**
@@ -136,14 +144,30 @@ public interface Multi<T> extends Subscribable<T> {
 
     /**
      * Transform item with supplied function and flatten resulting {@link Flow.Publisher} to downstream.
+     * Up to {@value #DEFAULT_BUFFER_SIZE} publishers are subscribed at a time, each prefetching up to
+     * {@value #DEFAULT_BUFFER_SIZE} items; items of different publishers may interleave.
      *
      * @param publisherMapper {@link Function} receiving item as parameter and returning {@link Flow.Publisher}
      * @return Multi
      */
     default Multi<T> flatMap(Function<T, Flow.Publisher<T>> publisherMapper) {
-        MultiFlatMapProcessor<T> processor = MultiFlatMapProcessor.fromPublisherMapper(publisherMapper);
-        this.subscribe(processor);
-        return processor;
+        return flatMap(publisherMapper, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Transform item with supplied function and flatten resulting {@link Flow.Publisher} to downstream.
+     * A {@code maxConcurrency} of {@code 1} subscribes the publishers one after another and so keeps the order of
+     * their items.
+     *
+     * @param <U>             item type of the publishers
+     * @param publisherMapper {@link Function} receiving item as parameter and returning {@link Flow.Publisher}
+     * @param maxConcurrency  maximum number of publishers subscribed at a time, {@code Long.MAX_VALUE} for unbounded
+     * @param prefetch        number of items requested from each publisher in advance
+     * @return Multi
+     * @throws IllegalArgumentException if maxConcurrency or prefetch is not positive
+     */
+    default <U> Multi<U> flatMap(Function<T, Flow.Publisher<U>> publisherMapper, long maxConcurrency, int prefetch) {
+        return new MultiFlatMap<>(this, publisherMapper, maxConcurrency, prefetch);
     }
 
     /**
@@ -153,9 +177,157 @@ public interface Multi<T> extends Subscribable<T> {
      * @return Multi
      */
     default Multi<T> flatMapIterable(Function<T, Iterable<T>> iterableMapper) {
-        MultiFlatMapProcessor<T> processor = MultiFlatMapProcessor.fromIterableMapper(iterableMapper);
-        this.subscribe(processor);
-        return processor;
+        // iterable publishers are consumed by flatMap directly, without a subscription per item
+        return new MultiFlatMap<T, T>(this,
+                                      item -> IterablePublisher.create(iterableMapper.apply(item)),
+                                      DEFAULT_BUFFER_SIZE,
+                                      DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Signal the items and the terminal signal of this stream on the given executor, e.g. to offload blocking
+     * processing from the thread producing the items. Up to {@value #DEFAULT_BUFFER_SIZE} items are prefetched.
+     *
+     * @param executor executor to signal the downstream on
+     * @return Multi
+     * @throws NullPointerException if executor is {@code null}
+     */
+    default Multi<T> observeOn(Executor executor) {
+        return observeOn(executor, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Signal the items and the terminal signal of this stream on the given executor, e.g. to offload blocking
+     * processing from the thread producing the items.
+     *
+     * @param executor   executor to signal the downstream on
+     * @param bufferSize number of items prefetched from this stream
+     * @return Multi
+     * @throws NullPointerException     if executor is {@code null}
+     * @throws IllegalArgumentException if buffer size is not positive
+     */
+    default Multi<T> observeOn(Executor executor, int bufferSize) {
+        return new MultiObserveOn<>(this, executor, bufferSize);
+    }
+
+    /**
+     * Subscribe to this stream on the given executor, e.g. when the source produces its items on the subscribing
+     * thread.
+     *
+     * @param executor executor to subscribe on
+     * @return Multi
+     * @throws NullPointerException if executor is {@code null}
+     */
+    default Multi<T> subscribeOn(Executor executor) {
+        return new MultiSubscribeOn<>(this, executor);
+    }
+
+    /**
+     * Collect the items of this stream into lists of the given size, the last list may be smaller.
+     *
+     * @param size number of items in a list
+     * @return Multi
+     * @throws IllegalArgumentException if size is not positive
+     */
+    default Multi<List<T>> buffer(int size) {
+        return new MultiBuffer<>(this, size);
+    }
+
+    /**
+     * Split the items of this stream into windows of the given size, the last window may be smaller. Each window
+     * can be subscribed to once, its items are queued until requested.
+     *
+     * @param size number of items in a window
+     * @return Multi
+     * @throws IllegalArgumentException if size is not positive
+     */
+    default Multi<Multi<T>> window(int size) {
+        return new MultiWindow<>(this, size);
+    }
+
+    /**
+     * Signal a {@link java.util.concurrent.TimeoutException} and cancel this stream if the next item or the completion
+     * does not arrive within the given timeout.
+     *
+     * @param timeout  maximal time to wait for the next signal
+     * @param unit     unit of the timeout
+     * @param executor executor to schedule the timeouts on
+     * @return Multi
+     * @throws NullPointerException if unit or executor is {@code null}
+     */
+    default Multi<T> timeout(long timeout, TimeUnit unit, ScheduledExecutorService executor) {
+        return new MultiTimeout<>(this, timeout, unit, executor);
+    }
+
+    /**
+     * Resubscribe to this stream when it fails, at most the given number of times.
+     *
+     * @param count maximal number of retries
+     * @return Multi
+     * @throws IllegalArgumentException if count is negative
+     */
+    default Multi<T> retry(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Retry count must not be negative, but is: " + count);
+        }
+        return retry((error, retry) -> retry <= count);
+    }
+
+    /**
+     * Resubscribe to this stream when it fails, as long as the predicate, given the error and the number of
+     * the retry starting with {@code 1}, returns {@code true}.
+     *
+     * @param predicate whether to retry
+     * @return Multi
+     * @throws NullPointerException if predicate is {@code null}
+     */
+    default Multi<T> retry(BiPredicate<? super Throwable, ? super Long> predicate) {
+        return new MultiRetry<>(this, predicate);
+    }
+
+    /**
+     * Request all items of this stream and queue those not requested yet by the downstream.
+     *
+     * @return Multi
+     */
+    default Multi<T> onBackpressureBuffer() {
+        return new MultiOnBackpressureBuffer<>(this, 0);
+    }
+
+    /**
+     * Request all items of this stream and queue up to the given number of items not requested yet by
+     * the downstream, fail with {@link BackPressureOverflowException} when the queue is full.
+     *
+     * @param capacity maximal number of queued items
+     * @return Multi
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    default Multi<T> onBackpressureBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, but is: " + capacity);
+        }
+        return new MultiOnBackpressureBuffer<>(this, capacity);
+    }
+
+    /**
+     * Request all items of this stream and drop those not requested by the downstream.
+     *
+     * @return Multi
+     */
+    default Multi<T> onBackpressureDrop() {
+        return onBackpressureDrop(item -> { });
+    }
+
+    /**
+     * Request all items of this stream and drop those not requested by the downstream, passing them to
+     * the given consumer.
+     *
+     * @param onDrop consumer of the dropped items
+     * @return Multi
+     * @throws NullPointerException if onDrop is {@code null}
+     */
+    default Multi<T> onBackpressureDrop(Consumer<? super T> onDrop) {
+        return new MultiOnBackpressureDrop<>(this, onDrop);
     }
 
     /**
@@ -289,6 +461,37 @@ public interface Multi<T> extends Subscribable<T> {
         return MultiNever.instance();
     }
 
+    /**
+     * Merge the items of the given streams as they arrive, the streams are subscribed to at once.
+     *
+     * @param sources streams to merge
+     * @param <T>     item type
+     * @return Multi
+     * @throws NullPointerException if any of the sources is {@code null}
+     */
+    @SafeVarargs
+    static <T> Multi<T> merge(Publisher<? extends T>... sources) {
+        return new MultiMerge<>(sources, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Combine the items of two streams pairwise, the resulting stream completes when either of the streams does.
+     *
+     * @param first  first stream
+     * @param second second stream
+     * @param zipper function combining an item of each stream
+     * @param <T>    item type of the first stream
+     * @param <U>    item type of the second stream
+     * @param <R>    item type of the combined items
+     * @return Multi
+     * @throws NullPointerException if any of the parameters is {@code null}
+     */
+    static <T, U, R> Multi<R> zip(Publisher<? extends T> first,
+                                  Publisher<? extends U> second,
+                                  BiFunction<? super T, ? super U, ? extends R> zipper) {
+        return new MultiZip<>(first, second, zipper, DEFAULT_BUFFER_SIZE);
+    }
+
     /**
      * Concat streams to one.
      *
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+/**
+ * Collects the items of the upstream into lists of the given size, the last list may be smaller.
+ * <p>
+ * A request of {@code n} lists is translated to a request of {@code n * size} items, so no item is buffered beyond
+ * the list being filled.
+ *
+ * @param <T> item type
+ */
+final class MultiBuffer<T> implements Multi<List<T>> {
+
+    private final Flow.Publisher<T> source;
+    private final int size;
+
+    MultiBuffer(Flow.Publisher<T> source, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive, but is: " + size);
+        }
+        this.source = source;
+        this.size = size;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<T>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        source.subscribe(new BufferSubscriber<>(subscriber, size));
+    }
+
+    private static final class BufferSubscriber<T> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super List<T>> downstream;
+        private final int size;
+
+        private Flow.Subscription upstream;
+        private List<T> buffer;
+        private boolean done;
+
+        private BufferSubscriber(Flow.Subscriber<? super List<T>> downstream, int size) {
+            this.downstream = downstream;
+            this.size = size;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            List<T> current = buffer;
+            if (current == null) {
+                current = new ArrayList<>(size);
+                buffer = current;
+            }
+            current.add(item);
+            if (current.size() == size) {
+                buffer = null;
+                downstream.onNext(current);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            buffer = null;
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            List<T> current = buffer;
+            buffer = null;
+            if (current != null) {
+                // a partial list means fewer items than requested were produced, so there is demand for it
+                downstream.onNext(current);
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            // a non-positive request is passed on for the upstream to signal the rule 3.9 violation
+            upstream.request((n <= 0L) ? n : SubscriptionHelper.multiplyCap(n, size));
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Maps each item to a publisher and flattens the items of up to {@code maxConcurrency} of those publishers at a time.
+ * <p>
+ * Each inner publisher is prefetched into its own {@link SpscArrayQueue} of {@code prefetch} items, which is
+ * replenished once three quarters of it were emitted. A single drain loop emits from the queues in the order the
+ * inner publishers were mapped, so items of one inner publisher keep their order, while items of different ones may
+ * interleave if they are asynchronous.
+ * <p>
+ * Inner publishers created by {@link Multi#from(Iterable)} are fused: their iterator is consumed by the drain loop
+ * directly, without a subscription or a queue. Empty inner publishers are skipped.
+ *
+ * @param <T> item type of the upstream
+ * @param <R> item type of the inner publishers
+ */
+final class MultiFlatMap<T, R> implements Multi<R> {
+
+    private final Flow.Publisher<T> source;
+    private final Function<? super T, ? extends Flow.Publisher<? extends R>> mapper;
+    private final long maxConcurrency;
+    private final int prefetch;
+
+    MultiFlatMap(Flow.Publisher<T> source,
+                 Function<? super T, ? extends Flow.Publisher<? extends R>> mapper,
+                 long maxConcurrency,
+                 int prefetch) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be positive, but is: " + maxConcurrency);
+        }
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch must be positive, but is: " + prefetch);
+        }
+        this.source = source;
+        this.mapper = Objects.requireNonNull(mapper, "mapper is null!");
+        this.maxConcurrency = maxConcurrency;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        source.subscribe(new FlatMapSubscriber<>(subscriber, mapper, maxConcurrency, prefetch));
+    }
+
+    private static final class FlatMapSubscriber<T, R> extends AtomicInteger
+            implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super R> downstream;
+        private final Function<? super T, ? extends Flow.Publisher<? extends R>> mapper;
+        private final long maxConcurrency;
+        private final int prefetch;
+        private final Queue<Inner<R>> inners = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private volatile Flow.Subscription upstream;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+
+        private FlatMapSubscriber(Flow.Subscriber<? super R> downstream,
+                                  Function<? super T, ? extends Flow.Publisher<? extends R>> mapper,
+                                  long maxConcurrency,
+                                  int prefetch) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            subscription.request(maxConcurrency);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            Flow.Publisher<? extends R> publisher;
+            try {
+                publisher = Objects.requireNonNull(mapper.apply(item), "mapper returned null!");
+            } catch (Throwable t) {
+                upstream.cancel();
+                onError(t);
+                return;
+            }
+            if (publisher instanceof MultiEmpty) {
+                replenish(1L);
+                return;
+            }
+            if (publisher instanceof IterablePublisher) {
+                Iterator<? extends R> iterator;
+                try {
+                    iterator = ((IterablePublisher<? extends R>) publisher).iterator();
+                } catch (Throwable t) {
+                    upstream.cancel();
+                    onError(t);
+                    return;
+                }
+                inners.offer(new IteratorInner<>(iterator));
+                drain();
+                return;
+            }
+            InnerSubscriber<R> inner = new InnerSubscriber<>(this, prefetch);
+            inners.offer(inner);
+            publisher.subscribe(inner);
+            if (cancelled) {
+                // the inner may have been added after the inners were cleared
+                inner.cancelUpstream();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            innerError(Objects.requireNonNull(throwable, "throwable is null!"));
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (StreamValidationUtils.checkRequestParam(n, this::innerError)) {
+                SubscriptionHelper.addRequest(requested, n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            upstream.cancel();
+            if (getAndIncrement() == 0) {
+                clear();
+            }
+        }
+
+        private void innerError(Throwable throwable) {
+            if (error.compareAndSet(null, throwable)) {
+                drain();
+            }
+        }
+
+        private void replenish(long n) {
+            if (maxConcurrency != Long.MAX_VALUE && !done) {
+                upstream.request(n);
+            }
+        }
+
+        private void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long r = requested.get();
+                long e = 0L;
+                long finished = 0L;
+                Iterator<Inner<R>> it = inners.iterator();
+                while (it.hasNext()) {
+                    Inner<R> inner = it.next();
+                    boolean innerDone;
+                    try {
+                        while (e != r) {
+                            if (checkTerminated()) {
+                                return;
+                            }
+                            R item = inner.poll();
+                            if (item == null) {
+                                break;
+                            }
+                            downstream.onNext(item);
+                            inner.consumed();
+                            e++;
+                        }
+                        innerDone = inner.isDone();
+                    } catch (Throwable t) {
+                        inner.cancel();
+                        upstream.cancel();
+                        error.compareAndSet(null, t);
+                        break;
+                    }
+                    if (innerDone) {
+                        it.remove();
+                        finished++;
+                    }
+                }
+                if (checkTerminated()) {
+                    return;
+                }
+                if (done && inners.isEmpty()) {
+                    cancelled = true;
+                    downstream.onComplete();
+                    return;
+                }
+                if (e != 0L) {
+                    SubscriptionHelper.produced(requested, e);
+                }
+                if (finished != 0L) {
+                    replenish(finished);
+                }
+                missed = addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private boolean checkTerminated() {
+            if (cancelled) {
+                clear();
+                return true;
+            }
+            Throwable throwable = error.get();
+            if (throwable != null) {
+                cancelled = true;
+                upstream.cancel();
+                clear();
+                downstream.onError(throwable);
+                return true;
+            }
+            return false;
+        }
+
+        private void clear() {
+            Inner<R> inner = inners.poll();
+            while (inner != null) {
+                inner.cancel();
+                inner = inners.poll();
+            }
+        }
+    }
+
+    /**
+     * Source of the items of one inner publisher, polled by the drain loop only.
+     *
+     * @param <R> item type
+     */
+    private abstract static class Inner<R> {
+
+        /**
+         * Next item of this inner publisher.
+         *
+         * @return the item or {@code null} if none is available now
+         */
+        abstract R poll();
+
+        /**
+         * Whether this inner publisher completed and all its items were polled.
+         *
+         * @return {@code true} if done
+         */
+        abstract boolean isDone();
+
+        /**
+         * Called after a polled item was emitted.
+         */
+        abstract void consumed();
+
+        /**
+         * Cancels this inner publisher and drops its items.
+         */
+        abstract void cancel();
+    }
+
+    private static final class IteratorInner<R> extends Inner<R> {
+
+        private final Iterator<? extends R> iterator;
+
+        private IteratorInner(Iterator<? extends R> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        R poll() {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            return Objects.requireNonNull(iterator.next(), "iterator returned null!");
+        }
+
+        @Override
+        boolean isDone() {
+            return !iterator.hasNext();
+        }
+
+        @Override
+        void consumed() {
+        }
+
+        @Override
+        void cancel() {
+        }
+    }
+
+    private static final class InnerSubscriber<R> extends Inner<R> implements Flow.Subscriber<R> {
+
+        private final FlatMapSubscriber<?, R> parent;
+        private final int prefetch;
+        private final int limit;
+        private final SpscArrayQueue<R> queue;
+        private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+
+        private volatile boolean done;
+        // accessed only by the draining thread
+        private int consumed;
+
+        private InnerSubscriber(FlatMapSubscriber<?, R> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (!upstream.compareAndSet(null, subscription)) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(prefetch);
+        }
+
+        @Override
+        public void onNext(R item) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(Objects.requireNonNull(item, "item is null!"))) {
+                done = true;
+                cancelUpstream();
+                parent.innerError(new BackPressureOverflowException(prefetch));
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.innerError(Objects.requireNonNull(throwable, "throwable is null!"));
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.drain();
+        }
+
+        @Override
+        R poll() {
+            return queue.poll();
+        }
+
+        @Override
+        boolean isDone() {
+            // done is read before the queue, so that no item offered before completion is missed
+            return done && queue.isEmpty();
+        }
+
+        @Override
+        void consumed() {
+            if (++consumed == limit) {
+                consumed = 0;
+                upstream.get().request(limit);
+            }
+        }
+
+        @Override
+        void cancel() {
+            cancelUpstream();
+            queue.clear();
+        }
+
+        private void cancelUpstream() {
+            Flow.Subscription subscription = upstream.getAndSet(EmptySubscription.INSTANCE);
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -29,7 +29,10 @@ import java.util.function.Function;
  * Flatten the elements emitted by publishers produced by the mapper function to this stream.
  *
  * @param <T> item type
+ * @deprecated {@link Multi#flatMap(Function)} and {@link Multi#flatMapIterable(Function)} no longer use this processor,
+ * use them instead
  */
+@Deprecated
 public class MultiFlatMapProcessor<T> implements Flow.Processor<T, T>, Multi<T> {
 
     private static final int DEFAULT_BUFFER_SIZE = 64;
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+import io.helidon.common.mapper.Mapper;
+
+/**
+ * Maps each item with the given mapper. Requests and cancellation are passed to the upstream as they are, so the
+ * operator neither buffers nor synchronizes anything.
+ * <p>
+ * Consecutive maps are fused into a single stage with the composed mapper.
+ *
+ * @param <T> subscribed type
+ * @param <U> published type
+ */
+final class MultiMap<T, U> implements Multi<U> {
+
+    private static final String NULL_VALUE = "Mapper returned a null value";
+
+    private final Flow.Publisher<T> source;
+    private final Mapper<T, U> mapper;
+
+    private MultiMap(Flow.Publisher<T> source, Mapper<T, U> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Create a new map stage, fused with the given source if it is a map stage as well.
+     *
+     * @param source source publisher
+     * @param mapper mapper of the items
+     * @param <T>    subscribed type
+     * @param <U>    published type
+     * @return Multi
+     */
+    @SuppressWarnings("unchecked")
+    static <T, U> Multi<U> create(Flow.Publisher<T> source, Mapper<T, U> mapper) {
+        Objects.requireNonNull(mapper, "mapper is null!");
+        if (source instanceof MultiMap) {
+            MultiMap<Object, T> previous = (MultiMap<Object, T>) source;
+            Mapper<Object, T> first = previous.mapper;
+            return new MultiMap<>(previous.source, item -> mapper.map(Objects.requireNonNull(first.map(item), NULL_VALUE)));
+        }
+        return new MultiMap<>(source, mapper);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super U> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        source.subscribe(new MapSubscriber<>(subscriber, mapper));
+    }
+
+    private static final class MapSubscriber<T, U> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super U> downstream;
+        private final Mapper<T, U> mapper;
+
+        private Flow.Subscription upstream;
+        private boolean done;
+
+        private MapSubscriber(Flow.Subscriber<? super U> downstream, Mapper<T, U> mapper) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            U value;
+            try {
+                value = Objects.requireNonNull(mapper.map(item), NULL_VALUE);
+            } catch (Throwable t) {
+                upstream.cancel();
+                onError(t);
+                return;
+            }
+            downstream.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
@@ -26,7 +26,9 @@ import io.helidon.common.mapper.Mapper;
  *
  * @param <T> subscribed type
  * @param <U> published type
+ * @deprecated {@link Multi#map(io.helidon.common.mapper.Mapper)} no longer uses this processor, use it instead
  */
+@Deprecated
 public final class MultiMapProcessor<T, U> extends BufferedProcessor<T, U> implements Multi<U> {
 
     private final Mapper<T, U> mapper;
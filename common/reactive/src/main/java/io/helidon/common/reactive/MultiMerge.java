@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Subscribes to all sources at once and emits their items as they arrive.
+ * <p>
+ * Each source is prefetched into its own queue of {@code prefetch} items, the queues are drained in turns while
+ * the downstream has demand. The first error cancels all sources.
+ *
+ * @param <T> item type
+ */
+final class MultiMerge<T> implements Multi<T> {
+
+    private final Flow.Publisher<? extends T>[] sources;
+    private final int prefetch;
+
+    MultiMerge(Flow.Publisher<? extends T>[] sources, int prefetch) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch must be positive, but is: " + prefetch);
+        }
+        for (Flow.Publisher<? extends T> source : sources) {
+            Objects.requireNonNull(source, "source is null!");
+        }
+        this.sources = sources;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        MergeSubscription<T> parent = new MergeSubscription<>(subscriber, sources.length, prefetch);
+        subscriber.onSubscribe(parent);
+        parent.subscribe(sources);
+    }
+
+    private static final class MergeSubscription<T> extends AtomicInteger implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> downstream;
+        private final InnerSubscriber<T>[] inners;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private volatile boolean cancelled;
+        // accessed only by the draining thread
+        private int next;
+
+        @SuppressWarnings("unchecked")
+        private MergeSubscription(Flow.Subscriber<? super T> downstream, int count, int prefetch) {
+            this.downstream = downstream;
+            this.inners = new InnerSubscriber[count];
+            for (int i = 0; i < count; i++) {
+                inners[i] = new InnerSubscriber<>(this, prefetch);
+            }
+        }
+
+        private void subscribe(Flow.Publisher<? extends T>[] sources) {
+            for (int i = 0; i < sources.length && !cancelled; i++) {
+                sources[i].subscribe(inners[i]);
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (StreamValidationUtils.checkRequestParam(n, this::innerError)) {
+                SubscriptionHelper.addRequest(requested, n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            cancelAll();
+            if (getAndIncrement() == 0) {
+                clearAll();
+            }
+        }
+
+        private void innerError(Throwable throwable) {
+            if (error.compareAndSet(null, throwable)) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            int count = inners.length;
+            do {
+                long r = requested.get();
+                long e = 0L;
+                while (e != r) {
+                    if (checkTerminated()) {
+                        return;
+                    }
+                    boolean emitted = false;
+                    for (int i = 0; i < count && e != r; i++) {
+                        InnerSubscriber<T> inner = inners[next];
+                        next = (next + 1 == count) ? 0 : next + 1;
+                        T item = inner.queue.poll();
+                        if (item != null) {
+                            downstream.onNext(item);
+                            inner.consumed();
+                            e++;
+                            emitted = true;
+                        }
+                    }
+                    if (!emitted) {
+                        break;
+                    }
+                }
+                if (checkTerminated()) {
+                    return;
+                }
+                if (e != 0L) {
+                    SubscriptionHelper.produced(requested, e);
+                }
+                missed = addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private boolean checkTerminated() {
+            if (cancelled) {
+                clearAll();
+                return true;
+            }
+            Throwable throwable = error.get();
+            if (throwable != null) {
+                cancelled = true;
+                cancelAll();
+                clearAll();
+                downstream.onError(throwable);
+                return true;
+            }
+            for (InnerSubscriber<T> inner : inners) {
+                // done is read before the queue, so that no item offered before completion is missed
+                if (!inner.done || !inner.queue.isEmpty()) {
+                    return false;
+                }
+            }
+            downstream.onComplete();
+            return true;
+        }
+
+        private void cancelAll() {
+            for (InnerSubscriber<T> inner : inners) {
+                inner.cancel();
+            }
+        }
+
+        private void clearAll() {
+            for (InnerSubscriber<T> inner : inners) {
+                inner.queue.clear();
+            }
+        }
+    }
+
+    private static final class InnerSubscriber<T> implements Flow.Subscriber<T> {
+
+        private final MergeSubscription<T> parent;
+        private final int prefetch;
+        private final int limit;
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+
+        private volatile boolean done;
+        // accessed only by the draining thread
+        private int consumed;
+
+        private InnerSubscriber(MergeSubscription<T> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (!upstream.compareAndSet(null, subscription)) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(prefetch);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            queue.offer(Objects.requireNonNull(item, "item is null!"));
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.innerError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.drain();
+        }
+
+        private void consumed() {
+            if (++consumed == limit) {
+                consumed = 0;
+                upstream.get().request(limit);
+            }
+        }
+
+        private void cancel() {
+            Flow.Subscription subscription = upstream.getAndSet(EmptySubscription.INSTANCE);
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signals the items of the upstream to the downstream on the given executor.
+ * <p>
+ * Up to {@code bufferSize} items are prefetched from the upstream into a queue, which is drained on the executor
+ * whenever there is downstream demand; three quarters of a buffer are requested again once they were emitted.
+ * An error is signalled as soon as it is received, items still in the queue are dropped.
+ *
+ * @param <T> item type
+ */
+final class MultiObserveOn<T> implements Multi<T> {
+
+    private final Flow.Publisher<T> source;
+    private final Executor executor;
+    private final int bufferSize;
+
+    MultiObserveOn(Flow.Publisher<T> source, Executor executor, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive, but is: " + bufferSize);
+        }
+        this.source = source;
+        this.executor = Objects.requireNonNull(executor, "executor is null!");
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        source.subscribe(new ObserveOnSubscriber<>(subscriber, executor, bufferSize));
+    }
+
+    private static final class ObserveOnSubscriber<T> extends AtomicInteger
+            implements Flow.Subscriber<T>, Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super T> downstream;
+        private final Executor executor;
+        private final int bufferSize;
+        private final int limit;
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+
+        private volatile Flow.Subscription upstream;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        private Throwable error;
+        // accessed only by the draining thread
+        private int consumed;
+
+        private ObserveOnSubscriber(Flow.Subscriber<? super T> downstream, Executor executor, int bufferSize) {
+            this.downstream = downstream;
+            this.executor = executor;
+            this.bufferSize = bufferSize;
+            this.limit = bufferSize - (bufferSize >> 2);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            subscription.request(bufferSize);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            queue.offer(Objects.requireNonNull(item, "item is null!"));
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            error = Objects.requireNonNull(throwable, "throwable is null!");
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (!StreamValidationUtils.checkRequestParam(n, this::requestError)) {
+                return;
+            }
+            SubscriptionHelper.addRequest(requested, n);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            upstream.cancel();
+            if (getAndIncrement() == 0) {
+                queue.clear();
+            }
+        }
+
+        private void requestError(IllegalArgumentException e) {
+            upstream.cancel();
+            onError(e);
+        }
+
+        private void schedule() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // the work-in-progress counter is never released, so no other signal reaches the downstream
+                cancelled = true;
+                upstream.cancel();
+                queue.clear();
+                downstream.onError(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                long r = requested.get();
+                long e = 0L;
+                while (e != r) {
+                    boolean d = done;
+                    T item = queue.poll();
+                    if (checkTerminated(d, item == null)) {
+                        return;
+                    }
+                    if (item == null) {
+                        break;
+                    }
+                    downstream.onNext(item);
+                    e++;
+                    if (++consumed == limit) {
+                        consumed = 0;
+                        upstream.request(limit);
+                    }
+                }
+                if (e == r && checkTerminated(done, queue.isEmpty())) {
+                    return;
+                }
+                if (e != 0L) {
+                    SubscriptionHelper.produced(requested, e);
+                }
+                missed = addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private boolean checkTerminated(boolean d, boolean empty) {
+            if (cancelled) {
+                queue.clear();
+                return true;
+            }
+            if (d) {
+                Throwable throwable = error;
+                if (throwable != null) {
+                    // errors are not delayed behind the queued items
+                    queue.clear();
+                    downstream.onError(throwable);
+                    return true;
+                }
+                if (empty) {
+                    downstream.onComplete();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Requests all items from the upstream and queues those the downstream did not request yet. If the queue is bounded
+ * and full, the upstream is cancelled and a {@link BackPressureOverflowException} is signalled.
+ *
+ * @param <T> item type
+ */
+final class MultiOnBackpressureBuffer<T> implements Multi<T> {
+
+    private final Flow.Publisher<T> source;
+    // 0 for an unbounded queue
+    private final int capacity;
+
+    MultiOnBackpressureBuffer(Flow.Publisher<T> source, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative, but is: " + capacity);
+        }
+        this.source = source;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        Queue<T> queue = (capacity == 0) ? new ConcurrentLinkedQueue<>() : new ArrayBlockingQueue<>(capacity);
+        source.subscribe(new BufferSubscriber<>(subscriber, queue, capacity));
+    }
+
+    private static final class BufferSubscriber<T> extends AtomicInteger implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> downstream;
+        private final Queue<T> queue;
+        private final int capacity;
+        private final AtomicLong requested = new AtomicLong();
+
+        private volatile Flow.Subscription upstream;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        // signalled without delivering the queued items first
+        private volatile Throwable requestError;
+        private Throwable error;
+
+        private BufferSubscriber(Flow.Subscriber<? super T> downstream, Queue<T> queue, int capacity) {
+            this.downstream = downstream;
+            this.queue = queue;
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(Objects.requireNonNull(item, "item is null!"))) {
+                upstream.cancel();
+                onError(new BackPressureOverflowException(capacity));
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            error = Objects.requireNonNull(throwable, "throwable is null!");
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (!StreamValidationUtils.checkRequestParam(n, this::requestError)) {
+                return;
+            }
+            SubscriptionHelper.addRequest(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            upstream.cancel();
+            if (getAndIncrement() == 0) {
+                queue.clear();
+            }
+        }
+
+        private void requestError(IllegalArgumentException e) {
+            upstream.cancel();
+            requestError = e;
+            drain();
+        }
+
+        private void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long r = requested.get();
+                long e = 0L;
+                while (e != r) {
+                    boolean d = done;
+                    T item = queue.poll();
+                    if (checkTerminated(d, item == null)) {
+                        return;
+                    }
+                    if (item == null) {
+                        break;
+                    }
+                    downstream.onNext(item);
+                    e++;
+                }
+                if (e == r && checkTerminated(done, queue.isEmpty())) {
+                    return;
+                }
+                if (e != 0L) {
+                    SubscriptionHelper.produced(requested, e);
+                }
+                missed = addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private boolean checkTerminated(boolean d, boolean empty) {
+            if (cancelled) {
+                queue.clear();
+                return true;
+            }
+            Throwable invalidRequest = requestError;
+            if (invalidRequest != null) {
+                queue.clear();
+                downstream.onError(invalidRequest);
+                return true;
+            }
+            if (d && empty) {
+                // the queued items are delivered before the error, the overflow error included
+                Throwable throwable = error;
+                if (throwable == null) {
+                    downstream.onComplete();
+                } else {
+                    downstream.onError(throwable);
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
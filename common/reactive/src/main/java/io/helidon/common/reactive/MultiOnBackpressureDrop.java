@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Requests all items from the upstream and drops those the downstream did not request, passing them to the given
+ * consumer.
+ *
+ * @param <T> item type
+ */
+final class MultiOnBackpressureDrop<T> implements Multi<T> {
+
+    private final Flow.Publisher<T> source;
+    private final Consumer<? super T> onDrop;
+
+    MultiOnBackpressureDrop(Flow.Publisher<T> source, Consumer<? super T> onDrop) {
+        this.source = source;
+        this.onDrop = Objects.requireNonNull(onDrop, "onDrop is null!");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        source.subscribe(new DropSubscriber<>(subscriber, onDrop));
+    }
+
+    private static final class DropSubscriber<T> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> downstream;
+        private final Consumer<? super T> onDrop;
+        private final AtomicLong requested = new AtomicLong();
+
+        private Flow.Subscription upstream;
+        private boolean done;
+
+        private DropSubscriber(Flow.Subscriber<? super T> downstream, Consumer<? super T> onDrop) {
+            this.downstream = downstream;
+            this.onDrop = onDrop;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            if (requested.get() != 0L) {
+                downstream.onNext(item);
+                SubscriptionHelper.produced(requested, 1L);
+                return;
+            }
+            try {
+                onDrop.accept(item);
+            } catch (Throwable t) {
+                upstream.cancel();
+                onError(t);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0L) {
+                // passed on for the upstream to signal the rule 3.9 violation
+                upstream.request(n);
+                return;
+            }
+            SubscriptionHelper.addRequest(requested, n);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+/**
+ * Resubscribes to the upstream when it fails and the predicate, given the error and the number of the retry,
+ * allows it. Outstanding demand is carried over to the new subscription.
+ *
+ * @param <T> item type
+ */
+final class MultiRetry<T> implements Multi<T> {
+
+    private final Flow.Publisher<T> source;
+    private final BiPredicate<? super Throwable, ? super Long> predicate;
+
+    MultiRetry(Flow.Publisher<T> source, BiPredicate<? super Throwable, ? super Long> predicate) {
+        this.source = source;
+        this.predicate = Objects.requireNonNull(predicate, "predicate is null!");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        RetrySubscription<T> parent = new RetrySubscription<>(source, predicate, subscriber);
+        subscriber.onSubscribe(parent.arbiter);
+        parent.subscribeNext();
+    }
+
+    private static final class RetrySubscription<T> {
+
+        private final Flow.Publisher<T> source;
+        private final BiPredicate<? super Throwable, ? super Long> predicate;
+        private final Flow.Subscriber<? super T> downstream;
+        private final SubscriptionArbiter arbiter = new SubscriptionArbiter();
+        // trampolines the resubscriptions of synchronously failing sources
+        private final AtomicInteger wip = new AtomicInteger();
+        private long retries;
+
+        private RetrySubscription(Flow.Publisher<T> source,
+                                  BiPredicate<? super Throwable, ? super Long> predicate,
+                                  Flow.Subscriber<? super T> downstream) {
+            this.source = source;
+            this.predicate = predicate;
+            this.downstream = downstream;
+        }
+
+        private void subscribeNext() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                if (arbiter.isCancelled()) {
+                    return;
+                }
+                source.subscribe(new Attempt());
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        /**
+         * Subscriber of a single subscription to the upstream.
+         */
+        private final class Attempt implements Flow.Subscriber<T> {
+            private long produced;
+            private boolean done;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                Objects.requireNonNull(subscription, "subscription is null!");
+                arbiter.setSubscription(subscription);
+            }
+
+            @Override
+            public void onNext(T item) {
+                if (done) {
+                    return;
+                }
+                produced++;
+                downstream.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                boolean retry;
+                try {
+                    retry = predicate.test(throwable, ++retries);
+                } catch (Throwable t) {
+                    t.addSuppressed(throwable);
+                    downstream.onError(t);
+                    return;
+                }
+                if (!retry) {
+                    downstream.onError(throwable);
+                    return;
+                }
+                if (produced != 0L) {
+                    arbiter.produced(produced);
+                }
+                subscribeNext();
+            }
+
+            @Override
+            public void onComplete() {
+                if (done) {
+                    return;
+                }
+                done = true;
+                downstream.onComplete();
+            }
+        }
+    }
+}
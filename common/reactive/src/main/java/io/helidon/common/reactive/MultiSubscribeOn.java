@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Subscribes to the upstream on the given executor, so that a source producing its items on the subscribing thread,
+ * e.g. a blocking database query, runs on that executor.
+ * <p>
+ * The downstream is subscribed immediately, items requested before the upstream subscription arrives are
+ * requested once it does.
+ *
+ * @param <T> item type
+ */
+final class MultiSubscribeOn<T> implements Multi<T> {
+
+    private final Flow.Publisher<T> source;
+    private final Executor executor;
+
+    MultiSubscribeOn(Flow.Publisher<T> source, Executor executor) {
+        this.source = source;
+        this.executor = Objects.requireNonNull(executor, "executor is null!");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        SubscribeOnSubscriber<T> parent = new SubscribeOnSubscriber<>(subscriber);
+        subscriber.onSubscribe(parent);
+        try {
+            executor.execute(() -> source.subscribe(parent));
+        } catch (RejectedExecutionException e) {
+            parent.onError(e);
+        }
+    }
+
+    private static final class SubscribeOnSubscriber<T> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private static final Flow.Subscription CANCELLED = EmptySubscription.INSTANCE;
+
+        private final Flow.Subscriber<? super T> downstream;
+        private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+        // requested before the upstream subscription arrived
+        private final AtomicLong deferred = new AtomicLong();
+        private volatile long invalidRequest;
+
+        private SubscribeOnSubscriber(Flow.Subscriber<? super T> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (!upstream.compareAndSet(null, subscription)) {
+                subscription.cancel();
+                return;
+            }
+            long invalid = invalidRequest;
+            if (invalid != 0L) {
+                // let the upstream signal the rule 3.9 violation
+                subscription.request(invalid);
+                return;
+            }
+            long r = deferred.getAndSet(0L);
+            if (r != 0L) {
+                subscription.request(r);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            downstream.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            Flow.Subscription subscription = upstream.get();
+            if (subscription != null) {
+                subscription.request(n);
+                return;
+            }
+            if (n <= 0L) {
+                invalidRequest = n;
+            } else {
+                SubscriptionHelper.addRequest(deferred, n);
+            }
+            // the upstream subscription may have arrived in the meantime
+            subscription = upstream.get();
+            if (subscription != null && subscription != CANCELLED) {
+                if (n <= 0L) {
+                    subscription.request(n);
+                    return;
+                }
+                long r = deferred.getAndSet(0L);
+                if (r != 0L) {
+                    subscription.request(r);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            Flow.Subscription subscription = upstream.getAndSet(CANCELLED);
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signals a {@link TimeoutException} and cancels the upstream if the first item, or the next item after the previous
+ * one, or the completion does not arrive within the given timeout.
+ *
+ * @param <T> item type
+ */
+final class MultiTimeout<T> implements Multi<T> {
+
+    private final Flow.Publisher<T> source;
+    private final long timeout;
+    private final TimeUnit unit;
+    private final ScheduledExecutorService executor;
+
+    MultiTimeout(Flow.Publisher<T> source, long timeout, TimeUnit unit, ScheduledExecutorService executor) {
+        this.source = source;
+        this.timeout = timeout;
+        this.unit = Objects.requireNonNull(unit, "unit is null!");
+        this.executor = Objects.requireNonNull(executor, "executor is null!");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        source.subscribe(new TimeoutSubscriber<>(subscriber, timeout, unit, executor));
+    }
+
+    private static final class TimeoutSubscriber<T> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        // index of the awaited item, TERMINATED once a terminal signal was sent downstream
+        private static final long TERMINATED = Long.MAX_VALUE;
+
+        private final Flow.Subscriber<? super T> downstream;
+        private final long timeout;
+        private final TimeUnit unit;
+        private final ScheduledExecutorService executor;
+        private final AtomicLong index = new AtomicLong();
+
+        private volatile Flow.Subscription upstream;
+        private volatile Future<?> task;
+
+        private TimeoutSubscriber(Flow.Subscriber<? super T> downstream,
+                                  long timeout,
+                                  TimeUnit unit,
+                                  ScheduledExecutorService executor) {
+            this.downstream = downstream;
+            this.timeout = timeout;
+            this.unit = unit;
+            this.executor = executor;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            schedule(0L);
+        }
+
+        @Override
+        public void onNext(T item) {
+            long current = index.get();
+            if (current == TERMINATED || !index.compareAndSet(current, current + 1)) {
+                // timed out already
+                return;
+            }
+            cancelTask();
+            downstream.onNext(item);
+            schedule(current + 1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (index.getAndSet(TERMINATED) != TERMINATED) {
+                cancelTask();
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (index.getAndSet(TERMINATED) != TERMINATED) {
+                cancelTask();
+                downstream.onComplete();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            index.set(TERMINATED);
+            cancelTask();
+            upstream.cancel();
+        }
+
+        private void schedule(long awaited) {
+            try {
+                task = executor.schedule(() -> timeout(awaited), timeout, unit);
+            } catch (RejectedExecutionException e) {
+                if (index.compareAndSet(awaited, TERMINATED)) {
+                    upstream.cancel();
+                    downstream.onError(e);
+                }
+            }
+        }
+
+        private void timeout(long awaited) {
+            if (index.compareAndSet(awaited, TERMINATED)) {
+                upstream.cancel();
+                downstream.onError(new TimeoutException("No signal received within " + timeout + " " + unit));
+            }
+        }
+
+        private void cancelTask() {
+            Future<?> current = task;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+}
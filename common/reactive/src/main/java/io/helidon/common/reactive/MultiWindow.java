@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits the items of the upstream into windows of the given size, each window is a {@link Multi} which can be
+ * subscribed to once; the last window may be smaller.
+ * <p>
+ * A request of {@code n} windows is translated to a request of {@code n * size} items. Items of a window are queued
+ * until its subscriber requests them, so at most {@code size} items are held per window. The upstream is cancelled
+ * once the downstream and the subscriber of the open window cancelled.
+ *
+ * @param <T> item type
+ */
+final class MultiWindow<T> implements Multi<Multi<T>> {
+
+    private final Flow.Publisher<T> source;
+    private final int size;
+
+    MultiWindow(Flow.Publisher<T> source, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be positive, but is: " + size);
+        }
+        this.source = source;
+        this.size = size;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Multi<T>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        source.subscribe(new WindowSubscriber<>(subscriber, size));
+    }
+
+    private static final class WindowSubscriber<T> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super Multi<T>> downstream;
+        private final int size;
+        // the downstream and each open window hold one reference to the upstream
+        private final AtomicInteger active = new AtomicInteger(1);
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        private volatile Flow.Subscription upstream;
+        private Window<T> window;
+        private int count;
+        private boolean done;
+
+        private WindowSubscriber(Flow.Subscriber<? super Multi<T>> downstream, int size) {
+            this.downstream = downstream;
+            this.size = size;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            Window<T> current = window;
+            if (current == null) {
+                if (cancelled.get()) {
+                    return;
+                }
+                active.incrementAndGet();
+                current = new Window<>(this);
+                window = current;
+                downstream.onNext(current);
+            }
+            current.offer(item);
+            if (++count == size) {
+                count = 0;
+                window = null;
+                current.complete(null);
+                release(current);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            Window<T> current = window;
+            window = null;
+            if (current != null) {
+                current.complete(throwable);
+            }
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            Window<T> current = window;
+            window = null;
+            if (current != null) {
+                current.complete(null);
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            // a non-positive request is passed on for the upstream to signal the rule 3.9 violation
+            upstream.request((n <= 0L) ? n : SubscriptionHelper.multiplyCap(n, size));
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled.compareAndSet(false, true) && active.decrementAndGet() == 0) {
+                upstream.cancel();
+            }
+        }
+
+        private void release(Window<T> window) {
+            if (window.released.compareAndSet(false, true) && active.decrementAndGet() == 0) {
+                upstream.cancel();
+            }
+        }
+    }
+
+    private static final class Window<T> implements Multi<T>, Flow.Subscription {
+
+        private final WindowSubscriber<T> parent;
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private volatile Flow.Subscriber<? super T> subscriber;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+        private Throwable error;
+
+        private Window(WindowSubscriber<T> parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            Objects.requireNonNull(subscriber, "subscriber is null!");
+            if (!subscribed.compareAndSet(false, true)) {
+                SubscriptionHelper.error(subscriber, new IllegalStateException("Only single subscriber is allowed!"));
+                return;
+            }
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (StreamValidationUtils.checkRequestParam(n, e -> failure = e)) {
+                SubscriptionHelper.addRequest(requested, n);
+            } else {
+                parent.release(this);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            parent.release(this);
+            drain();
+        }
+
+        private void offer(T item) {
+            if (!cancelled) {
+                queue.offer(item);
+                drain();
+            }
+        }
+
+        private void complete(Throwable throwable) {
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                Flow.Subscriber<? super T> s = subscriber;
+                if (s != null) {
+                    long r = requested.get();
+                    long e = 0L;
+                    while (e != r) {
+                        boolean d = done;
+                        T item = queue.poll();
+                        if (checkTerminated(s, d, item == null)) {
+                            return;
+                        }
+                        if (item == null) {
+                            break;
+                        }
+                        s.onNext(item);
+                        e++;
+                    }
+                    if (e == r && checkTerminated(s, done, queue.isEmpty())) {
+                        return;
+                    }
+                    if (e != 0L) {
+                        SubscriptionHelper.produced(requested, e);
+                    }
+                } else if (cancelled) {
+                    queue.clear();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private boolean checkTerminated(Flow.Subscriber<? super T> s, boolean d, boolean empty) {
+            if (cancelled) {
+                queue.clear();
+                return true;
+            }
+            Throwable invalidRequest = failure;
+            if (invalidRequest != null) {
+                cancelled = true;
+                queue.clear();
+                s.onError(invalidRequest);
+                return true;
+            }
+            if (d && empty) {
+                Throwable throwable = error;
+                if (throwable == null) {
+                    s.onComplete();
+                } else {
+                    s.onError(throwable);
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
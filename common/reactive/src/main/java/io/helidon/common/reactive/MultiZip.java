@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * Combines the items of two sources pairwise with the given function, completing as soon as one of the sources
+ * completed and all its items were combined.
+ * <p>
+ * Each source is prefetched into its own queue of {@code prefetch} items; a pair is taken from the queues while the
+ * downstream has demand.
+ *
+ * @param <T> item type of the first source
+ * @param <U> item type of the second source
+ * @param <R> item type of the combined items
+ */
+final class MultiZip<T, U, R> implements Multi<R> {
+
+    private final Flow.Publisher<? extends T> first;
+    private final Flow.Publisher<? extends U> second;
+    private final BiFunction<? super T, ? super U, ? extends R> zipper;
+    private final int prefetch;
+
+    MultiZip(Flow.Publisher<? extends T> first,
+             Flow.Publisher<? extends U> second,
+             BiFunction<? super T, ? super U, ? extends R> zipper,
+             int prefetch) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch must be positive, but is: " + prefetch);
+        }
+        this.first = Objects.requireNonNull(first, "first is null!");
+        this.second = Objects.requireNonNull(second, "second is null!");
+        this.zipper = Objects.requireNonNull(zipper, "zipper is null!");
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber is null!");
+        ZipSubscription<T, U, R> parent = new ZipSubscription<>(subscriber, zipper, prefetch);
+        subscriber.onSubscribe(parent);
+        first.subscribe(parent.first);
+        if (!parent.cancelled) {
+            second.subscribe(parent.second);
+        }
+    }
+
+    private static final class ZipSubscription<T, U, R> extends AtomicInteger implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super R> downstream;
+        private final BiFunction<? super T, ? super U, ? extends R> zipper;
+        private final InnerSubscriber<T> first;
+        private final InnerSubscriber<U> second;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private volatile boolean cancelled;
+
+        private ZipSubscription(Flow.Subscriber<? super R> downstream,
+                                BiFunction<? super T, ? super U, ? extends R> zipper,
+                                int prefetch) {
+            this.downstream = downstream;
+            this.zipper = zipper;
+            this.first = new InnerSubscriber<>(this, prefetch);
+            this.second = new InnerSubscriber<>(this, prefetch);
+        }
+
+        @Override
+        public void request(long n) {
+            if (StreamValidationUtils.checkRequestParam(n, this::innerError)) {
+                SubscriptionHelper.addRequest(requested, n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            first.cancel();
+            second.cancel();
+            if (getAndIncrement() == 0) {
+                first.queue.clear();
+                second.queue.clear();
+            }
+        }
+
+        private void innerError(Throwable throwable) {
+            if (error.compareAndSet(null, throwable)) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long r = requested.get();
+                long e = 0L;
+                while (e != r) {
+                    if (checkTerminated()) {
+                        return;
+                    }
+                    T firstItem = first.queue.peek();
+                    U secondItem = second.queue.peek();
+                    if (firstItem == null || secondItem == null) {
+                        break;
+                    }
+                    first.queue.poll();
+                    second.queue.poll();
+                    R result;
+                    try {
+                        result = Objects.requireNonNull(zipper.apply(firstItem, secondItem), "zipper returned null!");
+                    } catch (Throwable t) {
+                        error.compareAndSet(null, t);
+                        continue;
+                    }
+                    downstream.onNext(result);
+                    first.consumed();
+                    second.consumed();
+                    e++;
+                }
+                if (checkTerminated()) {
+                    return;
+                }
+                if (e != 0L) {
+                    SubscriptionHelper.produced(requested, e);
+                }
+                missed = addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private boolean checkTerminated() {
+            if (cancelled) {
+                first.queue.clear();
+                second.queue.clear();
+                return true;
+            }
+            Throwable throwable = error.get();
+            // done is read before the queue, so that no item offered before completion is missed
+            boolean exhausted = (first.done && first.queue.isEmpty()) || (second.done && second.queue.isEmpty());
+            if (throwable != null || exhausted) {
+                cancelled = true;
+                first.cancel();
+                second.cancel();
+                first.queue.clear();
+                second.queue.clear();
+                if (throwable == null) {
+                    downstream.onComplete();
+                } else {
+                    downstream.onError(throwable);
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class InnerSubscriber<V> implements Flow.Subscriber<V> {
+
+        private final ZipSubscription<?, ?, ?> parent;
+        private final int prefetch;
+        private final int limit;
+        private final Queue<V> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+
+        private volatile boolean done;
+        // accessed only by the draining thread
+        private int consumed;
+
+        private InnerSubscriber(ZipSubscription<?, ?, ?> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription is null!");
+            if (!upstream.compareAndSet(null, subscription)) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(prefetch);
+        }
+
+        @Override
+        public void onNext(V item) {
+            if (done) {
+                return;
+            }
+            queue.offer(Objects.requireNonNull(item, "item is null!"));
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.innerError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.drain();
+        }
+
+        private void consumed() {
+            if (++consumed == limit) {
+                consumed = 0;
+                upstream.get().request(limit);
+            }
+        }
+
+        private void cancel() {
+            Flow.Subscription subscription = upstream.getAndSet(EmptySubscription.INSTANCE);
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
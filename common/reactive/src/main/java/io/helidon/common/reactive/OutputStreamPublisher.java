@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,27 +19,69 @@ package io.helidon.common.reactive;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Output stream that {@link java.util.concurrent.Flow.Publisher} publishes any data written to it as {@link ByteBuffer}
  * events.
+ * <p>
+ * A writing thread which runs out of demand is parked until the subscriber requests more data or the stream
+ * is closed. If created with a positive buffer size, small writes are coalesced into buffers of that size which
+ * are published when full, on {@link #flush()} and on {@link #close()}. Such buffers are published without
+ * a copy and a subscriber may hand them back for reuse by {@link #release(ByteBuffer)} once it is done with them.
  */
 @SuppressWarnings("WeakerAccess")
 public class OutputStreamPublisher extends OutputStream implements Flow.Publisher<ByteBuffer> {
 
     private static final byte[] FLUSH_BUFFER = new byte[0];
+    private static final int MAX_POOLED_BUFFERS = 4;
 
     private final SingleSubscriberHolder<ByteBuffer> subscriber = new SingleSubscriberHolder<>();
     private final Object invocationLock = new Object();
+    private final Object writeLock = new Object();
 
     private final RequestedCounter requested = new RequestedCounter();
 
     private final CompletableFuture<?> completionResult = new CompletableFuture<>();
 
+    private final int bufferSize;
+    private final Queue<byte[]> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    private volatile Thread waiter;
+
+    // guarded by writeLock
+    private byte[] buffer;
+    private int position;
+
+    /**
+     * Creates a publishing output stream which publishes each write as a separate event.
+     */
+    public OutputStreamPublisher() {
+        this(0);
+    }
+
+    /**
+     * Creates a publishing output stream which coalesces writes into buffers of the provided size.
+     *
+     * @param bufferSize size of a buffer in bytes, {@code 0} to publish each write as a separate event
+     * @throws IllegalArgumentException if the buffer size is negative
+     */
+    public OutputStreamPublisher(int bufferSize) {
+        if (bufferSize < 0) {
+            throw new IllegalArgumentException("Buffer size must not be negative: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+    }
+
     @Override
     public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriberParam) {
         if (subscriber.register(subscriberParam)) {
@@ -47,11 +89,13 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
                 @Override
                 public void request(long n) {
                     requested.increment(n, t -> complete(t));
+                    signalWaiter();
                 }
 
                 @Override
                 public void cancel() {
                     subscriber.cancel();
+                    signalWaiter();
                 }
             });
         }
@@ -59,23 +103,65 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
 
     @Override
     public void write(byte[] b) throws IOException {
-        publish(b, 0, b.length);
+        write(b, 0, b.length);
     }
 
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
-        publish(b, off, len);
+        Objects.checkFromIndexSize(off, len, b.length);
+        synchronized (writeLock) {
+            if (bufferSize == 0) {
+                publish(createBuffer(b, off, len));
+                return;
+            }
+            while (len > 0) {
+                if (buffer == null) {
+                    buffer = acquireBuffer();
+                }
+                int count = Math.min(len, bufferSize - position);
+                System.arraycopy(b, off, buffer, position, count);
+                position += count;
+                off += count;
+                len -= count;
+                if (position == bufferSize) {
+                    publishBuffer();
+                }
+            }
+        }
     }
 
     @Override
     public void write(int b) throws IOException {
-        byte bb = (byte) b;
-        publish(new byte[] {bb}, 0, 1);
+        synchronized (writeLock) {
+            if (bufferSize == 0) {
+                publish(ByteBuffer.wrap(new byte[] {(byte) b}));
+                return;
+            }
+            if (buffer == null) {
+                buffer = acquireBuffer();
+            }
+            buffer[position++] = (byte) b;
+            if (position == bufferSize) {
+                publishBuffer();
+            }
+        }
     }
 
     @Override
     public void close() throws IOException {
-        complete();
+        try {
+            synchronized (writeLock) {
+                if (position > 0 && !subscriber.isClosed()) {
+                    publishBuffer();
+                } else if (buffer != null) {
+                    pool(buffer);
+                    buffer = null;
+                    position = 0;
+                }
+            }
+        } finally {
+            complete();
+        }
         try {
             completionResult.get();
         } catch (InterruptedException e) {
@@ -112,31 +198,55 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
     }
 
     /**
-     * Send empty buffer as an indication of a user-requested flush.
+     * Returns a buffer published by this stream for reuse by subsequent writes. Only buffers coalescing writes
+     * are reused, any other buffer is ignored.
+     * <p>
+     * The subscriber must not access the buffer, nor pass it to this method again, after invoking this method.
+     *
+     * @param byteBuffer a buffer received from this publisher
+     */
+    public void release(ByteBuffer byteBuffer) {
+        if (bufferSize > 0 && byteBuffer.hasArray() && byteBuffer.arrayOffset() == 0
+                && byteBuffer.array().length == bufferSize) {
+            pool(byteBuffer.array());
+        }
+    }
+
+    /**
+     * Publishes any coalesced data and sends empty buffer as an indication of a user-requested flush.
      *
      * @throws IOException If an I/O occurs.
      */
     @Override
     public void flush() throws IOException {
-        publish(FLUSH_BUFFER, 0, 0);
+        synchronized (writeLock) {
+            if (position > 0) {
+                publishBuffer();
+            }
+            publish(ByteBuffer.wrap(FLUSH_BUFFER));
+        }
     }
 
-    private void publish(byte[] buffer, int offset, int length) throws IOException {
-        Objects.requireNonNull(buffer);
+    private void publishBuffer() throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(buffer, 0, position);
+        // the buffer belongs to the subscriber now, even if publishing fails
+        buffer = null;
+        position = 0;
+        publish(data);
+    }
 
+    private void publish(ByteBuffer data) throws IOException {
         try {
             final Flow.Subscriber<? super ByteBuffer> sub = subscriber.get();
 
-            while (!subscriber.isClosed() && !requested.tryDecrement()) {
-                Thread.sleep(250); // wait until some data can be sent or the stream has been closed
-            }
+            awaitDemand();
 
             synchronized (invocationLock) {
                 if (subscriber.isClosed()) {
                     throw new IOException("Output stream already closed.");
                 }
 
-                sub.onNext(createBuffer(buffer, offset, length));
+                sub.onNext(data);
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -151,12 +261,61 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
         }
     }
 
+    /**
+     * Waits until the subscriber requests data or this stream is closed. The writing thread is parked
+     * and gets unparked by {@link #signalWaiter()}.
+     *
+     * @throws InterruptedException if the writing thread was interrupted
+     */
+    private void awaitDemand() throws InterruptedException {
+        if (requested.tryDecrement()) {
+            return;
+        }
+        // only a single thread can wait, writes are serialized by the write lock
+        waiter = Thread.currentThread();
+        try {
+            while (!subscriber.isClosed() && !requested.tryDecrement()) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waiter = null;
+        }
+    }
+
+    private void signalWaiter() {
+        Thread thread = waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private byte[] acquireBuffer() {
+        byte[] pooledBuffer = pool.poll();
+        if (pooledBuffer == null) {
+            return new byte[bufferSize];
+        }
+        pooled.decrementAndGet();
+        return pooledBuffer;
+    }
+
+    private void pool(byte[] array) {
+        if (pooled.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            pool.offer(array);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
     private void complete() {
         subscriber.close(sub -> {
             synchronized (invocationLock) {
                 sub.onComplete();
             }
         });
+        signalWaiter();
     }
 
     private void complete(Throwable t) {
@@ -165,6 +324,7 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
                 sub.onError(t);
             }
         });
+        signalWaiter();
     }
 
     /**
@@ -174,12 +334,10 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
      *
      * @param buffer The buffer.
      * @param offset Offset in buffer.
-     * @param length Length of buffer.
+     * @param length Number of bytes to copy.
      * @return Newly created {@link ByteBuffer}.
      */
-    private ByteBuffer createBuffer(byte[] buffer, int offset, int length) {
-        ByteBuffer byteBuffer = ByteBuffer.allocate(length - offset);
-        byteBuffer.put(buffer, offset, length);
-        return (ByteBuffer) byteBuffer.clear();     // resets counters
+    private static ByteBuffer createBuffer(byte[] buffer, int offset, int length) {
+        return ByteBuffer.wrap(Arrays.copyOfRange(buffer, offset, offset + length));
     }
 }
@@ -20,10 +20,13 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Flow.Publisher;
 import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiPredicate;
 
 import io.helidon.common.mapper.Mapper;
 
@@ -62,6 +65,68 @@ public interface Single<T> extends Subscribable<T> {
         return processor;
     }
 
+    /**
+     * Signal the item and the terminal signal of this {@link Single} instance on the given executor.
+     *
+     * @param executor executor to signal the downstream on
+     * @return Single
+     * @throws NullPointerException if executor is {@code null}
+     */
+    default Single<T> observeOn(Executor executor) {
+        return new SingleFromPublisher<>(new MultiObserveOn<>(this, executor, 1));
+    }
+
+    /**
+     * Subscribe to this {@link Single} instance on the given executor.
+     *
+     * @param executor executor to subscribe on
+     * @return Single
+     * @throws NullPointerException if executor is {@code null}
+     */
+    default Single<T> subscribeOn(Executor executor) {
+        return new SingleFromPublisher<>(new MultiSubscribeOn<>(this, executor));
+    }
+
+    /**
+     * Signal a {@link TimeoutException} and cancel this {@link Single} instance if it does not complete within
+     * the given timeout.
+     *
+     * @param timeout  maximal time to wait
+     * @param unit     unit of the timeout
+     * @param executor executor to schedule the timeout on
+     * @return Single
+     * @throws NullPointerException if unit or executor is {@code null}
+     */
+    default Single<T> timeout(long timeout, TimeUnit unit, ScheduledExecutorService executor) {
+        return new SingleFromPublisher<>(new MultiTimeout<>(this, timeout, unit, executor));
+    }
+
+    /**
+     * Resubscribe to this {@link Single} instance when it fails, at most the given number of times.
+     *
+     * @param count maximal number of retries
+     * @return Single
+     * @throws IllegalArgumentException if count is negative
+     */
+    default Single<T> retry(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Retry count must not be negative, but is: " + count);
+        }
+        return retry((error, retry) -> retry <= count);
+    }
+
+    /**
+     * Resubscribe to this {@link Single} instance when it fails, as long as the predicate, given the error and
+     * the number of the retry starting with {@code 1}, returns {@code true}.
+     *
+     * @param predicate whether to retry
+     * @return Single
+     * @throws NullPointerException if predicate is {@code null}
+     */
+    default Single<T> retry(BiPredicate<? super Throwable, ? super Long> predicate) {
+        return new SingleFromPublisher<>(new MultiRetry<>(this, predicate));
+    }
+
     /**
      * Exposes this {@link Single} instance as a {@link CompletionStage}.
      * Note that if this {@link Single} completes without a value, the resulting {@link CompletionStage} will be completed
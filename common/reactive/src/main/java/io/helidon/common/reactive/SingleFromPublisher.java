@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.Objects;
+import java.util.concurrent.Flow.Publisher;
+import java.util.concurrent.Flow.Subscriber;
+
+/**
+ * Implementation of {@link Single} that is backed by a {@link Publisher} known to publish at most one item, e.g. an
+ * operator applied to another {@link Single}. Unlike {@link Single#from(Publisher)} the source is neither subscribed
+ * eagerly nor verified.
+ *
+ * @param <T> item type
+ */
+final class SingleFromPublisher<T> implements Single<T> {
+
+    private final Publisher<? extends T> source;
+
+    SingleFromPublisher(Publisher<? extends T> source) {
+        Objects.requireNonNull(source, "source cannot be null!");
+        this.source = source;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        source.subscribe(subscriber);
+    }
+}
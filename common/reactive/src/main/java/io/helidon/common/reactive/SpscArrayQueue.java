@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded queue for exactly one producing and one consuming thread, e.g. the upstream of an operator and its drain
+ * loop. Unlike the {@code java.util.concurrent} queues it neither allocates per item nor uses compare-and-set; the
+ * slots and indexes are published with ordered writes only.
+ * <p>
+ * The capacity is rounded up to the next power of two. {@code null} items are not permitted.
+ *
+ * @param <T> item type
+ */
+final class SpscArrayQueue<T> {
+
+    private final AtomicReferenceArray<T> buffer;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    SpscArrayQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, but is: " + capacity);
+        }
+        int size = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an item, to be called by the producer only.
+     *
+     * @param item item to add
+     * @return {@code false} if the queue is full
+     */
+    boolean offer(T item) {
+        long index = producerIndex.get();
+        int offset = (int) index & mask;
+        if (buffer.get(offset) != null) {
+            return false;
+        }
+        buffer.lazySet(offset, item);
+        producerIndex.lazySet(index + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest item, to be called by the consumer only.
+     *
+     * @return the item or {@code null} if the queue is empty
+     */
+    T poll() {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        T item = buffer.get(offset);
+        if (item == null) {
+            return null;
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return item;
+    }
+
+    /**
+     * Whether the queue is empty.
+     *
+     * @return {@code true} if there is no item to poll
+     */
+    boolean isEmpty() {
+        return producerIndex.get() == consumerIndex.get();
+    }
+
+    /**
+     * Removes all items, to be called by the consumer only.
+     */
+    void clear() {
+        while (poll() != null) {
+            // discard
+        }
+    }
+}
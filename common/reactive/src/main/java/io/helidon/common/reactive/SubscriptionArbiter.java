@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A subscription handed to the downstream once, while the upstream subscriptions behind it are switched, e.g. by
+ * {@code retry} or {@code concat}. Demand not yet satisfied by the previous upstream is requested from the next one.
+ * <p>
+ * Requests, produced items and new subscriptions are recorded as missed and applied by whichever thread holds the
+ * {@code wip} counter, so they can arrive from any thread.
+ */
+final class SubscriptionArbiter implements Flow.Subscription {
+
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong missedRequested = new AtomicLong();
+    private final AtomicLong missedProduced = new AtomicLong();
+    private final AtomicReference<Flow.Subscription> missedSubscription = new AtomicReference<>();
+
+    private volatile boolean cancelled;
+    private volatile long invalidRequest;
+    // accessed only by the thread holding the wip counter
+    private Flow.Subscription actual;
+    private long requested;
+
+    @Override
+    public void request(long n) {
+        if (n <= 0L) {
+            // passed on for the upstream to signal the rule 3.9 violation
+            invalidRequest = n;
+        } else {
+            SubscriptionHelper.addRequest(missedRequested, n);
+        }
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            drain();
+        }
+    }
+
+    /**
+     * Switches to the next upstream subscription.
+     *
+     * @param subscription the subscription
+     */
+    void setSubscription(Flow.Subscription subscription) {
+        if (cancelled) {
+            subscription.cancel();
+            return;
+        }
+        missedSubscription.set(subscription);
+        drain();
+    }
+
+    /**
+     * Records items emitted by the current upstream, to be subtracted from the demand of the next one.
+     *
+     * @param n number of items
+     */
+    void produced(long n) {
+        SubscriptionHelper.addRequest(missedProduced, n);
+        drain();
+    }
+
+    /**
+     * Whether the downstream cancelled.
+     *
+     * @return {@code true} if cancelled
+     */
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        long requestAmount = 0L;
+        Flow.Subscription requestTarget = null;
+        do {
+            Flow.Subscription newSubscription = missedSubscription.getAndSet(null);
+            long newRequested = missedRequested.getAndSet(0L);
+            long newProduced = missedProduced.getAndSet(0L);
+            if (cancelled) {
+                if (actual != null) {
+                    actual.cancel();
+                    actual = null;
+                }
+                if (newSubscription != null) {
+                    newSubscription.cancel();
+                }
+                requestTarget = null;
+            } else {
+                long r = requested;
+                if (r != Long.MAX_VALUE) {
+                    r = SubscriptionHelper.addCap(r, newRequested);
+                    if (r != Long.MAX_VALUE) {
+                        r = Math.max(0L, r - newProduced);
+                    }
+                    requested = r;
+                }
+                long invalid = invalidRequest;
+                if (newSubscription != null) {
+                    actual = newSubscription;
+                    requestTarget = newSubscription;
+                    requestAmount = (invalid != 0L) ? invalid : r;
+                } else if (actual != null && (newRequested != 0L || invalid != 0L)) {
+                    requestTarget = actual;
+                    requestAmount = (invalid != 0L) ? invalid : SubscriptionHelper.addCap(requestAmount, newRequested);
+                }
+                if (invalid != 0L && requestTarget != null) {
+                    invalidRequest = 0L;
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+        if (requestTarget != null && requestAmount != 0L) {
+            requestTarget.request(requestAmount);
+        }
+    }
+}
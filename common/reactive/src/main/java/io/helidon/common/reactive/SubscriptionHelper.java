@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Helper methods for the request accounting of the queue-draining operators.
+ */
+final class SubscriptionHelper {
+
+    private SubscriptionHelper() {
+    }
+
+    /**
+     * Adds two non-negative numbers, capped at {@code Long.MAX_VALUE}.
+     *
+     * @param a first number
+     * @param b second number
+     * @return the sum or {@code Long.MAX_VALUE} if it overflows
+     */
+    static long addCap(long a, long b) {
+        long r = a + b;
+        return (r < 0L) ? Long.MAX_VALUE : r;
+    }
+
+    /**
+     * Multiplies two non-negative numbers, capped at {@code Long.MAX_VALUE}.
+     *
+     * @param a first number
+     * @param b second number
+     * @return the product or {@code Long.MAX_VALUE} if it overflows
+     */
+    static long multiplyCap(long a, long b) {
+        long r = a * b;
+        if (((a | b) >>> 31) != 0 && (b != 0 && r / b != a)) {
+            return Long.MAX_VALUE;
+        }
+        return r;
+    }
+
+    /**
+     * Adds a request to the requested counter, {@code Long.MAX_VALUE} means unbounded.
+     *
+     * @param requested the counter
+     * @param n         positive number of requested items
+     * @return value of the counter before the update
+     */
+    static long addRequest(AtomicLong requested, long n) {
+        return requested.getAndUpdate(current -> (current == Long.MAX_VALUE) ? Long.MAX_VALUE : addCap(current, n));
+    }
+
+    /**
+     * Subtracts emitted items from the requested counter, unless it is unbounded.
+     *
+     * @param requested the counter
+     * @param n         number of emitted items
+     * @return value of the counter after the update
+     */
+    static long produced(AtomicLong requested, long n) {
+        return requested.updateAndGet(current -> (current == Long.MAX_VALUE) ? Long.MAX_VALUE : current - n);
+    }
+
+    /**
+     * Signals an error to a subscriber which was not subscribed yet.
+     *
+     * @param subscriber the subscriber
+     * @param error      the error
+     */
+    static void error(Flow.Subscriber<?> subscriber, Throwable error) {
+        subscriber.onSubscribe(EmptySubscription.INSTANCE);
+        subscriber.onError(error);
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.common.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of the scheduling, batching, timeout, retry, back-pressure and combining operators of {@link Multi} and
+ * {@link Single}.
+ */
+public class MultiOperatorsTest {
+
+    private static ExecutorService executor;
+    private static ScheduledExecutorService scheduler;
+
+    @BeforeAll
+    static void startExecutors() {
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "operators-test"));
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterAll
+    static void stopExecutors() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testObserveOn() throws Exception {
+        AtomicReference<String> thread = new AtomicReference<>();
+        List<Integer> result = Multi.from(range(100))
+                .observeOn(executor, 8)
+                .peek(item -> thread.set(Thread.currentThread().getName()))
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result, is(equalTo(range(100))));
+        assertThat(thread.get(), is("operators-test"));
+    }
+
+    @Test
+    void testSubscribeOn() throws Exception {
+        AtomicReference<String> thread = new AtomicReference<>();
+        Multi<Integer> source = subscriber -> {
+            thread.set(Thread.currentThread().getName());
+            Multi.just(1, 2, 3).subscribe(subscriber);
+        };
+
+        List<Integer> result = source.subscribeOn(executor)
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result, is(equalTo(List.of(1, 2, 3))));
+        assertThat(thread.get(), is("operators-test"));
+    }
+
+    @Test
+    void testBuffer() throws Exception {
+        List<List<Integer>> result = Multi.from(range(7))
+                .buffer(3)
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result, is(equalTo(List.of(List.of(0, 1, 2), List.of(3, 4, 5), List.of(6)))));
+    }
+
+    @Test
+    void testBufferRequestsWholeBatches() {
+        TestSubscriber<List<Integer>> subscriber = new TestSubscriber<>();
+        Multi.from(range(10)).buffer(4).subscribe(subscriber);
+
+        subscriber.request1();
+        assertThat(subscriber.getItems(), is(equalTo(List.of(List.of(0, 1, 2, 3)))));
+        assertThat(subscriber.isComplete(), is(false));
+    }
+
+    @Test
+    void testWindow() throws Exception {
+        List<Single<List<Integer>>> windows = Multi.from(range(5))
+                .window(2)
+                .map(Multi::collectList)
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        List<List<Integer>> result = new ArrayList<>();
+        for (Single<List<Integer>> window : windows) {
+            result.add(window.get(10, TimeUnit.SECONDS));
+        }
+        assertThat(result, is(equalTo(List.of(List.of(0, 1), List.of(2, 3), List.of(4)))));
+    }
+
+    @Test
+    void testTimeout() {
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> Multi.<Integer>never()
+                .timeout(10, TimeUnit.MILLISECONDS, scheduler)
+                .collectList()
+                .get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+    }
+
+    @Test
+    void testNoTimeout() throws Exception {
+        List<Integer> result = Multi.just(1, 2, 3)
+                .timeout(10, TimeUnit.SECONDS, scheduler)
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result, is(equalTo(List.of(1, 2, 3))));
+    }
+
+    @Test
+    void testRetry() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Multi<Integer> source = subscriber -> {
+            if (subscriptions.incrementAndGet() < 3) {
+                Multi.concat(Multi.just(1), Multi.<Integer>error(new IllegalStateException("failed")))
+                        .subscribe(subscriber);
+            } else {
+                Multi.just(1, 2).subscribe(subscriber);
+            }
+        };
+
+        List<Integer> result = source.retry(2)
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result, is(equalTo(List.of(1, 1, 1, 2))));
+        assertThat(subscriptions.get(), is(3));
+    }
+
+    @Test
+    void testRetryExhausted() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Multi<Integer> source = subscriber -> {
+            subscriptions.incrementAndGet();
+            Multi.<Integer>error(new IllegalStateException("failed")).subscribe(subscriber);
+        };
+
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> source
+                .retry((error, retry) -> retry <= 3)
+                .collectList()
+                .get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause(), is(instanceOf(IllegalStateException.class)));
+        assertThat(subscriptions.get(), is(4));
+    }
+
+    @Test
+    void testOnBackpressureBuffer() {
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+        Multi.from(range(5)).onBackpressureBuffer().subscribe(subscriber);
+
+        subscriber.request1();
+        assertThat(subscriber.getItems(), is(equalTo(List.of(0))));
+        subscriber.requestMax();
+        assertThat(subscriber.getItems(), is(equalTo(range(5))));
+        assertThat(subscriber.isComplete(), is(true));
+    }
+
+    @Test
+    void testOnBackpressureBufferOverflow() {
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+        Multi.from(range(5)).onBackpressureBuffer(2).subscribe(subscriber);
+
+        subscriber.requestMax();
+        assertThat(subscriber.getItems(), is(equalTo(List.of(0, 1))));
+        assertThat(subscriber.getLastError(), is(instanceOf(BackPressureOverflowException.class)));
+    }
+
+    @Test
+    void testOnBackpressureDrop() {
+        List<Integer> dropped = new ArrayList<>();
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+        Multi.from(range(5)).onBackpressureDrop(dropped::add).subscribe(subscriber);
+
+        assertThat(subscriber.getItems().isEmpty(), is(true));
+        assertThat(dropped, is(equalTo(range(5))));
+        assertThat(subscriber.isComplete(), is(true));
+    }
+
+    @Test
+    void testMerge() throws Exception {
+        List<Integer> result = Multi.merge(Multi.from(range(50)), Multi.just(100, 101), Multi.empty())
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result.size(), is(52));
+        assertThat(result.containsAll(range(50)), is(true));
+        assertThat(result.containsAll(List.of(100, 101)), is(true));
+    }
+
+    @Test
+    void testMergeError() {
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> Multi
+                .merge(Multi.never(), Multi.error(new IllegalStateException("failed")))
+                .collectList()
+                .get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause(), is(instanceOf(IllegalStateException.class)));
+    }
+
+    @Test
+    void testZip() throws Exception {
+        List<String> result = Multi.zip(Multi.from(range(100)), Multi.just("a", "b", "c"), (i, s) -> s + i)
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result, is(equalTo(List.of("a0", "b1", "c2"))));
+    }
+
+    @Test
+    void testNonPositiveRequest() {
+        TestSubscriber<List<Integer>> subscriber = new TestSubscriber<>();
+        Multi.from(range(3)).onBackpressureBuffer().buffer(2).subscribe(subscriber);
+
+        subscriber.getSubcription().request(0);
+        assertThat(subscriber.getLastError(), is(instanceOf(IllegalArgumentException.class)));
+    }
+
+    @Test
+    void testSingleOperators() throws Exception {
+        AtomicReference<String> thread = new AtomicReference<>();
+
+        Integer result = Single.just(1)
+                .subscribeOn(executor)
+                .observeOn(executor)
+                .timeout(10, TimeUnit.SECONDS, scheduler)
+                .map(i -> {
+                    thread.set(Thread.currentThread().getName());
+                    return i;
+                })
+                .get(10, TimeUnit.SECONDS);
+        assertThat(result, is(1));
+        assertThat(thread.get(), is("operators-test"));
+    }
+
+    @Test
+    void testSingleRetry() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Single<Integer> failingOnce = subscriber -> {
+            if (subscriptions.incrementAndGet() == 1) {
+                Single.<Integer>error(new IllegalStateException("failed")).subscribe(subscriber);
+            } else {
+                Single.just(42).subscribe(subscriber);
+            }
+        };
+
+        assertThat(failingOnce.retry(1).get(10, TimeUnit.SECONDS), is(42));
+        assertThat(subscriptions.get(), is(2));
+    }
+
+    private static List<Integer> range(int count) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+}
@@ -20,6 +20,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Flow.Subscription;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -469,6 +471,95 @@ public class MultiTest {
         assertThat(result, is(equalTo(EXPECTED)));
     }
 
+    @Test
+    void testFlatMapAsyncInners() throws ExecutionException, InterruptedException, TimeoutException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Integer> result = Multi.just(1, 2, 3, 4, 5, 6, 7, 8)
+                    .flatMap(i -> Multi.just(i * 10, i * 10 + 1).observeOn(executor, 1), 3, 1)
+                    .collectList()
+                    .get(10, TimeUnit.SECONDS);
+
+            assertThat(result.size(), is(16));
+            for (int i = 1; i <= 8; i++) {
+                // items of the same inner publisher keep their order
+                assertThat(result.indexOf(i * 10) < result.indexOf(i * 10 + 1), is(true));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFlatMapBackpressure() {
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+        Multi.just(1, 2, 3)
+                .flatMap(i -> Multi.just(i, i), 1, 1)
+                .subscribe(subscriber);
+
+        subscriber.request1();
+        assertThat(subscriber.getItems(), is(equalTo(List.of(1))));
+        subscriber.getSubcription().request(3);
+        assertThat(subscriber.getItems(), is(equalTo(List.of(1, 1, 2, 2))));
+        subscriber.requestMax();
+        assertThat(subscriber.getItems(), is(equalTo(List.of(1, 1, 2, 2, 3, 3))));
+        assertThat(subscriber.isComplete(), is(true));
+    }
+
+    @Test
+    void testFlatMapInnerError() {
+        MultiTestSubscriber<Integer> subscriber = new MultiTestSubscriber<>();
+        Multi.just(1, 2)
+                .flatMap(i -> Multi.<Integer>error(new IllegalStateException("foo!")))
+                .subscribe(subscriber);
+
+        assertThat(subscriber.isComplete(), is(false));
+        assertThat(subscriber.getLastError(), is(instanceOf(IllegalStateException.class)));
+    }
+
+    @Test
+    void testConcatNested() throws ExecutionException, InterruptedException {
+        List<Integer> result = Multi.concat(Multi.concat(Multi.just(1, 2), Multi.empty()),
+                                            Multi.concat(Multi.from(List.of(3)), Multi.just(4, 5)))
+                .collectList()
+                .get();
+
+        assertThat(result, is(equalTo(List.of(1, 2, 3, 4, 5))));
+    }
+
+    @Test
+    void testConcatBackpressure() {
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+        Multi.concat(Multi.just(1, 2), Multi.just(3, 4)).subscribe(subscriber);
+
+        subscriber.getSubcription().request(3);
+        assertThat(subscriber.getItems(), is(equalTo(List.of(1, 2, 3))));
+        assertThat(subscriber.isComplete(), is(false));
+        subscriber.request1();
+        assertThat(subscriber.getItems(), is(equalTo(List.of(1, 2, 3, 4))));
+        assertThat(subscriber.isComplete(), is(true));
+    }
+
+    @Test
+    void testMapFusedNullValue() {
+        MultiTestSubscriber<String> subscriber = new MultiTestSubscriber<>();
+        Multi.just("foo", "bar")
+                .map((Mapper<String, String>) item -> null)
+                .map(String::toUpperCase)
+                .subscribe(subscriber);
+
+        assertThat(subscriber.getLastError(), is(instanceOf(NullPointerException.class)));
+        assertThat(subscriber.getItems(), is(empty()));
+    }
+
+    @Test
+    void testIterableSubscribedTwice() throws ExecutionException, InterruptedException {
+        Multi<Integer> multi = Multi.just(1, 2, 3);
+
+        assertThat(multi.collectList().get(), is(equalTo(List.of(1, 2, 3))));
+        assertThat(multi.collectList().get(), is(equalTo(List.of(1, 2, 3))));
+    }
+
     private static class MultiTestSubscriber<T> extends TestSubscriber<T> {
 
         @Override
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,9 @@ package io.helidon.common.reactive;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
@@ -27,7 +30,9 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -64,4 +69,93 @@ public class OutputStreamPublisherTest {
             assertThat(ex.getCause(), is(instanceOf(IllegalStateException.class)));
         }
     }
+
+    @Test
+    public void testDemandWakesUpWriter() throws Exception {
+        OutputStreamPublisher publisher = new OutputStreamPublisher();
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>();
+        publisher.subscribe(subscriber);
+        CompletableFuture<Void> written = CompletableFuture.runAsync(() -> write(publisher, "foo"));
+        Thread.sleep(100);
+        assertThat(written.isDone(), is(false));
+        subscriber.request1();
+        written.get(10, TimeUnit.SECONDS);
+        assertThat(subscriber.getItems().size(), is(equalTo(1)));
+        assertThat(string(subscriber.getItems().get(0)), is(equalTo("foo")));
+    }
+
+    @Test
+    public void testCancelWakesUpWriter() throws Exception {
+        OutputStreamPublisher publisher = new OutputStreamPublisher();
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>();
+        publisher.subscribe(subscriber);
+        CompletableFuture<Void> written = CompletableFuture.runAsync(() -> write(publisher, "foo"));
+        Thread.sleep(100);
+        subscriber.getSubcription().cancel();
+        Exception ex = assertThrows(Exception.class, () -> written.get(10, TimeUnit.SECONDS));
+        assertThat(ex.getCause(), is(instanceOf(IllegalStateException.class)));
+        assertThat(ex.getCause().getCause(), is(instanceOf(IOException.class)));
+        assertThat(subscriber.getItems().size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testCoalescedWrites() throws IOException {
+        OutputStreamPublisher publisher = new OutputStreamPublisher(8);
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>();
+        publisher.subscribe(subscriber);
+        subscriber.requestMax();
+        publisher.write("abc".getBytes(StandardCharsets.UTF_8));
+        publisher.write('d');
+        assertThat(subscriber.getItems().size(), is(equalTo(0)));
+        publisher.write("xefghij".getBytes(StandardCharsets.UTF_8), 1, 6);
+        assertThat(subscriber.getItems().size(), is(equalTo(1)));
+        assertThat(string(subscriber.getItems().get(0)), is(equalTo("abcdefgh")));
+        publisher.signalCloseComplete(null);
+        publisher.close();
+        assertThat(subscriber.isComplete(), is(equalTo(true)));
+        assertThat(subscriber.getItems().size(), is(equalTo(2)));
+        assertThat(string(subscriber.getItems().get(1)), is(equalTo("ij")));
+    }
+
+    @Test
+    public void testFlushPublishesCoalescedWrites() throws IOException {
+        OutputStreamPublisher publisher = new OutputStreamPublisher(16);
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>();
+        publisher.subscribe(subscriber);
+        subscriber.requestMax();
+        publisher.write("ab".getBytes(StandardCharsets.UTF_8));
+        publisher.flush();
+        assertThat(subscriber.getItems().size(), is(equalTo(2)));
+        assertThat(string(subscriber.getItems().get(0)), is(equalTo("ab")));
+        assertThat(subscriber.getItems().get(1).remaining(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testReleasedBufferIsReused() throws IOException {
+        OutputStreamPublisher publisher = new OutputStreamPublisher(4);
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>();
+        publisher.subscribe(subscriber);
+        subscriber.requestMax();
+        publisher.write("abcd".getBytes(StandardCharsets.UTF_8));
+        ByteBuffer first = subscriber.getItems().get(0);
+        assertThat(string(first), is(equalTo("abcd")));
+        byte[] array = first.array();
+        publisher.release(first);
+        publisher.write("efgh".getBytes(StandardCharsets.UTF_8));
+        ByteBuffer second = subscriber.getItems().get(1);
+        assertThat(second.array(), is(sameInstance(array)));
+        assertThat(string(second), is(equalTo("efgh")));
+    }
+
+    private static void write(OutputStreamPublisher publisher, String data) {
+        try {
+            publisher.write(data.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String string(ByteBuffer byteBuffer) {
+        return StandardCharsets.UTF_8.decode(byteBuffer.duplicate()).toString();
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,8 @@ import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Flow.Publisher;
 
@@ -56,6 +58,19 @@ public final class ContentReaders {
         return Multi.from(chunks).collect(new BytesCollector());
     }
 
+    /**
+     * Collect the {@link DataChunk}s of the given publisher without copying them and provide them as
+     * an {@link InputStream}. The stream does not block as all data is available once the returned
+     * {@link Single} completes. Each chunk is released as soon as it is read, the stream must be closed to release
+     * chunks that were not read.
+     *
+     * @param chunks source publisher
+     * @return Single
+     */
+    public static Single<InputStream> readInputStream(Publisher<DataChunk> chunks) {
+        return Multi.from(chunks).collect(new ChunksCollector());
+    }
+
     /**
      * Convert the given publisher of {@link DataChunk} into a {@link String}.
      * @param chunks source publisher
@@ -167,6 +182,25 @@ public final class ContentReaders {
             }
         }
     }
+    /**
+     * Implementation of {@link Collector} that collects chunks, without copying them, into an
+     * {@link InputStream}.
+     */
+    private static final class ChunksCollector implements Collector<DataChunk, InputStream> {
+
+        private final List<DataChunk> chunks = new ArrayList<>();
+
+        @Override
+        public void collect(DataChunk chunk) {
+            chunks.add(chunk);
+        }
+
+        @Override
+        public InputStream value() {
+            return new DataChunkInputStream(chunks);
+        }
+    }
+
     /**
      * Implementation of {@link Collector} that collects chunks into a single
      * {@code byte[]}.
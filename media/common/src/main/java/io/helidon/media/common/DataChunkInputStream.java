@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.media.common;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import io.helidon.common.http.DataChunk;
+
+/**
+ * A non-blocking {@link InputStream} over already received {@link DataChunk}s. Each chunk is released as soon as
+ * it is read, remaining chunks are released when the stream is closed.
+ */
+final class DataChunkInputStream extends InputStream {
+
+    private final List<DataChunk> chunks;
+    private int index;
+
+    /**
+     * Creates new instance.
+     *
+     * @param chunks the chunks to read
+     */
+    DataChunkInputStream(List<DataChunk> chunks) {
+        this.chunks = chunks;
+    }
+
+    @Override
+    public int read() {
+        ByteBuffer buffer = current();
+        if (buffer == null) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if ((off < 0) || (len < 0) || (len > b.length - off)) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = current();
+        if (buffer == null) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() {
+        ByteBuffer buffer = current();
+        return buffer == null ? 0 : buffer.remaining();
+    }
+
+    @Override
+    public void close() {
+        while (index < chunks.size()) {
+            chunks.get(index++).release();
+        }
+    }
+
+    /**
+     * Data of the first chunk with remaining bytes, read chunks are released.
+     *
+     * @return the data or {@code null} if all chunks have been read
+     */
+    private ByteBuffer current() {
+        while (index < chunks.size()) {
+            DataChunk chunk = chunks.get(index);
+            ByteBuffer data = chunk.data();
+            if (data.hasRemaining()) {
+                return data;
+            }
+            chunk.release();
+            index++;
+        }
+        return null;
+    }
+}
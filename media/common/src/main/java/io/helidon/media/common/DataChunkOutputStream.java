@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.media.common;
+
+import java.io.OutputStream;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Multi;
+
+/**
+ * An {@link OutputStream} that writes into cached fixed size {@code byte[]} arrays, each emitted as a
+ * {@link DataChunk} once full. A serializer writes its output directly into the chunks, without an intermediate
+ * buffer holding the whole content. An array is returned to the cache when its chunk is released.
+ * <p>
+ * Instances of this class are <em>not</em> thread-safe.
+ */
+public final class DataChunkOutputStream extends OutputStream {
+    private static final int CHUNK_SIZE = 8192;
+    private static final Pool POOL = new Pool(CHUNK_SIZE);
+
+    private final List<DataChunk> chunks = new ArrayList<>();
+    private byte[] buffer;
+    private int count;
+    private boolean closed;
+
+    /**
+     * Constructor.
+     */
+    public DataChunkOutputStream() {
+        buffer = POOL.acquire();
+    }
+
+    @Override
+    public void write(int b) {
+        ensureOpen();
+        if (count == buffer.length) {
+            emit();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if ((off < 0) || (off > b.length) || (len < 0) || ((off + len) - b.length > 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureOpen();
+        while (len > 0) {
+            if (count == buffer.length) {
+                emit();
+            }
+            int n = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        close(false);
+    }
+
+    /**
+     * Closes this stream and returns the written chunks.
+     *
+     * @return publisher of the written chunks
+     */
+    public Flow.Publisher<DataChunk> publisher() {
+        close();
+        return Multi.from(chunks);
+    }
+
+    /**
+     * Closes this stream and returns the written chunks.
+     *
+     * @param flush whether the last chunk should be flushed
+     * @return the written chunks
+     */
+    List<DataChunk> chunks(boolean flush) {
+        close(flush);
+        return chunks;
+    }
+
+    private void close(boolean flush) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (count > 0) {
+            emit(flush);
+        }
+        if (buffer != null) {
+            POOL.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void emit() {
+        emit(false);
+    }
+
+    private void emit(boolean flush) {
+        byte[] array = buffer;
+        // the array must not be cached twice if the chunk is released more than once
+        AtomicBoolean released = new AtomicBoolean();
+        chunks.add(DataChunk.create(flush, ByteBuffer.wrap(array, 0, count), () -> {
+            if (released.compareAndSet(false, true)) {
+                POOL.release(array);
+            }
+        }));
+        buffer = closed ? null : POOL.acquire();
+        count = 0;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Stream is closed");
+        }
+    }
+
+    private static final class Pool {
+        private volatile SoftReference<ConcurrentLinkedQueue<byte[]>> reference;
+        private final int arraySize;
+
+        private Pool(int arraySize) {
+            this.arraySize = arraySize;
+        }
+
+        private byte[] acquire() {
+            byte[] array = getQueue().poll();
+            return array == null ? new byte[arraySize] : array;
+        }
+
+        private void release(byte[] array) {
+            getQueue().offer(array);
+        }
+
+        private ConcurrentLinkedQueue<byte[]> getQueue() {
+            SoftReference<ConcurrentLinkedQueue<byte[]>> reference = this.reference;
+            if (reference != null) {
+                ConcurrentLinkedQueue<byte[]> queue = reference.get();
+                if (queue != null) {
+                    return queue;
+                }
+            }
+            ConcurrentLinkedQueue<byte[]> queue = new ConcurrentLinkedQueue<>();
+            this.reference = new SoftReference<>(queue);
+            return queue;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.media.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.common.http.DataChunk;
+
+/**
+ * Serializes published elements into chunks of a JSON array or of newline delimited JSON.
+ * <p>
+ * Elements are serialized on the thread that publishes them. Chunks are emitted by whichever thread drains the
+ * queue of ready chunks, serialized by the {@code wip} counter.
+ * <p>
+ * Serialized output is flushed at the end of a batch and of the stream, and whenever the subscriber has demand
+ * and no chunk is ready for it. Output is only coalesced while earlier chunks wait to be emitted.
+ *
+ * @param <T> type of the elements
+ */
+final class JsonStreamPublisher<T> implements Flow.Publisher<DataChunk> {
+
+    private static final int ARRAY_START = '[';
+    private static final int ARRAY_SEPARATOR = ',';
+    private static final int ARRAY_END = ']';
+    private static final int LINE_END = '\n';
+
+    private final Flow.Publisher<T> elements;
+    private final JsonStreamWriter.ElementWriter<T> elementWriter;
+    private final JsonStreamWriter.Format format;
+    private final int batchSize;
+    private final int chunkSize;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final Queue<DataChunk> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong demand = new AtomicLong();
+
+    private volatile Flow.Subscriber<? super DataChunk> subscriber;
+    private volatile Flow.Subscription upstream;
+    // a batch of elements is requested and not yet received
+    private volatile boolean requested;
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private volatile Throwable error;
+    // accessed only by the draining thread
+    private boolean terminated;
+
+    // accessed only by the publishing thread
+    private final ElementOutput output = new ElementOutput();
+    private int received;
+    private boolean first = true;
+
+    JsonStreamPublisher(Flow.Publisher<T> elements,
+                        JsonStreamWriter.ElementWriter<T> elementWriter,
+                        JsonStreamWriter.Format format,
+                        int batchSize,
+                        int chunkSize) {
+        this.elements = elements;
+        this.elementWriter = elementWriter;
+        this.format = format;
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Only single subscriber is allowed!"));
+            return;
+        }
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("Rule §3.9: non-positive request: " + n));
+                    return;
+                }
+                demand.getAndUpdate(current -> (Long.MAX_VALUE - current <= n) ? Long.MAX_VALUE : current + n);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                cancelUpstream();
+                drain();
+            }
+        });
+        elements.subscribe(new ElementSubscriber());
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (cancelled) {
+                releaseReady();
+            } else if (!terminated) {
+                emitReady();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emitReady() {
+        while (demand.get() > 0) {
+            DataChunk chunk = ready.poll();
+            if (chunk == null) {
+                break;
+            }
+            demand.decrementAndGet();
+            subscriber.onNext(chunk);
+            if (cancelled) {
+                return;
+            }
+        }
+        // done is read before the queue, a chunk offered before done is set is then never missed
+        boolean d = done;
+        boolean empty = ready.isEmpty();
+        if (d && empty) {
+            terminated = true;
+            Throwable throwable = error;
+            if (throwable == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(throwable);
+            }
+        } else if (empty && demand.get() > 0 && !requested) {
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                // the next batch is only requested once all chunks of the previous one were emitted
+                requested = true;
+                subscription.request(batchSize);
+            }
+        }
+    }
+
+    private void releaseReady() {
+        DataChunk chunk;
+        while ((chunk = ready.poll()) != null) {
+            chunk.release();
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        cancelUpstream();
+        error = throwable;
+        done = true;
+        releaseReady();
+        drain();
+    }
+
+    private void cancelUpstream() {
+        Flow.Subscription subscription = upstream;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private final class ElementSubscriber implements Flow.Subscriber<T> {
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            drain();
+        }
+
+        @Override
+        public void onNext(T element) {
+            if (done || cancelled) {
+                return;
+            }
+            try {
+                if (format == JsonStreamWriter.Format.ARRAY) {
+                    output.write(first ? ARRAY_START : ARRAY_SEPARATOR);
+                }
+                first = false;
+                elementWriter.write(element, output);
+                if (format == JsonStreamWriter.Format.NDJSON) {
+                    output.write(LINE_END);
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+                return;
+            }
+            boolean batchEnd = ++received == batchSize;
+            // a subscriber waiting for data gets a partial batch right away, e.g. of a slow producer
+            boolean flush = batchEnd || (demand.get() > 0 && ready.isEmpty());
+            if (flush || output.count >= chunkSize) {
+                output.emit(flush);
+            }
+            if (batchEnd) {
+                received = 0;
+                requested = false;
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            output.emit(true);
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            if (format == JsonStreamWriter.Format.ARRAY) {
+                if (first) {
+                    output.write(ARRAY_START);
+                }
+                output.write(ARRAY_END);
+            }
+            output.emit(true);
+            done = true;
+            drain();
+        }
+    }
+
+    /**
+     * Stream the elements are written to, closing it has no effect.
+     */
+    private final class ElementOutput extends OutputStream {
+        private DataChunkOutputStream current = new DataChunkOutputStream();
+        private int count;
+
+        @Override
+        public void write(int b) {
+            current.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            current.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        /**
+         * Moves the written bytes to the ready chunks.
+         *
+         * @param flush whether the chunks should be flushed
+         */
+        private void emit(boolean flush) {
+            if (count == 0) {
+                return;
+            }
+            ready.addAll(current.chunks(flush));
+            current = new DataChunkOutputStream();
+            count = 0;
+        }
+    }
+}
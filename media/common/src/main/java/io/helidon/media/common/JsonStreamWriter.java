@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.media.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.MediaType;
+
+/**
+ * A writer of a {@link Flow.Publisher Publisher} of elements, e.g. a {@link io.helidon.common.reactive.Multi}, as
+ * a JSON array or as newline delimited JSON ({@code application/x-ndjson}). Elements are serialized one by one as
+ * they are published, so a result set of any size is sent with a constant amount of memory.
+ * <p>
+ * Elements are requested in batches of {@link Builder#batchSize(int) batch size}, and only when the subscriber of
+ * the written chunks has demand. Serialized elements are buffered until the buffer reaches the
+ * {@link Builder#chunkSize(int) chunk size}; the buffer is flushed after each batch, and as soon as the subscriber
+ * waits for data, so elements produced slowly are still sent without waiting for the buffer or the batch to fill.
+ *
+ * @param <T> type of the elements
+ */
+public final class JsonStreamWriter<T> implements Function<Flow.Publisher<T>, Flow.Publisher<DataChunk>> {
+
+    /**
+     * Default number of elements requested at a time.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 32;
+
+    /**
+     * Default number of bytes buffered before a chunk is emitted.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final ElementWriter<T> elementWriter;
+    private final Format format;
+    private final int batchSize;
+    private final int chunkSize;
+
+    private JsonStreamWriter(Builder<T> builder) {
+        this.elementWriter = builder.elementWriter;
+        this.format = builder.format;
+        this.batchSize = builder.batchSize;
+        this.chunkSize = builder.chunkSize;
+    }
+
+    /**
+     * Creates a new fluent API builder.
+     *
+     * @param elementWriter writer of a single element
+     * @param <T>           type of the elements
+     * @return a new builder
+     * @throws NullPointerException if {@code elementWriter} is {@code null}
+     */
+    public static <T> Builder<T> builder(ElementWriter<T> elementWriter) {
+        return new Builder<>(elementWriter);
+    }
+
+    @Override
+    public Flow.Publisher<DataChunk> apply(Flow.Publisher<T> elements) {
+        return new JsonStreamPublisher<>(elements, elementWriter, format, batchSize, chunkSize);
+    }
+
+    /**
+     * Format of the written elements.
+     */
+    public enum Format {
+        /**
+         * A JSON array, {@code application/json}.
+         */
+        ARRAY(MediaType.APPLICATION_JSON),
+        /**
+         * Newline delimited JSON, each element on a separate line, {@code application/x-ndjson}.
+         */
+        NDJSON(MediaType.APPLICATION_X_NDJSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        /**
+         * Media type of this format.
+         *
+         * @return media type
+         */
+        public MediaType mediaType() {
+            return mediaType;
+        }
+    }
+
+    /**
+     * Serializes a single element. The element must be written as a single JSON value; in the
+     * {@link Format#NDJSON NDJSON} format it must not contain line breaks outside of strings.
+     *
+     * @param <T> type of the element
+     */
+    @FunctionalInterface
+    public interface ElementWriter<T> {
+        /**
+         * Writes the element. Closing the stream has no effect.
+         *
+         * @param element the element
+         * @param out     stream to write the element to
+         * @throws IOException if the element cannot be written
+         */
+        void write(T element, OutputStream out) throws IOException;
+    }
+
+    /**
+     * Fluent API builder for {@link JsonStreamWriter}.
+     *
+     * @param <T> type of the elements
+     */
+    public static final class Builder<T> implements io.helidon.common.Builder<JsonStreamWriter<T>> {
+        private final ElementWriter<T> elementWriter;
+        private Format format = Format.ARRAY;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+        private Builder(ElementWriter<T> elementWriter) {
+            this.elementWriter = Objects.requireNonNull(elementWriter, "Parameter 'elementWriter' is null!");
+        }
+
+        @Override
+        public JsonStreamWriter<T> build() {
+            return new JsonStreamWriter<>(this);
+        }
+
+        /**
+         * Format of the written elements. Default is {@link Format#ARRAY}.
+         *
+         * @param format the format
+         * @return updated builder instance
+         */
+        public Builder<T> format(Format format) {
+            this.format = Objects.requireNonNull(format, "Parameter 'format' is null!");
+            return this;
+        }
+
+        /**
+         * Number of elements requested at a time, buffered output is flushed after each batch.
+         * Default is {@link #DEFAULT_BATCH_SIZE}.
+         *
+         * @param batchSize the batch size
+         * @return updated builder instance
+         * @throws IllegalArgumentException if the size is not positive
+         */
+        public Builder<T> batchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be positive, but is: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Number of bytes of serialized elements buffered before a chunk is emitted.
+         * Default is {@link #DEFAULT_CHUNK_SIZE}.
+         *
+         * @param chunkSize the chunk size
+         * @return updated builder instance
+         * @throws IllegalArgumentException if the size is not positive
+         */
+        public Builder<T> chunkSize(int chunkSize) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("Chunk size must be positive, but is: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+    }
+}
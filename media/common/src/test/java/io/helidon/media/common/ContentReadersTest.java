@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -75,6 +75,21 @@ class ContentReadersTest {
         assertThat(actualBytes, is(bytes));
     }
 
+    @Test
+    void testReadInputStream() throws Exception {
+        DataChunk first = DataChunk.create("Popo".getBytes(StandardCharsets.UTF_8));
+        DataChunk second = DataChunk.create("katepetl".getBytes(StandardCharsets.UTF_8));
+
+        InputStream inputStream = ContentReaders.readInputStream(Multi.just(first, second))
+                .get(10, TimeUnit.SECONDS);
+        assertThat(inputStream.available(), is(4));
+        assertThat(new String(inputStream.readNBytes(6), StandardCharsets.UTF_8), is("Popoka"));
+        assertThat(first.isReleased(), is(true));
+        assertThat(second.isReleased(), is(false));
+        inputStream.close();
+        assertThat(second.isReleased(), is(true));
+    }
+
     @Test
     void testURLDecodingReader() throws Exception {
         String original = "myParam=\"Now@is'the/time";
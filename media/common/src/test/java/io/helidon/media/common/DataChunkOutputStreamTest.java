@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.media.common;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Multi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link DataChunkOutputStream}.
+ */
+class DataChunkOutputStreamTest {
+
+    @Test
+    void testChunks() throws Exception {
+        byte[] bytes = new byte[20_000];
+        Arrays.fill(bytes, (byte) 'a');
+
+        DataChunkOutputStream out = new DataChunkOutputStream();
+        out.write('b');
+        out.write(bytes);
+        List<DataChunk> chunks = Multi.from(out.publisher())
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(chunks.size(), is(3));
+        assertThat(chunks.get(0).data().remaining(), is(8192));
+        assertThat(chunks.get(1).data().remaining(), is(8192));
+        assertThat(chunks.get(2).data().remaining(), is(20_001 - 2 * 8192));
+        assertThat(chunks.get(0).data().get(0), is((byte) 'b'));
+        chunks.forEach(DataChunk::release);
+    }
+
+    @Test
+    void testEmpty() throws Exception {
+        DataChunkOutputStream out = new DataChunkOutputStream();
+        List<DataChunk> chunks = Multi.from(out.publisher())
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(chunks.size(), is(0));
+        assertThrows(IllegalStateException.class, () -> out.write(1));
+    }
+}
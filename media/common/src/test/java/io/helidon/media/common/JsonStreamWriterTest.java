@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.media.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Multi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test for {@link JsonStreamWriter}.
+ */
+class JsonStreamWriterTest {
+
+    private static final JsonStreamWriter.ElementWriter<Integer> NUMBER_WRITER =
+            (number, out) -> out.write(String.valueOf(number).getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void testArray() throws Exception {
+        JsonStreamWriter<Integer> writer = JsonStreamWriter.builder(NUMBER_WRITER).build();
+        assertThat(write(writer, Multi.just(1, 2, 3)), is("[1,2,3]"));
+    }
+
+    @Test
+    void testEmptyArray() throws Exception {
+        JsonStreamWriter<Integer> writer = JsonStreamWriter.builder(NUMBER_WRITER).build();
+        assertThat(write(writer, Multi.empty()), is("[]"));
+    }
+
+    @Test
+    void testNdjson() throws Exception {
+        JsonStreamWriter<Integer> writer = JsonStreamWriter.builder(NUMBER_WRITER)
+                .format(JsonStreamWriter.Format.NDJSON)
+                .build();
+        assertThat(write(writer, Multi.just(1, 2, 3)), is("1\n2\n3\n"));
+    }
+
+    @Test
+    void testBatches() {
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            numbers.add(i);
+        }
+        AtomicLong published = new AtomicLong();
+        Multi<Integer> elements = Multi.from(numbers).peek(number -> published.incrementAndGet());
+        JsonStreamWriter<Integer> writer = JsonStreamWriter.builder(NUMBER_WRITER)
+                .batchSize(4)
+                .build();
+
+        List<DataChunk> chunks = new ArrayList<>();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        writer.apply(elements).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+                chunks.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        assertThat(published.get(), is(0L));
+        subscription[0].request(1);
+        // the first element is flushed to the waiting subscriber, the rest of the batch is coalesced meanwhile
+        assertThat(published.get(), is(4L));
+        assertThat(chunks.size(), is(1));
+        assertThat(chunks.get(0).flush(), is(true));
+        assertThat(new String(chunks.get(0).bytes(), StandardCharsets.UTF_8), is("[0"));
+
+        subscription[0].request(1);
+        // the next batch is requested only once the chunks of the previous one were emitted
+        assertThat(published.get(), is(4L));
+        assertThat(chunks.size(), is(2));
+        assertThat(chunks.get(1).flush(), is(true));
+        assertThat(new String(chunks.get(1).bytes(), StandardCharsets.UTF_8), is(",1,2,3"));
+        chunks.forEach(DataChunk::release);
+    }
+
+    @Test
+    void testPartialBatchFlushed() {
+        SubmissionPublisher<Integer> elements = new SubmissionPublisher<>(Runnable::run, Flow.defaultBufferSize());
+        JsonStreamWriter<Integer> writer = JsonStreamWriter.builder(NUMBER_WRITER)
+                .format(JsonStreamWriter.Format.NDJSON)
+                .build();
+
+        List<DataChunk> chunks = new ArrayList<>();
+        writer.apply(elements).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+                chunks.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        // a slow producer, far from filling the batch
+        elements.submit(1);
+        assertThat(chunks.size(), is(1));
+        assertThat(chunks.get(0).flush(), is(true));
+        assertThat(new String(chunks.get(0).bytes(), StandardCharsets.UTF_8), is("1\n"));
+        elements.submit(2);
+        assertThat(chunks.size(), is(2));
+        assertThat(new String(chunks.get(1).bytes(), StandardCharsets.UTF_8), is("2\n"));
+        elements.close();
+        chunks.forEach(DataChunk::release);
+    }
+
+    private static String write(JsonStreamWriter<Integer> writer, Multi<Integer> elements) throws Exception {
+        byte[] bytes = ContentReaders.readBytes(writer.apply(elements)).get(10, TimeUnit.SECONDS);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
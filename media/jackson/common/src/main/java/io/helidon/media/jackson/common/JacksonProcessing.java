@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 package io.helidon.media.jackson.common;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Objects;
 import java.util.concurrent.Flow;
@@ -23,9 +26,9 @@ import java.util.function.Function;
 
 import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Reader;
-import io.helidon.media.common.CharBuffer;
 import io.helidon.media.common.ContentReaders;
-import io.helidon.media.common.ContentWriters;
+import io.helidon.media.common.DataChunkOutputStream;
+import io.helidon.media.common.JsonStreamWriter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -46,6 +49,8 @@ public final class JacksonProcessing {
      *
      * <p>This method is intended for the derivation of other, more specific readers.</p>
      *
+     * <p>The content is parsed directly from the received chunks, without copying it into a single array.</p>
+     *
      * @param objectMapper the {@link ObjectMapper} to use; must not be {@code null}
      * @return the byte array content reader that transforms a publisher of byte buffers to a completion stage that
      * might end exceptionally with a {@link RuntimeException} in case of I/O error
@@ -53,20 +58,21 @@ public final class JacksonProcessing {
      */
     public static Reader<Object> reader(final ObjectMapper objectMapper) {
         Objects.requireNonNull(objectMapper);
-        return (publisher, cls) -> ContentReaders.byteArrayReader()
-            .apply(publisher)
-            .thenApply(bytes -> {
-                    try {
-                        return objectMapper.readValue(bytes, cls);
+        return (publisher, cls) -> ContentReaders.readInputStream(publisher)
+            .map(inputStream -> {
+                    try (InputStream is = inputStream) {
+                        return objectMapper.readValue(is, cls);
                     } catch (final IOException wrapMe) {
                         throw new JacksonRuntimeException(wrapMe.getMessage(), wrapMe);
                     }
-                });
+                })
+            .toStage();
     }
 
     /**
      * Returns a function (writer) converting {@link Object}s to {@link Flow.Publisher Publisher}s
      * of {@link DataChunk}s by using the supplied {@link ObjectMapper}.
+     * The payload is serialized directly into cached byte arrays emitted as chunks.
      *
      * @param objectMapper the {@link ObjectMapper} to use; must not be {@code null}
      * @param charset the charset to use; may be null
@@ -76,13 +82,48 @@ public final class JacksonProcessing {
     public static Function<Object, Flow.Publisher<DataChunk>> writer(final ObjectMapper objectMapper, final Charset charset) {
         Objects.requireNonNull(objectMapper);
         return payload -> {
-            CharBuffer buffer = new CharBuffer();
+            DataChunkOutputStream out = new DataChunkOutputStream();
             try {
-                objectMapper.writeValue(buffer, payload);
+                if (charset == null || UTF_8.equals(charset)) {
+                    objectMapper.writeValue(out, payload);
+                } else {
+                    try (Writer writer = new OutputStreamWriter(out, charset)) {
+                        objectMapper.writeValue(writer, payload);
+                    }
+                }
             } catch (final IOException wrapMe) {
                 throw new JacksonRuntimeException(wrapMe.getMessage(), wrapMe);
             }
-            return ContentWriters.charBufferWriter(charset == null ? UTF_8 : charset).apply(buffer);
+            return out.publisher();
+        };
+    }
+
+    /**
+     * Returns a writer of a {@link Flow.Publisher Publisher} of {@link Object}s, e.g. a
+     * {@link io.helidon.common.reactive.Multi}, that serializes the objects one by one as they are published
+     * by using the supplied {@link ObjectMapper}.
+     *
+     * @param objectMapper the {@link ObjectMapper} to use; must not be {@code null}
+     * @param format the format of the written objects; must not be {@code null}
+     * @param charset the charset to use; may be null
+     * @return created writer
+     * @exception NullPointerException if {@code objectMapper} or {@code format} is {@code null}
+     */
+    public static JsonStreamWriter<Object> streamWriter(final ObjectMapper objectMapper,
+                                                        final JsonStreamWriter.Format format,
+                                                        final Charset charset) {
+        Objects.requireNonNull(objectMapper);
+        JsonStreamWriter.ElementWriter<Object> elementWriter = (element, out) -> {
+            if (charset == null || UTF_8.equals(charset)) {
+                objectMapper.writeValue(out, element);
+            } else {
+                try (Writer writer = new OutputStreamWriter(out, charset)) {
+                    objectMapper.writeValue(writer, element);
+                }
+            }
         };
+        return JsonStreamWriter.builder(elementWriter)
+                .format(format)
+                .build();
     }
 }
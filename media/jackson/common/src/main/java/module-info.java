@@ -24,6 +24,7 @@ module io.helidon.media.jackson.common {
     requires com.fasterxml.jackson.databind;
     requires io.helidon.common;
     requires io.helidon.common.http;
+    requires io.helidon.common.mapper;
     requires io.helidon.common.reactive;
     requires io.helidon.media.common;
     
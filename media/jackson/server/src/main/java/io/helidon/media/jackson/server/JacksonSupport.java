@@ -16,6 +16,7 @@
 package io.helidon.media.jackson.server;
 
 import java.util.Objects;
+import java.util.concurrent.Flow;
 import java.util.function.BiFunction;
 
 import io.helidon.common.HelidonFeatures;
@@ -74,6 +75,13 @@ public final class JacksonSupport extends JsonService {
                                            && objectMapper.canSerialize(payload.getClass())
                                            && acceptsJson(request, response),
                                 JacksonProcessing.writer(objectMapper, determineCharset(response.headers())));
+        // Streams of objects, e.g. Multi, are written element by element
+        response.registerWriter(payload -> isJsonStream(payload) && acceptsJsonStream(request, response) != null,
+                                (Flow.Publisher<Object> publisher) -> JacksonProcessing
+                                        .streamWriter(objectMapper,
+                                                      acceptsJsonStream(request, response),
+                                                      determineCharset(response.headers()))
+                                        .apply(publisher));
         request.next();
     }
 
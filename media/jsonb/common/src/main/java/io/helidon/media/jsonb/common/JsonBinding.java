@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,9 +15,10 @@
  */
 package io.helidon.media.jsonb.common;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Objects;
 import java.util.concurrent.Flow;
@@ -28,9 +29,9 @@ import javax.json.bind.JsonbException;
 
 import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Reader;
-import io.helidon.media.common.CharBuffer;
 import io.helidon.media.common.ContentReaders;
-import io.helidon.media.common.ContentWriters;
+import io.helidon.media.common.DataChunkOutputStream;
+import io.helidon.media.common.JsonStreamWriter;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -51,6 +52,8 @@ public final class JsonBinding {
      *
      * <p>This method is intended for the derivation of other, more specific readers.</p>
      *
+     * <p>The content is parsed directly from the received chunks, without copying it into a single array.</p>
+     *
      * @param jsonb the {@link Jsonb} to use; must not be {@code null}
      * @return the byte array content reader that transforms a publisher of byte buffers to a completion stage that
      * might end exceptionally with a {@link RuntimeException} in case of I/O error
@@ -58,20 +61,21 @@ public final class JsonBinding {
      */
     public static Reader<Object> reader(final Jsonb jsonb) {
         Objects.requireNonNull(jsonb);
-        return (publisher, cls) -> ContentReaders.byteArrayReader()
-            .apply(publisher)
-            .thenApply(bytes -> {
-                    try (InputStream inputStream = new ByteArrayInputStream(bytes)) {
-                        return jsonb.fromJson(inputStream, cls);
+        return (publisher, cls) -> ContentReaders.readInputStream(publisher)
+            .map(inputStream -> {
+                    try (InputStream is = inputStream) {
+                        return jsonb.fromJson(is, cls);
                     } catch (final IOException ioException) {
                         throw new JsonbException(ioException.getMessage(), ioException);
                     }
-                });
+                })
+            .toStage();
     }
 
     /**
      * Returns a function (writer) converting {@link Object}s to {@link Flow.Publisher Publisher}s
      * of {@link DataChunk}s by using the supplied {@link Jsonb}.
+     * The payload is serialized directly into cached byte arrays emitted as chunks.
      *
      * @param jsonb the {@link Jsonb} to use; must not be {@code null}
      * @param charset the charset to use; may be null
@@ -81,9 +85,46 @@ public final class JsonBinding {
     public static Function<Object, Flow.Publisher<DataChunk>> writer(final Jsonb jsonb, final Charset charset) {
         Objects.requireNonNull(jsonb);
         return payload -> {
-            CharBuffer buffer = new CharBuffer();
-            jsonb.toJson(payload, buffer);
-            return ContentWriters.charBufferWriter(charset == null ? UTF_8 : charset).apply(buffer);
+            DataChunkOutputStream out = new DataChunkOutputStream();
+            if (charset == null || UTF_8.equals(charset)) {
+                jsonb.toJson(payload, out);
+            } else {
+                try (Writer writer = new OutputStreamWriter(out, charset)) {
+                    jsonb.toJson(payload, writer);
+                } catch (final IOException ioException) {
+                    throw new JsonbException(ioException.getMessage(), ioException);
+                }
+            }
+            return out.publisher();
+        };
+    }
+
+    /**
+     * Returns a writer of a {@link Flow.Publisher Publisher} of {@link Object}s, e.g. a
+     * {@link io.helidon.common.reactive.Multi}, that serializes the objects one by one as they are published
+     * by using the supplied {@link Jsonb}.
+     *
+     * @param jsonb the {@link Jsonb} to use; must not be {@code null}
+     * @param format the format of the written objects; must not be {@code null}
+     * @param charset the charset to use; may be null
+     * @return created writer
+     * @exception NullPointerException if {@code jsonb} or {@code format} is {@code null}
+     */
+    public static JsonStreamWriter<Object> streamWriter(final Jsonb jsonb,
+                                                        final JsonStreamWriter.Format format,
+                                                        final Charset charset) {
+        Objects.requireNonNull(jsonb);
+        JsonStreamWriter.ElementWriter<Object> elementWriter = (element, out) -> {
+            if (charset == null || UTF_8.equals(charset)) {
+                jsonb.toJson(element, out);
+            } else {
+                try (Writer writer = new OutputStreamWriter(out, charset)) {
+                    jsonb.toJson(element, writer);
+                }
+            }
         };
+        return JsonStreamWriter.builder(elementWriter)
+                .format(format)
+                .build();
     }
 }
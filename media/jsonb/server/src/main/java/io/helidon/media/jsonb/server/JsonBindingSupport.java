@@ -17,6 +17,7 @@
 package io.helidon.media.jsonb.server;
 
 import java.util.Objects;
+import java.util.concurrent.Flow;
 import java.util.function.BiFunction;
 
 import javax.json.bind.Jsonb;
@@ -60,6 +61,13 @@ public final class JsonBindingSupport extends JsonService {
                             JsonBinding.reader(jsonb));
         response.registerWriter(payload -> !(payload instanceof CharSequence) && acceptsJson(request, response),
                                 JsonBinding.writer(jsonb, determineCharset(response.headers())));
+        // Streams of objects, e.g. Multi, are written element by element
+        response.registerWriter(payload -> isJsonStream(payload) && acceptsJsonStream(request, response) != null,
+                                (Flow.Publisher<Object> publisher) -> JsonBinding
+                                        .streamWriter(jsonb,
+                                                      acceptsJsonStream(request, response),
+                                                      determineCharset(response.headers()))
+                                        .apply(publisher));
         request.next();
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,8 +15,6 @@
  */
 package io.helidon.media.jsonp.common;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
@@ -33,9 +31,9 @@ import javax.json.JsonWriterFactory;
 
 import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Reader;
-import io.helidon.media.common.CharBuffer;
 import io.helidon.media.common.ContentReaders;
-import io.helidon.media.common.ContentWriters;
+import io.helidon.media.common.DataChunkOutputStream;
+import io.helidon.media.common.JsonStreamWriter;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -71,6 +69,8 @@ public final class JsonProcessing {
      * a JSON-P object.
      * <p>
      * It is intended for derivation of others, more specific readers.
+     * <p>
+     * The content is parsed directly from the received chunks, without copying it into a single array.
      *
      * @param charset a charset to use charset
      * @return the byte array content reader that transforms a publisher of byte buffers to a completion stage that
@@ -78,37 +78,37 @@ public final class JsonProcessing {
      * a {@link javax.json.JsonException}
      */
     public Reader<JsonStructure> reader(Charset charset) {
-        return (publisher, clazz) -> ContentReaders.byteArrayReader()
-                .apply(publisher)
-                .thenApply(bytes -> {
-                    InputStream is = new ByteArrayInputStream(bytes);
-
-                    JsonReader reader = (charset == null)
+        return (publisher, clazz) -> ContentReaders.readInputStream(publisher)
+                .map(is -> {
+                    // closing the reader closes the stream, which releases chunks that were not read
+                    JsonStructure json;
+                    try (JsonReader reader = (charset == null)
                             ? jsonReaderFactory.createReader(is)
-                            : jsonReaderFactory.createReader(is, charset);
-
-                    JsonStructure json = reader.read();
+                            : jsonReaderFactory.createReader(is, charset)) {
+                        json = reader.read();
+                    }
                     if (!clazz.isAssignableFrom(json.getClass())) {
                         throw new JsonException("Unable to convert " + json.getClass() + " to " + clazz);
                     }
                     return json;
-                });
+                })
+                .toStage();
     }
 
     /**
      * Returns a function (writer) converting {@link JsonStructure} to the {@link Flow.Publisher Publisher}
-     * of {@link DataChunk}s.
+     * of {@link DataChunk}s. The JSON is written directly into cached byte arrays emitted as chunks.
      *
      * @param charset a charset to use or {@code null} for default charset
      * @return created function
      */
     public Function<JsonStructure, Flow.Publisher<DataChunk>> writer(Charset charset) {
         return json -> {
-            CharBuffer buffer = new CharBuffer();
-            JsonWriter writer = jsonWriterFactory.createWriter(buffer);
+            DataChunkOutputStream out = new DataChunkOutputStream();
+            JsonWriter writer = jsonWriterFactory.createWriter(out, charset == null ? UTF_8 : charset);
             writer.write(json);
             writer.close();
-            return ContentWriters.charBufferWriter(charset == null ? UTF_8 : charset).apply(buffer);
+            return out.publisher();
         };
     }
 
@@ -122,6 +122,27 @@ public final class JsonProcessing {
         return writer(null);
     }
 
+    /**
+     * Returns a writer of a {@link Flow.Publisher Publisher} of {@link JsonStructure}s, e.g. a
+     * {@link io.helidon.common.reactive.Multi}, that writes the structures one by one as they are published.
+     * The {@link JsonStreamWriter.Format#NDJSON NDJSON} format requires a writer factory that does not pretty print.
+     *
+     * @param format the format of the written structures
+     * @param charset a charset to use or {@code null} for default charset
+     * @return created writer
+     * @throws NullPointerException if {@code format} is {@code null}
+     */
+    public JsonStreamWriter<JsonStructure> streamWriter(JsonStreamWriter.Format format, Charset charset) {
+        JsonStreamWriter.ElementWriter<JsonStructure> elementWriter = (json, out) -> {
+            try (JsonWriter writer = jsonWriterFactory.createWriter(out, charset == null ? UTF_8 : charset)) {
+                writer.write(json);
+            }
+        };
+        return JsonStreamWriter.builder(elementWriter)
+                .format(format)
+                .build();
+    }
+
     /**
      * Provides a default instance for JSON-P readers and writers.
      * @return json processing with default configuration
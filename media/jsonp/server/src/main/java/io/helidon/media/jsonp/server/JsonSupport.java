@@ -117,6 +117,12 @@ public final class JsonSupport extends JsonService {
                                     Charset charset = determineCharset(response.headers());
                                     return writer(charset).apply((JsonStructure) json);
                                 });
+        // Streams of JSON structures, e.g. Multi, are written structure by structure
+        response.registerWriter(payload -> isJsonStream(payload) && acceptsJsonStream(request, response) != null,
+                                (Flow.Publisher<JsonStructure> publisher) -> processingSupport
+                                        .streamWriter(acceptsJsonStream(request, response),
+                                                      determineCharset(response.headers()))
+                                        .apply(publisher));
         request.next();
     }
 
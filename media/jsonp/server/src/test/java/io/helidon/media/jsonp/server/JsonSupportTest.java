@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,10 +20,12 @@ import java.io.ByteArrayInputStream;
 import java.util.concurrent.TimeUnit;
 
 import javax.json.Json;
+import javax.json.JsonArray;
 import javax.json.JsonObject;
 
 import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Multi;
 import io.helidon.webserver.Handler;
 import io.helidon.webserver.Routing;
 import io.helidon.webserver.testsupport.MediaPublisher;
@@ -155,4 +157,60 @@ class JsonSupportTest {
                 .post(MediaPublisher.create(MediaType.APPLICATION_JSON.withCharset("UTF-8"), json.toString()));
         assertThat(response.status(), is(Http.Status.INTERNAL_SERVER_ERROR_500));
     }
+
+    @Test
+    public void streamArray() throws Exception {
+        Routing routing = Routing.builder()
+                .register(JsonSupport.create())
+                .get("/foo", (req, res) -> res.send(Multi.just(createJson(), createJson())))
+                .build();
+        TestResponse response = TestClient.create(routing)
+                .path("/foo")
+                .get();
+
+        assertThat(response.headers().first(Http.Header.CONTENT_TYPE).orElse(null), is(MediaType.APPLICATION_JSON.toString()));
+        byte[] bytes = response.asBytes().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        JsonArray array = Json.createReader(new ByteArrayInputStream(bytes)).readArray();
+        assertThat(array, is(Json.createArrayBuilder().add(createJson()).add(createJson()).build()));
+    }
+
+    @Test
+    public void streamNdjson() throws Exception {
+        Routing routing = Routing.builder()
+                .register(JsonSupport.create())
+                .get("/foo", (req, res) -> res.send(Multi.just(createJson(), createJson())))
+                .build();
+        TestResponse response = TestClient.create(routing)
+                .path("/foo")
+                .header("Accept", "application/x-ndjson, application/json; q=.5")
+                .get();
+
+        assertThat(response.headers().first(Http.Header.CONTENT_TYPE).orElse(null),
+                   is(MediaType.APPLICATION_X_NDJSON.toString()));
+        String content = response.asString().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertThat(content, is(createJson() + "\n" + createJson() + "\n"));
+    }
+
+    @Test
+    public void streamNdjsonPreferredByQuality() throws Exception {
+        Routing routing = Routing.builder()
+                .register(JsonSupport.create())
+                .get("/foo", (req, res) -> res.send(Multi.just(createJson(), createJson())))
+                .build();
+        TestResponse response = TestClient.create(routing)
+                .path("/foo")
+                .header("Accept", "application/json; q=.5, application/x-ndjson")
+                .get();
+
+        assertThat(response.headers().first(Http.Header.CONTENT_TYPE).orElse(null),
+                   is(MediaType.APPLICATION_X_NDJSON.toString()));
+
+        response = TestClient.create(routing)
+                .path("/foo")
+                .header("Accept", "application/x-ndjson; q=.5, */*")
+                .get();
+
+        assertThat(response.headers().first(Http.Header.CONTENT_TYPE).orElse(null),
+                   is(MediaType.APPLICATION_JSON.toString()));
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import io.helidon.common.http.Content;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Reader;
+
+/**
+ * Content of a response received by {@link WebClient}.
+ */
+final class ClientContent implements Content {
+
+    private final Flow.Publisher<DataChunk> publisher;
+    private final Charset charset;
+    private final LinkedList<MediaSupport.ContentReader<?>> readers;
+    private final List<Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>>> filters = new ArrayList<>();
+
+    /**
+     * Creates new content.
+     *
+     * @param publisher    publisher of the content
+     * @param charset      charset of the content, used by the default {@code String} reader
+     * @param mediaSupport registered readers
+     */
+    ClientContent(Flow.Publisher<DataChunk> publisher, Charset charset, MediaSupport mediaSupport) {
+        this.publisher = publisher;
+        this.charset = charset;
+        this.readers = new LinkedList<>(mediaSupport.readers());
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+        chainPublishers().subscribe(subscriber);
+    }
+
+    @Override
+    public void registerFilter(Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>> function) {
+        Objects.requireNonNull(function, "Parameter 'function' is null!");
+        synchronized (filters) {
+            filters.add(function);
+        }
+    }
+
+    @Override
+    public <T> void registerReader(Class<T> type, Reader<T> reader) {
+        Objects.requireNonNull(type, "Parameter 'type' is null!");
+        registerReader(type::isAssignableFrom, reader);
+    }
+
+    @Override
+    public <T> void registerReader(Predicate<Class<?>> predicate, Reader<T> reader) {
+        synchronized (readers) {
+            readers.addFirst(new MediaSupport.ContentReader<>(predicate, reader));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletionStage<T> as(Class<T> type) {
+        try {
+            Reader<?> reader = readerFor(type);
+            if (reader == null) {
+                throw new IllegalArgumentException("No reader found for class: " + type);
+            }
+            return (CompletionStage<T>) reader.apply(chainPublishers(), (Class) type);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Transformation failed!", e));
+        }
+    }
+
+    private Reader<?> readerFor(Class<?> type) {
+        synchronized (readers) {
+            for (MediaSupport.ContentReader<?> reader : readers) {
+                if (reader.accept(type)) {
+                    return reader.reader();
+                }
+            }
+        }
+        return MediaSupport.defaultReader(type, charset);
+    }
+
+    private Flow.Publisher<DataChunk> chainPublishers() {
+        Flow.Publisher<DataChunk> result = publisher;
+        synchronized (filters) {
+            for (Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>> filter : filters) {
+                result = filter.apply(result);
+            }
+        }
+        return result;
+    }
+}
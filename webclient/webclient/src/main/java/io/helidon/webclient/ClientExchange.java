@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpStatusClass;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * A single request and its response on a pooled connection.
+ * <p>
+ * The connection is returned to its pool once the whole response is received, or closed if it cannot be reused,
+ * i.e. if either side does not keep the connection alive, the request fails or the response content is cancelled.
+ */
+final class ClientExchange {
+
+    private final ChannelPool pool;
+    private final Channel channel;
+    private final URI uri;
+    private final MediaSupport mediaSupport;
+    private final CompletableFuture<WebClientResponse> response;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    // accessed by the event loop of the channel only
+    private boolean keepAlive;
+    private boolean informational;
+    private volatile ResponseContentPublisher content;
+    private volatile boolean requestSent;
+
+    ClientExchange(ChannelPool pool,
+                   Channel channel,
+                   URI uri,
+                   MediaSupport mediaSupport,
+                   boolean keepAlive,
+                   CompletableFuture<WebClientResponse> response) {
+        this.pool = pool;
+        this.channel = channel;
+        this.uri = uri;
+        this.mediaSupport = mediaSupport;
+        this.keepAlive = keepAlive;
+        this.response = response;
+    }
+
+    /**
+     * Sends the request.
+     *
+     * @param request request headers, a full request if there is no entity
+     * @param entity  publisher of the entity or {@code null} if there is none
+     */
+    void send(HttpRequest request, Flow.Publisher<DataChunk> entity) {
+        channel.attr(NettyClientHandler.EXCHANGE).set(this);
+        ChannelFutureListener onFailure = future -> {
+            if (!future.isSuccess()) {
+                fail(new WebClientException("Failed to send request to " + uri, future.cause()));
+            }
+        };
+        if (entity == null) {
+            requestSent = true;
+            channel.writeAndFlush(request).addListener(onFailure);
+        } else {
+            channel.write(request).addListener(onFailure);
+            entity.subscribe(new RequestContentSubscriber(channel, this));
+        }
+    }
+
+    void onResponse(HttpResponse httpResponse) {
+        if (httpResponse.decoderResult().isFailure()) {
+            fail(new WebClientException("Invalid response from " + uri, httpResponse.decoderResult().cause()));
+            return;
+        }
+        if (httpResponse.status().codeClass() == HttpStatusClass.INFORMATIONAL
+                && !HttpResponseStatus.SWITCHING_PROTOCOLS.equals(httpResponse.status())) {
+            // interim response, e.g. 100 Continue, the final response follows
+            informational = true;
+            return;
+        }
+        keepAlive = keepAlive && HttpUtil.isKeepAlive(httpResponse);
+        ResponseContentPublisher publisher = new ResponseContentPublisher(channel, this::cancel);
+        content = publisher;
+        response.complete(new WebClientResponseImpl(httpResponse, publisher, mediaSupport, uri));
+    }
+
+    void onContent(HttpContent httpContent) {
+        ResponseContentPublisher publisher = content;
+        if (informational || publisher == null) {
+            informational = informational && !(httpContent instanceof LastHttpContent);
+            return;
+        }
+        ByteBuf buf = httpContent.content();
+        if (buf.isReadable()) {
+            buf.retain();
+            publisher.offer(DataChunk.create(false, buf.nioBuffer(), buf::release, true));
+        }
+        if (httpContent instanceof LastHttpContent) {
+            publisher.complete();
+            // a response received before the whole request was sent leaves the connection in an unknown state
+            finish(keepAlive && requestSent);
+        }
+    }
+
+    /**
+     * Marks the request entity as completely written.
+     */
+    void requestSent() {
+        requestSent = true;
+    }
+
+    /**
+     * Whether the exchange is waiting for data from the server, used to detect read timeout.
+     *
+     * @return {@code true} if waiting for the response or for content requested by the subscriber
+     */
+    boolean awaitsData() {
+        ResponseContentPublisher publisher = content;
+        return publisher == null || publisher.awaitsData();
+    }
+
+    /**
+     * Whether the response content has not been subscribed to, so the connection cannot be returned to its pool.
+     *
+     * @return {@code true} if the response was received and its content is not subscribed
+     */
+    boolean contentUnsubscribed() {
+        ResponseContentPublisher publisher = content;
+        return publisher != null && publisher.unsubscribed();
+    }
+
+    /**
+     * Fails the exchange and closes the connection.
+     *
+     * @param throwable the cause
+     */
+    void fail(Throwable throwable) {
+        if (finished.get()) {
+            return;
+        }
+        if (!response.completeExceptionally(throwable)) {
+            ResponseContentPublisher publisher = content;
+            if (publisher != null) {
+                publisher.fail(throwable);
+            }
+        }
+        finish(false);
+    }
+
+    private void cancel() {
+        finish(false);
+    }
+
+    private void finish(boolean reuse) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        channel.attr(NettyClientHandler.EXCHANGE).set(null);
+        if (reuse) {
+            // reading may have been suspended by the content publisher
+            channel.config().setAutoRead(true);
+        } else {
+            channel.close();
+        }
+        pool.release(channel);
+    }
+}
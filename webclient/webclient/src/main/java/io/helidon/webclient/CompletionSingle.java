@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.helidon.common.reactive.Single;
+
+/**
+ * A {@link Single} completed by a {@link CompletionStage}.
+ *
+ * @param <T> item type
+ */
+final class CompletionSingle<T> implements Single<T> {
+
+    private final CompletionStage<T> stage;
+
+    private CompletionSingle(CompletionStage<T> stage) {
+        this.stage = stage;
+    }
+
+    static <T> Single<T> create(CompletionStage<T> stage) {
+        return new CompletionSingle<>(stage);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        AtomicBoolean requested = new AtomicBoolean();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    if (cancelled.compareAndSet(false, true)) {
+                        subscriber.onError(new IllegalArgumentException("Requested number must be positive: " + n));
+                    }
+                    return;
+                }
+                if (requested.compareAndSet(false, true)) {
+                    stage.whenComplete((item, throwable) -> {
+                        if (!cancelled.compareAndSet(false, true)) {
+                            return;
+                        }
+                        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                            subscriber.onError(throwable.getCause());
+                        } else if (throwable != null) {
+                            subscriber.onError(throwable);
+                        } else if (item == null) {
+                            subscriber.onComplete();
+                        } else {
+                            subscriber.onNext(item);
+                            subscriber.onComplete();
+                        }
+                    });
+                }
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+
+import io.helidon.common.LazyValue;
+import io.helidon.common.context.Context;
+import io.helidon.common.context.Contexts;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.InetNameResolver;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * Connection pools of a {@link WebClient}, one pool per scheme, host and port.
+ * <p>
+ * Connections are created on event loops of a {@code WebServer} if the server registered them in the context
+ * of the client, otherwise on event loops shared by all clients. Host names are resolved on a shared blocking
+ * executor, so a slow DNS lookup never blocks an event loop.
+ */
+final class ConnectionPools {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPools.class.getName());
+
+    private static final LazyValue<EventLoopGroup> SHARED_GROUP = LazyValue.create(
+            () -> new NioEventLoopGroup(0, new DefaultThreadFactory("helidon-webclient", true)));
+    private static final LazyValue<ExecutorService> RESOLVER_EXECUTOR = LazyValue.create(
+            () -> Executors.newCachedThreadPool(new DefaultThreadFactory("helidon-webclient-resolver", true)));
+    private static final AddressResolverGroup<InetSocketAddress> RESOLVER_GROUP = new BlockingResolverGroup();
+
+    private final Map<ConnectionKey, FixedChannelPool> pools = new ConcurrentHashMap<>();
+    private final Bootstrap bootstrap;
+    private final SSLContext sslContext;
+    private final LazyValue<SslContext> nettySslContext;
+    private final long readTimeoutMillis;
+    private final long acquireTimeoutMillis;
+    private final int maxConnections;
+    private final int maxPendingAcquires;
+
+    private volatile boolean closed;
+
+    ConnectionPools(WebClient.Builder builder) {
+        EventLoopGroup group = eventLoopGroup(builder.context());
+        this.bootstrap = new Bootstrap()
+                .group(group)
+                .channel(channelClass(group))
+                .resolver(RESOLVER_GROUP)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(builder.connectTimeoutMillis(), Integer.MAX_VALUE))
+                .option(ChannelOption.TCP_NODELAY, true);
+        this.sslContext = builder.sslContext();
+        this.nettySslContext = LazyValue.create(this::createSslContext);
+        this.readTimeoutMillis = builder.readTimeoutMillis();
+        this.acquireTimeoutMillis = builder.acquireTimeoutMillis();
+        this.maxConnections = builder.maxConnectionsPerHost();
+        this.maxPendingAcquires = builder.maxPendingAcquires();
+    }
+
+    /**
+     * Pool of connections to the host of the URI.
+     *
+     * @param uri absolute URI with {@code http} or {@code https} scheme
+     * @return connection pool
+     * @throws WebClientException if the pools are closed
+     */
+    ChannelPool pool(URI uri) {
+        if (closed) {
+            throw new WebClientException("Client has been shut down");
+        }
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() < 0 ? (secure ? 443 : 80) : uri.getPort();
+        return pools.computeIfAbsent(new ConnectionKey(secure, uri.getHost(), port), this::createPool);
+    }
+
+    /**
+     * Closes all pools and their connections.
+     *
+     * @return completion stage completed once all pools are closed
+     */
+    CompletionStage<Void> close() {
+        closed = true;
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        pools.values().forEach(pool -> {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            pool.closeAsync().addListener(f -> future.complete(null));
+            futures.add(future);
+        });
+        pools.clear();
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    private FixedChannelPool createPool(ConnectionKey key) {
+        LOGGER.finest(() -> "Creating connection pool for " + key);
+        Bootstrap poolBootstrap = bootstrap.clone()
+                .remoteAddress(InetSocketAddress.createUnresolved(key.host, key.port));
+        return new FixedChannelPool(poolBootstrap,
+                                    new PoolHandler(key),
+                                    ChannelHealthChecker.ACTIVE,
+                                    acquireTimeoutMillis < 0 ? null : FixedChannelPool.AcquireTimeoutAction.FAIL,
+                                    acquireTimeoutMillis,
+                                    maxConnections,
+                                    maxPendingAcquires,
+                                    true,
+                                    true);
+    }
+
+    private SslContext createSslContext() {
+        SSLContext context = sslContext;
+        if (context == null) {
+            try {
+                context = SSLContext.getDefault();
+            } catch (NoSuchAlgorithmException e) {
+                throw new WebClientException("Default SSL context is not available", e);
+            }
+        }
+        return new JdkSslContext(context, true, null,
+                                 IdentityCipherSuiteFilter.INSTANCE, ApplicationProtocolConfig.DISABLED,
+                                 ClientAuth.NONE, null, false);
+    }
+
+    private static EventLoopGroup eventLoopGroup(Context context) {
+        Context ctx = (context == null) ? Contexts.context().orElse(null) : context;
+        if (ctx != null) {
+            EventLoopGroup group = ctx.get(EventLoopGroup.class).orElse(null);
+            if (group != null && !group.isShuttingDown()) {
+                LOGGER.finest("Using event loops of the server");
+                return group;
+            }
+        }
+        return SHARED_GROUP.get();
+    }
+
+    private static Class<? extends Channel> channelClass(EventLoopGroup group) {
+        if (!(group instanceof NioEventLoopGroup)) {
+            try {
+                if (group instanceof EpollEventLoopGroup) {
+                    return EpollSocketChannel.class;
+                }
+            } catch (LinkageError e) {
+                LOGGER.log(Level.FINEST, "Native epoll transport classes are not on the classpath", e);
+            }
+        }
+        return NioSocketChannel.class;
+    }
+
+    /**
+     * Resolves host names with the JDK resolver on the shared resolver executor, the result is delivered on the event loop
+     * of the connection.
+     */
+    private static final class BlockingResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+
+        @Override
+        protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+            return new InetNameResolver(executor) {
+                @Override
+                protected void doResolve(String inetHost, Promise<InetAddress> promise) {
+                    RESOLVER_EXECUTOR.get().execute(() -> {
+                        try {
+                            promise.trySuccess(InetAddress.getByName(inetHost));
+                        } catch (UnknownHostException | RuntimeException e) {
+                            promise.tryFailure(e);
+                        }
+                    });
+                }
+
+                @Override
+                protected void doResolveAll(String inetHost, Promise<List<InetAddress>> promise) {
+                    RESOLVER_EXECUTOR.get().execute(() -> {
+                        try {
+                            promise.trySuccess(Arrays.asList(InetAddress.getAllByName(inetHost)));
+                        } catch (UnknownHostException | RuntimeException e) {
+                            promise.tryFailure(e);
+                        }
+                    });
+                }
+            }.asAddressResolver();
+        }
+    }
+
+    private final class PoolHandler extends AbstractChannelPoolHandler {
+        private final ConnectionKey key;
+
+        private PoolHandler(ConnectionKey key) {
+            this.key = key;
+        }
+
+        @Override
+        public void channelCreated(Channel channel) {
+            LOGGER.finest(() -> "New connection to " + key);
+            ChannelPipeline pipeline = channel.pipeline();
+            if (key.secure) {
+                SslHandler sslHandler = nettySslContext.get().newHandler(channel.alloc(), key.host, key.port);
+                SSLEngine engine = sslHandler.engine();
+                SSLParameters parameters = engine.getSSLParameters();
+                parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                engine.setSSLParameters(parameters);
+                pipeline.addLast(sslHandler);
+            }
+            pipeline.addLast(new HttpClientCodec());
+            pipeline.addLast(new HttpContentDecompressor());
+            pipeline.addLast(new IdleStateHandler(readTimeoutMillis, 0, 0, TimeUnit.MILLISECONDS));
+            pipeline.addLast(new NettyClientHandler());
+        }
+    }
+
+    private static final class ConnectionKey {
+        private final boolean secure;
+        private final String host;
+        private final int port;
+
+        private ConnectionKey(boolean secure, String host, int port) {
+            this.secure = secure;
+            this.host = host;
+            this.port = port;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConnectionKey)) {
+                return false;
+            }
+            ConnectionKey that = (ConnectionKey) o;
+            return secure == that.secure
+                    && port == that.port
+                    && host.equals(that.host);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(secure, host, port);
+        }
+
+        @Override
+        public String toString() {
+            return (secure ? "https://" : "http://") + host + ':' + port;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.Reader;
+import io.helidon.media.common.ContentReaders;
+import io.helidon.media.common.ContentWriters;
+
+/**
+ * Readers of response content and writers of request entities registered with a {@link WebClient}.
+ * The last registered compatible reader or writer is used, defaults are used if none is compatible.
+ */
+final class MediaSupport {
+
+    private final List<ContentReader<?>> readers;
+    private final List<ContentWriter<?>> writers;
+
+    private MediaSupport(Builder builder) {
+        this.readers = List.copyOf(builder.readers);
+        this.writers = List.copyOf(builder.writers);
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Registered readers, the most recently registered first.
+     *
+     * @return registered readers
+     */
+    List<ContentReader<?>> readers() {
+        return readers;
+    }
+
+    /**
+     * Default reader of the provided type.
+     *
+     * @param type    requested type
+     * @param charset charset of the content
+     * @return default reader or {@code null} if there is none
+     */
+    static Reader<?> defaultReader(Class<?> type, Charset charset) {
+        if (String.class.isAssignableFrom(type)) {
+            return ContentReaders.stringReader(charset);
+        } else if (byte[].class.isAssignableFrom(type)) {
+            return ContentReaders.byteArrayReader();
+        } else if (InputStream.class.isAssignableFrom(type)) {
+            return ContentReaders.inputStreamReader();
+        }
+        return null;
+    }
+
+    /**
+     * Writes the entity using the last registered compatible writer or a default writer.
+     *
+     * @param entity      the entity
+     * @param contentType content type set on the request, may be {@code null}
+     * @return the written entity
+     * @throws IllegalArgumentException if there is no writer of the entity
+     */
+    @SuppressWarnings("unchecked")
+    Entity write(Object entity, MediaType contentType) {
+        for (ContentWriter<?> writer : writers) {
+            if (writer.accept(entity, contentType)) {
+                MediaType type = contentType == null ? writer.contentType : contentType;
+                return new Entity(type, ((ContentWriter<Object>) writer).function.apply(entity));
+            }
+        }
+        if (entity instanceof CharSequence) {
+            MediaType type = contentType == null ? MediaType.TEXT_PLAIN : contentType;
+            String charset = type.charset().orElse(StandardCharsets.UTF_8.name());
+            return new Entity(type.withCharset(charset),
+                              ContentWriters.charSequenceWriter(Charset.forName(charset)).apply((CharSequence) entity));
+        } else if (entity instanceof byte[]) {
+            return new Entity(contentType == null ? MediaType.APPLICATION_OCTET_STREAM : contentType,
+                              ContentWriters.byteArrayWriter(true).apply((byte[]) entity));
+        } else if (entity instanceof ReadableByteChannel) {
+            return new Entity(contentType == null ? MediaType.APPLICATION_OCTET_STREAM : contentType,
+                              ContentWriters.byteChannelWriter().apply((ReadableByteChannel) entity));
+        } else if (entity instanceof Path || entity instanceof File) {
+            Path path = entity instanceof File ? ((File) entity).toPath() : (Path) entity;
+            try {
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                return new Entity(contentType == null ? MediaType.APPLICATION_OCTET_STREAM : contentType,
+                                  ContentWriters.byteChannelWriter().apply(channel));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read file " + path, e);
+            }
+        }
+        throw new IllegalArgumentException("No writer found for " + entity.getClass().getName());
+    }
+
+    /**
+     * An entity written by a writer.
+     */
+    static final class Entity {
+        private final MediaType contentType;
+        private final Flow.Publisher<DataChunk> publisher;
+
+        private Entity(MediaType contentType, Flow.Publisher<DataChunk> publisher) {
+            this.contentType = contentType;
+            this.publisher = publisher;
+        }
+
+        /**
+         * Content type of the entity.
+         *
+         * @return content type or {@code null} if unknown
+         */
+        MediaType contentType() {
+            return contentType;
+        }
+
+        Flow.Publisher<DataChunk> publisher() {
+            return publisher;
+        }
+    }
+
+    /**
+     * A registered reader.
+     *
+     * @param <T> type the reader reads
+     */
+    static final class ContentReader<T> {
+        private final Predicate<Class<?>> predicate;
+        private final Reader<T> reader;
+
+        ContentReader(Predicate<Class<?>> predicate, Reader<T> reader) {
+            this.predicate = Objects.requireNonNull(predicate, "Parameter 'predicate' is null!");
+            this.reader = Objects.requireNonNull(reader, "Parameter 'reader' is null!");
+        }
+
+        boolean accept(Class<?> type) {
+            return predicate.test(type);
+        }
+
+        Reader<T> reader() {
+            return reader;
+        }
+    }
+
+    private static final class ContentWriter<T> {
+        private final Predicate<Object> accept;
+        private final MediaType contentType;
+        private final Function<T, Flow.Publisher<DataChunk>> function;
+
+        private ContentWriter(Predicate<Object> accept, MediaType contentType, Function<T, Flow.Publisher<DataChunk>> function) {
+            this.accept = Objects.requireNonNull(accept, "Parameter 'accept' is null!");
+            this.contentType = contentType;
+            this.function = Objects.requireNonNull(function, "Parameter 'function' is null!");
+        }
+
+        private boolean accept(Object entity, MediaType requestContentType) {
+            if (!accept.test(entity)) {
+                return false;
+            }
+            // MediaType is a predicate of compatible media types
+            return contentType == null || requestContentType == null || contentType.test(requestContentType);
+        }
+    }
+
+    static final class Builder implements io.helidon.common.Builder<MediaSupport> {
+        private final LinkedList<ContentReader<?>> readers = new LinkedList<>();
+        private final LinkedList<ContentWriter<?>> writers = new LinkedList<>();
+
+        private Builder() {
+        }
+
+        @Override
+        public MediaSupport build() {
+            return new MediaSupport(this);
+        }
+
+        <T> Builder registerReader(Class<T> type, Reader<T> reader) {
+            Objects.requireNonNull(type, "Parameter 'type' is null!");
+            return registerReader(type::isAssignableFrom, reader);
+        }
+
+        <T> Builder registerReader(Predicate<Class<?>> predicate, Reader<T> reader) {
+            readers.addFirst(new ContentReader<>(predicate, reader));
+            return this;
+        }
+
+        <T> Builder registerWriter(Class<T> type, MediaType contentType, Function<T, Flow.Publisher<DataChunk>> writer) {
+            Objects.requireNonNull(type, "Parameter 'type' is null!");
+            return registerWriter(type::isInstance, contentType, writer);
+        }
+
+        <T> Builder registerWriter(Predicate<Object> accept,
+                                   MediaType contentType,
+                                   Function<T, Flow.Publisher<DataChunk>> writer) {
+            writers.addFirst(new ContentWriter<>(accept, contentType, writer));
+            return this;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.util.logging.Logger;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.AttributeKey;
+
+/**
+ * Dispatches responses of a client connection to the {@link ClientExchange} currently using the connection.
+ */
+class NettyClientHandler extends SimpleChannelInboundHandler<HttpObject> {
+
+    /**
+     * Exchange currently using the connection, not set while the connection is idle in a pool.
+     */
+    static final AttributeKey<ClientExchange> EXCHANGE = AttributeKey.valueOf("helidon.webclient.exchange");
+
+    private static final Logger LOGGER = Logger.getLogger(NettyClientHandler.class.getName());
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, HttpObject msg) {
+        ClientExchange exchange = ctx.channel().attr(EXCHANGE).get();
+        if (exchange == null) {
+            LOGGER.finest(() -> "Unexpected data on an idle connection, closing: " + ctx.channel());
+            ctx.close();
+            return;
+        }
+        if (msg instanceof HttpResponse) {
+            exchange.onResponse((HttpResponse) msg);
+        }
+        if (msg instanceof HttpContent) {
+            exchange.onContent((HttpContent) msg);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        ClientExchange exchange = ctx.channel().attr(EXCHANGE).get();
+        if (exchange != null) {
+            exchange.fail(new WebClientException("Connection closed before the response was completely received"));
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof IdleStateEvent && ((IdleStateEvent) evt).state() == IdleState.READER_IDLE) {
+            ClientExchange exchange = ctx.channel().attr(EXCHANGE).get();
+            if (exchange != null && exchange.awaitsData()) {
+                exchange.fail(new WebClientException("Read timeout"));
+            } else if (exchange != null && exchange.contentUnsubscribed()) {
+                // nobody is going to read the rest of the response, do not keep the connection borrowed
+                exchange.fail(new WebClientException("Response content not subscribed within the read timeout"));
+            }
+            return;
+        }
+        super.userEventTriggered(ctx, evt);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        ClientExchange exchange = ctx.channel().attr(EXCHANGE).get();
+        if (exchange == null) {
+            LOGGER.finest(() -> "Failure of an idle connection: " + cause);
+            ctx.close();
+        } else {
+            exchange.fail(new WebClientException("Connection failed", cause));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.util.concurrent.Flow;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * Writes a request entity to a connection, requesting next chunk once the previous one is written.
+ */
+final class RequestContentSubscriber implements Flow.Subscriber<DataChunk> {
+
+    private final Channel channel;
+    private final ClientExchange exchange;
+
+    private volatile Flow.Subscription subscription;
+
+    RequestContentSubscriber(Channel channel, ClientExchange exchange) {
+        this.channel = channel;
+        this.exchange = exchange;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(DataChunk chunk) {
+        channel.writeAndFlush(new DefaultHttpContent(Unpooled.wrappedBuffer(chunk.data())))
+                .addListener(future -> {
+                    chunk.release();
+                    if (future.isSuccess()) {
+                        subscription.request(1);
+                    } else {
+                        subscription.cancel();
+                        exchange.fail(new WebClientException("Failed to send request content", future.cause()));
+                    }
+                });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        exchange.fail(new WebClientException("Failed to publish request content", throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT)
+                .addListener(future -> {
+                    if (future.isSuccess()) {
+                        exchange.requestSent();
+                    } else {
+                        exchange.fail(new WebClientException("Failed to send request content", future.cause()));
+                    }
+                });
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.channel.Channel;
+
+/**
+ * Publisher of the content of a single response.
+ * <p>
+ * Chunks are offered by the event loop of the connection. Reading from the connection is suspended whenever
+ * the subscriber has no outstanding demand and resumed once it requests more chunks, so a slow subscriber does not
+ * cause the response to be buffered in memory. Reading is suspended and resumed by the event loop only.
+ */
+final class ResponseContentPublisher implements Flow.Publisher<DataChunk> {
+
+    private final Channel channel;
+    private final Runnable onCancel;
+    private final Queue<DataChunk> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private volatile Flow.Subscriber<? super DataChunk> subscriber;
+    private volatile boolean done;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+    private boolean terminated;
+
+    /**
+     * Creates a new publisher.
+     *
+     * @param channel  channel of the response
+     * @param onCancel invoked if the subscriber cancels its subscription or violates the specification, may be
+     *                 invoked more than once
+     */
+    ResponseContentPublisher(Channel channel, Runnable onCancel) {
+        this.channel = channel;
+        this.onCancel = onCancel;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Response content can only be subscribed once!"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("Requested number must be positive: " + n));
+                    onCancel.run();
+                    return;
+                }
+                requested.getAndUpdate(current -> {
+                    long result = current + n;
+                    return result < 0 ? Long.MAX_VALUE : result;
+                });
+                if (channel.eventLoop().inEventLoop()) {
+                    resumeReading();
+                } else {
+                    channel.eventLoop().execute(ResponseContentPublisher.this::resumeReading);
+                }
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+        this.subscriber = subscriber;
+        drain();
+    }
+
+    /**
+     * Offers a chunk received from the connection.
+     *
+     * @param chunk the chunk
+     */
+    void offer(DataChunk chunk) {
+        queue.add(chunk);
+        // a concurrent request resumes reading from a task run after this one
+        if (requested.get() == 0) {
+            channel.config().setAutoRead(false);
+        }
+        drain();
+    }
+
+    /**
+     * Marks the content as completely received.
+     */
+    void complete() {
+        done = true;
+        drain();
+    }
+
+    /**
+     * Fails the content.
+     *
+     * @param throwable the cause
+     */
+    void fail(Throwable throwable) {
+        if (error == null) {
+            error = throwable;
+        }
+        done = true;
+        drain();
+    }
+
+    /**
+     * Whether a chunk is expected by the subscriber, i.e. not receiving data means the connection is stalled.
+     *
+     * @return {@code true} if there is outstanding demand not satisfied by received chunks
+     */
+    boolean awaitsData() {
+        return !done && queue.isEmpty() && requested.get() > 0;
+    }
+
+    /**
+     * Whether nobody subscribed to the content yet, i.e. the connection stays borrowed until somebody does.
+     *
+     * @return {@code true} if the content is not completely received and has no subscriber
+     */
+    boolean unsubscribed() {
+        return !done && !subscribed.get();
+    }
+
+    // run by the event loop only, so that suspending reading in offer cannot overwrite a resume
+    private void resumeReading() {
+        if (!done && requested.get() > 0 && !channel.config().isAutoRead()) {
+            channel.config().setAutoRead(true);
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (terminated) {
+                clear();
+            } else if (cancelled) {
+                terminated = true;
+                clear();
+                onCancel.run();
+            } else {
+                Flow.Subscriber<? super DataChunk> s = subscriber;
+                if (s != null) {
+                    emit(s);
+                } else if (error != null) {
+                    // the chunks would be discarded once subscribed anyway, do not hold them until then
+                    clear();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emit(Flow.Subscriber<? super DataChunk> s) {
+        long r = requested.get();
+        long emitted = 0;
+        while (emitted != r && !cancelled) {
+            DataChunk chunk = queue.poll();
+            if (chunk == null) {
+                break;
+            }
+            s.onNext(chunk);
+            emitted++;
+        }
+        if (emitted > 0) {
+            long e = emitted;
+            requested.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - e);
+        }
+        if (!cancelled && done && (queue.isEmpty() || error != null)) {
+            terminated = true;
+            clear();
+            Throwable t = error;
+            if (t == null) {
+                s.onComplete();
+            } else {
+                s.onError(t);
+            }
+        }
+    }
+
+    private void clear() {
+        DataChunk chunk = queue.poll();
+        while (chunk != null) {
+            chunk.release();
+            chunk = queue.poll();
+        }
+    }
+}
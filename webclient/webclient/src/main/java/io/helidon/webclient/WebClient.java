@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.net.ssl.SSLContext;
+
+import io.helidon.common.context.Context;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.Reader;
+import io.helidon.config.Config;
+
+/**
+ * Reactive HTTP client.
+ * <p>
+ * Requests are sent asynchronously on Netty event loops and responses are provided as a {@link io.helidon.common.reactive.Single}
+ * of {@link WebClientResponse}, whose content is a {@link Flow.Publisher} of {@link DataChunk}s. No thread is blocked
+ * while waiting for a response. Connections are pooled per host and reused if both sides agree to keep them alive.
+ * <p>
+ * If the client is created in the context of a running {@code WebServer}, e.g. in a request handler, or if the server's
+ * {@link Context} is set by {@link Builder#context(Context)}, the client shares event loops of the server. Otherwise
+ * event loops shared by all clients are used.
+ * <pre>{@code
+ * WebClient client = WebClient.builder()
+ *         .baseUri("http://localhost:8080")
+ *         .build();
+ *
+ * client.get()
+ *       .path("/greet")
+ *       .request(String.class)
+ *       .toStage()
+ *       .thenAccept(System.out::println);
+ * }</pre>
+ * Content is read and written using readers and writers, which are compatible with the ones used by
+ * {@code WebServer}, e.g. those of {@code JsonProcessing}, {@code JacksonProcessing} or {@code JsonBinding}.
+ */
+public interface WebClient {
+
+    /**
+     * Default maximal number of connections to a single host.
+     */
+    int DEFAULT_MAX_CONNECTIONS_PER_HOST = 64;
+
+    /**
+     * Default maximal number of requests waiting for a connection to a single host.
+     */
+    int DEFAULT_MAX_PENDING_ACQUIRES = 1024;
+
+    /**
+     * Default connect timeout in milliseconds.
+     */
+    long DEFAULT_CONNECT_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Default read timeout in milliseconds.
+     */
+    long DEFAULT_READ_TIMEOUT_MILLIS = 60_000;
+
+    /**
+     * Creates a client with default configuration.
+     *
+     * @return a new client
+     */
+    static WebClient create() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a client configured from the provided config.
+     *
+     * @param config the config of the client
+     * @return a new client
+     * @see Builder#config(Config)
+     */
+    static WebClient create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return a new builder
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a {@code GET} request.
+     *
+     * @return a request builder
+     */
+    default WebClientRequestBuilder get() {
+        return method(Http.Method.GET);
+    }
+
+    /**
+     * Creates a {@code POST} request.
+     *
+     * @return a request builder
+     */
+    default WebClientRequestBuilder post() {
+        return method(Http.Method.POST);
+    }
+
+    /**
+     * Creates a {@code PUT} request.
+     *
+     * @return a request builder
+     */
+    default WebClientRequestBuilder put() {
+        return method(Http.Method.PUT);
+    }
+
+    /**
+     * Creates a {@code DELETE} request.
+     *
+     * @return a request builder
+     */
+    default WebClientRequestBuilder delete() {
+        return method(Http.Method.DELETE);
+    }
+
+    /**
+     * Creates a {@code HEAD} request.
+     *
+     * @return a request builder
+     */
+    default WebClientRequestBuilder head() {
+        return method(Http.Method.HEAD);
+    }
+
+    /**
+     * Creates a request of the provided method.
+     *
+     * @param method HTTP method
+     * @return a request builder
+     */
+    WebClientRequestBuilder method(Http.RequestMethod method);
+
+    /**
+     * Closes all pooled connections. Requests sent after the shutdown fail.
+     *
+     * @return a completion stage completed once all connections are closed
+     */
+    CompletionStage<WebClient> shutdown();
+
+    /**
+     * Fluent API builder for {@link WebClient}.
+     */
+    final class Builder implements io.helidon.common.Builder<WebClient> {
+
+        private final Map<String, List<String>> defaultHeaders = new LinkedHashMap<>();
+        private final MediaSupport.Builder mediaSupport = MediaSupport.builder();
+        private URI baseUri;
+        private long connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+        private long readTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+        private long acquireTimeoutMillis = -1;
+        private boolean keepAlive = true;
+        private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+        private int maxPendingAcquires = DEFAULT_MAX_PENDING_ACQUIRES;
+        private SSLContext sslContext;
+        private Context context;
+
+        private Builder() {
+        }
+
+        @Override
+        public WebClient build() {
+            return new WebClientImpl(this);
+        }
+
+        /**
+         * Updates the builder from config.
+         * <table class="config">
+         * <caption>Configuration parameters</caption>
+         * <tr><th>key</th><th>default value</th><th>description</th></tr>
+         * <tr><td>uri</td><td>&nbsp;</td><td>base URI of requests</td></tr>
+         * <tr><td>connect-timeout-millis</td><td>{@value WebClient#DEFAULT_CONNECT_TIMEOUT_MILLIS}</td>
+         * <td>connect timeout</td></tr>
+         * <tr><td>read-timeout-millis</td><td>{@value WebClient#DEFAULT_READ_TIMEOUT_MILLIS}</td>
+         * <td>read timeout</td></tr>
+         * <tr><td>keep-alive</td><td>{@code true}</td><td>whether connections are reused</td></tr>
+         * <tr><td>connection-pool.max-connections-per-host</td>
+         * <td>{@value WebClient#DEFAULT_MAX_CONNECTIONS_PER_HOST}</td><td>maximal number of connections to a host</td></tr>
+         * <tr><td>connection-pool.max-pending-acquires</td>
+         * <td>{@value WebClient#DEFAULT_MAX_PENDING_ACQUIRES}</td><td>maximal number of requests waiting for
+         * a connection to a host</td></tr>
+         * <tr><td>connection-pool.acquire-timeout-millis</td><td>&nbsp;</td><td>how long a request waits for
+         * a connection, unlimited by default</td></tr>
+         * <tr><td>headers</td><td>&nbsp;</td><td>object of headers sent with each request</td></tr>
+         * </table>
+         *
+         * @param config the config of the client
+         * @return updated builder
+         */
+        public Builder config(Config config) {
+            config.get("uri").asString().ifPresent(this::baseUri);
+            config.get("connect-timeout-millis").asLong()
+                    .ifPresent(millis -> connectTimeout(Duration.ofMillis(millis)));
+            config.get("read-timeout-millis").asLong()
+                    .ifPresent(millis -> readTimeout(Duration.ofMillis(millis)));
+            config.get("keep-alive").asBoolean().ifPresent(this::keepAlive);
+            Config pool = config.get("connection-pool");
+            pool.get("max-connections-per-host").asInt().ifPresent(this::maxConnectionsPerHost);
+            pool.get("max-pending-acquires").asInt().ifPresent(this::maxPendingAcquires);
+            pool.get("acquire-timeout-millis").asLong()
+                    .ifPresent(millis -> acquireTimeout(Duration.ofMillis(millis)));
+            config.get("headers").asNodeList().ifPresent(headers -> headers.forEach(
+                    header -> header.asString().ifPresent(value -> defaultHeader(header.name(), value))));
+            return this;
+        }
+
+        /**
+         * Base URI of requests. Request URIs are resolved against it.
+         *
+         * @param uri base URI
+         * @return updated builder
+         */
+        public Builder baseUri(URI uri) {
+            this.baseUri = Objects.requireNonNull(uri, "Parameter 'uri' is null!");
+            return this;
+        }
+
+        /**
+         * Base URI of requests. Request URIs are resolved against it.
+         *
+         * @param uri base URI
+         * @return updated builder
+         */
+        public Builder baseUri(String uri) {
+            return baseUri(URI.create(uri));
+        }
+
+        /**
+         * Maximal time to establish a connection.
+         *
+         * @param timeout connect timeout
+         * @return updated builder
+         */
+        public Builder connectTimeout(Duration timeout) {
+            this.connectTimeoutMillis = positiveMillis(timeout, "Connect timeout");
+            return this;
+        }
+
+        /**
+         * Maximal time to wait for data of a response, applies to the response headers as well as to each
+         * part of the content.
+         *
+         * @param timeout read timeout
+         * @return updated builder
+         */
+        public Builder readTimeout(Duration timeout) {
+            this.readTimeoutMillis = positiveMillis(timeout, "Read timeout");
+            return this;
+        }
+
+        /**
+         * Whether connections are kept alive and reused for subsequent requests. Defaults to {@code true}.
+         *
+         * @param keepAlive whether to reuse connections
+         * @return updated builder
+         */
+        public Builder keepAlive(boolean keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Maximal number of connections to a single host. Requests exceeding the limit wait for a connection
+         * to be released.
+         *
+         * @param maxConnectionsPerHost maximal number of connections
+         * @return updated builder
+         */
+        public Builder maxConnectionsPerHost(int maxConnectionsPerHost) {
+            if (maxConnectionsPerHost < 1) {
+                throw new IllegalArgumentException("Maximal number of connections must be positive: "
+                                                           + maxConnectionsPerHost);
+            }
+            this.maxConnectionsPerHost = maxConnectionsPerHost;
+            return this;
+        }
+
+        /**
+         * Maximal number of requests waiting for a connection to a single host. Requests exceeding the limit fail
+         * with {@link WebClientException}.
+         *
+         * @param maxPendingAcquires maximal number of waiting requests
+         * @return updated builder
+         */
+        public Builder maxPendingAcquires(int maxPendingAcquires) {
+            if (maxPendingAcquires < 1) {
+                throw new IllegalArgumentException("Maximal number of pending acquires must be positive: "
+                                                           + maxPendingAcquires);
+            }
+            this.maxPendingAcquires = maxPendingAcquires;
+            return this;
+        }
+
+        /**
+         * Maximal time a request waits for a connection if all connections to the host are in use. Requests
+         * wait without a limit by default.
+         *
+         * @param timeout acquire timeout
+         * @return updated builder
+         */
+        public Builder acquireTimeout(Duration timeout) {
+            this.acquireTimeoutMillis = positiveMillis(timeout, "Acquire timeout");
+            return this;
+        }
+
+        /**
+         * SSL context used for {@code https} requests. The default SSL context of the JVM is used by default.
+         *
+         * @param sslContext SSL context
+         * @return updated builder
+         */
+        public Builder ssl(SSLContext sslContext) {
+            this.sslContext = Objects.requireNonNull(sslContext, "Parameter 'sslContext' is null!");
+            return this;
+        }
+
+        /**
+         * Context used to look up event loops of a {@code WebServer}. The current context is used by default.
+         *
+         * @param context the context, e.g. the context of the server configuration
+         * @return updated builder
+         */
+        public Builder context(Context context) {
+            this.context = Objects.requireNonNull(context, "Parameter 'context' is null!");
+            return this;
+        }
+
+        /**
+         * Header sent with each request, unless the request sets the same header.
+         *
+         * @param name   header name
+         * @param values header values
+         * @return updated builder
+         */
+        public Builder defaultHeader(String name, String... values) {
+            defaultHeaders.computeIfAbsent(name, k -> new ArrayList<>()).addAll(List.of(values));
+            return this;
+        }
+
+        /**
+         * Registers a reader of response content of all requests.
+         *
+         * @param type   type the reader reads
+         * @param reader the reader
+         * @param <T>    type the reader reads
+         * @return updated builder
+         */
+        public <T> Builder registerReader(Class<T> type, Reader<T> reader) {
+            mediaSupport.registerReader(type, reader);
+            return this;
+        }
+
+        /**
+         * Registers a reader of response content of all requests.
+         *
+         * @param predicate predicate of types the reader reads
+         * @param reader    the reader
+         * @param <T>       type the reader reads
+         * @return updated builder
+         */
+        public <T> Builder registerReader(Predicate<Class<?>> predicate, Reader<T> reader) {
+            mediaSupport.registerReader(predicate, reader);
+            return this;
+        }
+
+        /**
+         * Registers a writer of request entities of all requests.
+         *
+         * @param type        type the writer writes
+         * @param contentType content type of the written entity, may be {@code null}
+         * @param writer      the writer
+         * @param <T>         type the writer writes
+         * @return updated builder
+         */
+        public <T> Builder registerWriter(Class<T> type,
+                                          MediaType contentType,
+                                          Function<T, Flow.Publisher<DataChunk>> writer) {
+            mediaSupport.registerWriter(type, contentType, writer);
+            return this;
+        }
+
+        /**
+         * Registers a writer of request entities of all requests.
+         *
+         * @param accept      predicate of entities the writer writes
+         * @param contentType content type of the written entity, may be {@code null}
+         * @param writer      the writer
+         * @param <T>         type the writer writes
+         * @return updated builder
+         */
+        public <T> Builder registerWriter(Predicate<Object> accept,
+                                          MediaType contentType,
+                                          Function<T, Flow.Publisher<DataChunk>> writer) {
+            mediaSupport.registerWriter(accept, contentType, writer);
+            return this;
+        }
+
+        URI baseUri() {
+            return baseUri;
+        }
+
+        long connectTimeoutMillis() {
+            return connectTimeoutMillis;
+        }
+
+        long readTimeoutMillis() {
+            return readTimeoutMillis;
+        }
+
+        long acquireTimeoutMillis() {
+            return acquireTimeoutMillis;
+        }
+
+        boolean keepAlive() {
+            return keepAlive;
+        }
+
+        int maxConnectionsPerHost() {
+            return maxConnectionsPerHost;
+        }
+
+        int maxPendingAcquires() {
+            return maxPendingAcquires;
+        }
+
+        SSLContext sslContext() {
+            return sslContext;
+        }
+
+        Context context() {
+            return context;
+        }
+
+        Map<String, List<String>> defaultHeaders() {
+            Map<String, List<String>> result = new LinkedHashMap<>();
+            defaultHeaders.forEach((name, values) -> result.put(name, List.copyOf(values)));
+            return Collections.unmodifiableMap(result);
+        }
+
+        MediaSupport mediaSupport() {
+            return mediaSupport.build();
+        }
+
+        private static long positiveMillis(Duration timeout, String name) {
+            long millis = timeout.toMillis();
+            if (millis < 1) {
+                throw new IllegalArgumentException(name + " must be at least one millisecond: " + timeout);
+            }
+            return millis;
+        }
+    }
+}
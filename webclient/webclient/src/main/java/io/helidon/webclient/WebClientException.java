@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+/**
+ * Failure of a request sent by {@link WebClient}, e.g. when a connection cannot be established or is closed
+ * prematurely, or when a response status is not successful and the request expects an entity.
+ */
+public class WebClientException extends RuntimeException {
+
+    /**
+     * Creates a new exception.
+     *
+     * @param message the message
+     */
+    public WebClientException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates a new exception.
+     *
+     * @param message the message
+     * @param cause   the cause
+     */
+    public WebClientException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
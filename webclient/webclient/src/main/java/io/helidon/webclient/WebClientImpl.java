@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import io.helidon.common.HelidonFeatures;
+import io.helidon.common.HelidonFlavor;
+import io.helidon.common.http.Http;
+
+/**
+ * Default implementation of {@link WebClient}.
+ */
+final class WebClientImpl implements WebClient {
+
+    static {
+        HelidonFeatures.register(HelidonFlavor.SE, "WebClient");
+    }
+
+    private final URI baseUri;
+    private final Map<String, List<String>> defaultHeaders;
+    private final boolean keepAlive;
+    private final MediaSupport mediaSupport;
+    private final ConnectionPools pools;
+
+    WebClientImpl(Builder builder) {
+        this.baseUri = builder.baseUri();
+        this.defaultHeaders = builder.defaultHeaders();
+        this.keepAlive = builder.keepAlive();
+        this.mediaSupport = builder.mediaSupport();
+        this.pools = new ConnectionPools(builder);
+    }
+
+    @Override
+    public WebClientRequestBuilder method(Http.RequestMethod method) {
+        return new WebClientRequestBuilderImpl(this, method);
+    }
+
+    @Override
+    public CompletionStage<WebClient> shutdown() {
+        return pools.close().thenApply(nothing -> this);
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    Map<String, List<String>> defaultHeaders() {
+        return defaultHeaders;
+    }
+
+    boolean keepAlive() {
+        return keepAlive;
+    }
+
+    MediaSupport mediaSupport() {
+        return mediaSupport;
+    }
+
+    ConnectionPools pools() {
+        return pools;
+    }
+}
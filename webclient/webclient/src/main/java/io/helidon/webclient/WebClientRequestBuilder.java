@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.net.URI;
+import java.util.concurrent.Flow;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Single;
+
+/**
+ * Builder of a single request sent by {@link WebClient}. Nothing is sent until one of the {@code request} or
+ * {@code submit} methods is invoked.
+ */
+public interface WebClientRequestBuilder {
+
+    /**
+     * URI of the request. A relative URI is resolved against the base URI of the client.
+     *
+     * @param uri request URI
+     * @return updated builder
+     */
+    WebClientRequestBuilder uri(URI uri);
+
+    /**
+     * URI of the request. A relative URI is resolved against the base URI of the client.
+     *
+     * @param uri request URI
+     * @return updated builder
+     */
+    default WebClientRequestBuilder uri(String uri) {
+        return uri(URI.create(uri));
+    }
+
+    /**
+     * Path of the request, resolved against the base URI of the client or the {@link #uri(URI) request URI}.
+     *
+     * @param path request path
+     * @return updated builder
+     */
+    WebClientRequestBuilder path(String path);
+
+    /**
+     * Adds a query parameter. The name and values are encoded.
+     *
+     * @param name   parameter name
+     * @param values parameter values
+     * @return updated builder
+     */
+    WebClientRequestBuilder queryParam(String name, String... values);
+
+    /**
+     * Sets a request header, replacing any default header of the same name.
+     *
+     * @param name   header name
+     * @param values header values
+     * @return updated builder
+     */
+    WebClientRequestBuilder header(String name, String... values);
+
+    /**
+     * Content type of the request entity.
+     *
+     * @param contentType content type
+     * @return updated builder
+     */
+    WebClientRequestBuilder contentType(MediaType contentType);
+
+    /**
+     * Media types accepted in the response.
+     *
+     * @param mediaTypes accepted media types
+     * @return updated builder
+     */
+    WebClientRequestBuilder accept(MediaType... mediaTypes);
+
+    /**
+     * Sends the request without an entity.
+     *
+     * @return single of the response, completed once the response headers are received
+     */
+    Single<WebClientResponse> request();
+
+    /**
+     * Sends the request without an entity and reads the response content as the provided type.
+     * Fails with {@link WebClientException} if the response status is not successful.
+     *
+     * @param type type of the response content
+     * @param <T>  type of the response content
+     * @return single of the response content
+     */
+    <T> Single<T> request(Class<T> type);
+
+    /**
+     * Sends the request with an entity written by a registered or default writer.
+     *
+     * @param entity the entity
+     * @return single of the response, completed once the response headers are received
+     */
+    Single<WebClientResponse> submit(Object entity);
+
+    /**
+     * Sends the request with an entity written by a registered or default writer and reads the response content as
+     * the provided type. Fails with {@link WebClientException} if the response status is not successful.
+     *
+     * @param entity the entity
+     * @param type   type of the response content
+     * @param <T>    type of the response content
+     * @return single of the response content
+     */
+    <T> Single<T> submit(Object entity, Class<T> type);
+
+    /**
+     * Sends the request with the published content as the entity. The content is sent as it is published, using
+     * chunked transfer encoding unless the content length is set as a header.
+     *
+     * @param content the entity content
+     * @return single of the response, completed once the response headers are received
+     */
+    Single<WebClientResponse> submit(Flow.Publisher<DataChunk> content);
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.stream.Collectors;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Single;
+
+import io.netty.channel.Channel;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.concurrent.Future;
+
+/**
+ * Default implementation of {@link WebClientRequestBuilder}.
+ */
+final class WebClientRequestBuilderImpl implements WebClientRequestBuilder {
+
+    private final WebClientImpl client;
+    private final Http.RequestMethod method;
+    private final Map<String, List<String>> queryParams = new LinkedHashMap<>();
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final List<MediaType> accept = new ArrayList<>();
+    private URI uri;
+    private String path;
+    private MediaType contentType;
+
+    WebClientRequestBuilderImpl(WebClientImpl client, Http.RequestMethod method) {
+        this.client = client;
+        this.method = Objects.requireNonNull(method, "Parameter 'method' is null!");
+    }
+
+    @Override
+    public WebClientRequestBuilder uri(URI uri) {
+        this.uri = Objects.requireNonNull(uri, "Parameter 'uri' is null!");
+        return this;
+    }
+
+    @Override
+    public WebClientRequestBuilder path(String path) {
+        this.path = Objects.requireNonNull(path, "Parameter 'path' is null!");
+        return this;
+    }
+
+    @Override
+    public WebClientRequestBuilder queryParam(String name, String... values) {
+        queryParams.computeIfAbsent(name, k -> new ArrayList<>()).addAll(List.of(values));
+        return this;
+    }
+
+    @Override
+    public WebClientRequestBuilder header(String name, String... values) {
+        headers.put(name, List.of(values));
+        return this;
+    }
+
+    @Override
+    public WebClientRequestBuilder contentType(MediaType contentType) {
+        this.contentType = Objects.requireNonNull(contentType, "Parameter 'contentType' is null!");
+        return this;
+    }
+
+    @Override
+    public WebClientRequestBuilder accept(MediaType... mediaTypes) {
+        accept.addAll(List.of(mediaTypes));
+        return this;
+    }
+
+    @Override
+    public Single<WebClientResponse> request() {
+        return CompletionSingle.create(send(null, null));
+    }
+
+    @Override
+    public <T> Single<T> request(Class<T> type) {
+        return CompletionSingle.create(send(null, null).thenCompose(response -> readEntity(response, type)));
+    }
+
+    @Override
+    public Single<WebClientResponse> submit(Object entity) {
+        return CompletionSingle.create(sendEntity(entity));
+    }
+
+    @Override
+    public <T> Single<T> submit(Object entity, Class<T> type) {
+        return CompletionSingle.create(sendEntity(entity).thenCompose(response -> readEntity(response, type)));
+    }
+
+    @Override
+    public Single<WebClientResponse> submit(Flow.Publisher<DataChunk> content) {
+        Objects.requireNonNull(content, "Parameter 'content' is null!");
+        return CompletionSingle.create(send(content, contentType));
+    }
+
+    private CompletableFuture<WebClientResponse> sendEntity(Object entity) {
+        if (entity == null) {
+            return send(null, null);
+        }
+        MediaSupport.Entity written;
+        try {
+            written = client.mediaSupport().write(entity, contentType);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return send(written.publisher(), written.contentType());
+    }
+
+    private CompletableFuture<WebClientResponse> send(Flow.Publisher<DataChunk> entity, MediaType entityContentType) {
+        CompletableFuture<WebClientResponse> result = new CompletableFuture<>();
+        URI target;
+        HttpRequest request;
+        ChannelPool pool;
+        try {
+            target = resolveUri();
+            request = nettyRequest(target, entity, entityContentType);
+            pool = client.pools().pool(target);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        pool.acquire().addListener((Future<Channel> future) -> {
+            if (future.isSuccess()) {
+                new ClientExchange(pool, future.getNow(), target, client.mediaSupport(), client.keepAlive(), result)
+                        .send(request, entity);
+            } else {
+                result.completeExceptionally(new WebClientException("Cannot obtain connection to " + target.getAuthority(),
+                                                                    future.cause()));
+            }
+        });
+        return result;
+    }
+
+    private static <T> CompletionStage<T> readEntity(WebClientResponse response, Class<T> type) {
+        if (response.status().family() == Http.ResponseStatus.Family.SUCCESSFUL) {
+            return response.content().as(type);
+        }
+        // consume the content so the connection can be reused
+        return response.content()
+                .as(byte[].class)
+                .handle((bytes, throwable) -> {
+                    throw new WebClientException("Request to " + response.lastEndpointUri() + " failed with status "
+                                                         + response.status().code() + " "
+                                                         + response.status().reasonPhrase());
+                });
+    }
+
+    private URI resolveUri() {
+        URI base = client.baseUri();
+        URI result;
+        if (uri == null) {
+            result = base;
+        } else {
+            result = (base == null) ? uri : base.resolve(uri);
+        }
+        if (result == null) {
+            throw new IllegalStateException("Request URI is not set and the client has no base URI");
+        }
+        String scheme = result.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            throw new IllegalArgumentException("Only http and https requests are supported: " + result);
+        }
+        if (result.getHost() == null) {
+            throw new IllegalArgumentException("Request URI has no host: " + result);
+        }
+        String rawPath = result.getRawPath() == null ? "" : result.getRawPath();
+        if (path != null) {
+            rawPath = joinPath(rawPath, path);
+        }
+        String rawQuery = result.getRawQuery();
+        if (!queryParams.isEmpty()) {
+            String added = queryParams.entrySet()
+                    .stream()
+                    .flatMap(entry -> entry.getValue()
+                            .stream()
+                            .map(value -> encode(entry.getKey()) + '=' + encode(value)))
+                    .collect(Collectors.joining("&"));
+            rawQuery = (rawQuery == null || rawQuery.isEmpty()) ? added : rawQuery + '&' + added;
+        }
+        return URI.create(result.getScheme() + "://" + result.getRawAuthority()
+                                  + (rawPath.isEmpty() ? "/" : rawPath)
+                                  + (rawQuery == null ? "" : '?' + rawQuery));
+    }
+
+    private HttpRequest nettyRequest(URI target, Flow.Publisher<DataChunk> entity, MediaType entityContentType) {
+        String requestTarget = target.getRawPath() + (target.getRawQuery() == null ? "" : '?' + target.getRawQuery());
+        HttpMethod httpMethod = HttpMethod.valueOf(method.name());
+        HttpRequest request = (entity == null)
+                ? new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, httpMethod, requestTarget)
+                : new DefaultHttpRequest(HttpVersion.HTTP_1_1, httpMethod, requestTarget);
+        HttpHeaders nettyHeaders = request.headers();
+        client.defaultHeaders().forEach((name, values) -> {
+            if (!headers.containsKey(name)) {
+                nettyHeaders.add(name, values);
+            }
+        });
+        headers.forEach(nettyHeaders::set);
+        if (!nettyHeaders.contains(HttpHeaderNames.HOST)) {
+            nettyHeaders.set(HttpHeaderNames.HOST, target.getPort() < 0 ? target.getHost() : target.getRawAuthority());
+        }
+        if (!client.keepAlive()) {
+            nettyHeaders.set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        }
+        if (!accept.isEmpty()) {
+            nettyHeaders.set(HttpHeaderNames.ACCEPT, accept.stream()
+                    .map(MediaType::toString)
+                    .collect(Collectors.joining(", ")));
+        }
+        if (entity == null) {
+            if (method == Http.Method.POST || method == Http.Method.PUT) {
+                nettyHeaders.set(HttpHeaderNames.CONTENT_LENGTH, 0);
+            }
+        } else {
+            if (entityContentType != null && !nettyHeaders.contains(HttpHeaderNames.CONTENT_TYPE)) {
+                nettyHeaders.set(HttpHeaderNames.CONTENT_TYPE, entityContentType.toString());
+            }
+            if (!nettyHeaders.contains(HttpHeaderNames.CONTENT_LENGTH)) {
+                nettyHeaders.set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+            }
+        }
+        return request;
+    }
+
+    private static String joinPath(String base, String path) {
+        if (base.endsWith("/") && path.startsWith("/")) {
+            return base + path.substring(1);
+        } else if (base.endsWith("/") || path.startsWith("/") || path.isEmpty()) {
+            return base + path;
+        }
+        return base + '/' + path;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.net.URI;
+
+import io.helidon.common.http.Content;
+import io.helidon.common.http.Headers;
+import io.helidon.common.http.Http;
+
+/**
+ * Response of a request sent by {@link WebClient}.
+ * <p>
+ * The connection of the response is not returned to the pool until the whole {@link #content() content} is read,
+ * so the content must always be consumed, e.g. by {@link Content#as(Class)}, or its subscription cancelled.
+ */
+public interface WebClientResponse {
+
+    /**
+     * Status of the response.
+     *
+     * @return response status
+     */
+    Http.ResponseStatus status();
+
+    /**
+     * Headers of the response.
+     *
+     * @return response headers
+     */
+    Headers headers();
+
+    /**
+     * Content of the response. Readers registered with the client are available, more readers can be registered
+     * on the content.
+     *
+     * @return response content
+     */
+    Content content();
+
+    /**
+     * URI of the request.
+     *
+     * @return request URI
+     */
+    URI lastEndpointUri();
+}
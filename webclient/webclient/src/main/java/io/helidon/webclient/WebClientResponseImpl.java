@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.helidon.common.http.Content;
+import io.helidon.common.http.Headers;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.ReadOnlyParameters;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+
+/**
+ * Response received by {@link WebClient}.
+ */
+final class WebClientResponseImpl implements WebClientResponse {
+
+    private final Http.ResponseStatus status;
+    private final Headers headers;
+    private final Content content;
+    private final URI uri;
+
+    /**
+     * Creates a new response.
+     *
+     * @param response     Netty response
+     * @param content      publisher of the content
+     * @param mediaSupport registered readers
+     * @param uri          URI of the request
+     */
+    WebClientResponseImpl(HttpResponse response,
+                          ResponseContentPublisher content,
+                          MediaSupport mediaSupport,
+                          URI uri) {
+        this.status = Http.ResponseStatus.create(response.status().code(), response.status().reasonPhrase());
+        this.headers = new ResponseHeaders(response.headers());
+        this.content = new ClientContent(content, charset(headers), mediaSupport);
+        this.uri = uri;
+    }
+
+    @Override
+    public Http.ResponseStatus status() {
+        return status;
+    }
+
+    @Override
+    public Headers headers() {
+        return headers;
+    }
+
+    @Override
+    public Content content() {
+        return content;
+    }
+
+    @Override
+    public URI lastEndpointUri() {
+        return uri;
+    }
+
+    @Override
+    public String toString() {
+        return "WebClientResponse{"
+                + "status=" + status.code()
+                + ", uri=" + uri
+                + '}';
+    }
+
+    private static Charset charset(Headers headers) {
+        try {
+            return headers.first(Http.Header.CONTENT_TYPE)
+                    .map(MediaType::parse)
+                    .flatMap(MediaType::charset)
+                    .map(Charset::forName)
+                    .orElse(StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            // unparsable or unsupported charset
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    /**
+     * Read only headers of a response.
+     */
+    private static final class ResponseHeaders extends ReadOnlyParameters implements Headers {
+
+        private ResponseHeaders(HttpHeaders headers) {
+            super(toMap(headers));
+        }
+
+        private static Map<String, List<String>> toMap(HttpHeaders headers) {
+            Map<String, List<String>> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers.forEach(entry -> result.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(entry.getValue()));
+            return result;
+        }
+    }
+}
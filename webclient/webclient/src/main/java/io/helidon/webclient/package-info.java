@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Reactive HTTP client based on Netty.
+ * <p>
+ * Connections are pooled per host and port and the response content is read with backpressure.
+ * A client created within a Helidon {@code WebServer} context shares the event loops of the server.
+ * <pre>{@code
+ * WebClient client = WebClient.builder()
+ *         .baseUri("http://localhost:8080")
+ *         .build();
+ *
+ * client.get()
+ *         .path("/greet")
+ *         .request(String.class)
+ *         .thenAccept(System.out::println);
+ * }</pre>
+ *
+ * @see io.helidon.webclient.WebClient
+ */
+package io.helidon.webclient;
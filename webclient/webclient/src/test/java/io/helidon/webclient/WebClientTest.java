@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webclient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonStructure;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.media.jsonp.common.JsonProcessing;
+import io.helidon.media.jsonp.server.JsonSupport;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.ServerConfiguration;
+import io.helidon.webserver.WebServer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link WebClient} against a running {@link WebServer}.
+ */
+public class WebClientTest {
+
+    private static final Set<Integer> REMOTE_PORTS = ConcurrentHashMap.newKeySet();
+
+    private static WebServer webServer;
+    private static WebClient client;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        webServer = WebServer.create(
+                ServerConfiguration.builder().build(),
+                Routing.builder()
+                        .register(JsonSupport.create())
+                        .get("/greet", (req, res) -> {
+                            REMOTE_PORTS.add(req.remotePort());
+                            res.send("Hello " + req.queryParams().first("name").orElse("World"));
+                        })
+                        .get("/large", (req, res) -> res.send("0123456789".repeat(100_000)))
+                        .post("/echo", (req, res) -> req.content()
+                                .as(String.class)
+                                .thenAccept(res::send))
+                        .put("/json", (req, res) -> req.content()
+                                .as(JsonObject.class)
+                                .thenAccept(json -> res.send(Json.createObjectBuilder()
+                                                                     .add("reply", json.getString("message"))
+                                                                     .build())))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        JsonProcessing json = JsonProcessing.create();
+        client = WebClient.builder()
+                .baseUri("http://localhost:" + webServer.port())
+                .maxConnectionsPerHost(2)
+                .registerReader(JsonStructure.class, json.reader())
+                .registerWriter(JsonStructure.class, MediaType.APPLICATION_JSON, json.writer())
+                .build();
+    }
+
+    @AfterAll
+    public static void close() throws Exception {
+        if (client != null) {
+            client.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+        if (webServer != null) {
+            webServer.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        String greeting = client.get()
+                .path("/greet")
+                .queryParam("name", "Joe & Jane")
+                .request(String.class)
+                .get(10, TimeUnit.SECONDS);
+        assertThat(greeting, is("Hello Joe & Jane"));
+    }
+
+    @Test
+    public void testPost() throws Exception {
+        WebClientResponse response = client.post()
+                .path("/echo")
+                .submit("Echo")
+                .get(10, TimeUnit.SECONDS);
+        assertThat(response.status(), is(Http.Status.OK_200));
+        assertThat(response.content()
+                           .as(String.class)
+                           .toCompletableFuture()
+                           .get(10, TimeUnit.SECONDS), is("Echo"));
+    }
+
+    @Test
+    public void testJson() throws Exception {
+        JsonObject request = Json.createObjectBuilder()
+                .add("message", "Hi")
+                .build();
+        JsonStructure reply = client.put()
+                .path("/json")
+                .submit(request, JsonStructure.class)
+                .get(10, TimeUnit.SECONDS);
+        assertThat(reply.asJsonObject().getString("reply"), is("Hi"));
+    }
+
+    @Test
+    public void testNotFound() {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> client.get()
+                .path("/missing")
+                .request(String.class)
+                .get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause(), instanceOf(WebClientException.class));
+    }
+
+    @Test
+    public void testConnectionsAreReused() throws Exception {
+        REMOTE_PORTS.clear();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(client.get()
+                                .path("/greet")
+                                .request(String.class)
+                                .toStage()
+                                .toCompletableFuture());
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        assertThat(REMOTE_PORTS.size() <= 2, is(true));
+    }
+
+    @Test
+    public void testUnsubscribedContentReleasesConnection() throws Exception {
+        WebClient singleConnection = WebClient.builder()
+                .baseUri("http://localhost:" + webServer.port())
+                .maxConnectionsPerHost(1)
+                .readTimeout(Duration.ofMillis(200))
+                .build();
+        try {
+            WebClientResponse response = singleConnection.get()
+                    .path("/large")
+                    .request()
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(response.status(), is(Http.Status.OK_200));
+            // the content is never subscribed, the only connection must not stay borrowed
+            String greeting = singleConnection.get()
+                    .path("/greet")
+                    .request(String.class)
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(greeting, is("Hello World"));
+        } finally {
+            singleConnection.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -15,6 +15,8 @@
  */
 package io.helidon.webserver.accesslog;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Clock;
 import java.time.ZonedDateTime;
 import java.util.LinkedList;
@@ -45,6 +47,24 @@ public final class AccessLogSupport implements Service {
      * @see io.helidon.webserver.accesslog.AccessLogHandler
      */
     public static final String DEFAULT_LOGGER_NAME = "io.helidon.webserver.AccessLog";
+    /**
+     * Default capacity of the buffer of the asynchronous access log, in records.
+     *
+     * @see Builder#bufferSize(int)
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    /**
+     * Default size of the access log file after which it is rolled over, in bytes.
+     *
+     * @see Builder#fileSizeLimit(long)
+     */
+    public static final long DEFAULT_FILE_SIZE_LIMIT = 64L * 1024 * 1024;
+    /**
+     * Default number of rolled over access log files to keep.
+     *
+     * @see Builder#fileCount(int)
+     */
+    public static final int DEFAULT_FILE_COUNT = 10;
     private static final Pattern HEADER_ENTRY_PATTERN = Pattern.compile("%\\{(.*?)}i");
 
     static {
@@ -55,12 +75,23 @@ public final class AccessLogSupport implements Service {
     private final Logger logger;
     private final boolean enabled;
     private final Clock clock;
+    // null if records are logged synchronously
+    private final AsyncAccessLog asyncLog;
+    private final boolean toLogger;
 
     private AccessLogSupport(Builder builder) {
         this.enabled = builder.enabled;
         this.logFormat = builder.entries;
         this.clock = builder.clock;
         this.logger = Logger.getLogger(builder.loggerName);
+        this.toLogger = !(builder.async && builder.file != null);
+        if (enabled && builder.async) {
+            this.asyncLog = toLogger
+                    ? AsyncAccessLog.create(builder.bufferSize, logger)
+                    : AsyncAccessLog.create(builder.bufferSize, builder.file, builder.fileSizeLimit, builder.fileCount);
+        } else {
+            this.asyncLog = null;
+        }
     }
 
     /**
@@ -93,11 +124,42 @@ public final class AccessLogSupport implements Service {
         return new Builder();
     }
 
+    /**
+     * Number of records dropped by the asynchronous access log because its buffer was full.
+     * Always {@code 0} when records are logged synchronously.
+     * <p>
+     * Can be registered as a gauge, e.g. in the vendor registry of Helidon metrics:
+     * <pre>
+     * registry.register("accesslog.dropped", (Gauge&lt;Long&gt;) accessLog::droppedRecords);
+     * </pre>
+     *
+     * @return number of dropped records
+     * @see Builder#async(boolean)
+     */
+    public long droppedRecords() {
+        return (asyncLog == null) ? 0 : asyncLog.dropped();
+    }
+
+    /**
+     * Number of records written by the asynchronous access log.
+     * Always {@code 0} when records are logged synchronously.
+     *
+     * @return number of written records
+     * @see Builder#async(boolean)
+     */
+    public long writtenRecords() {
+        return (asyncLog == null) ? 0 : asyncLog.written();
+    }
+
     @Override
     public void update(Routing.Rules rules) {
         if (enabled) {
             rules.any(this::handle);
         }
+        if (asyncLog != null) {
+            // release the writer thread and the file together with the server
+            rules.onNewWebServer(webServer -> webServer.whenShutdown().thenRun(this::close));
+        }
     }
 
     private void handle(ServerRequest req, ServerResponse res) {
@@ -117,7 +179,26 @@ public final class AccessLogSupport implements Service {
     }
 
     private void log(ServerRequest req, ServerResponse res, ZonedDateTime timeStart, long nanoStart) {
-        logger.log(Level.INFO, createLogRecord(req, res, timeStart, nanoStart, ZonedDateTime.now(clock), System.nanoTime()));
+        if (toLogger && !logger.isLoggable(Level.INFO)) {
+            // do not format records nobody is going to see
+            return;
+        }
+        String record = createLogRecord(req, res, timeStart, nanoStart, ZonedDateTime.now(clock), System.nanoTime());
+        if (asyncLog == null) {
+            logger.log(Level.INFO, record);
+        } else {
+            asyncLog.offer(record);
+        }
+    }
+
+    /**
+     * Write all buffered records of the asynchronous access log and stop its thread.
+     * Invoked once the web server is shut down, or on JVM shutdown if it never is.
+     */
+    void close() {
+        if (asyncLog != null) {
+            asyncLog.close();
+        }
     }
 
     String createLogRecord(ServerRequest req,
@@ -200,12 +281,26 @@ public final class AccessLogSupport implements Service {
         private Clock clock = Clock.systemDefaultZone();
         private String loggerName = DEFAULT_LOGGER_NAME;
         private boolean enabled = true;
+        private boolean async;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private Path file;
+        private long fileSizeLimit = DEFAULT_FILE_SIZE_LIMIT;
+        private int fileCount = DEFAULT_FILE_COUNT;
 
         private Builder() {
         }
 
         @Override
         public AccessLogSupport build() {
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException("Buffer size must be positive, but is: " + bufferSize);
+            }
+            if (fileSizeLimit < 0) {
+                throw new IllegalArgumentException("File size limit must not be negative, but is: " + fileSizeLimit);
+            }
+            if (fileCount < 0) {
+                throw new IllegalArgumentException("File count must not be negative, but is: " + fileCount);
+            }
             if (entries.isEmpty()) {
                 helidonLogFormat();
             }
@@ -404,6 +499,12 @@ public final class AccessLogSupport implements Service {
             config.get("enabled").asBoolean().ifPresent(this::enabled);
             config.get("logger-name").asString().ifPresent(this::loggerName);
             config.get("format").asString().ifPresent(this::configLogFormat);
+            Config asyncConfig = config.get("async");
+            asyncConfig.get("enabled").asBoolean().ifPresent(this::async);
+            asyncConfig.get("buffer-size").asInt().ifPresent(this::bufferSize);
+            asyncConfig.get("file").asString().map(Paths::get).ifPresent(this::file);
+            asyncConfig.get("file-size-limit").asLong().ifPresent(this::fileSizeLimit);
+            asyncConfig.get("file-count").asInt().ifPresent(this::fileCount);
             return this;
         }
 
@@ -431,6 +532,77 @@ public final class AccessLogSupport implements Service {
             return this;
         }
 
+        /**
+         * Log records asynchronously.
+         * The records are still formatted on the thread that sent the response, but are written by a dedicated
+         * thread, either to the logger or to the {@link #file(java.nio.file.Path) file}.
+         * If the records are produced faster than they can be written, the buffer fills up and the records that do
+         * not fit are dropped, see {@link AccessLogSupport#droppedRecords()}.
+         * Defaults to {@code false}.
+         *
+         * @param async whether to log asynchronously ({@code true}) or on the thread that sent the response
+         *              ({@code false})
+         * @return updated builder instance
+         */
+        public Builder async(boolean async) {
+            this.async = async;
+            return this;
+        }
+
+        /**
+         * Capacity of the buffer of the asynchronous access log, rounded up to the next power of two.
+         * Defaults to {@value DEFAULT_BUFFER_SIZE} records.
+         *
+         * @param bufferSize maximal number of records waiting to be written
+         * @return updated builder instance
+         * @see #async(boolean)
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * File the asynchronous access log appends the records to, instead of logging them to the logger.
+         * The file is rolled over once it reaches the {@link #fileSizeLimit(long) size limit}: it is renamed
+         * to {@code <file>.1}, and the previously rolled over files are shifted ({@code <file>.1} to
+         * {@code <file>.2} etc.), keeping at most {@link #fileCount(int) file count} of them.
+         * Only used if {@link #async(boolean) async} is enabled.
+         *
+         * @param file path of the access log file
+         * @return updated builder instance
+         */
+        public Builder file(Path file) {
+            this.file = file;
+            return this;
+        }
+
+        /**
+         * Size of the access log file after which it is rolled over.
+         * Defaults to {@value DEFAULT_FILE_SIZE_LIMIT} bytes.
+         *
+         * @param fileSizeLimit size in bytes, {@code 0} to never roll the file over
+         * @return updated builder instance
+         * @see #file(java.nio.file.Path)
+         */
+        public Builder fileSizeLimit(long fileSizeLimit) {
+            this.fileSizeLimit = fileSizeLimit;
+            return this;
+        }
+
+        /**
+         * Number of rolled over access log files to keep.
+         * Defaults to {@value DEFAULT_FILE_COUNT}.
+         *
+         * @param fileCount number of files, {@code 0} to discard the content of the file when it is rolled over
+         * @return updated builder instance
+         * @see #file(java.nio.file.Path)
+         */
+        public Builder fileCount(int fileCount) {
+            this.fileCount = fileCount;
+            return this;
+        }
+
         private void configLogFormat(String format) {
             switch (format) {
             case "common":
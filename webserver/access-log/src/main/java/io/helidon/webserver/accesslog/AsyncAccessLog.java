@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.accesslog;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous writer of access log records.
+ * <p>
+ * Formatted records are offered to a bounded ring buffer by any number of threads, without locking. A single daemon
+ * thread drains the buffer and writes the records either to a file, rolled over once it reaches its size limit, or
+ * to the access log {@link Logger}. Output is flushed whenever the buffer is drained.
+ * <p>
+ * If the buffer is full, the record is dropped and counted, so that the I/O threads never wait for the output.
+ */
+final class AsyncAccessLog {
+    private static final Logger LOGGER = Logger.getLogger(AsyncAccessLog.class.getName());
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MILLIS = 1000;
+
+    // ring buffer of records, the sequence of a slot tells whether it is free or published for the given index
+    private final AtomicReferenceArray<String> buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicBoolean sleeping = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private final Sink sink;
+    private final Thread worker;
+    private final Thread shutdownHook;
+
+    private volatile boolean closed;
+    // accessed only by the worker thread
+    private long consumerIndex;
+    private boolean failing;
+
+    private AsyncAccessLog(int bufferSize, Sink sink) {
+        int size = (bufferSize == 1) ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.sink = sink;
+        this.worker = new Thread(this::run, "helidon-access-log");
+        this.worker.setDaemon(true);
+        this.shutdownHook = new Thread(this::close, "helidon-access-log-shutdown");
+    }
+
+    /**
+     * Create and start an asynchronous access log writing to the logger.
+     *
+     * @param bufferSize capacity of the ring buffer, rounded up to the next power of two
+     * @param logger     logger to write the records to
+     * @return started asynchronous access log
+     */
+    static AsyncAccessLog create(int bufferSize, Logger logger) {
+        return start(bufferSize, new LoggerSink(logger));
+    }
+
+    /**
+     * Create and start an asynchronous access log writing to a rolling file.
+     *
+     * @param bufferSize capacity of the ring buffer, rounded up to the next power of two
+     * @param file       file to append the records to
+     * @param sizeLimit  size in bytes after which the file is rolled over, {@code 0} to never roll it over
+     * @param fileCount  number of rolled over files to keep
+     * @return started asynchronous access log
+     */
+    static AsyncAccessLog create(int bufferSize, Path file, long sizeLimit, int fileCount) {
+        return start(bufferSize, new FileSink(file, sizeLimit, fileCount));
+    }
+
+    private static AsyncAccessLog start(int bufferSize, Sink sink) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive, but is: " + bufferSize);
+        }
+        AsyncAccessLog log = new AsyncAccessLog(bufferSize, sink);
+        log.worker.start();
+        Runtime.getRuntime().addShutdownHook(log.shutdownHook);
+        return log;
+    }
+
+    /**
+     * Offer a record to be written.
+     *
+     * @param record formatted record
+     * @return {@code false} if the buffer was full or the log is closed and the record was dropped
+     */
+    boolean offer(String record) {
+        if (closed) {
+            dropped.increment();
+            return false;
+        }
+        long index = producerIndex.get();
+        for (;;) {
+            int offset = (int) index & mask;
+            long diff = sequences.get(offset) - index;
+            if (diff == 0) {
+                if (producerIndex.compareAndSet(index, index + 1)) {
+                    break;
+                }
+                index = producerIndex.get();
+            } else if (diff < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                index = producerIndex.get();
+            }
+        }
+        int offset = (int) index & mask;
+        buffer.lazySet(offset, record);
+        sequences.set(offset, index + 1);
+        if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(worker);
+        }
+        return true;
+    }
+
+    /**
+     * Number of records dropped because the buffer was full or the log was closed.
+     *
+     * @return dropped records
+     */
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Number of records handed over to the output.
+     *
+     * @return written records
+     */
+    long written() {
+        return written.get();
+    }
+
+    /**
+     * Write all buffered records, close the output and stop the worker thread.
+     * The worker exits once it drained the buffer, the shutdown hook is not needed anymore.
+     */
+    void close() {
+        closed = true;
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // the JVM is shutting down, the hook is running or about to
+            }
+        }
+        LockSupport.unpark(worker);
+        try {
+            worker.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String poll() {
+        int offset = (int) consumerIndex & mask;
+        if (sequences.get(offset) != consumerIndex + 1) {
+            // empty, or the producer of this index has not published yet
+            return null;
+        }
+        String record = buffer.get(offset);
+        buffer.lazySet(offset, null);
+        sequences.set(offset, consumerIndex + mask + 1);
+        consumerIndex++;
+        return record;
+    }
+
+    private void run() {
+        while (!closed) {
+            if (!drain()) {
+                sleeping.set(true);
+                // a record offered before the flag was set would not wake us up
+                if (sequences.get((int) consumerIndex & mask) == consumerIndex + 1) {
+                    sleeping.set(false);
+                    continue;
+                }
+                LockSupport.parkNanos(this, PARK_NANOS);
+                sleeping.set(false);
+            }
+        }
+        drain();
+        sink.close();
+    }
+
+    /**
+     * Write the buffered records and flush the output.
+     *
+     * @return {@code true} if there was anything to write
+     */
+    private boolean drain() {
+        String record = poll();
+        if (record == null) {
+            return false;
+        }
+        long count = 0;
+        try {
+            do {
+                sink.write(record);
+                count++;
+                record = poll();
+            } while (record != null);
+            sink.flush();
+            failing = false;
+        } catch (IOException | RuntimeException e) {
+            // log once per failure streak, the following batches fail the same way
+            if (!failing) {
+                failing = true;
+                LOGGER.log(Level.WARNING, "Failed to write access log records", e);
+            }
+        } finally {
+            written.addAndGet(count);
+        }
+        return true;
+    }
+
+    /**
+     * Output of the worker thread.
+     */
+    private interface Sink {
+        void write(String record) throws IOException;
+
+        void flush() throws IOException;
+
+        void close();
+    }
+
+    private static final class LoggerSink implements Sink {
+        private final Logger logger;
+
+        private LoggerSink(Logger logger) {
+            this.logger = logger;
+        }
+
+        @Override
+        public void write(String record) {
+            logger.log(Level.INFO, record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class FileSink implements Sink {
+        private static final String LINE_SEPARATOR = System.lineSeparator();
+
+        private final Path file;
+        private final long sizeLimit;
+        private final int fileCount;
+
+        private Writer writer;
+        // in characters, which is exact for the sanitized (ASCII) records
+        private long size;
+
+        private FileSink(Path file, long sizeLimit, int fileCount) {
+            this.file = file;
+            this.sizeLimit = sizeLimit;
+            this.fileCount = fileCount;
+        }
+
+        @Override
+        public void write(String record) throws IOException {
+            if (writer == null) {
+                open();
+            } else if (sizeLimit > 0 && size >= sizeLimit) {
+                roll();
+            }
+            writer.write(record);
+            writer.write(LINE_SEPARATOR);
+            size += record.length() + LINE_SEPARATOR.length();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Failed to close access log file " + file, e);
+                }
+                writer = null;
+            }
+        }
+
+        private void open() throws IOException {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(file,
+                                             StandardCharsets.UTF_8,
+                                             StandardOpenOption.CREATE,
+                                             StandardOpenOption.APPEND);
+            size = Files.size(file);
+        }
+
+        private void roll() throws IOException {
+            writer.close();
+            writer = null;
+            // access.log.1 is the most recent rolled over file
+            for (int i = fileCount - 1; i > 0; i--) {
+                Path source = rolled(i);
+                if (Files.exists(source)) {
+                    Files.move(source, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (fileCount > 0) {
+                Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(file);
+            }
+            open();
+        }
+
+        private Path rolled(int index) {
+            return file.resolveSibling(file.getFileName() + "." + index);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,8 @@
  */
 package io.helidon.webserver.accesslog;
 
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -25,6 +27,8 @@ public final class TimestampLogEntry extends AbstractLogEntry {
     private static final String DEFAULT_FORMAT = "'['dd/MMM/YYYY:HH:mm:ss ZZZ']'";
     private static final DateTimeFormatter DEFAULT_FORMATTER = DateTimeFormatter.ofPattern(DEFAULT_FORMAT);
     private final DateTimeFormatter formatter;
+    // the default format has a precision of seconds, so the last formatted second can be reused
+    private volatile Formatted lastFormatted = new Formatted(Long.MIN_VALUE, null, null);
 
     private TimestampLogEntry(Builder builder) {
         super(builder);
@@ -52,7 +56,31 @@ public final class TimestampLogEntry extends AbstractLogEntry {
 
     @Override
     public String doApply(AccessLogContext context) {
-        return formatter.format(context.requestDateTime());
+        ZonedDateTime dateTime = context.requestDateTime();
+        if (formatter != DEFAULT_FORMATTER) {
+            return formatter.format(dateTime);
+        }
+        long epochSecond = dateTime.toEpochSecond();
+        ZoneId zone = dateTime.getZone();
+        Formatted last = lastFormatted;
+        if (last.epochSecond == epochSecond && zone.equals(last.zone)) {
+            return last.value;
+        }
+        String value = formatter.format(dateTime);
+        lastFormatted = new Formatted(epochSecond, zone, value);
+        return value;
+    }
+
+    private static final class Formatted {
+        private final long epochSecond;
+        private final ZoneId zone;
+        private final String value;
+
+        private Formatted(long epochSecond, ZoneId zone, String value) {
+            this.epochSecond = epochSecond;
+            this.zone = zone;
+            this.value = value;
+        }
     }
 
     /**
@@ -16,16 +16,24 @@
 
 package io.helidon.webserver.accesslog;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import io.helidon.common.http.ContextualRegistry;
 import io.helidon.common.http.Http;
 import io.helidon.common.http.HttpRequest;
 import io.helidon.webserver.RequestHeaders;
+import io.helidon.webserver.Routing;
 import io.helidon.webserver.ServerRequest;
 import io.helidon.webserver.ServerResponse;
+import io.helidon.webserver.WebServer;
 
 import org.junit.jupiter.api.Test;
 
@@ -158,4 +166,40 @@ class AccessLogSupportTest {
 
         assertThat(logRecord, is(expected));
     }
+
+    @Test
+    void testAsyncLogClosedWithServer() throws Exception {
+        Set<Thread> before = accessLogThreads();
+        AccessLogSupport accessLog = AccessLogSupport.builder()
+                .async(true)
+                .file(Files.createTempDirectory("access-log").resolve("access.log"))
+                .build();
+        Set<Thread> writers = accessLogThreads();
+        writers.removeAll(before);
+        assertThat(writers.size(), is(1));
+
+        WebServer webServer = WebServer.create(Routing.builder()
+                                                       .register(accessLog)
+                                                       .get("/", (req, res) -> res.send("hello"))
+                                                       .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        webServer.shutdown()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        // the writer thread exits once the server is shut down
+        Thread writer = writers.iterator().next();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        assertThat(writer.isAlive(), is(false));
+    }
+
+    private static Set<Thread> accessLogThreads() {
+        return Thread.getAllStackTraces()
+                .keySet()
+                .stream()
+                .filter(thread -> thread.getName().equals("helidon-access-log"))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver.accesslog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test for {@link AsyncAccessLog}.
+ */
+class AsyncAccessLogTest {
+
+    @Test
+    void testFile() throws IOException {
+        Path file = Files.createTempDirectory("access-log").resolve("access.log");
+
+        AsyncAccessLog log = AsyncAccessLog.create(128, file, 0, 0);
+        for (int i = 0; i < 100; i++) {
+            assertThat(log.offer("record " + i), is(true));
+        }
+        log.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines.size(), is(100));
+        assertThat(lines.get(0), is("record 0"));
+        assertThat(lines.get(99), is("record 99"));
+        assertThat(log.written(), is(100L));
+        assertThat(log.dropped(), is(0L));
+    }
+
+    @Test
+    void testOfferAfterClose() throws IOException {
+        Path file = Files.createTempDirectory("access-log").resolve("access.log");
+
+        AsyncAccessLog log = AsyncAccessLog.create(16, file, 0, 0);
+        assertThat(log.offer("record"), is(true));
+        log.close();
+
+        assertThat(log.offer("late record"), is(false));
+        assertThat(log.dropped(), is(1L));
+        assertThat(Files.readAllLines(file), is(List.of("record")));
+    }
+
+    @Test
+    void testRollOver() throws IOException {
+        Path file = Files.createTempDirectory("access-log").resolve("access.log");
+        String lineSeparator = System.lineSeparator();
+        // three records per file
+        long sizeLimit = 3 * ("record 0".length() + lineSeparator.length());
+
+        AsyncAccessLog log = AsyncAccessLog.create(16, file, sizeLimit, 2);
+        for (int i = 0; i < 10; i++) {
+            log.offer("record " + i);
+        }
+        log.close();
+
+        assertThat(Files.readAllLines(file), is(List.of("record 9")));
+        assertThat(Files.readAllLines(file.resolveSibling("access.log.1")), is(List.of("record 6", "record 7", "record 8")));
+        assertThat(Files.readAllLines(file.resolveSibling("access.log.2")), is(List.of("record 3", "record 4", "record 5")));
+        assertThat(Files.exists(file.resolveSibling("access.log.3")), is(false));
+    }
+
+    @Test
+    void testOverflow() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Logger logger = Logger.getLogger(AsyncAccessLogTest.class.getName() + ".overflow");
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                writing.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        AsyncAccessLog log = AsyncAccessLog.create(2, logger);
+        assertThat(log.offer("first"), is(true));
+        assertThat(writing.await(10, TimeUnit.SECONDS), is(true));
+        // the first record is being written, the buffer has room for two more
+        assertThat(log.offer("second"), is(true));
+        assertThat(log.offer("third"), is(true));
+        assertThat(log.offer("fourth"), is(false));
+        assertThat(log.dropped(), is(1L));
+
+        release.countDown();
+        log.close();
+        assertThat(log.written(), is(3L));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package io.helidon.webserver.accesslog;
 
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -66,4 +67,21 @@ class TimestampLogEntryTest {
 
         assertThat(value, is(dateTimeFormatter.format(TEST_TIME)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDefaultFormatSameSecond() {
+        TimestampLogEntry entry = TimestampLogEntry.create();
+        DateTimeFormatter defaultPattern = DateTimeFormatter.ofPattern("'['dd/MMM/YYYY:HH:mm:ss ZZZ']'");
+        ZonedDateTime utc = ZonedDateTime.of(2007, 12, 3, 10, 15, 30, 0, ZoneOffset.UTC);
+        ZonedDateTime utcLater = utc.plusNanos(999_000_000);
+        ZonedDateTime otherZone = utcLater.withZoneSameInstant(ZoneOffset.ofHours(2));
+
+        AccessLogContext context = mock(AccessLogContext.class);
+        when(context.requestDateTime()).thenReturn(utc, utcLater, otherZone, utc.plusSeconds(1));
+
+        assertThat(entry.doApply(context), is(defaultPattern.format(utc)));
+        assertThat(entry.doApply(context), is(defaultPattern.format(utcLater)));
+        assertThat(entry.doApply(context), is(defaultPattern.format(otherZone)));
+        assertThat(entry.doApply(context), is(defaultPattern.format(utc.plusSeconds(1))));
+    }
+}
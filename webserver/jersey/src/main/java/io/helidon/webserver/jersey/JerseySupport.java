@@ -104,6 +104,13 @@ public class JerseySupport implements Service {
      */
     public static final String REQUEST_SPAN_CONTEXT = "request-span-context";
 
+    /**
+     * Default size of a buffer coalescing writes of a response entity, in bytes.
+     *
+     * @see Builder#outputBufferSize(int)
+     */
+    public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 8192;
+
     private static final Logger LOGGER = Logger.getLogger(JerseySupport.class.getName());
 
     private static final Type REQUEST_TYPE = (new GenericType<Ref<ServerRequest>>() { }).getType();
@@ -114,6 +121,7 @@ public class JerseySupport implements Service {
 
     private final ApplicationHandler appHandler;
     private final ExecutorService service;
+    private final int outputBufferSize;
     private final JerseyHandler handler = new JerseyHandler();
 
     /**
@@ -123,11 +131,14 @@ public class JerseySupport implements Service {
      * @param service the executor service that is used for a request handling. If {@code null},
      * a thread pool of size
      * {@link Runtime#availableProcessors()} {@code * 8} is used.
+     * @param outputBufferSize size of a buffer coalescing writes of a response entity, {@code 0} to send each write
+     * as is
      */
-    private JerseySupport(Application application, ExecutorService service) {
+    private JerseySupport(Application application, ExecutorService service, int outputBufferSize) {
         ExecutorService executorService = (service != null) ? service : getDefaultThreadPool();
         this.service = Contexts.wrap(executorService);
         this.appHandler = new ApplicationHandler(application, new ServerBinder(executorService));
+        this.outputBufferSize = outputBufferSize;
     }
 
     @Override
@@ -241,7 +252,7 @@ public class JerseySupport implements Service {
 
         private void doAccept(ServerRequest req, ServerResponse res) {
             CompletableFuture<Void> whenHandleFinishes = new CompletableFuture<>();
-            ResponseWriter responseWriter = new ResponseWriter(res, req, whenHandleFinishes);
+            ResponseWriter responseWriter = new ResponseWriter(res, req, whenHandleFinishes, outputBufferSize);
             ContainerRequest requestContext = new ContainerRequest(baseUri(req),
                                                                    requestUri(req),
                                                                    req.method().name(),
@@ -420,6 +431,7 @@ public class JerseySupport implements Service {
 
         private ResourceConfig resourceConfig;
         private ExecutorService executorService;
+        private int outputBufferSize = DEFAULT_OUTPUT_BUFFER_SIZE;
 
         private Builder() {
             this(null);
@@ -439,7 +451,7 @@ public class JerseySupport implements Service {
          */
         @Override
         public JerseySupport build() {
-            return new JerseySupport(resourceConfig, executorService);
+            return new JerseySupport(resourceConfig, executorService, outputBufferSize);
         }
 
         @Override
@@ -524,5 +536,22 @@ public class JerseySupport implements Service {
             this.executorService = executorService;
             return this;
         }
+
+        /**
+         * Sets the size of a buffer which coalesces small writes of a response entity before they are sent
+         * to the connection. Data is sent whenever the buffer is full and when the application flushes the entity
+         * stream. Server sent events are never buffered.
+         * Defaults to {@value #DEFAULT_OUTPUT_BUFFER_SIZE} bytes.
+         *
+         * @param outputBufferSize size of the buffer in bytes, {@code 0} to send each write as is
+         * @return an updated instance
+         */
+        public Builder outputBufferSize(int outputBufferSize) {
+            if (outputBufferSize < 0) {
+                throw new IllegalArgumentException("Output buffer size must not be negative: " + outputBufferSize);
+            }
+            this.outputBufferSize = outputBufferSize;
+            return this;
+        }
     }
 }
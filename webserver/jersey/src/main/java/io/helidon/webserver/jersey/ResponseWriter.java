@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,62 +46,18 @@ class ResponseWriter implements ContainerResponseWriter {
 
     private static final Logger LOGGER = Logger.getLogger(ResponseWriter.class.getName());
 
-    private final OutputStreamPublisher publisher = new OutputStreamPublisher() {
-        @Override
-        public void write(byte[] b) throws IOException {
-            try {
-                super.write(b);
-            } catch (ConnectionClosedException e) {
-                throw new IOException("Cannot publish more bytes due to a connection close.", e);
-            }
-        }
-
-        @Override
-        public void write(byte[] b, int off, int len) throws IOException {
-            try {
-                super.write(b, off, len);
-            } catch (ConnectionClosedException e) {
-                throw new IOException("Cannot publish more bytes due to a connection close.", e);
-            }
-        }
-
-        @Override
-        public void write(int b) throws IOException {
-            try {
-                super.write(b);
-            } catch (ConnectionClosedException e) {
-                throw new IOException("Cannot publish more bytes due to a connection close.", e);
-            }
-        }
-
-        @Override
-        public void close() throws IOException {
-            try {
-                super.signalCloseComplete(null);
-                super.close();
-            } catch (ConnectionClosedException e) {
-                throw new IOException("Cannot close the connection because it's already closed.", e);
-            }
-        }
-
-        @Override
-        public void flush() throws IOException {
-            try {
-                super.flush();
-            } catch (ConnectionClosedException e) {
-                throw new IOException("Cannot flush on the connection because it's closed.", e);
-            }
-        }
-    };
-
     private final ServerResponse res;
     private final ServerRequest req;
     private final CompletableFuture<Void> whenHandleFinishes;
+    private final int bufferSize;
+
+    private volatile Publisher publisher;
 
-    ResponseWriter(ServerResponse res, ServerRequest req, CompletableFuture<Void> whenHandleFinishes) {
+    ResponseWriter(ServerResponse res, ServerRequest req, CompletableFuture<Void> whenHandleFinishes, int bufferSize) {
         this.res = res;
         this.req = req;
         this.whenHandleFinishes = whenHandleFinishes;
+        this.bufferSize = bufferSize;
     }
 
     @Override
@@ -135,8 +91,16 @@ class ResponseWriter implements ContainerResponseWriter {
             res.headers().put(entry.getKey(), entry.getValue());
         }
 
+        // server sent events must not wait in a buffer for more data
+        boolean sse = MediaType.SERVER_SENT_EVENTS_TYPE.isCompatible(context.getMediaType());
+        Publisher publisher = new Publisher(sse ? 0 : bufferSize);
+        this.publisher = publisher;
+
         res.send(Multi.from(publisher)
-                .map(byteBuffer -> DataChunk.create(doFlush(context, byteBuffer), byteBuffer, true)));
+                .map(byteBuffer -> DataChunk.create(sse || doFlush(byteBuffer),
+                                                    byteBuffer,
+                                                    () -> publisher.release(byteBuffer),
+                                                    true)));
 
         return publisher;
     }
@@ -160,7 +124,10 @@ class ResponseWriter implements ContainerResponseWriter {
             // Jersey doesn't close the OutputStream when there is no entity
             // as such the publisher needs to be closed from here ...
             // it is assumed it's possible to close the publisher, the OutputStream, multiple times
-            publisher.close();
+            Publisher publisher = this.publisher;
+            if (publisher != null) {
+                publisher.close();
+            }
         } catch (IOException e) {
             // based on implementation of 'close', this never happens
             throw new IllegalStateException("Unexpected IO Exception received!", e);
@@ -181,16 +148,70 @@ class ResponseWriter implements ContainerResponseWriter {
     }
 
     /**
-     * Flush buffer if using SSE or if an empty buffer is received for writing. See
+     * Flush buffer if an empty buffer is received for writing. See
      * {@link OutputStreamPublisher#flush()}. Manual flushing is required to support
      * {@link javax.ws.rs.core.StreamingOutput} in MP.
      *
-     * @param context The container response.
      * @param byteBuffer The byte buffer to write.
      * @return Outcome of test.
      */
-    private static boolean doFlush(ContainerResponse context, ByteBuffer byteBuffer) {
-        return MediaType.SERVER_SENT_EVENTS_TYPE.isCompatible(context.getMediaType())
-                || byteBuffer.hasArray() && byteBuffer.array().length == 0;
+    private static boolean doFlush(ByteBuffer byteBuffer) {
+        return byteBuffer.hasArray() && byteBuffer.array().length == 0;
+    }
+
+    /**
+     * Publisher of the response entity which reports closed connection as an {@link IOException}.
+     */
+    private static final class Publisher extends OutputStreamPublisher {
+
+        private Publisher(int bufferSize) {
+            super(bufferSize);
+        }
+
+        @Override
+        public void write(byte[] b) throws IOException {
+            try {
+                super.write(b);
+            } catch (ConnectionClosedException e) {
+                throw new IOException("Cannot publish more bytes due to a connection close.", e);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                super.write(b, off, len);
+            } catch (ConnectionClosedException e) {
+                throw new IOException("Cannot publish more bytes due to a connection close.", e);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                super.write(b);
+            } catch (ConnectionClosedException e) {
+                throw new IOException("Cannot publish more bytes due to a connection close.", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.signalCloseComplete(null);
+                super.close();
+            } catch (ConnectionClosedException e) {
+                throw new IOException("Cannot close the connection because it's already closed.", e);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            try {
+                super.flush();
+            } catch (ConnectionClosedException e) {
+                throw new IOException("Cannot flush on the connection because it's closed.", e);
+            }
+        }
     }
 }
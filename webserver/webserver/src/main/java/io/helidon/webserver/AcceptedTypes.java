@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.Utils;
+
+/**
+ * Parsed {@code Accept} header, shared by all requests sending the same header value.
+ * <p>
+ * Besides the parsed media types, each instance remembers the outcome of content negotiation, i.e. of
+ * {@link #isAccepted(MediaType)} and {@link #bestAccepted(MediaType...)}, for the media types it was asked about.
+ * Both caches are bounded; once full, values are computed every time.
+ */
+final class AcceptedTypes {
+
+    private static final int CACHE_SIZE = 256;
+    private static final int NEGOTIATION_CACHE_SIZE = 32;
+    private static final Map<String, AcceptedTypes> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * No {@code Accept} header, all media types are accepted.
+     */
+    static final AcceptedTypes EMPTY = new AcceptedTypes(List.of());
+
+    private final List<MediaType> types;
+    private final Map<MediaType, Boolean> accepted = new ConcurrentHashMap<>();
+    private final Map<List<MediaType>, Optional<MediaType>> bestAccepted = new ConcurrentHashMap<>();
+
+    private AcceptedTypes(List<MediaType> types) {
+        this.types = Collections.unmodifiableList(types);
+    }
+
+    /**
+     * Accepted types of the given media types.
+     *
+     * @param types accepted media types, in header order
+     * @return accepted types
+     */
+    static AcceptedTypes create(List<MediaType> types) {
+        return new AcceptedTypes(new ArrayList<>(types));
+    }
+
+    /**
+     * Accepted types of the given {@code Accept} header values, parsed or cached.
+     *
+     * @param values values of the header
+     * @return accepted types
+     * @throws IllegalArgumentException if a value is not parsable
+     */
+    static AcceptedTypes parse(List<String> values) {
+        if (values.isEmpty()) {
+            return EMPTY;
+        }
+        String header = (values.size() == 1) ? values.get(0) : String.join(",", values);
+        AcceptedTypes cached = CACHE.get(header);
+        if (cached != null) {
+            return cached;
+        }
+        AcceptedTypes parsed = new AcceptedTypes(Utils.tokenize(',', "\"", false, header).stream()
+                                                         .map(String::trim)
+                                                         .map(MediaType::parse)
+                                                         .collect(Collectors.toList()));
+        if (CACHE.size() < CACHE_SIZE) {
+            CACHE.putIfAbsent(header, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * The accepted media types in header order.
+     *
+     * @return unmodifiable list of media types
+     */
+    List<MediaType> types() {
+        return types;
+    }
+
+    /**
+     * Whether the given media type is accepted.
+     *
+     * @param mediaType media type to test
+     * @return {@code true} if accepted, or if there is no accepted type at all
+     */
+    boolean isAccepted(MediaType mediaType) {
+        if (types.isEmpty()) {
+            return true;
+        }
+        Boolean result = accepted.get(mediaType);
+        if (result == null) {
+            result = types.stream().anyMatch(mediaType);
+            if (accepted.size() < NEGOTIATION_CACHE_SIZE) {
+                accepted.put(mediaType, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The media type of the given ones accepted with the highest quality factor; the first one if there is no
+     * accepted type at all.
+     *
+     * @param mediaTypes candidates
+     * @return the best candidate
+     */
+    Optional<MediaType> bestAccepted(MediaType... mediaTypes) {
+        if (types.isEmpty()) {
+            return Optional.ofNullable(mediaTypes[0]);
+        }
+        // a view for the lookup, only a miss copies the candidates
+        Optional<MediaType> result = bestAccepted.get(Arrays.asList(mediaTypes));
+        if (result == null) {
+            result = Optional.ofNullable(negotiate(mediaTypes));
+            if (bestAccepted.size() < NEGOTIATION_CACHE_SIZE) {
+                bestAccepted.put(new ArrayList<>(Arrays.asList(mediaTypes)), result);
+            }
+        }
+        return result;
+    }
+
+    private MediaType negotiate(MediaType... mediaTypes) {
+        double best = 0;
+        MediaType result = null;
+        for (MediaType mt : mediaTypes) {
+            if (mt != null) {
+                for (MediaType acc : types) {
+                    double q = acc.qualityFactor();
+                    if (q > best && acc.test(mt)) {
+                        if (q == 1) {
+                            return mt;
+                        } else {
+                            best = q;
+                            result = mt;
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
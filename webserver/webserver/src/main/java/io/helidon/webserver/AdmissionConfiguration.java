@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import io.helidon.config.Config;
+
+/**
+ * Configuration of admission control of a server socket.
+ * <p>
+ * When {@link #enabled() enabled}, at most {@link #maxConcurrentRequests()} requests of the socket are routed
+ * concurrently. Requests over the limit wait in a queue of at most {@link #maxQueuedRequests()} requests for
+ * at most {@link #queueTimeoutMillis()}. Requests which cannot be queued or time out in the queue are rejected
+ * before routing with {@link io.helidon.common.http.Http.Status#SERVICE_UNAVAILABLE_503} and a {@code Retry-After}
+ * header. The number of concurrent requests of a single connection can be limited as well, which is useful
+ * with HTTP/2.
+ * <p>
+ * With the {@link #adaptive() adaptive} limit, the limit of concurrent requests is adjusted based on observed
+ * latency: it is increased by one while the requests complete within {@link #targetLatencyMillis()} and the limit
+ * is used, and multiplied by {@link #backoffRatio()} whenever a request takes longer (additive increase,
+ * multiplicative decrease). The limit stays between {@link #minLimit()} and {@link #maxConcurrentRequests()}.
+ */
+public interface AdmissionConfiguration {
+
+    /**
+     * Default maximal time in milliseconds a request waits in the queue.
+     */
+    long DEFAULT_QUEUE_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * Default value of the {@code Retry-After} header of rejected requests in seconds.
+     */
+    int DEFAULT_RETRY_AFTER_SECONDS = 1;
+
+    /**
+     * Default initial limit of concurrent requests when the {@link #adaptive() adaptive} limit is used
+     * without {@link #maxConcurrentRequests()}.
+     */
+    int DEFAULT_INITIAL_LIMIT = 100;
+
+    /**
+     * Default minimal limit of concurrent requests when the {@link #adaptive() adaptive} limit is used.
+     */
+    int DEFAULT_MIN_LIMIT = 10;
+
+    /**
+     * Default target latency in milliseconds when the {@link #adaptive() adaptive} limit is used.
+     */
+    long DEFAULT_TARGET_LATENCY_MILLIS = 100;
+
+    /**
+     * Default ratio the adaptive limit is multiplied by when a request exceeds the target latency.
+     */
+    double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    /**
+     * Admission control disabled.
+     */
+    AdmissionConfiguration DISABLED = builder().build();
+
+    /**
+     * Whether admission control is enabled.
+     *
+     * @return {@code true} if requests should be admitted before routing
+     */
+    boolean enabled();
+
+    /**
+     * Maximal number of requests of the server socket routed concurrently, {@code 0} for unlimited.
+     *
+     * @return maximal number of concurrent requests
+     */
+    int maxConcurrentRequests();
+
+    /**
+     * Maximal number of requests waiting for admission, {@code 0} to reject requests over the limit immediately.
+     *
+     * @return maximal number of queued requests
+     */
+    int maxQueuedRequests();
+
+    /**
+     * Maximal time in milliseconds a request waits for admission, {@code 0} to wait without a time limit.
+     *
+     * @return queue timeout in milliseconds
+     */
+    long queueTimeoutMillis();
+
+    /**
+     * Maximal number of requests of a single connection routed concurrently, {@code 0} for unlimited. Requests
+     * over this limit are rejected immediately.
+     *
+     * @return maximal number of concurrent requests of a connection
+     */
+    int maxConcurrentRequestsPerConnection();
+
+    /**
+     * Value of the {@code Retry-After} header of rejected requests in seconds.
+     *
+     * @return seconds after which the client should retry
+     */
+    int retryAfterSeconds();
+
+    /**
+     * Whether the limit of concurrent requests is adjusted based on observed latency.
+     *
+     * @return {@code true} if the adaptive limit is used
+     */
+    boolean adaptive();
+
+    /**
+     * Target latency in milliseconds of the {@link #adaptive() adaptive} limit.
+     *
+     * @return target latency in milliseconds
+     */
+    long targetLatencyMillis();
+
+    /**
+     * Minimal limit of concurrent requests of the {@link #adaptive() adaptive} limit.
+     *
+     * @return minimal limit
+     */
+    int minLimit();
+
+    /**
+     * Ratio the {@link #adaptive() adaptive} limit is multiplied by when a request exceeds the target latency.
+     *
+     * @return backoff ratio between {@code 0} and {@code 1}
+     */
+    double backoffRatio();
+
+    /**
+     * Create a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates new instance from external configuration source.
+     *
+     * @param config the externalized configuration
+     * @return a new instance
+     */
+    static AdmissionConfiguration create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Builder for {@link AdmissionConfiguration}.
+     */
+    final class Builder implements io.helidon.common.Builder<AdmissionConfiguration> {
+
+        private boolean enabled = false;
+        private int maxConcurrentRequests = 0;
+        private int maxQueuedRequests = 0;
+        private long queueTimeoutMillis = DEFAULT_QUEUE_TIMEOUT_MILLIS;
+        private int maxConcurrentRequestsPerConnection = 0;
+        private int retryAfterSeconds = DEFAULT_RETRY_AFTER_SECONDS;
+        private boolean adaptive = false;
+        private long targetLatencyMillis = DEFAULT_TARGET_LATENCY_MILLIS;
+        private int minLimit = DEFAULT_MIN_LIMIT;
+        private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+
+        private Builder() {
+        }
+
+        /**
+         * Enables or disables admission control.
+         * <p>
+         * Configuration key: {@code enabled}
+         *
+         * @param enabled whether to admit requests before routing
+         * @return this builder
+         */
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Sets maximal number of requests of the server socket routed concurrently, {@code 0} for unlimited.
+         * When the {@link #adaptive(boolean) adaptive} limit is used, this is the upper bound of the limit.
+         * Default value is {@code 0}.
+         * <p>
+         * Configuration key: {@code max-concurrent-requests}
+         *
+         * @param maxConcurrentRequests maximal number of concurrent requests
+         * @return this builder
+         */
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = Math.max(maxConcurrentRequests, 0);
+            return this;
+        }
+
+        /**
+         * Sets maximal number of requests waiting for admission. Default value is {@code 0}, requests over the limit
+         * are rejected immediately.
+         * <p>
+         * Configuration key: {@code max-queued-requests}
+         *
+         * @param maxQueuedRequests maximal number of queued requests
+         * @return this builder
+         */
+        public Builder maxQueuedRequests(int maxQueuedRequests) {
+            this.maxQueuedRequests = Math.max(maxQueuedRequests, 0);
+            return this;
+        }
+
+        /**
+         * Sets maximal time in milliseconds a request waits for admission, {@code 0} to wait without a time limit.
+         * Default value is {@link #DEFAULT_QUEUE_TIMEOUT_MILLIS}.
+         * <p>
+         * Configuration key: {@code queue-timeout}
+         *
+         * @param queueTimeoutMillis queue timeout in milliseconds
+         * @return this builder
+         */
+        public Builder queueTimeoutMillis(long queueTimeoutMillis) {
+            this.queueTimeoutMillis = Math.max(queueTimeoutMillis, 0);
+            return this;
+        }
+
+        /**
+         * Sets maximal number of requests of a single connection routed concurrently, {@code 0} for unlimited.
+         * Default value is {@code 0}.
+         * <p>
+         * Configuration key: {@code max-concurrent-requests-per-connection}
+         *
+         * @param maxConcurrentRequests maximal number of concurrent requests of a connection
+         * @return this builder
+         */
+        public Builder maxConcurrentRequestsPerConnection(int maxConcurrentRequests) {
+            this.maxConcurrentRequestsPerConnection = Math.max(maxConcurrentRequests, 0);
+            return this;
+        }
+
+        /**
+         * Sets value of the {@code Retry-After} header of rejected requests in seconds.
+         * Default value is {@link #DEFAULT_RETRY_AFTER_SECONDS}.
+         * <p>
+         * Configuration key: {@code retry-after}
+         *
+         * @param retryAfterSeconds seconds after which the client should retry
+         * @return this builder
+         */
+        public Builder retryAfterSeconds(int retryAfterSeconds) {
+            this.retryAfterSeconds = Math.max(retryAfterSeconds, 0);
+            return this;
+        }
+
+        /**
+         * Enables or disables the adaptive limit of concurrent requests.
+         * <p>
+         * Configuration key: {@code adaptive}
+         *
+         * @param adaptive whether to adjust the limit based on observed latency
+         * @return this builder
+         */
+        public Builder adaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        /**
+         * Sets target latency in milliseconds of the adaptive limit.
+         * Default value is {@link #DEFAULT_TARGET_LATENCY_MILLIS}.
+         * <p>
+         * Configuration key: {@code target-latency}
+         *
+         * @param targetLatencyMillis target latency in milliseconds
+         * @return this builder
+         */
+        public Builder targetLatencyMillis(long targetLatencyMillis) {
+            if (targetLatencyMillis <= 0) {
+                throw new IllegalArgumentException("Target latency must be positive, but is: " + targetLatencyMillis);
+            }
+            this.targetLatencyMillis = targetLatencyMillis;
+            return this;
+        }
+
+        /**
+         * Sets minimal limit of concurrent requests of the adaptive limit. Default value is {@link #DEFAULT_MIN_LIMIT}.
+         * <p>
+         * Configuration key: {@code min-limit}
+         *
+         * @param minLimit minimal limit
+         * @return this builder
+         */
+        public Builder minLimit(int minLimit) {
+            this.minLimit = Math.max(minLimit, 1);
+            return this;
+        }
+
+        /**
+         * Sets ratio the adaptive limit is multiplied by when a request exceeds the target latency.
+         * Default value is {@link #DEFAULT_BACKOFF_RATIO}.
+         * <p>
+         * Configuration key: {@code backoff-ratio}
+         *
+         * @param backoffRatio backoff ratio, greater than {@code 0} and less than {@code 1}
+         * @return this builder
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            if (backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("Backoff ratio must be between 0 and 1, but is: " + backoffRatio);
+            }
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Sets configuration values included in provided {@link Config} parameter.
+         *
+         * @param config the configuration to use
+         * @return this builder
+         */
+        public Builder config(Config config) {
+            config.get("enabled").asBoolean().ifPresent(this::enabled);
+            config.get("max-concurrent-requests").asInt().ifPresent(this::maxConcurrentRequests);
+            config.get("max-queued-requests").asInt().ifPresent(this::maxQueuedRequests);
+            config.get("queue-timeout").asLong().ifPresent(this::queueTimeoutMillis);
+            config.get("max-concurrent-requests-per-connection").asInt().ifPresent(this::maxConcurrentRequestsPerConnection);
+            config.get("retry-after").asInt().ifPresent(this::retryAfterSeconds);
+            config.get("adaptive").asBoolean().ifPresent(this::adaptive);
+            config.get("target-latency").asLong().ifPresent(this::targetLatencyMillis);
+            config.get("min-limit").asInt().ifPresent(this::minLimit);
+            config.get("backoff-ratio").asDouble().ifPresent(this::backoffRatio);
+            return this;
+        }
+
+        @Override
+        public AdmissionConfiguration build() {
+            boolean enabled = this.enabled;
+            int maxConcurrentRequests = this.maxConcurrentRequests;
+            int maxQueuedRequests = this.maxQueuedRequests;
+            long queueTimeoutMillis = this.queueTimeoutMillis;
+            int maxConcurrentRequestsPerConnection = this.maxConcurrentRequestsPerConnection;
+            int retryAfterSeconds = this.retryAfterSeconds;
+            boolean adaptive = this.adaptive;
+            long targetLatencyMillis = this.targetLatencyMillis;
+            int minLimit = this.minLimit;
+            double backoffRatio = this.backoffRatio;
+
+            return new AdmissionConfiguration() {
+                @Override
+                public boolean enabled() {
+                    return enabled;
+                }
+
+                @Override
+                public int maxConcurrentRequests() {
+                    return maxConcurrentRequests;
+                }
+
+                @Override
+                public int maxQueuedRequests() {
+                    return maxQueuedRequests;
+                }
+
+                @Override
+                public long queueTimeoutMillis() {
+                    return queueTimeoutMillis;
+                }
+
+                @Override
+                public int maxConcurrentRequestsPerConnection() {
+                    return maxConcurrentRequestsPerConnection;
+                }
+
+                @Override
+                public int retryAfterSeconds() {
+                    return retryAfterSeconds;
+                }
+
+                @Override
+                public boolean adaptive() {
+                    return adaptive;
+                }
+
+                @Override
+                public long targetLatencyMillis() {
+                    return targetLatencyMillis;
+                }
+
+                @Override
+                public int minLimit() {
+                    return minLimit;
+                }
+
+                @Override
+                public double backoffRatio() {
+                    return backoffRatio;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control of requests of a single server socket, see {@link AdmissionConfiguration}.
+ * <p>
+ * Each admitted request holds a permit until {@link #release(long)} is called. A permit released while requests are
+ * queued is passed directly to the oldest queued request.
+ */
+final class AdmissionController {
+
+    private final AdmissionConfiguration config;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final Deque<Pending> queue = new ArrayDeque<>();
+
+    // guarded by queue
+    private int inFlight;
+    private double limit;
+
+    private AdmissionController(AdmissionConfiguration config) {
+        this.config = config;
+        this.maxLimit = config.maxConcurrentRequests() > 0 ? config.maxConcurrentRequests() : Integer.MAX_VALUE;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(config.targetLatencyMillis());
+        if (config.adaptive()) {
+            int initial = config.maxConcurrentRequests() > 0
+                    ? config.maxConcurrentRequests()
+                    : AdmissionConfiguration.DEFAULT_INITIAL_LIMIT;
+            this.limit = Math.max(initial, config.minLimit());
+        } else {
+            this.limit = maxLimit;
+        }
+    }
+
+    /**
+     * Creates an admission controller.
+     *
+     * @param config admission configuration
+     * @return a new controller or {@code null} if admission control is disabled
+     */
+    static AdmissionController create(AdmissionConfiguration config) {
+        return config.enabled() ? new AdmissionController(config) : null;
+    }
+
+    /**
+     * Admits a request, now or once a permit is available.
+     *
+     * @param executor  executor to run {@code onAdmit} if the request has to wait, and to time out waiting
+     * @param onAdmit   invoked once the request is admitted, the request must {@link #release(long) release}
+     *                  its permit when completed
+     * @param onReject  invoked if the request is rejected
+     */
+    void admit(ScheduledExecutorService executor, Runnable onAdmit, Runnable onReject) {
+        Pending pending = null;
+        boolean admitted = false;
+        synchronized (queue) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                admitted = true;
+            } else if (queue.size() < config.maxQueuedRequests()) {
+                pending = new Pending(executor, onAdmit);
+                queue.add(pending);
+            }
+        }
+        if (admitted) {
+            onAdmit.run();
+        } else if (pending == null) {
+            onReject.run();
+        } else if (config.queueTimeoutMillis() > 0) {
+            Pending timedOut = pending;
+            pending.timeout = executor.schedule(() -> {
+                boolean removed;
+                synchronized (queue) {
+                    removed = queue.remove(timedOut);
+                }
+                if (removed) {
+                    onReject.run();
+                }
+            }, config.queueTimeoutMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Releases a permit of a completed request.
+     *
+     * @param latencyNanos time the request held the permit in nanoseconds
+     */
+    void release(long latencyNanos) {
+        Pending next = null;
+        synchronized (queue) {
+            if (config.adaptive()) {
+                if (latencyNanos > targetLatencyNanos) {
+                    limit = Math.max(config.minLimit(), limit * config.backoffRatio());
+                } else if (inFlight * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1);
+                }
+            }
+            if (inFlight <= (int) limit) {
+                next = queue.poll();
+            }
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        if (next != null) {
+            if (next.timeout != null) {
+                next.timeout.cancel(false);
+            }
+            next.executor.execute(next.onAdmit);
+        }
+    }
+
+    /**
+     * Current limit of concurrent requests.
+     *
+     * @return the limit
+     */
+    int limit() {
+        synchronized (queue) {
+            return (int) limit;
+        }
+    }
+
+    /**
+     * Number of admitted requests which did not release their permit yet.
+     *
+     * @return requests in flight
+     */
+    int inFlight() {
+        synchronized (queue) {
+            return inFlight;
+        }
+    }
+
+    /**
+     * Value of the {@code Retry-After} header of rejected requests.
+     *
+     * @return seconds after which the client should retry
+     */
+    int retryAfterSeconds() {
+        return config.retryAfterSeconds();
+    }
+
+    /**
+     * Maximal number of concurrent requests of a connection.
+     *
+     * @return maximal number of concurrent requests of a connection, {@code 0} for unlimited
+     */
+    int maxConcurrentRequestsPerConnection() {
+        return config.maxConcurrentRequestsPerConnection();
+    }
+
+    private static final class Pending {
+        private final Executor executor;
+        private final Runnable onAdmit;
+        private volatile ScheduledFuture<?> timeout;
+
+        private Pending(Executor executor, Runnable onAdmit) {
+            this.executor = executor;
+            this.onAdmit = onAdmit;
+        }
+    }
+}
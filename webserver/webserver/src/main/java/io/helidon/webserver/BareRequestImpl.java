@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,7 +31,9 @@ import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Http;
 
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http2.Http2StreamChannel;
 
 /**
  * The BareRequestImpl.
@@ -41,6 +43,7 @@ class BareRequestImpl implements BareRequest {
     private final HttpRequest nettyRequest;
     private final Flow.Publisher<DataChunk> publisher;
     private final WebServer webServer;
+    private final SocketConfiguration socketConfig;
     private final ChannelHandlerContext ctx;
     private final SSLEngine sslEngine;
     private final long requestId;
@@ -49,12 +52,14 @@ class BareRequestImpl implements BareRequest {
     BareRequestImpl(HttpRequest request,
                     Flow.Publisher<DataChunk> publisher,
                     WebServer webServer,
+                    SocketConfiguration socketConfig,
                     ChannelHandlerContext ctx,
                     SSLEngine sslEngine,
                     long requestId) {
         this.nettyRequest = request;
         this.publisher = publisher;
         this.webServer = webServer;
+        this.socketConfig = socketConfig;
         this.ctx = ctx;
         this.sslEngine = sslEngine;
         this.requestId = requestId;
@@ -66,6 +71,11 @@ class BareRequestImpl implements BareRequest {
         return webServer;
     }
 
+    @Override
+    public SocketConfiguration socketConfiguration() {
+        return socketConfig;
+    }
+
     @Override
     public Http.RequestMethod method() {
         return Http.RequestMethod.create(nettyRequest.method().name());
@@ -73,6 +83,10 @@ class BareRequestImpl implements BareRequest {
 
     @Override
     public Http.Version version() {
+        if (ctx.channel() instanceof Http2StreamChannel) {
+            // a stream is decoded as an HTTP/1.1 request
+            return Http.Version.V2_0;
+        }
         return Http.Version.create(nettyRequest.protocolVersion().text());
     }
 
@@ -125,6 +139,33 @@ class BareRequestImpl implements BareRequest {
         return map;
     }
 
+    /**
+     * Netty headers of the request, without copying.
+     *
+     * @return request headers
+     */
+    HttpHeaders nettyHeaders() {
+        return nettyRequest.headers();
+    }
+
+    /**
+     * The Netty request.
+     *
+     * @return the request
+     */
+    HttpRequest nettyRequest() {
+        return nettyRequest;
+    }
+
+    /**
+     * Context of the handler which received the request, used to take over the connection.
+     *
+     * @return the channel handler context
+     */
+    ChannelHandlerContext channelContext() {
+        return ctx;
+    }
+
     @Override
     public Flow.Publisher<DataChunk> bodyPublisher() {
         return publisher;
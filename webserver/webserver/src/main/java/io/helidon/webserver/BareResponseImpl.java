@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,15 +34,20 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 
@@ -60,6 +65,8 @@ class BareResponseImpl implements BareResponse {
     private static final String HTTP_2_HEADER_PREFIX = "x-http2";
     private static final SocketClosedException CLOSED = new SocketClosedException("Response channel is closed!");
     private static final LastHttpContent LAST_HTTP_CONTENT = new DefaultLastHttpContent(Unpooled.EMPTY_BUFFER);
+    // size of memory mapped windows of a file region which cannot be transferred directly
+    private static final int FILE_REGION_WINDOW = 1024 * 1024;
 
     private final boolean keepAlive;
     private final ChannelHandlerContext ctx;
@@ -135,7 +142,10 @@ class BareResponseImpl implements BareResponse {
 
         response = new DefaultHttpResponse(HTTP_1_1, valueOf(status.code()));
         for (Map.Entry<String, List<String>> headerEntry : headers.entrySet()) {
-            response.headers().add(headerEntry.getKey(), headerEntry.getValue());
+            CharSequence name = EncodedHeaders.name(headerEntry.getKey());
+            for (String value : headerEntry.getValue()) {
+                response.headers().add(name, EncodedHeaders.value(value));
+            }
         }
 
         // Copy HTTP/2 headers to response for correlation (streamId)
@@ -265,11 +275,15 @@ class BareResponseImpl implements BareResponse {
         }
         if (data != null) {
             if (data.isFlushChunk()) {
+                if (lengthOptimization) {
+                    // an explicit flush sends the headers and a cached first chunk right away
+                    initWriteResponse();
+                }
                 ctx.flush();
                 return;
             }
             if (lengthOptimization) {
-                if (firstChunk == null) {
+                if (firstChunk == null && !(data instanceof FileRegionChunk) && !data.flush()) {
                     firstChunk = data.isReadOnly() ? data : data.duplicate();      // cache first chunk
                     return;
                 }
@@ -303,6 +317,10 @@ class BareResponseImpl implements BareResponse {
     }
 
     private ChannelFuture sendData(DataChunk data) {
+            if (data instanceof FileRegionChunk) {
+                return sendFileRegion((FileRegionChunk) data);
+            }
+
             LOGGER.finest(() -> log("Sending data chunk"));
 
             DefaultHttpContent httpContent = new DefaultHttpContent(Unpooled.wrappedBuffer(data.data()));
@@ -325,6 +343,52 @@ class BareResponseImpl implements BareResponse {
                     .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
     }
 
+    /**
+     * Sends a file region. If the content is written to the socket as is, the region is transferred directly from
+     * the file system (zero-copy), otherwise it is written in memory mapped windows.
+     *
+     * @param region the file region
+     * @return future of the last write
+     */
+    private ChannelFuture sendFileRegion(FileRegionChunk region) {
+        ChannelFuture channelFuture;
+        if (isZeroCopyAvailable(ctx.pipeline())) {
+            LOGGER.finest(() -> log("Sending file region: " + region));
+            channelFuture = ctx.write(new DefaultFileRegion(region.path().toFile(), region.position(), region.count()));
+        } else {
+            LOGGER.finest(() -> log("Sending mapped file region: " + region));
+            channelFuture = null;
+            for (long offset = 0; offset < region.count(); offset += FILE_REGION_WINDOW) {
+                int length = (int) Math.min(FILE_REGION_WINDOW, region.count() - offset);
+                channelFuture = ctx.write(new DefaultHttpContent(Unpooled.wrappedBuffer(region.map(offset, length))));
+            }
+            if (channelFuture == null) {
+                channelFuture = ctx.newSucceededFuture();
+            }
+        }
+        return channelFuture
+                .addListener(future -> {
+                    region.release();
+                    LOGGER.finest(() -> log("File region sent with result: " + future.isSuccess()));
+                })
+                .addListener(completeOnFailureListener("Failure when sending a file region!"))
+                .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+    }
+
+    /**
+     * Whether a file region can be written to the socket without being read. It cannot when the content is
+     * encrypted, compressed or framed by HTTP/2.
+     *
+     * @param pipeline the channel pipeline
+     * @return {@code true} if file regions can be transferred directly
+     */
+    private static boolean isZeroCopyAvailable(ChannelPipeline pipeline) {
+        // an HTTP/2 stream has its own pipeline, the connection pipeline may be encrypted
+        return !(pipeline.channel() instanceof Http2StreamChannel)
+                && pipeline.get(SslHandler.class) == null
+                && pipeline.get(HttpContentCompressor.class) == null;
+    }
+
     private String log(String s) {
         return "(reqID: " + requestId + ") " + s;
     }
@@ -345,6 +409,18 @@ class BareResponseImpl implements BareResponse {
         }
     }
 
+    /**
+     * Completes this response once the connection was upgraded to another protocol. Nothing is written,
+     * the upgrade response was already sent by the new protocol handler.
+     */
+    void upgraded() {
+        statusHeadersSent.set(true);
+        if (internallyClosed.compareAndSet(false, true)) {
+            lengthOptimization = false;
+            completeResponseFuture(null);
+        }
+    }
+
     @Override
     public CompletionStage<BareResponse> whenCompleted() {
         return responseFuture;
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Flow;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.Parameters;
+
+/**
+ * A single part of a {@code multipart/form-data} request, see {@link MultiPartSupport}.
+ * <p>
+ * The part is published once it was completely received. Its content is kept in memory if it is not larger than
+ * the {@link MultiPartSupport.Builder#spillThreshold(int) spill threshold}, otherwise it is stored in a temporary file
+ * which is deleted once the content was read or when the response is sent.
+ */
+public final class BodyPart {
+
+    private final Parameters headers;
+    private final Map<String, String> disposition;
+    private final long size;
+    private final boolean spilled;
+    private final Flow.Publisher<DataChunk> content;
+
+    BodyPart(Parameters headers,
+             Map<String, String> disposition,
+             long size,
+             boolean spilled,
+             Flow.Publisher<DataChunk> content) {
+        this.headers = headers;
+        this.disposition = disposition;
+        this.size = size;
+        this.spilled = spilled;
+        this.content = content;
+    }
+
+    /**
+     * Headers of this part.
+     *
+     * @return read-only headers
+     */
+    public Parameters headers() {
+        return headers;
+    }
+
+    /**
+     * Name of the form field, the {@code name} parameter of the {@code Content-Disposition} header.
+     *
+     * @return the name or empty optional if not present
+     */
+    public Optional<String> name() {
+        return Optional.ofNullable(disposition.get("name"));
+    }
+
+    /**
+     * Name of the uploaded file, the {@code filename} parameter of the {@code Content-Disposition} header.
+     *
+     * @return the file name or empty optional if the part is not a file
+     */
+    public Optional<String> filename() {
+        return Optional.ofNullable(disposition.get("filename"));
+    }
+
+    /**
+     * Media type of the content, {@code text/plain} if the part has no {@code Content-Type} header.
+     *
+     * @return the media type
+     */
+    public MediaType contentType() {
+        return headers.first(Http.Header.CONTENT_TYPE)
+                .map(MediaType::parse)
+                .orElse(MediaType.TEXT_PLAIN);
+    }
+
+    /**
+     * Number of bytes of the content.
+     *
+     * @return the size
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Whether the content was stored in a temporary file rather than in memory.
+     *
+     * @return {@code true} if the content is in a temporary file
+     */
+    public boolean isSpilled() {
+        return spilled;
+    }
+
+    /**
+     * Content of this part. It can be subscribed to only once.
+     *
+     * @return publisher of the content
+     */
+    public Flow.Publisher<DataChunk> content() {
+        return content;
+    }
+
+    @Override
+    public String toString() {
+        return "BodyPart{name=" + disposition.get("name")
+                + ", filename=" + disposition.get("filename")
+                + ", size=" + size + "}";
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,27 +29,22 @@ import io.netty.buffer.ByteBuf;
 /**
  * A {@link DataChunk} implementation that wraps {@link ByteBuf} and invokes
  * {@link ByteBuf#release()} during {@link DataChunk#release()}.
+ * <p>
+ * Chunks are created by {@link RequestChunks}. A {@link Tracked tracked} chunk is released by the server when
+ * its request completes, a {@link GcReleased} chunk when it is garbage collected.
  */
-class ByteBufRequestChunk implements DataChunk {
+abstract class ByteBufRequestChunk implements DataChunk {
     private static final boolean IS_GRAAL_VM = Boolean.getBoolean("com.oracle.graalvm.isaot");
     private static final Logger LOGGER = Logger.getLogger(ByteBufRequestChunk.class.getName());
     private static final AtomicLong ID_INCREMENTER = new AtomicLong(1);
 
     private final long id = ID_INCREMENTER.getAndIncrement();
     private final ByteBuffer byteBuffer;
-    private final ReferenceHoldingQueue.ReleasableReference<DataChunk> ref;
-
-    ByteBufRequestChunk(ByteBuf byteBuf, ReferenceHoldingQueue<DataChunk> referenceHoldingQueue) {
 
+    private ByteBufRequestChunk(ByteBuf byteBuf) {
         Objects.requireNonNull(byteBuf, "The ByteBuf must not be null!");
         byteBuffer = byteBuf.nioBuffer().asReadOnlyBuffer();
-        ref = new ReferenceHoldingQueue.ReleasableReference<>(this, referenceHoldingQueue, byteBuf::release);
-        byteBuf.retain();
-    }
-
-    @Override
-    public boolean isReleased() {
-        return ref.isReleased();
+        RequestChunkStatistics.onCreated();
     }
 
     @Override
@@ -60,29 +55,79 @@ class ByteBufRequestChunk implements DataChunk {
         return byteBuffer;
     }
 
-    @Override
-    public void release() {
-        ref.release();
-    }
-
     @Override
     public long id() {
         return id;
     }
 
     /**
-     * If possible, release this chunk as part of the finalization rather than
-     * through the reference queue (see {@link ReferenceHoldingQueue#release()}
-     * and from where it is called). Releasing the underlying {@link ByteBuf} as
-     * part of the finalization has a lower memory demand and performs slightly
-     * better under a heavy load.
+     * A chunk which is tracked by its {@link RequestChunks} until released, so it can be released
+     * deterministically when the request completes.
      */
-    @SuppressWarnings("checkstyle:NoFinalizer")
-    @Override
-    protected void finalize() {
-        if (!isReleased()) {
-            OneTimeLoggerHolder.logOnce();
-            release();
+    static final class Tracked extends ByteBufRequestChunk {
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private final ByteBuf byteBuf;
+        private final RequestChunks owner;
+
+        Tracked(ByteBuf byteBuf, RequestChunks owner) {
+            super(byteBuf);
+            this.byteBuf = byteBuf;
+            this.owner = owner;
+            owner.track(this);
+            byteBuf.retain();
+        }
+
+        @Override
+        public boolean isReleased() {
+            return released.get();
+        }
+
+        @Override
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                owner.untrack(this);
+                byteBuf.release();
+            }
+        }
+    }
+
+    /**
+     * A chunk which is released the latest when it is garbage collected.
+     */
+    static final class GcReleased extends ByteBufRequestChunk {
+        private final ReferenceHoldingQueue.ReleasableReference<DataChunk> ref;
+
+        GcReleased(ByteBuf byteBuf, ReferenceHoldingQueue<DataChunk> referenceHoldingQueue) {
+            super(byteBuf);
+            ref = new ReferenceHoldingQueue.ReleasableReference<>(this, referenceHoldingQueue, byteBuf::release);
+            byteBuf.retain();
+        }
+
+        @Override
+        public boolean isReleased() {
+            return ref.isReleased();
+        }
+
+        @Override
+        public void release() {
+            ref.release();
+        }
+
+        /**
+         * If possible, release this chunk as part of the finalization rather than
+         * through the reference queue (see {@link ReferenceHoldingQueue#release()}
+         * and from where it is called). Releasing the underlying {@link ByteBuf} as
+         * part of the finalization has a lower memory demand and performs slightly
+         * better under a heavy load.
+         */
+        @SuppressWarnings("checkstyle:NoFinalizer")
+        @Override
+        protected void finalize() {
+            if (!isReleased()) {
+                OneTimeLoggerHolder.logOnce();
+                RequestChunkStatistics.onReleasedByGc();
+                release();
+            }
         }
     }
 
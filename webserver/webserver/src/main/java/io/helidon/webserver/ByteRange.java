@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.helidon.common.http.Http;
+
+/**
+ * A single byte range of a {@code Range} request header, see RFC 7233.
+ */
+final class ByteRange {
+
+    /**
+     * Maximal number of ranges served in a single response. Requests with more ranges get the whole content.
+     */
+    static final int MAX_RANGES = 16;
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+    private final long end;
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Parses the value of a {@code Range} header.
+     *
+     * @param header value of the header
+     * @param length length of the whole content
+     * @return satisfiable ranges, empty list if none of the ranges is satisfiable, or {@code null} if the header is
+     * not valid and should be ignored
+     */
+    static List<ByteRange> parse(String header, long length) {
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+        String[] specs = value.substring(BYTES_UNIT.length()).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<ByteRange> result = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            try {
+                if (first.isEmpty()) {
+                    // suffix range: last N bytes
+                    long suffix = Long.parseLong(last);
+                    if (suffix < 0) {
+                        return null;
+                    }
+                    if (suffix > 0 && length > 0) {
+                        result.add(new ByteRange(Math.max(0, length - suffix), length - 1));
+                    }
+                } else {
+                    long start = Long.parseLong(first);
+                    long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                    if (start < 0 || end < start) {
+                        return null;
+                    }
+                    if (start < length) {
+                        result.add(new ByteRange(start, Math.min(end, length - 1)));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Evaluates an {@code If-Range} header. A range request is only served if the validator matches the current
+     * representation, a weak entity tag never matches.
+     *
+     * @param ifRange      value of the header
+     * @param etag         current entity tag without quotes, may be {@code null}
+     * @param lastModified current last modification time, may be {@code null}
+     * @return {@code true} if the ranges should be served
+     */
+    static boolean ifRangeMatches(String ifRange, String etag, Instant lastModified) {
+        String value = ifRange.trim();
+        if (value.startsWith("\"")) {
+            return etag != null && value.equals('"' + etag + '"');
+        }
+        if (value.startsWith("W/") || lastModified == null) {
+            return false;
+        }
+        try {
+            Instant date = Http.DateTime.parse(value).toInstant();
+            return date.equals(lastModified.truncatedTo(ChronoUnit.SECONDS));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * First byte of the range.
+     *
+     * @return first byte position
+     */
+    long start() {
+        return start;
+    }
+
+    /**
+     * Last byte of the range, inclusive.
+     *
+     * @return last byte position
+     */
+    long end() {
+        return end;
+    }
+
+    /**
+     * Number of bytes of the range.
+     *
+     * @return length of the range
+     */
+    long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Value of a {@code Content-Range} header for this range.
+     *
+     * @param completeLength length of the whole content
+     * @return content range
+     */
+    String contentRange(long completeLength) {
+        return "bytes " + start + '-' + end + '/' + completeLength;
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+}
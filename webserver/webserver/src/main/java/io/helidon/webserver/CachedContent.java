@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.MediaType;
+
+/**
+ * Static content held in memory by {@link ContentCache}, together with everything needed to send it:
+ * entity tag, last modification time, media type of the file name and precompressed variants.
+ */
+final class CachedContent {
+
+    private final ByteBuffer data;
+    private final Map<String, ByteBuffer> encoded;
+    private final MediaType mediaType;
+    private final String etag;
+    private final Instant lastModified;
+    private final Path source;
+    private final long size;
+    // System.nanoTime() of the last access and of the last check of the source for modification
+    private volatile long lastAccess;
+    private volatile long validatedAt = System.nanoTime();
+
+    private CachedContent(ByteBuffer data,
+                          Map<String, ByteBuffer> encoded,
+                          MediaType mediaType,
+                          String etag,
+                          Instant lastModified,
+                          Path source) {
+        this.data = data;
+        this.encoded = encoded;
+        this.mediaType = mediaType;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.source = source;
+        long size = data.capacity();
+        for (ByteBuffer buffer : encoded.values()) {
+            size += buffer.capacity();
+        }
+        this.size = size;
+    }
+
+    /**
+     * Creates a new cached content.
+     *
+     * @param content      the content
+     * @param encoded      precompressed variants of the content by content coding, e.g. {@code gzip}
+     * @param mediaType    media type of the file name, may be {@code null}
+     * @param lastModified last modification time, may be {@code null}
+     * @param source       a file to check for modifications, {@code null} if the content cannot change
+     * @return a new cached content
+     */
+    static CachedContent create(byte[] content,
+                                Map<String, byte[]> encoded,
+                                MediaType mediaType,
+                                Instant lastModified,
+                                Path source) {
+        Map<String, ByteBuffer> encodedBuffers = new LinkedHashMap<>();
+        encoded.forEach((coding, bytes) -> encodedBuffers.put(coding, directBuffer(bytes)));
+        String etag;
+        if (lastModified == null) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            etag = Long.toHexString(crc.getValue());
+        } else {
+            // consistent with not cached content
+            etag = String.valueOf(lastModified.toEpochMilli());
+        }
+        return new CachedContent(directBuffer(content),
+                                 Collections.unmodifiableMap(encodedBuffers),
+                                 mediaType,
+                                 etag,
+                                 lastModified,
+                                 source);
+    }
+
+    private static ByteBuffer directBuffer(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Whether the source file was not modified since the content was cached. The file is not checked again
+     * within the revalidation interval after a successful check.
+     *
+     * @param revalidationNanos minimal interval between checks of the file, in nanoseconds
+     * @return {@code true} if the content is still valid
+     */
+    boolean isValid(long revalidationNanos) {
+        if (source == null) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - validatedAt < revalidationNanos) {
+            return true;
+        }
+        try {
+            if (Files.getLastModifiedTime(source).toInstant().equals(lastModified)) {
+                validatedAt = now;
+                return true;
+            }
+            return false;
+        } catch (IOException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records an access of the content, the least recently accessed content is evicted first.
+     */
+    void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Chunks of a region of the content.
+     *
+     * @param position first byte of the region
+     * @param count    number of bytes of the region
+     * @return chunks of the region
+     */
+    List<DataChunk> region(long position, long count) {
+        return List.of(slice(data, position, count));
+    }
+
+    /**
+     * The whole content of a precompressed variant.
+     *
+     * @param coding content coding of the variant
+     * @return the variant chunk
+     */
+    DataChunk encoded(String coding) {
+        ByteBuffer buffer = encoded.get(coding);
+        return slice(buffer, 0, buffer.capacity());
+    }
+
+    /**
+     * Number of bytes of a precompressed variant.
+     *
+     * @param coding content coding of the variant
+     * @return length of the variant
+     */
+    long encodedLength(String coding) {
+        return encoded.get(coding).capacity();
+    }
+
+    private static DataChunk slice(ByteBuffer buffer, long position, long count) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position((int) position).limit((int) (position + count));
+        return DataChunk.create(false, slice.slice(), true);
+    }
+
+    long length() {
+        return data.capacity();
+    }
+
+    /**
+     * Content codings of precompressed variants.
+     *
+     * @return available content codings
+     */
+    Set<String> encodings() {
+        return encoded.keySet();
+    }
+
+    MediaType mediaType() {
+        return mediaType;
+    }
+
+    String etag() {
+        return etag;
+    }
+
+    Instant lastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Number of bytes held by this content including its variants.
+     *
+     * @return size in bytes
+     */
+    long size() {
+        return size;
+    }
+}
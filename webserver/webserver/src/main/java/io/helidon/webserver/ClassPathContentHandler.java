@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Flow;
@@ -55,7 +56,16 @@ class ClassPathContentHandler extends StaticContentHandler {
                             ContentTypeSelector contentTypeSelector,
                             String root,
                             ClassLoader classLoader) {
-        super(welcomeFilename, contentTypeSelector);
+        this(welcomeFilename, contentTypeSelector, root, classLoader, null, false);
+    }
+
+    ClassPathContentHandler(String welcomeFilename,
+                            ContentTypeSelector contentTypeSelector,
+                            String root,
+                            ClassLoader classLoader,
+                            ContentCache cache,
+                            boolean precompressed) {
+        super(welcomeFilename, contentTypeSelector, cache, precompressed);
 
         this.classLoader = (classLoader == null) ? this.getClass().getClassLoader() : classLoader;
         this.root = root;
@@ -66,6 +76,15 @@ class ClassPathContentHandler extends StaticContentHandler {
                                               ContentTypeSelector selector,
                                               String clRoot,
                                               ClassLoader classLoader) {
+        return create(welcomeFileName, selector, clRoot, classLoader, null, false);
+    }
+
+    static StaticContentHandler create(String welcomeFileName,
+                                       ContentTypeSelector selector,
+                                       String clRoot,
+                                       ClassLoader classLoader,
+                                       ContentCache cache,
+                                       boolean precompressed) {
         ClassLoader contentClassloader = (classLoader == null)
                 ? ClassPathContentHandler.class.getClassLoader()
                 : classLoader;
@@ -80,7 +99,7 @@ class ClassPathContentHandler extends StaticContentHandler {
             throw new IllegalArgumentException("Cannot serve full classpath, please configure a classpath prefix");
         }
 
-        return new ClassPathContentHandler(welcomeFileName, selector, clRoot, contentClassloader);
+        return new ClassPathContentHandler(welcomeFileName, selector, clRoot, contentClassloader, cache, precompressed);
     }
 
     @SuppressWarnings("checkstyle:RegexpSinglelineJava")
@@ -99,6 +118,10 @@ class ClassPathContentHandler extends StaticContentHandler {
             return false;
         }
 
+        if (sendCached(method, requestedResource, request, response)) {
+            return true;
+        }
+
         // try to find the resource on classpath (cannot use root URL and then resolve, as root and sub-resource
         // may be from different jar files/directories
         URL url = classLoader.getResource(resource);
@@ -106,6 +129,7 @@ class ClassPathContentHandler extends StaticContentHandler {
             return false;
         }
 
+        String cacheKey = requestedResource;
         String welcomeFileName = welcomePageName();
         if (null != welcomeFileName) {
             String welcomeFileResource = requestedResource + "/" + welcomeFileName;
@@ -116,6 +140,8 @@ class ClassPathContentHandler extends StaticContentHandler {
                 if (rawFullPath.endsWith("/")) {
                     // this is OK, as the path ends with a forward slash
                     url = welcomeUrl;
+                    // the key is the directory, do not cache, so requests without trailing slash are still redirected
+                    cacheKey = null;
                 } else {
                     // must redirect
                     redirect(response, rawFullPath + "/");
@@ -127,11 +153,10 @@ class ClassPathContentHandler extends StaticContentHandler {
         // now read the URL - we have direct support for files and jar files, others are handled by stream only
         switch (url.getProtocol()) {
         case "file":
-            FileSystemContentHandler
-                    .sendFile(method, Paths.get(url.toURI()), request, response, contentTypeSelector(), welcomePageName());
+            FileSystemContentHandler.sendFile(method, Paths.get(url.toURI()), cacheKey, request, response, this);
             break;
         case "jar":
-            return sendJar(method, requestedResource, url, request, response);
+            return sendJar(method, requestedResource, cacheKey, url, request, response);
         default:
             sendUrlStream(method, url, request, response);
             break;
@@ -142,16 +167,29 @@ class ClassPathContentHandler extends StaticContentHandler {
 
     private boolean sendJar(Http.RequestMethod method,
                             String requestedResource,
+                            String cacheKey,
                             URL url,
                             ServerRequest request,
-                            ServerResponse response) throws URISyntaxException {
+                            ServerResponse response) throws IOException {
+
+        if (cacheKey != null && cache() != null) {
+            // read directly to memory, without extracting to a temporary file
+            CachedContent content = readJarEntry(url);
+            if (content != null) {
+                cache().put(cacheKey, content);
+                sendCached(method, content, request, response);
+                return true;
+            }
+        }
 
         ExtractedJarEntry extrEntry = extracted.computeIfAbsent(requestedResource, thePath -> extractJarEntry(url));
         if (extrEntry.tempFile == null) {
             return false;
         }
+        String etag = null;
         if (extrEntry.lastModified != null) {
-            processEtag(String.valueOf(extrEntry.lastModified.toEpochMilli()), request.headers(), response.headers());
+            etag = String.valueOf(extrEntry.lastModified.toEpochMilli());
+            processEtag(etag, request.headers(), response.headers());
             processModifyHeaders(extrEntry.lastModified, request.headers(), response.headers());
         }
 
@@ -162,11 +200,7 @@ class ClassPathContentHandler extends StaticContentHandler {
                            response.headers(),
                            contentTypeSelector());
 
-        if (method == Http.Method.HEAD) {
-            response.send();
-        } else {
-            response.send(extrEntry.tempFile);
-        }
+        sendContent(method, extrEntry.tempFile, etag, extrEntry.lastModified, request, response);
 
         return true;
     }
@@ -255,6 +289,51 @@ class ClassPathContentHandler extends StaticContentHandler {
         }
     }
 
+    /**
+     * Reads a jar entry and its precompressed variants (if enabled) to memory.
+     *
+     * @param url URL of the jar entry
+     * @return the content or {@code null} if the entry is a directory or it is too large to be cached
+     * @throws IOException if the entry cannot be read
+     */
+    private CachedContent readJarEntry(URL url) throws IOException {
+        JarURLConnection jarUrlConnection = (JarURLConnection) url.openConnection();
+        JarFile jarFile = jarUrlConnection.getJarFile();
+        try {
+            JarEntry jarEntry = jarUrlConnection.getJarEntry();
+            if (jarEntry.isDirectory() || !cache().accepts(jarEntry.getSize())) {
+                return null;
+            }
+            byte[] content;
+            try (InputStream is = jarFile.getInputStream(jarEntry)) {
+                content = is.readAllBytes();
+            }
+            Map<String, byte[]> variants = new LinkedHashMap<>();
+            if (precompressed()) {
+                for (String coding : PRECOMPRESSED_CODINGS) {
+                    URL variantUrl = classLoader.getResource(jarEntry.getName() + PRECOMPRESSED_EXTENSIONS.get(coding));
+                    if (variantUrl != null) {
+                        try (InputStream is = variantUrl.openStream()) {
+                            byte[] variant = is.readAllBytes();
+                            if (cache().accepts(variant.length)) {
+                                variants.put(coding, variant);
+                            }
+                        }
+                    }
+                }
+            }
+            return CachedContent.create(content,
+                                        variants,
+                                        contentTypeSelector().get(fileName(url)),
+                                        getLastModified(jarFile.getName()),
+                                        null);
+        } finally {
+            if (!jarUrlConnection.getUseCaches()) {
+                jarFile.close();
+            }
+        }
+    }
+
     private Instant getLastModified(String path) throws IOException {
         Path file = Paths.get(path);
 
@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+import io.helidon.common.http.MediaType;
+import io.helidon.config.Config;
+
+/**
+ * Configuration of HTTP content coding of a server socket.
+ * <p>
+ * When {@link #enabled() enabled}, responses are compressed with one of the {@link #encodings() enabled encodings}
+ * accepted by the client in its {@code Accept-Encoding} header, if their content type matches
+ * one of the {@link #mediaTypes() compressible media types} and their length is unknown or at least
+ * {@link #minSize()} bytes. Response content is compressed chunk by chunk as it is written.
+ * <p>
+ * When {@link #requestDecompression() request decompression} is enabled, request content with
+ * {@code Content-Encoding} {@code gzip} or {@code deflate} is inflated chunk by chunk before it reaches
+ * the registered readers, up to {@link #maxDecompressedSize()} bytes.
+ */
+public interface CompressionConfiguration {
+
+    /**
+     * The {@code gzip} content encoding.
+     */
+    String GZIP = "gzip";
+
+    /**
+     * The {@code deflate} content encoding.
+     */
+    String DEFLATE = "deflate";
+
+    /**
+     * Default minimal size in bytes of a response to be compressed.
+     */
+    int DEFAULT_MIN_SIZE = 1024;
+
+    /**
+     * Default compression level.
+     */
+    int DEFAULT_LEVEL = 6;
+
+    /**
+     * Default maximal size in bytes of decompressed request content.
+     */
+    long DEFAULT_MAX_DECOMPRESSED_SIZE = 10 * 1024 * 1024;
+
+    /**
+     * Media types compressed by default.
+     */
+    List<MediaType> DEFAULT_MEDIA_TYPES = List.of(MediaType.parse("text/*"),
+                                                  MediaType.APPLICATION_JSON,
+                                                  MediaType.create("application", "javascript"),
+                                                  MediaType.APPLICATION_XML,
+                                                  MediaType.APPLICATION_XHTML_XML,
+                                                  MediaType.APPLICATION_ATOM_XML,
+                                                  MediaType.APPLICATION_SVG_XML,
+                                                  MediaType.APPLICATION_YAML,
+                                                  MediaType.APPLICATION_X_YAML);
+
+    /**
+     * Compression disabled.
+     */
+    CompressionConfiguration DISABLED = builder().build();
+
+    /**
+     * Whether response compression is enabled.
+     *
+     * @return {@code true} if responses should be compressed
+     */
+    boolean enabled();
+
+    /**
+     * Enabled content encodings, any of {@link #GZIP} and {@link #DEFLATE}.
+     *
+     * @return enabled content encodings
+     */
+    Set<String> encodings();
+
+    /**
+     * Minimal size in bytes of a response with known {@code Content-Length} to be compressed.
+     *
+     * @return minimal size in bytes
+     */
+    int minSize();
+
+    /**
+     * Media types of responses to compress.
+     *
+     * @return compressible media types
+     */
+    List<MediaType> mediaTypes();
+
+    /**
+     * Compression level, from {@code 1} (best speed) to {@code 9} (best compression).
+     *
+     * @return compression level
+     */
+    int level();
+
+    /**
+     * Whether request content with {@code Content-Encoding} {@code gzip} or {@code deflate} is decompressed.
+     *
+     * @return {@code true} if request content should be decompressed
+     */
+    boolean requestDecompression();
+
+    /**
+     * Maximal size in bytes of decompressed request content. Requests inflating to more bytes are
+     * failed with {@link io.helidon.common.http.Http.Status#REQUEST_ENTITY_TOO_LARGE_413}.
+     * A value of {@code 0} or less means unlimited.
+     *
+     * @return maximal decompressed size in bytes
+     */
+    long maxDecompressedSize();
+
+    /**
+     * Create a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates new instance from external configuration source.
+     *
+     * @param config the externalized configuration
+     * @return a new instance
+     */
+    static CompressionConfiguration create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Builder for {@link CompressionConfiguration}.
+     */
+    final class Builder implements io.helidon.common.Builder<CompressionConfiguration> {
+
+        private final Set<String> encodings = new LinkedHashSet<>();
+        private final Set<MediaType> mediaTypes = new LinkedHashSet<>();
+        private boolean enabled = false;
+        private int minSize = DEFAULT_MIN_SIZE;
+        private int level = DEFAULT_LEVEL;
+        private boolean requestDecompression = false;
+        private long maxDecompressedSize = DEFAULT_MAX_DECOMPRESSED_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * Enables or disables response compression.
+         * <p>
+         * Configuration key: {@code enabled}
+         *
+         * @param enabled whether to compress responses
+         * @return this builder
+         */
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Adds an enabled content encoding. If none is added, both {@link #GZIP} and {@link #DEFLATE} are enabled.
+         *
+         * @param encoding content encoding, {@code gzip} or {@code deflate}
+         * @return this builder
+         * @throws IllegalArgumentException if the encoding is not supported
+         */
+        public Builder addEncoding(String encoding) {
+            Objects.requireNonNull(encoding, "Parameter 'encoding' must not be null!");
+            String normalized = encoding.trim().toLowerCase(Locale.ROOT);
+            if (!GZIP.equals(normalized) && !DEFLATE.equals(normalized)) {
+                throw new IllegalArgumentException("Unsupported content encoding: " + encoding
+                                                           + ", expecting " + GZIP + " or " + DEFLATE);
+            }
+            this.encodings.add(normalized);
+            return this;
+        }
+
+        /**
+         * Sets enabled content encodings. If empty, both {@link #GZIP} and {@link #DEFLATE} are enabled.
+         * <p>
+         * Configuration key: {@code encodings}
+         *
+         * @param encodings content encodings
+         * @return this builder
+         */
+        public Builder encodings(Collection<String> encodings) {
+            this.encodings.clear();
+            encodings.forEach(this::addEncoding);
+            return this;
+        }
+
+        /**
+         * Sets minimal size in bytes of a response with known {@code Content-Length} to be compressed.
+         * Default value is {@link #DEFAULT_MIN_SIZE}.
+         * <p>
+         * Configuration key: {@code min-size}
+         *
+         * @param minSize minimal size in bytes
+         * @return this builder
+         */
+        public Builder minSize(int minSize) {
+            this.minSize = Math.max(minSize, 0);
+            return this;
+        }
+
+        /**
+         * Adds a media type of responses to compress. If none is added, {@link #DEFAULT_MEDIA_TYPES} are used.
+         *
+         * @param mediaType media type, may be a wildcard such as {@code text/*}
+         * @return this builder
+         */
+        public Builder addMediaType(MediaType mediaType) {
+            this.mediaTypes.add(Objects.requireNonNull(mediaType, "Parameter 'mediaType' must not be null!"));
+            return this;
+        }
+
+        /**
+         * Sets media types of responses to compress. If empty, {@link #DEFAULT_MEDIA_TYPES} are used.
+         * <p>
+         * Configuration key: {@code media-types}
+         *
+         * @param mediaTypes media types
+         * @return this builder
+         */
+        public Builder mediaTypes(Collection<MediaType> mediaTypes) {
+            this.mediaTypes.clear();
+            mediaTypes.forEach(this::addMediaType);
+            return this;
+        }
+
+        /**
+         * Sets compression level, from {@code 1} (best speed) to {@code 9} (best compression).
+         * Default value is {@link #DEFAULT_LEVEL}.
+         * <p>
+         * Configuration key: {@code level}
+         *
+         * @param level compression level
+         * @return this builder
+         * @throws IllegalArgumentException if the level is out of range
+         */
+        public Builder level(int level) {
+            if (level < 1 || level > 9) {
+                throw new IllegalArgumentException("Compression level must be between 1 and 9, but is: " + level);
+            }
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Enables or disables decompression of request content with {@code Content-Encoding}
+         * {@code gzip} or {@code deflate}.
+         * <p>
+         * Configuration key: {@code request-decompression}
+         *
+         * @param requestDecompression whether to decompress request content
+         * @return this builder
+         */
+        public Builder requestDecompression(boolean requestDecompression) {
+            this.requestDecompression = requestDecompression;
+            return this;
+        }
+
+        /**
+         * Sets maximal size in bytes of decompressed request content, {@code 0} or less for unlimited.
+         * Default value is {@link #DEFAULT_MAX_DECOMPRESSED_SIZE}.
+         * <p>
+         * Configuration key: {@code max-decompressed-size}
+         *
+         * @param maxDecompressedSize maximal decompressed size in bytes
+         * @return this builder
+         */
+        public Builder maxDecompressedSize(long maxDecompressedSize) {
+            this.maxDecompressedSize = maxDecompressedSize;
+            return this;
+        }
+
+        /**
+         * Sets configuration values included in provided {@link Config} parameter.
+         *
+         * @param config the configuration to use
+         * @return this builder
+         */
+        public Builder config(Config config) {
+            config.get("enabled").asBoolean().ifPresent(this::enabled);
+            config.get("encodings").asList(String.class).ifPresent(this::encodings);
+            config.get("min-size").asInt().ifPresent(this::minSize);
+            config.get("level").asInt().ifPresent(this::level);
+            config.get("request-decompression").asBoolean().ifPresent(this::requestDecompression);
+            config.get("max-decompressed-size").asLong().ifPresent(this::maxDecompressedSize);
+            config.get("media-types").asList(String.class).ifPresent(types -> {
+                mediaTypes.clear();
+                types.stream().map(MediaType::parse).forEach(this::addMediaType);
+            });
+            return this;
+        }
+
+        @Override
+        public CompressionConfiguration build() {
+            boolean enabled = this.enabled;
+            Set<String> encodings = this.encodings.isEmpty()
+                    ? Set.of(GZIP, DEFLATE)
+                    : Collections.unmodifiableSet(new LinkedHashSet<>(this.encodings));
+            List<MediaType> mediaTypes = this.mediaTypes.isEmpty()
+                    ? DEFAULT_MEDIA_TYPES
+                    : List.copyOf(this.mediaTypes);
+            int minSize = this.minSize;
+            int level = this.level;
+            boolean requestDecompression = this.requestDecompression;
+            long maxDecompressedSize = this.maxDecompressedSize;
+
+            return new CompressionConfiguration() {
+                @Override
+                public boolean enabled() {
+                    return enabled;
+                }
+
+                @Override
+                public Set<String> encodings() {
+                    return encodings;
+                }
+
+                @Override
+                public int minSize() {
+                    return minSize;
+                }
+
+                @Override
+                public List<MediaType> mediaTypes() {
+                    return mediaTypes;
+                }
+
+                @Override
+                public int level() {
+                    return level;
+                }
+
+                @Override
+                public boolean requestDecompression() {
+                    return requestDecompression;
+                }
+
+                @Override
+                public long maxDecompressedSize() {
+                    return maxDecompressedSize;
+                }
+            };
+        }
+    }
+}
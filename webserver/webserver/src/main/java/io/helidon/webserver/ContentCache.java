@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded in-memory cache of static content. The least recently used content is evicted when the total size
+ * of cached content exceeds the configured maximum.
+ * <p>
+ * Lookups take no lock, only storing content which overflows the cache scans it for the content to evict.
+ * Content of a file is checked for modification at most once per revalidation interval.
+ */
+final class ContentCache {
+
+    private final long maxSize;
+    private final long maxFileSize;
+    private final long revalidationNanos;
+    private final Map<String, CachedContent> cache = new ConcurrentHashMap<>();
+    private final AtomicLong size = new AtomicLong();
+    // a single eviction at a time, so concurrent puts do not evict more than needed
+    private final Object evictionLock = new Object();
+
+    /**
+     * Creates new instance.
+     *
+     * @param maxSize           maximal number of bytes of all cached content
+     * @param maxFileSize       maximal number of bytes of a single cached file
+     * @param revalidationNanos minimal interval between checks of a file for modification, in nanoseconds
+     */
+    ContentCache(long maxSize, long maxFileSize, long revalidationNanos) {
+        this.maxSize = maxSize;
+        this.maxFileSize = Math.min(maxFileSize, maxSize);
+        this.revalidationNanos = revalidationNanos;
+    }
+
+    /**
+     * Whether a file of provided size can be cached.
+     *
+     * @param fileSize size of the file in bytes
+     * @return {@code true} if the file is not too large to be cached
+     */
+    boolean accepts(long fileSize) {
+        return fileSize >= 0 && fileSize <= maxFileSize;
+    }
+
+    /**
+     * Returns cached content. Content which is no longer {@link CachedContent#isValid(long) valid} is evicted.
+     *
+     * @param key the key
+     * @return cached content or {@code null} if not cached
+     */
+    CachedContent get(String key) {
+        CachedContent content = cache.get(key);
+        if (content == null) {
+            return null;
+        }
+        if (content.isValid(revalidationNanos)) {
+            content.touch();
+            return content;
+        }
+        if (cache.remove(key, content)) {
+            size.addAndGet(-content.size());
+        }
+        return null;
+    }
+
+    /**
+     * Caches the content, if it is not too large.
+     *
+     * @param key     the key
+     * @param content the content
+     */
+    void put(String key, CachedContent content) {
+        if (content.size() > maxSize) {
+            return;
+        }
+        content.touch();
+        CachedContent previous = cache.put(key, content);
+        long newSize = size.addAndGet(previous == null ? content.size() : content.size() - previous.size());
+        if (newSize > maxSize) {
+            evict(content);
+        }
+    }
+
+    /**
+     * Removes all cached content.
+     */
+    void clear() {
+        for (String key : cache.keySet()) {
+            CachedContent removed = cache.remove(key);
+            if (removed != null) {
+                size.addAndGet(-removed.size());
+            }
+        }
+    }
+
+    private void evict(CachedContent added) {
+        synchronized (evictionLock) {
+            while (size.get() > maxSize) {
+                Map.Entry<String, CachedContent> eldest = null;
+                for (Map.Entry<String, CachedContent> entry : cache.entrySet()) {
+                    CachedContent content = entry.getValue();
+                    if (content != added && (eldest == null || content.lastAccess() < eldest.getValue().lastAccess())) {
+                        eldest = entry;
+                    }
+                }
+                if (eldest == null) {
+                    return;
+                }
+                if (cache.remove(eldest.getKey(), eldest.getValue())) {
+                    size.addAndGet(-eldest.getValue().size());
+                }
+            }
+        }
+    }
+}
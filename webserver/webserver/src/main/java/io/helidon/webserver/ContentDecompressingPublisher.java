@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.Flow;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+
+/**
+ * Request content filter inflating {@code gzip} or {@code deflate} encoded request content.
+ * <p>
+ * Each received chunk is inflated into exactly one published chunk, so the back-pressure of the
+ * downstream subscriber is passed to the original publisher as is. The decompressed content is limited
+ * to a configured number of bytes, to protect the server from decompression bombs; the limit is checked while
+ * inflating, not after a whole chunk was inflated.
+ */
+class ContentDecompressingPublisher implements Flow.Publisher<DataChunk> {
+
+    private static final Logger LOGGER = Logger.getLogger(ContentDecompressingPublisher.class.getName());
+    // inflating a slice produces at most about a thousand times its size
+    private static final int INPUT_SLICE_SIZE = 1024;
+
+    private final Flow.Publisher<DataChunk> originalPublisher;
+    private final ZlibWrapper wrapper;
+    private final long maxSize;
+
+    private ContentDecompressingPublisher(Flow.Publisher<DataChunk> originalPublisher, ZlibWrapper wrapper, long maxSize) {
+        this.originalPublisher = originalPublisher;
+        this.wrapper = wrapper;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Whether the content encoding is supported by this filter.
+     *
+     * @param contentEncoding value of the {@code Content-Encoding} header
+     * @return {@code true} if the content can be decompressed
+     */
+    static boolean supports(String contentEncoding) {
+        return wrapper(contentEncoding) != null;
+    }
+
+    /**
+     * Creates a new decompressing publisher.
+     *
+     * @param originalPublisher publisher of the encoded content
+     * @param contentEncoding   value of the {@code Content-Encoding} header, must be {@link #supports(String) supported}
+     * @param maxSize           maximal number of decompressed bytes, {@code 0} or less for unlimited
+     * @return a new publisher of the decoded content
+     */
+    static ContentDecompressingPublisher create(Flow.Publisher<DataChunk> originalPublisher,
+                                                String contentEncoding,
+                                                long maxSize) {
+        ZlibWrapper wrapper = wrapper(contentEncoding);
+        if (wrapper == null) {
+            throw new IllegalArgumentException("Unsupported content encoding: " + contentEncoding);
+        }
+        return new ContentDecompressingPublisher(originalPublisher, wrapper, maxSize);
+    }
+
+    private static ZlibWrapper wrapper(String contentEncoding) {
+        if (contentEncoding == null) {
+            return null;
+        }
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+        case "gzip":
+        case "x-gzip":
+            return ZlibWrapper.GZIP;
+        case "deflate":
+        case "x-deflate":
+            // some clients send raw deflate without the zlib header
+            return ZlibWrapper.ZLIB_OR_NONE;
+        default:
+            return null;
+        }
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+        originalPublisher.subscribe(new DecompressingSubscriber(subscriber, wrapper, maxSize));
+    }
+
+    private static final class DecompressingSubscriber implements Flow.Subscriber<DataChunk>, Flow.Subscription {
+        private final Flow.Subscriber<? super DataChunk> subscriber;
+        private final EmbeddedChannel decoder;
+        private final long maxSize;
+
+        private Flow.Subscription subscription;
+        // guarded by this, the decoder is used by onNext and released by a terminal signal or cancel
+        private long decompressedSize;
+        private boolean done;
+
+        private DecompressingSubscriber(Flow.Subscriber<? super DataChunk> subscriber, ZlibWrapper wrapper, long maxSize) {
+            this.subscriber = subscriber;
+            this.decoder = new EmbeddedChannel(ZlibCodecFactory.newZlibDecoder(wrapper));
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            subscription.cancel();
+            synchronized (this) {
+                if (!done) {
+                    done = true;
+                    closeDecoder();
+                }
+            }
+        }
+
+        @Override
+        public void onNext(DataChunk item) {
+            ByteBuf decompressed;
+            boolean flush;
+            synchronized (this) {
+                if (done) {
+                    item.release();
+                    return;
+                }
+                // the decoder may keep a part of the input for the next call, so it gets its own copy
+                ByteBuffer data = item.data();
+                ByteBuf input = decoder.alloc().buffer(data.remaining());
+                input.writeBytes(data);
+                flush = item.flush();
+                item.release();
+                try {
+                    decompressed = decompress(input);
+                } catch (HttpException e) {
+                    failLocked(e);
+                    return;
+                } catch (RuntimeException e) {
+                    failLocked(new BadRequestException("Invalid compressed request content", e));
+                    return;
+                } finally {
+                    input.release();
+                }
+            }
+
+            if (decompressed == null) {
+                // not enough input to produce any output, the item is consumed without being published
+                subscription.request(1);
+                return;
+            }
+            subscriber.onNext(DataChunk.create(flush, decompressed.nioBuffer(), decompressed::release));
+        }
+
+        /**
+         * Inflate the input in slices, checking the limit after each of them, so that a small but highly compressed
+         * input is not inflated far beyond the limit before it is detected.
+         *
+         * @param input compressed bytes
+         * @return decompressed bytes or {@code null} if there are none yet
+         */
+        private ByteBuf decompress(ByteBuf input) {
+            CompositeByteBuf result = null;
+            ByteBuf single = null;
+            try {
+                while (input.isReadable()) {
+                    int length = Math.min(input.readableBytes(), INPUT_SLICE_SIZE);
+                    decoder.writeInbound(input.readRetainedSlice(length));
+                    for (ByteBuf buf = decoder.readInbound(); buf != null; buf = decoder.readInbound()) {
+                        decompressedSize += buf.readableBytes();
+                        if (single == null && result == null) {
+                            single = buf;
+                        } else {
+                            if (result == null) {
+                                result = Unpooled.compositeBuffer();
+                                result.addComponent(true, single);
+                                single = null;
+                            }
+                            result.addComponent(true, buf);
+                        }
+                        if (maxSize > 0 && decompressedSize > maxSize) {
+                            LOGGER.finer(() -> "Decompressed request content exceeded " + maxSize + " bytes");
+                            throw new HttpException("Decompressed request content is larger than " + maxSize + " bytes",
+                                                    Http.Status.REQUEST_ENTITY_TOO_LARGE_413);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (result != null) {
+                    result.release();
+                }
+                if (single != null) {
+                    single.release();
+                }
+                throw e;
+            }
+            return (result == null) ? single : result;
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                closeDecoder();
+            }
+            subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                closeDecoder();
+            }
+            subscriber.onComplete();
+        }
+
+        private void closeDecoder() {
+            try {
+                decoder.finishAndReleaseAll();
+            } catch (RuntimeException e) {
+                // incomplete or invalid input left in the decoder, it is released anyway
+                LOGGER.log(Level.FINEST, "Failed to finish the request content decoder", e);
+            }
+        }
+
+        private void failLocked(Throwable throwable) {
+            done = true;
+            closeDecoder();
+            subscription.cancel();
+            subscriber.onError(throwable);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -200,7 +200,13 @@ class ContentTypeSelector {
         CONTENT_TYPES.put(extension, MediaType.parse(contentTypeName));
     }
 
-    private MediaType get(String filename) {
+    /**
+     * Returns a media type of a file based on its extension.
+     *
+     * @param filename a filename
+     * @return media type or {@code null} if not known
+     */
+    MediaType get(String filename) {
         if (filename == null) {
             return null;
         }
@@ -219,7 +225,18 @@ class ContentTypeSelector {
     }
 
     MediaType determine(String filename, RequestHeaders requestHeaders) {
-        MediaType mediaType = get(filename);
+        return negotiate(get(filename), requestHeaders);
+    }
+
+    /**
+     * Determines content type of a response.
+     *
+     * @param mediaType      media type of the file, {@code null} if not known
+     * @param requestHeaders an HTTP request headers
+     * @return the content type
+     * @throws HttpException if the media type of the file is not accepted
+     */
+    MediaType negotiate(MediaType mediaType, RequestHeaders requestHeaders) {
         List<MediaType> accepted = requestHeaders.acceptedTypes();
         if (mediaType == null) {
             // First from Accepted
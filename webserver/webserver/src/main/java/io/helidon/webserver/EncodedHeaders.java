@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.util.AsciiString;
+
+/**
+ * Pre-encoded names and values of common response headers and a cached value of the {@code Date} header.
+ * <p>
+ * Netty writes an {@link AsciiString} to the wire by copying its bytes, while a {@link String} has to be encoded
+ * character by character for each response. Names keep the casing of {@link Http.Header}, so HTTP/1.1 responses
+ * look the same on the wire as before.
+ */
+final class EncodedHeaders {
+
+    private static final Map<String, AsciiString> NAMES = new HashMap<>();
+    private static final Map<String, AsciiString> VALUES = new HashMap<>();
+
+    private static volatile CachedDate date = new CachedDate(0);
+
+    static {
+        registerName(Http.Header.CONTENT_TYPE);
+        registerName(Http.Header.CONTENT_LENGTH);
+        registerName(Http.Header.CONTENT_ENCODING);
+        registerName(Http.Header.TRANSFER_ENCODING);
+        registerName(Http.Header.CONNECTION);
+        registerName(Http.Header.DATE);
+        registerName(Http.Header.SERVER);
+        registerName(Http.Header.CACHE_CONTROL);
+        registerName(Http.Header.ETAG);
+        registerName(Http.Header.LAST_MODIFIED);
+        registerName(Http.Header.LOCATION);
+        registerName(Http.Header.VARY);
+        registerName(Http.Header.ACCEPT_RANGES);
+
+        value(MediaType.APPLICATION_JSON);
+        value(MediaType.APPLICATION_JSON.withCharset("UTF-8"));
+        value(MediaType.TEXT_PLAIN);
+        value(MediaType.TEXT_PLAIN.withCharset("UTF-8"));
+        value(MediaType.TEXT_HTML);
+        value(MediaType.TEXT_HTML.withCharset("UTF-8"));
+        value(MediaType.APPLICATION_OCTET_STREAM);
+        value(HttpHeaderValues.KEEP_ALIVE);
+        value(HttpHeaderValues.CLOSE);
+        value(HttpHeaderValues.CHUNKED);
+        value(HttpHeaderValues.GZIP);
+        value(HttpHeaderValues.DEFLATE);
+        value(HttpHeaderValues.BYTES);
+        value(HttpHeaderValues.NO_CACHE);
+        value(AsciiString.cached(Http.Header.ACCEPT_ENCODING));
+    }
+
+    private EncodedHeaders() {
+    }
+
+    /**
+     * The value of the {@code Date} header for the current second. The value is formatted at most once per second.
+     *
+     * @return current date
+     */
+    static String date() {
+        return currentDate().text;
+    }
+
+    /**
+     * Returns the pre-encoded header name if known.
+     *
+     * @param name header name
+     * @return pre-encoded name or the provided name
+     */
+    static CharSequence name(String name) {
+        AsciiString result = NAMES.get(name);
+        return result == null ? name : result;
+    }
+
+    /**
+     * Returns the pre-encoded header value if known.
+     *
+     * @param value header value
+     * @return pre-encoded value or the provided value
+     */
+    static CharSequence value(String value) {
+        AsciiString result = VALUES.get(value);
+        if (result != null) {
+            return result;
+        }
+        CachedDate current = date;
+        return current.text.equals(value) ? current.encoded : value;
+    }
+
+    private static CachedDate currentDate() {
+        long second = System.currentTimeMillis() / 1000;
+        CachedDate current = date;
+        if (current.second != second) {
+            // racing threads compute the same value, last one wins
+            current = new CachedDate(second);
+            date = current;
+        }
+        return current;
+    }
+
+    private static void registerName(String name) {
+        // keeps the casing of the name, unlike the lower case HttpHeaderNames constants
+        NAMES.put(name, AsciiString.cached(name));
+    }
+
+    private static void value(MediaType mediaType) {
+        value(AsciiString.cached(mediaType.toString()));
+    }
+
+    private static void value(AsciiString encoded) {
+        VALUES.put(encoded.toString(), encoded);
+    }
+
+    private static final class CachedDate {
+        private final long second;
+        private final String text;
+        private final AsciiString encoded;
+
+        private CachedDate(long second) {
+            this.second = second;
+            this.text = Http.DateTime.RFC_1123_DATE_TIME.format(Instant.ofEpochSecond(second).atOffset(ZoneOffset.UTC));
+            this.encoded = AsciiString.cached(text);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * A {@link DataChunk} representing a region of a file.
+ * <p>
+ * The file is not read by this chunk. If the connection allows it, {@link BareResponseImpl} transfers the region
+ * directly from the file system to the socket ({@code sendfile}), otherwise the region is memory mapped and written
+ * in windows. The {@link #data()} method maps the whole region, so the chunk can also pass any
+ * response filter.
+ * <p>
+ * All regions of a file share a single {@link FileChannel}, opened by the first mapping and closed once all the
+ * regions are released. Mapped buffers are unmapped as soon as their region is released, not when they are garbage
+ * collected.
+ */
+final class FileRegionChunk implements DataChunk {
+
+    private static final Logger LOGGER = Logger.getLogger(FileRegionChunk.class.getName());
+
+    /**
+     * Maximal size of a single region, so it can be memory mapped as a single {@link ByteBuffer}.
+     */
+    static final long MAX_REGION_SIZE = 1024 * 1024 * 1024;
+
+    private final RegionFile file;
+    private final long position;
+    private final long count;
+    // buffers mapped by this region, unmapped when it is released
+    private final List<ByteBuffer> mapped = new ArrayList<>(1);
+
+    private ByteBuffer data;
+    private boolean released;
+
+    private FileRegionChunk(RegionFile file, long position, long count) {
+        this.file = file;
+        this.position = position;
+        this.count = count;
+    }
+
+    /**
+     * Creates chunks covering a region of a file, each of at most {@link #MAX_REGION_SIZE} bytes.
+     *
+     * @param path     the file
+     * @param position first byte of the region
+     * @param count    number of bytes of the region
+     * @return chunks of the region
+     */
+    static List<DataChunk> create(Path path, long position, long count) {
+        int regions = (int) ((count + MAX_REGION_SIZE - 1) / MAX_REGION_SIZE);
+        List<DataChunk> result = new ArrayList<>(regions);
+        RegionFile file = new RegionFile(path, regions);
+        long end = position + count;
+        for (long start = position; start < end; start += MAX_REGION_SIZE) {
+            result.add(new FileRegionChunk(file, start, Math.min(MAX_REGION_SIZE, end - start)));
+        }
+        return result;
+    }
+
+    /**
+     * The file of this region.
+     *
+     * @return the file
+     */
+    Path path() {
+        return file.path;
+    }
+
+    /**
+     * First byte of this region in the file.
+     *
+     * @return position of the region
+     */
+    long position() {
+        return position;
+    }
+
+    /**
+     * Number of bytes of this region.
+     *
+     * @return size of the region
+     */
+    long count() {
+        return count;
+    }
+
+    /**
+     * Memory maps a window of this region.
+     *
+     * @param offset offset of the window from the start of this region
+     * @param length length of the window
+     * @return read only buffer of the window
+     * @throws UncheckedIOException if the file cannot be mapped
+     */
+    ByteBuffer map(long offset, int length) {
+        if (released) {
+            throw new IllegalStateException("File region is already released: " + this);
+        }
+        try {
+            ByteBuffer buffer = file.channel().map(FileChannel.MapMode.READ_ONLY, position + offset, length);
+            mapped.add(buffer);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map file " + file.path, e);
+        }
+    }
+
+    @Override
+    public ByteBuffer data() {
+        if (data == null) {
+            data = map(0, (int) count);
+        }
+        return data;
+    }
+
+    @Override
+    public void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        data = null;
+        for (ByteBuffer buffer : mapped) {
+            PlatformDependent.freeDirectBuffer(buffer);
+        }
+        mapped.clear();
+        file.release();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean isFlushChunk() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "FileRegionChunk{"
+                + "path=" + file.path
+                + ", position=" + position
+                + ", count=" + count
+                + '}';
+    }
+
+    /**
+     * The file of one or more regions, opened once for all of them.
+     */
+    private static final class RegionFile {
+        private final Path path;
+        private final AtomicInteger references;
+        private FileChannel channel;
+        private boolean closed;
+
+        private RegionFile(Path path, int references) {
+            this.path = path;
+            this.references = new AtomicInteger(references);
+        }
+
+        private synchronized FileChannel channel() throws IOException {
+            if (closed) {
+                throw new IOException("File is already closed: " + path);
+            }
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            }
+            return channel;
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                close();
+            }
+        }
+
+        private synchronized void close() {
+            closed = true;
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Cannot close file " + path, e);
+                }
+                channel = null;
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.Instant;
 import java.util.logging.Logger;
 
 import io.helidon.common.http.Http;
@@ -33,14 +32,30 @@ class FileSystemContentHandler extends StaticContentHandler {
     private final Path root;
 
     FileSystemContentHandler(String welcomeFilename, ContentTypeSelector contentTypeSelector, Path root) {
-        super(welcomeFilename, contentTypeSelector);
+        this(welcomeFilename, contentTypeSelector, root, null, false);
+    }
+
+    FileSystemContentHandler(String welcomeFilename,
+                             ContentTypeSelector contentTypeSelector,
+                             Path root,
+                             ContentCache cache,
+                             boolean precompressed) {
+        super(welcomeFilename, contentTypeSelector, cache, precompressed);
 
         this.root = root.toAbsolutePath().normalize();
     }
 
     public static StaticContentHandler create(String welcomeFileName, ContentTypeSelector selector, Path fsRoot) {
+        return create(welcomeFileName, selector, fsRoot, null, false);
+    }
+
+    static StaticContentHandler create(String welcomeFileName,
+                                       ContentTypeSelector selector,
+                                       Path fsRoot,
+                                       ContentCache cache,
+                                       boolean precompressed) {
         if (Files.exists(fsRoot) && Files.isDirectory(fsRoot)) {
-            return new FileSystemContentHandler(welcomeFileName, selector, fsRoot);
+            return new FileSystemContentHandler(welcomeFileName, selector, fsRoot, cache, precompressed);
         } else {
             throw new IllegalArgumentException("Cannot create file system static content, path "
                                                        + fsRoot.toAbsolutePath()
@@ -66,22 +81,38 @@ class FileSystemContentHandler extends StaticContentHandler {
     }
 
     boolean doHandle(Http.RequestMethod method, Path path, ServerRequest request, ServerResponse response) throws IOException {
+        String cacheKey = path.toString();
+        if (sendCached(method, cacheKey, request, response)) {
+            return true;
+        }
+
         // Check existence
         if (!Files.exists(path)) {
             return false;
         }
 
-        sendFile(method, path, request, response, contentTypeSelector(), welcomePageName());
+        sendFile(method, path, cacheKey, request, response, this);
 
         return true;
     }
 
+    /**
+     * Sends a file or a welcome file of a directory.
+     *
+     * @param method   GET or HEAD HTTP method
+     * @param path     an existing file or directory
+     * @param cacheKey cache key of the file, {@code null} if it should not be cached
+     * @param request  an HTTP request
+     * @param response an HTTP response
+     * @param handler  the handler serving the file
+     * @throws IOException if the file cannot be read
+     */
     static void sendFile(Http.RequestMethod method,
                          Path path,
+                         String cacheKey,
                          ServerRequest request,
                          ServerResponse response,
-                         ContentTypeSelector contentTypeSelector,
-                         String welcomePage)
+                         StaticContentHandler handler)
             throws IOException {
 
         // we know the file exists, though it may be a directory
@@ -90,7 +121,9 @@ class FileSystemContentHandler extends StaticContentHandler {
             String rawFullPath = request.uri().getRawPath();
             if (rawFullPath.endsWith("/")) {
                 // Try to found welcome file
-                path = resolveWelcomeFile(path, welcomePage);
+                path = resolveWelcomeFile(path, handler.welcomePageName());
+                // the key is the directory, do not cache, so requests without trailing slash are still redirected
+                cacheKey = null;
             } else {
                 // Or redirect to slash ended
                 redirect(response, rawFullPath + "/");
@@ -103,21 +136,7 @@ class FileSystemContentHandler extends StaticContentHandler {
             throw new HttpException("File is not accessible", Http.Status.FORBIDDEN_403);
         }
 
-        // Caching headers support
-        try {
-            Instant lastMod = Files.getLastModifiedTime(path).toInstant();
-            processEtag(String.valueOf(lastMod.toEpochMilli()), request.headers(), response.headers());
-            processModifyHeaders(lastMod, request.headers(), response.headers());
-        } catch (IOException | SecurityException e) {
-            // Cannot get mod time or size - well, we cannot tell if it was modified or not. Don't support cache headers
-        }
-
-        processContentType(fileName(path), request.headers(), response.headers(), contentTypeSelector);
-        if (method == Http.Method.HEAD) {
-            response.send();
-        } else {
-            response.send(path);
-        }
+        handler.sendFile(method, path, cacheKey, request, response);
     }
 
     /**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,16 +17,20 @@
 package io.helidon.webserver;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 import javax.net.ssl.SSLEngine;
 
-import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
@@ -37,6 +41,9 @@ import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.CONTINUE;
@@ -46,17 +53,21 @@ import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
  * ForwardingHandler bridges Netty response and request related APIs to
  * {@link BareRequest} and {@link BareResponse}.
  * <p>
- * For each tcp connection, a single {@link ForwardingHandler} is created.
+ * For each tcp connection (or HTTP/2 stream), a single {@link ForwardingHandler} is created.
  */
 public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
 
     private static final Logger LOGGER = Logger.getLogger(ForwardingHandler.class.getName());
     private static final AtomicLong REQUEST_ID_GENERATOR = new AtomicLong(0);
+    private static final AttributeKey<AtomicInteger> CONNECTION_REQUESTS =
+            AttributeKey.valueOf(ForwardingHandler.class, "connectionRequests");
 
     private final Routing routing;
     private final NettyWebServer webServer;
+    private final SocketConfiguration socketConfig;
     private final SSLEngine sslEngine;
-    private final Queue<ReferenceHoldingQueue<DataChunk>> queues;
+    private final Queue<RequestChunks> queues;
+    private final AdmissionController admission;
 
     // this field is always accessed by the very same thread; as such, it doesn't need to be
     // concurrency aware
@@ -64,12 +75,16 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
 
     ForwardingHandler(Routing routing,
                       NettyWebServer webServer,
+                      SocketConfiguration socketConfig,
                       SSLEngine sslEngine,
-                      Queue<ReferenceHoldingQueue<DataChunk>> queues) {
+                      Queue<RequestChunks> queues,
+                      AdmissionController admission) {
         this.routing = routing;
         this.webServer = webServer;
+        this.socketConfig = socketConfig;
         this.sslEngine = sslEngine;
         this.queues = queues;
+        this.admission = admission;
     }
 
     @Override
@@ -96,9 +111,9 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
             ctx.channel().config().setAutoRead(false);
 
             HttpRequest request = (HttpRequest) msg;
-            ReferenceHoldingQueue<DataChunk> queue = new ReferenceHoldingQueue<>();
-            queues.add(queue);
-            requestContext = new RequestContext(new HttpRequestScopedPublisher(ctx, queue), request);
+            RequestChunks chunks = RequestChunks.create(webServer.configuration().requestChunkGcRelease());
+            queues.add(chunks);
+            requestContext = new RequestContext(new HttpRequestScopedPublisher(ctx, chunks), request);
             // the only reason we have the 'ref' here is that the field might get assigned with null
             final HttpRequestScopedPublisher publisherRef = requestContext.publisher();
             long requestId = REQUEST_ID_GENERATOR.incrementAndGet();
@@ -107,7 +122,7 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
             BareRequestImpl bareRequest;
             try {
                 bareRequest = new BareRequestImpl((HttpRequest) msg, requestContext.publisher(),
-                        webServer, ctx, sslEngine, requestId);
+                        webServer, socketConfig, ctx, sslEngine, requestId);
             } catch (IllegalArgumentException e) {
                 send400BadRequest(ctx, e.getMessage());
                 return;
@@ -122,28 +137,32 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
                                 requestContext.responseCompleted(true);
                             }
 
-                            // Cleanup for these queues is done in HttpInitializer, but
-                            // we try to do it here if possible to reduce memory usage,
-                            // especially for keep-alive connections
-                            if (queue.release()) {
-                                queues.remove(queue);
-                            }
                             publisherRef.drain();
 
+                            // Release chunks not released by the application, with the GC based release
+                            // cleanup is also done in HttpInitializer, but we try to do it here if possible
+                            // to reduce memory usage, especially for keep-alive connections
+                            if (chunks.requestCompleted()) {
+                                queues.remove(chunks);
+                            }
+
                             // Enable auto-read only after response has been completed
                             // to avoid a race condition with the next response
                             ctx.channel().config().setAutoRead(true);
+                        })
+                        .exceptionally(throwable -> {
+                            // connection closed before the response was completed
+                            if (chunks.requestCompleted()) {
+                                queues.remove(chunks);
+                            }
+                            return null;
                         });
-            if (HttpUtil.is100ContinueExpected(request)) {
-                send100Continue(ctx);
-            }
-
-            // If a problem during routing, return 400 response
-            try {
-                routing.route(bareRequest, bareResponse);
-            } catch (IllegalArgumentException e) {
-                send400BadRequest(ctx, e.getMessage());
-                return;
+            if (admission == null) {
+                if (!route(ctx, request, bareRequest, bareResponse)) {
+                    return;
+                }
+            } else {
+                admit(ctx, request, bareRequest, bareResponse);
             }
         }
 
@@ -172,9 +191,11 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
                     // payload is not consumed and the response is already sent; we must close the connection
                     LOGGER.finer(() -> "Closing connection because request payload was not consumed; method: " + method);
                     ctx.close();
-                } else {
+                } else if (!requestContext.responseCompleted()) {
                     requestContext.publisher().submit(content);
                 }
+                // else the chunks of the request were already released, nobody would release this one;
+                // it is not retained and is released with the message
             }
 
             if (msg instanceof LastHttpContent) {
@@ -188,6 +209,102 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
         }
     }
 
+    /**
+     * Routes the request.
+     *
+     * @return {@code false} if the request was rejected with 400 response
+     */
+    private boolean route(ChannelHandlerContext ctx,
+                          HttpRequest request,
+                          BareRequestImpl bareRequest,
+                          BareResponseImpl bareResponse) {
+        if (HttpUtil.is100ContinueExpected(request)) {
+            send100Continue(ctx);
+        }
+
+        // If a problem during routing, return 400 response
+        try {
+            routing.route(bareRequest, bareResponse);
+        } catch (IllegalArgumentException e) {
+            send400BadRequest(ctx, e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Routes the request once admitted by the admission controller, possibly later on the event loop,
+     * or rejects it with 503 response.
+     */
+    private void admit(ChannelHandlerContext ctx,
+                       HttpRequest request,
+                       BareRequestImpl bareRequest,
+                       BareResponseImpl bareResponse) {
+        AtomicInteger connectionRequests = connectionRequests(ctx.channel());
+        int requests = connectionRequests.incrementAndGet();
+        bareResponse.whenCompleted().whenComplete((response, throwable) -> connectionRequests.decrementAndGet());
+        int perConnection = admission.maxConcurrentRequestsPerConnection();
+        if (perConnection > 0 && requests > perConnection) {
+            send503ServiceUnavailable(bareResponse, admission.retryAfterSeconds());
+            return;
+        }
+
+        admission.admit(ctx.executor(), () -> {
+            if (!ctx.channel().isActive()) {
+                // connection closed while the request was queued
+                admission.release(0);
+                return;
+            }
+            long start = System.nanoTime();
+            bareResponse.whenCompleted()
+                    .whenComplete((response, throwable) -> admission.release(System.nanoTime() - start));
+            try {
+                if (!route(ctx, request, bareRequest, bareResponse)) {
+                    // the response is never completed
+                    admission.release(System.nanoTime() - start);
+                    connectionRequests.decrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                exceptionCaught(ctx, e);
+            }
+        }, () -> send503ServiceUnavailable(bareResponse, admission.retryAfterSeconds()));
+    }
+
+    /**
+     * Counter of in-flight requests of the connection. An HTTP/2 stream has its own channel and handler, so the
+     * counter is kept on the parent (connection) channel shared by all of its streams.
+     *
+     * @param channel channel of this handler
+     * @return counter of the connection
+     */
+    private static AtomicInteger connectionRequests(Channel channel) {
+        Channel connection = (channel instanceof Http2StreamChannel) ? channel.parent() : channel;
+        Attribute<AtomicInteger> attribute = connection.attr(CONNECTION_REQUESTS);
+        AtomicInteger counter = attribute.get();
+        if (counter == null) {
+            counter = new AtomicInteger();
+            AtomicInteger existing = attribute.setIfAbsent(counter);
+            if (existing != null) {
+                counter = existing;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Rejects the request with 503 response before routing.
+     *
+     * @param bareResponse the response
+     * @param retryAfter value of the {@code Retry-After} header in seconds
+     */
+    private static void send503ServiceUnavailable(BareResponseImpl bareResponse, int retryAfter) {
+        LOGGER.finer(() -> "Request rejected by admission control");
+        bareResponse.writeStatusAndHeaders(Http.Status.SERVICE_UNAVAILABLE_503,
+                                           Map.of(Http.Header.RETRY_AFTER, List.of(String.valueOf(retryAfter)),
+                                                  Http.Header.CONTENT_LENGTH, List.of("0")));
+        bareResponse.onComplete();
+    }
+
     private static void send100Continue(ChannelHandlerContext ctx) {
         FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, CONTINUE);
         ctx.write(response);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -149,6 +149,10 @@ class HandlerRoute implements Route {
         return pathMatcher.match(path);
     }
 
+    PathMatcher pathMatcher() {
+        return pathMatcher;
+    }
+
     @Override
     public String toString() {
         return "HandlerRoute{"
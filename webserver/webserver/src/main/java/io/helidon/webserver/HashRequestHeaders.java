@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,6 @@ package io.helidon.webserver;
 
 import java.net.URI;
 import java.time.ZonedDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -47,15 +46,15 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
     /**
      * Accepted types for {@link #HUC_ACCEPT_DEFAULT}.
      */
-    private static final List<MediaType> HUC_ACCEPT_DEFAULT_TYPES = List.of(
+    private static final AcceptedTypes HUC_ACCEPT_DEFAULT_TYPES = AcceptedTypes.create(List.of(
                 MediaType.TEXT_HTML,
                 MediaType.parse("image/gif"),
                 MediaType.parse("image/jpeg"),
-                MediaType.parse("*/*; q=.2"));
+                MediaType.parse("*/*; q=.2")));
 
     private final Object internalLock = new Object();
     private volatile Parameters cookies;
-    private List<MediaType> acceptedtypesCache;
+    private AcceptedTypes acceptedTypesCache;
 
     /**
      * Creates a new instance.
@@ -106,26 +105,13 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
 
     @Override
     public List<MediaType> acceptedTypes() {
-        List<MediaType> result = this.acceptedtypesCache;
-        if (result == null) {
-            List<String> acceptValues = all(Http.Header.ACCEPT);
-            result = acceptValues.size() == 1 && HUC_ACCEPT_DEFAULT.equals(acceptValues.get(0))
-                    ? HUC_ACCEPT_DEFAULT_TYPES : acceptValues.stream()
-                            .flatMap(h -> Utils.tokenize(',', "\"", false, h).stream())
-                            .map(String::trim)
-                            .map(MediaType::parse)
-                            .collect(Collectors.toList());
-            result = Collections.unmodifiableList(result);
-            this.acceptedtypesCache = result;
-        }
-        return result;
+        return accepted().types();
     }
 
     @Override
     public boolean isAccepted(MediaType mediaType) {
         Objects.requireNonNull(mediaType, "Parameter 'mediaType' is null!");
-        List<MediaType> acceptedTypes = acceptedTypes();
-        return acceptedTypes.isEmpty() || acceptedTypes.stream().anyMatch(mediaType);
+        return accepted().isAccepted(mediaType);
     }
 
     @Override
@@ -133,29 +119,19 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
         if (mediaTypes == null || mediaTypes.length == 0) {
             return Optional.empty();
         }
-        List<MediaType> accepts = acceptedTypes();
-        if (accepts == null || accepts.isEmpty()) {
-            return Optional.ofNullable(mediaTypes[0]);
-        }
+        return accepted().bestAccepted(mediaTypes);
+    }
 
-        double best = 0;
-        MediaType result = null;
-        for (MediaType mt : mediaTypes) {
-            if (mt != null) {
-                for (MediaType acc : accepts) {
-                    double q = acc.qualityFactor();
-                    if (q > best && acc.test(mt)) {
-                        if (q == 1) {
-                            return Optional.of(mt);
-                        } else {
-                            best = q;
-                            result = mt;
-                        }
-                    }
-                }
-            }
+    private AcceptedTypes accepted() {
+        AcceptedTypes result = this.acceptedTypesCache;
+        if (result == null) {
+            List<String> acceptValues = all(Http.Header.ACCEPT);
+            // parsed values are shared by all requests with the same header
+            result = acceptValues.size() == 1 && HUC_ACCEPT_DEFAULT.equals(acceptValues.get(0))
+                    ? HUC_ACCEPT_DEFAULT_TYPES : AcceptedTypes.parse(acceptValues);
+            this.acceptedTypesCache = result;
         }
-        return Optional.ofNullable(result);
+        return result;
     }
 
     @Override
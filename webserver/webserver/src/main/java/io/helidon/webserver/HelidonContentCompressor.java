@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import io.helidon.common.http.MediaType;
+
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+/**
+ * Compresses HTTP responses according to {@link CompressionConfiguration}.
+ * <p>
+ * Content is compressed chunk by chunk by the underlying {@link HttpContentCompressor}, this class only
+ * decides whether a response is eligible for compression and which of the enabled encodings to use.
+ */
+class HelidonContentCompressor extends HttpContentCompressor {
+
+    private static final Logger LOGGER = Logger.getLogger(HelidonContentCompressor.class.getName());
+    private static final Pattern GZIP_PATTERN = Pattern.compile("(?i)(x-)?gzip\\s*(;[^,]*)?");
+    private static final Pattern DEFLATE_PATTERN = Pattern.compile("(?i)deflate\\s*(;[^,]*)?");
+    private static final int WINDOW_BITS = 15;
+    private static final int MEM_LEVEL = 8;
+
+    private final boolean gzip;
+    private final boolean deflate;
+    private final int minSize;
+    private final List<MediaType> mediaTypes;
+
+    HelidonContentCompressor(CompressionConfiguration config) {
+        super(config.level(), WINDOW_BITS, MEM_LEVEL, config.minSize());
+        this.gzip = config.encodings().contains(CompressionConfiguration.GZIP);
+        this.deflate = config.encodings().contains(CompressionConfiguration.DEFLATE);
+        this.minSize = config.minSize();
+        this.mediaTypes = config.mediaTypes();
+    }
+
+    @Override
+    protected Result beginEncode(HttpResponse response, String acceptEncoding) throws Exception {
+        // a range is a part of the identity representation, compressing it would break the offsets
+        if (response.status().code() == HttpResponseStatus.PARTIAL_CONTENT.code()
+                || response.headers().contains(HttpHeaderNames.CONTENT_RANGE)
+                || !isCompressible(response.headers())) {
+            return null;
+        }
+        Result result = super.beginEncode(response, acceptEncoding);
+        if (result != null) {
+            response.headers().add(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+        }
+        return result;
+    }
+
+    @Override
+    protected ZlibWrapper determineWrapper(String acceptEncoding) {
+        // hide disabled encodings from the client's preferences
+        String filtered = acceptEncoding;
+        if (!gzip) {
+            filtered = GZIP_PATTERN.matcher(filtered).replaceAll("");
+        }
+        if (!deflate) {
+            filtered = DEFLATE_PATTERN.matcher(filtered).replaceAll("");
+        }
+        ZlibWrapper wrapper = super.determineWrapper(filtered);
+        if (wrapper == ZlibWrapper.GZIP && !gzip) {
+            // chosen because of a wildcard
+            return deflate ? ZlibWrapper.ZLIB : null;
+        }
+        if (wrapper == ZlibWrapper.ZLIB && !deflate) {
+            return gzip ? ZlibWrapper.GZIP : null;
+        }
+        return wrapper;
+    }
+
+    private boolean isCompressible(HttpHeaders headers) {
+        String contentLength = headers.get(HttpHeaderNames.CONTENT_LENGTH);
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength) < minSize) {
+                    return false;
+                }
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        String contentType = headers.get(HttpHeaderNames.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parse(contentType);
+        } catch (IllegalArgumentException e) {
+            LOGGER.finest(() -> "Not compressing response with invalid content type: " + contentType);
+            return false;
+        }
+        for (MediaType compressible : mediaTypes) {
+            if (compressible.test(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,15 @@
 
 package io.helidon.webserver;
 
+import io.helidon.config.Config;
+
 /**
- * Interface Http2Configuration.
+ * Configuration of HTTP/2.
+ * <p>
+ * When {@link #enable() enabled}, HTTP/2 is negotiated with ALPN on TLS sockets, and accepted on cleartext sockets
+ * both with prior knowledge and by an upgrade from HTTP/1.1. Each stream of a connection is routed as a separate
+ * request through the same {@link Routing}, with request and response content streamed chunk by chunk.
+ * Request content is read from a stream, and the stream flow control window is updated, only as it is requested.
  */
 public interface Http2Configuration {
 
@@ -26,6 +33,36 @@ public interface Http2Configuration {
      */
     int DEFAULT_MAX_CONTENT_LENGTH = 64 * 1024;
 
+    /**
+     * Default maximal number of concurrent streams of a connection.
+     */
+    long DEFAULT_MAX_CONCURRENT_STREAMS = 100;
+
+    /**
+     * Default size of the header compression table in bytes.
+     */
+    long DEFAULT_HEADER_TABLE_SIZE = 4096;
+
+    /**
+     * Default initial flow control window size of a stream in bytes.
+     */
+    int DEFAULT_INITIAL_WINDOW_SIZE = 65535;
+
+    /**
+     * Default maximal frame size in bytes.
+     */
+    int DEFAULT_MAX_FRAME_SIZE = 16 * 1024;
+
+    /**
+     * Default maximal size of request headers in bytes.
+     */
+    long DEFAULT_MAX_HEADER_LIST_SIZE = 8192;
+
+    /**
+     * HTTP/2 disabled.
+     */
+    Http2Configuration DISABLED = builder().build();
+
     /**
      * Config property to enable HTTP/2 support.
      *
@@ -34,13 +71,59 @@ public interface Http2Configuration {
     boolean enable();
 
     /**
-     * Default HTTP/2 content length. Streaming is currently not supported for HTTP/2,
-     * so this is largest payload acceptable.
+     * Maximal length of the content of a request upgraded from HTTP/1.1 to HTTP/2 with the {@code Upgrade} header.
+     * The content of other requests is streamed.
      *
-     * @return Max HTTP/2 buffer size.
+     * @return maximal content length of an upgrade request in bytes
      */
     int maxContentLength();
 
+    /**
+     * Maximal number of concurrent streams the client may open on a connection.
+     *
+     * @return maximal number of concurrent streams
+     */
+    default long maxConcurrentStreams() {
+        return DEFAULT_MAX_CONCURRENT_STREAMS;
+    }
+
+    /**
+     * Size of the header compression table used to decode request headers.
+     *
+     * @return header table size in bytes
+     */
+    default long headerTableSize() {
+        return DEFAULT_HEADER_TABLE_SIZE;
+    }
+
+    /**
+     * Initial flow control window size of a stream. At most this many bytes of request content are received
+     * before the content is requested.
+     *
+     * @return initial window size in bytes
+     */
+    default int initialWindowSize() {
+        return DEFAULT_INITIAL_WINDOW_SIZE;
+    }
+
+    /**
+     * Maximal size of a frame the client may send.
+     *
+     * @return maximal frame size in bytes
+     */
+    default int maxFrameSize() {
+        return DEFAULT_MAX_FRAME_SIZE;
+    }
+
+    /**
+     * Maximal size of request headers.
+     *
+     * @return maximal header list size in bytes
+     */
+    default long maxHeaderListSize() {
+        return DEFAULT_MAX_HEADER_LIST_SIZE;
+    }
+
     /**
      * Create a new fluent API builder.
      *
@@ -50,6 +133,16 @@ public interface Http2Configuration {
         return new Http2Configuration.Builder();
     }
 
+    /**
+     * Creates new instance from external configuration source.
+     *
+     * @param config the externalized configuration
+     * @return a new instance
+     */
+    static Http2Configuration create(Config config) {
+        return builder().config(config).build();
+    }
+
     /**
      * Builder for {@link Http2Configuration}.
      */
@@ -57,12 +150,19 @@ public interface Http2Configuration {
 
         private boolean enableHttp2 = false;
         private int http2MaxContentLength = DEFAULT_MAX_CONTENT_LENGTH;
+        private long maxConcurrentStreams = DEFAULT_MAX_CONCURRENT_STREAMS;
+        private long headerTableSize = DEFAULT_HEADER_TABLE_SIZE;
+        private int initialWindowSize = DEFAULT_INITIAL_WINDOW_SIZE;
+        private int maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+        private long maxHeaderListSize = DEFAULT_MAX_HEADER_LIST_SIZE;
 
         /**
          * Sets value to enable HTTP/2 support.
+         * <p>
+         * Configuration key: {@code enable}
          *
          * @param enableHttp2 New value.
-         * @return
+         * @return this builder
          */
         public Builder enable(boolean enableHttp2) {
             this.enableHttp2 = enableHttp2;
@@ -70,18 +170,134 @@ public interface Http2Configuration {
         }
 
         /**
-         * Sets max content length for HTTP/2.
+         * Sets max content length of a request upgraded from HTTP/1.1.
+         * <p>
+         * Configuration key: {@code max-content-length}
          *
          * @param http2MaxContentLength New value for max content length.
-         * @return
+         * @return this builder
          */
         public Builder maxContentLength(int http2MaxContentLength) {
             this.http2MaxContentLength = http2MaxContentLength;
             return this;
         }
 
+        /**
+         * Sets maximal number of concurrent streams of a connection.
+         * Default value is {@link #DEFAULT_MAX_CONCURRENT_STREAMS}.
+         * <p>
+         * Configuration key: {@code max-concurrent-streams}
+         *
+         * @param maxConcurrentStreams maximal number of concurrent streams
+         * @return this builder
+         * @throws IllegalArgumentException if the number is not positive
+         */
+        public Builder maxConcurrentStreams(long maxConcurrentStreams) {
+            if (maxConcurrentStreams < 1) {
+                throw new IllegalArgumentException("Maximal number of concurrent streams must be positive, but is: "
+                                                           + maxConcurrentStreams);
+            }
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        /**
+         * Sets size of the header compression table in bytes.
+         * Default value is {@link #DEFAULT_HEADER_TABLE_SIZE}.
+         * <p>
+         * Configuration key: {@code header-table-size}
+         *
+         * @param headerTableSize header table size
+         * @return this builder
+         */
+        public Builder headerTableSize(long headerTableSize) {
+            this.headerTableSize = Math.max(headerTableSize, 0);
+            return this;
+        }
+
+        /**
+         * Sets initial flow control window size of a stream in bytes.
+         * Default value is {@link #DEFAULT_INITIAL_WINDOW_SIZE}.
+         * <p>
+         * Configuration key: {@code initial-window-size}
+         *
+         * @param initialWindowSize initial window size
+         * @return this builder
+         * @throws IllegalArgumentException if the size is not positive
+         */
+        public Builder initialWindowSize(int initialWindowSize) {
+            if (initialWindowSize < 1) {
+                throw new IllegalArgumentException("Initial window size must be positive, but is: " + initialWindowSize);
+            }
+            this.initialWindowSize = initialWindowSize;
+            return this;
+        }
+
+        /**
+         * Sets maximal frame size in bytes, between {@code 16384} and {@code 16777215}.
+         * Default value is {@link #DEFAULT_MAX_FRAME_SIZE}.
+         * <p>
+         * Configuration key: {@code max-frame-size}
+         *
+         * @param maxFrameSize maximal frame size
+         * @return this builder
+         * @throws IllegalArgumentException if the size is out of range
+         */
+        public Builder maxFrameSize(int maxFrameSize) {
+            if (maxFrameSize < DEFAULT_MAX_FRAME_SIZE || maxFrameSize > 0xFFFFFF) {
+                throw new IllegalArgumentException("Maximal frame size must be between 16384 and 16777215, but is: "
+                                                           + maxFrameSize);
+            }
+            this.maxFrameSize = maxFrameSize;
+            return this;
+        }
+
+        /**
+         * Sets maximal size of request headers in bytes.
+         * Default value is {@link #DEFAULT_MAX_HEADER_LIST_SIZE}.
+         * <p>
+         * Configuration key: {@code max-header-list-size}
+         *
+         * @param maxHeaderListSize maximal header list size
+         * @return this builder
+         * @throws IllegalArgumentException if the size is not positive
+         */
+        public Builder maxHeaderListSize(long maxHeaderListSize) {
+            if (maxHeaderListSize < 1) {
+                throw new IllegalArgumentException("Maximal header list size must be positive, but is: "
+                                                           + maxHeaderListSize);
+            }
+            this.maxHeaderListSize = maxHeaderListSize;
+            return this;
+        }
+
+        /**
+         * Sets configuration values included in provided {@link Config} parameter.
+         *
+         * @param config the configuration to use
+         * @return this builder
+         */
+        public Builder config(Config config) {
+            config.get("enable").asBoolean().ifPresent(this::enable);
+            config.get("max-content-length").asInt().ifPresent(this::maxContentLength);
+            config.get("max-concurrent-streams").asLong().ifPresent(this::maxConcurrentStreams);
+            config.get("header-table-size").asLong().ifPresent(this::headerTableSize);
+            config.get("initial-window-size").asInt().ifPresent(this::initialWindowSize);
+            config.get("max-frame-size").asInt().ifPresent(this::maxFrameSize);
+            config.get("max-header-list-size").asLong().ifPresent(this::maxHeaderListSize);
+            return this;
+        }
+
         @Override
         public Http2Configuration build() {
+            boolean enableHttp2 = this.enableHttp2;
+            int http2MaxContentLength = this.http2MaxContentLength;
+            long maxConcurrentStreams = this.maxConcurrentStreams;
+            long headerTableSize = this.headerTableSize;
+            int initialWindowSize = this.initialWindowSize;
+            int maxFrameSize = this.maxFrameSize;
+            long maxHeaderListSize = this.maxHeaderListSize;
+
             return new Http2Configuration() {
                 @Override
                 public boolean enable() {
@@ -92,6 +308,31 @@ public interface Http2Configuration {
                 public int maxContentLength() {
                     return http2MaxContentLength;
                 }
+
+                @Override
+                public long maxConcurrentStreams() {
+                    return maxConcurrentStreams;
+                }
+
+                @Override
+                public long headerTableSize() {
+                    return headerTableSize;
+                }
+
+                @Override
+                public int initialWindowSize() {
+                    return initialWindowSize;
+                }
+
+                @Override
+                public int maxFrameSize() {
+                    return maxFrameSize;
+                }
+
+                @Override
+                public long maxHeaderListSize() {
+                    return maxHeaderListSize;
+                }
             };
         }
     }
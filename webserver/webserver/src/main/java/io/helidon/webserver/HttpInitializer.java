@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,13 @@
 
 package io.helidon.webserver;
 
-
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Logger;
 
 import javax.net.ssl.SSLEngine;
 
-import io.helidon.common.http.DataChunk;
-import io.helidon.webserver.HelidonConnectionHandler.HelidonHttp2ConnectionHandlerBuilder;
-
+import io.netty.channel.ChannelHandlerAdapter;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
@@ -37,30 +34,50 @@ import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.HttpServerUpgradeHandler;
 import io.netty.handler.codec.http2.CleartextHttp2ServerUpgradeHandler;
 import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2FrameLogger;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
 import io.netty.handler.codec.http2.Http2ServerUpgradeCodec;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.AsciiString;
 
+import static io.netty.handler.logging.LogLevel.DEBUG;
+
 /**
  * The HttpInitializer.
+ * <p>
+ * With HTTP/2 enabled, each HTTP/2 stream is a child channel of the connection with its own
+ * {@link ForwardingHandler}, so streams are routed concurrently and their content is streamed. Request content
+ * of a stream is read, and its flow control window updated, only as requested by the request publisher.
  */
 class HttpInitializer extends ChannelInitializer<SocketChannel> {
     private static final Logger LOGGER = Logger.getLogger(HttpInitializer.class.getName());
+    private static final Http2FrameLogger FRAME_LOGGER = new Http2FrameLogger(DEBUG, HttpInitializer.class);
 
+    private final SocketConfiguration socketConfig;
     private final SslContext sslContext;
     private final NettyWebServer webServer;
     private final Routing routing;
-    private final Queue<ReferenceHoldingQueue<DataChunk>> queues = new ConcurrentLinkedQueue<>();
+    private final Queue<RequestChunks> queues = new ConcurrentLinkedQueue<>();
+    private final AdmissionController admission;
 
-    HttpInitializer(SslContext sslContext, Routing routing, NettyWebServer webServer) {
+    HttpInitializer(SocketConfiguration socketConfig, SslContext sslContext, Routing routing, NettyWebServer webServer) {
+        this.socketConfig = socketConfig;
         this.routing = routing;
         this.sslContext = sslContext;
         this.webServer = webServer;
+        this.admission = AdmissionController.create(socketConfig.admission());
     }
 
     private void clearQueues() {
-        queues.removeIf(ReferenceHoldingQueue::release);
+        queues.removeIf(RequestChunks::releaseCollected);
     }
 
     void queuesShutdown() {
@@ -82,39 +99,136 @@ class HttpInitializer extends ChannelInitializer<SocketChannel> {
         }
 
         // Set up HTTP/2 pipeline if feature is enabled
-        ServerConfiguration serverConfig = webServer.configuration();
-        if (serverConfig.isHttp2Enabled()) {
-            ExperimentalConfiguration experimental = serverConfig.experimental();
-            Http2Configuration http2Config = experimental.http2();
-            HttpServerCodec sourceCodec = new HttpServerCodec();
-            HelidonConnectionHandler helidonHandler = new HelidonHttp2ConnectionHandlerBuilder()
-                    .maxContentLength(http2Config.maxContentLength()).build();
-            HttpServerUpgradeHandler upgradeHandler = new HttpServerUpgradeHandler(sourceCodec,
-                    protocol -> AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol)
-                            ? new Http2ServerUpgradeCodec(helidonHandler) : null,
-                    http2Config.maxContentLength());
-
-            CleartextHttp2ServerUpgradeHandler cleartextHttp2ServerUpgradeHandler =
-                    new CleartextHttp2ServerUpgradeHandler(sourceCodec, upgradeHandler, helidonHandler);
-
-            p.addLast(cleartextHttp2ServerUpgradeHandler);
-            p.addLast(new HelidonEventLogger());
+        Http2Configuration http2Config = webServer.configuration().http2();
+        if (http2Config.enable() && sslEngine != null) {
+            // the protocol is negotiated with ALPN during the TLS handshake
+            p.addLast(new Http2NegotiationHandler(http2Config, sslEngine));
         } else {
-            p.addLast(new HttpRequestDecoder());
-            // Uncomment the following line if you don't want to handle HttpChunks.
-            //        p.addLast(new HttpObjectAggregator(1048576));
-            p.addLast(new HttpResponseEncoder());
-            // Remove the following line if you don't want automatic content compression.
-            //p.addLast(new HttpContentCompressor());
+            if (http2Config.enable()) {
+                addCleartextHttp2(p, http2Config);
+            } else {
+                p.addLast(new HttpRequestDecoder());
+                // Uncomment the following line if you don't want to handle HttpChunks.
+                //        p.addLast(new HttpObjectAggregator(1048576));
+                p.addLast(new HttpResponseEncoder());
+            }
+            addHttp1Handlers(p, sslEngine);
         }
 
-        // Helidon's forwarding handler
-        p.addLast(new ForwardingHandler(routing, webServer, sslEngine, queues));
-
         // Cleanup queues as part of event loop
         ch.eventLoop().execute(this::clearQueues);
     }
 
+    private void addHttp1Handlers(ChannelPipeline p, SSLEngine sslEngine) {
+        // Response compression, streamed chunk by chunk
+        CompressionConfiguration compression = socketConfig.compression();
+        if (compression.enabled()) {
+            p.addLast(new HelidonContentCompressor(compression));
+        }
+
+        // Helidon's forwarding handler
+        p.addLast(new ForwardingHandler(routing, webServer, socketConfig, sslEngine, queues, admission));
+    }
+
+    /**
+     * Accepts HTTP/2 on a cleartext connection both with prior knowledge and by an upgrade from HTTP/1.1,
+     * other connections continue with HTTP/1.1.
+     */
+    private void addCleartextHttp2(ChannelPipeline p, Http2Configuration http2Config) {
+        HttpServerCodec sourceCodec = new HttpServerCodec();
+        HttpServerUpgradeHandler upgradeHandler = new HttpServerUpgradeHandler(sourceCodec,
+                protocol -> AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol)
+                        ? new Http2ServerUpgradeCodec(http2FrameCodec(http2Config), http2MultiplexHandler(null))
+                        : null,
+                http2Config.maxContentLength());
+
+        p.addLast(new CleartextHttp2ServerUpgradeHandler(sourceCodec,
+                                                         upgradeHandler,
+                                                         new Http2PriorKnowledgeHandler(http2Config)));
+        p.addLast(new HelidonEventLogger());
+    }
+
+    private static Http2FrameCodec http2FrameCodec(Http2Configuration http2Config) {
+        Http2Settings settings = Http2Settings.defaultSettings()
+                .maxConcurrentStreams(http2Config.maxConcurrentStreams())
+                .headerTableSize(http2Config.headerTableSize())
+                .initialWindowSize(http2Config.initialWindowSize())
+                .maxFrameSize(http2Config.maxFrameSize())
+                .maxHeaderListSize(http2Config.maxHeaderListSize());
+        return Http2FrameCodecBuilder.forServer()
+                .initialSettings(settings)
+                .frameLogger(FRAME_LOGGER)
+                .build();
+    }
+
+    private Http2MultiplexHandler http2MultiplexHandler(SSLEngine sslEngine) {
+        return new Http2MultiplexHandler(new ChannelInitializer<Http2StreamChannel>() {
+            @Override
+            protected void initChannel(Http2StreamChannel ch) {
+                // request and response of a stream as HTTP/1.x objects, content is not aggregated
+                ch.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(true));
+                addHttp1Handlers(ch.pipeline(), sslEngine);
+            }
+        });
+    }
+
+    /**
+     * Configures the pipeline for the application protocol negotiated with ALPN.
+     */
+    private final class Http2NegotiationHandler extends ApplicationProtocolNegotiationHandler {
+        private final Http2Configuration http2Config;
+        private final SSLEngine sslEngine;
+
+        private Http2NegotiationHandler(Http2Configuration http2Config, SSLEngine sslEngine) {
+            super(ApplicationProtocolNames.HTTP_1_1);
+            this.http2Config = http2Config;
+            this.sslEngine = sslEngine;
+        }
+
+        @Override
+        protected void configurePipeline(ChannelHandlerContext ctx, String protocol) {
+            ChannelPipeline p = ctx.pipeline();
+            if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+                p.addLast(http2FrameCodec(http2Config), http2MultiplexHandler(sslEngine));
+            } else if (ApplicationProtocolNames.HTTP_1_1.equals(protocol)) {
+                p.addLast(new HttpRequestDecoder());
+                p.addLast(new HttpResponseEncoder());
+                addHttp1Handlers(p, sslEngine);
+            } else {
+                throw new IllegalStateException("Unsupported application protocol: " + protocol);
+            }
+        }
+    }
+
+    /**
+     * Replaces itself with the HTTP/2 handlers once the HTTP/2 connection preface was received. The handlers are
+     * placed where this handler is, i.e. in front of the HTTP/1 handlers, which are removed as they never see
+     * a request of this connection.
+     */
+    private final class Http2PriorKnowledgeHandler extends ChannelHandlerAdapter {
+        private final Http2Configuration http2Config;
+
+        private Http2PriorKnowledgeHandler(Http2Configuration http2Config) {
+            this.http2Config = http2Config;
+        }
+
+        @Override
+        public void handlerAdded(ChannelHandlerContext ctx) {
+            ChannelPipeline p = ctx.pipeline();
+            // the multiplex handler looks up the frame codec in front of it when added
+            Http2FrameCodec frameCodec = http2FrameCodec(http2Config);
+            p.addAfter(ctx.name(), null, frameCodec);
+            p.addAfter(p.context(frameCodec).name(), null, http2MultiplexHandler(null));
+            if (p.get(HelidonContentCompressor.class) != null) {
+                p.remove(HelidonContentCompressor.class);
+            }
+            if (p.get(ForwardingHandler.class) != null) {
+                p.remove(ForwardingHandler.class);
+            }
+            p.remove(this);
+        }
+    }
+
     private static final class HelidonEventLogger extends ChannelInboundHandlerAdapter {
         @Override
         public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
@@ -36,11 +36,11 @@ class HttpRequestScopedPublisher extends OriginThreadPublisher<DataChunk, ByteBu
     private volatile boolean suspended = false;
     private final ChannelHandlerContext ctx;
     private final ReentrantReadWriteLock.WriteLock lock = new ReentrantReadWriteLock().writeLock();
-    private final ReferenceHoldingQueue<DataChunk> referenceQueue;
+    private final RequestChunks chunks;
 
-    HttpRequestScopedPublisher(ChannelHandlerContext ctx, ReferenceHoldingQueue<DataChunk> referenceQueue) {
+    HttpRequestScopedPublisher(ChannelHandlerContext ctx, RequestChunks chunks) {
         super();
-        this.referenceQueue = referenceQueue;
+        this.chunks = chunks;
         this.ctx = ctx;
     }
 
@@ -103,7 +103,7 @@ class HttpRequestScopedPublisher extends OriginThreadPublisher<DataChunk, ByteBu
         try {
             super.submit(data);
         } finally {
-            referenceQueue.release();
+            chunks.releaseCollected();
         }
     }
 
@@ -112,7 +112,7 @@ class HttpRequestScopedPublisher extends OriginThreadPublisher<DataChunk, ByteBu
         try {
             super.complete();
         } finally {
-            referenceQueue.release();
+            chunks.releaseCollected();
         }
     }
 
@@ -121,13 +121,13 @@ class HttpRequestScopedPublisher extends OriginThreadPublisher<DataChunk, ByteBu
         try {
             super.error(throwable);
         } finally {
-            referenceQueue.release();
+            chunks.releaseCollected();
         }
     }
 
     @Override
     protected DataChunk wrap(ByteBuf data) {
-        return new ByteBufRequestChunk(data, referenceQueue);
+        return chunks.wrap(data);
     }
 
     @Override
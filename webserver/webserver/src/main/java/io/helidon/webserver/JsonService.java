@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,8 +17,11 @@
 package io.helidon.webserver;
 
 import java.util.List;
+import java.util.concurrent.Flow;
 
 import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Single;
+import io.helidon.media.common.JsonStreamWriter;
 
 /**
  * A {@link Service} and abstract {@link Handler} that provides support for JSON content.
@@ -81,6 +84,61 @@ public abstract class JsonService implements Service, Handler {
         }
     }
 
+    /**
+     * Determines if a response entity is a stream of elements to be written one by one, e.g. a
+     * {@link io.helidon.common.reactive.Multi}.
+     *
+     * @param payload the response entity
+     * @return {@code true} if the entity is a stream of elements
+     */
+    protected static boolean isJsonStream(Object payload) {
+        return payload instanceof Flow.Publisher && !(payload instanceof Single);
+    }
+
+    /**
+     * Determines the format of a stream of elements, using {@code Accept} and response {@code Content-Type} headers.
+     * Newline delimited JSON is used if {@code application/x-ndjson} is preferred over JSON, a JSON array otherwise.
+     * <p>
+     * Sets the response {@code Content-Type} header if not set and JSON is accepted.
+     *
+     * @param request a server request
+     * @param response a server response
+     * @return the format or {@code null} if JSON is not accepted
+     */
+    protected JsonStreamWriter.Format acceptsJsonStream(ServerRequest request, ServerResponse response) {
+        MediaType responseType = response.headers().contentType().orElse(null);
+        if (responseType != null) {
+            if (isNdjson(responseType)) {
+                return JsonStreamWriter.Format.NDJSON;
+            }
+            return MediaType.JSON_PREDICATE.test(responseType) ? JsonStreamWriter.Format.ARRAY : null;
+        }
+        List<MediaType> acceptedTypes = request.headers().acceptedTypes();
+        if (acceptedTypes == null || acceptedTypes.isEmpty()) {
+            response.headers().contentType(MediaType.APPLICATION_JSON);
+            return JsonStreamWriter.Format.ARRAY;
+        }
+        // quality factors decide, JSON comes first so that it wins a tie, e.g. for wildcards
+        MediaType best = request.headers()
+                .bestAccepted(MediaType.APPLICATION_JSON, MediaType.APPLICATION_X_NDJSON)
+                .orElse(null);
+        if (MediaType.APPLICATION_X_NDJSON.equals(best)) {
+            response.headers().contentType(MediaType.APPLICATION_X_NDJSON);
+            return JsonStreamWriter.Format.NDJSON;
+        }
+        MediaType jsonResponseType = (best == null) ? toJsonResponseType(acceptedTypes) : MediaType.APPLICATION_JSON;
+        if (jsonResponseType == null) {
+            return null;
+        }
+        response.headers().contentType(jsonResponseType);
+        return JsonStreamWriter.Format.ARRAY;
+    }
+
+    private static boolean isNdjson(MediaType type) {
+        return MediaType.APPLICATION_X_NDJSON.type().equalsIgnoreCase(type.type())
+                && MediaType.APPLICATION_X_NDJSON.subtype().equalsIgnoreCase(type.subtype());
+    }
+
     /**
      * Returns the response type for the given type if it is an accepted JSON type.
      *
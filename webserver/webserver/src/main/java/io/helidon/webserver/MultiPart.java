@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.Flow;
+
+import io.helidon.common.reactive.Multi;
+
+/**
+ * Parts of a {@code multipart/form-data} request, read as {@code request.content().as(MultiPart.class)} when
+ * {@link MultiPartSupport} is registered.
+ * <p>
+ * The request content is parsed as the parts are requested; it can be subscribed to only once.
+ */
+public final class MultiPart implements Flow.Publisher<BodyPart> {
+
+    private final MultiPartDecoder decoder;
+
+    MultiPart(MultiPartDecoder decoder) {
+        this.decoder = decoder;
+    }
+
+    /**
+     * The parts as a {@link Multi}.
+     *
+     * @return parts of the request
+     */
+    public Multi<BodyPart> parts() {
+        return Multi.from(this);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BodyPart> subscriber) {
+        decoder.subscribe(subscriber);
+    }
+}
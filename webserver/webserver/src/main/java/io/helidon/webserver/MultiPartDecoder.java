@@ -0,0 +1,762 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.Parameters;
+import io.helidon.common.http.ReadOnlyParameters;
+import io.helidon.common.reactive.Multi;
+
+/**
+ * Decodes the chunks of a {@code multipart/form-data} request into {@link BodyPart}s.
+ * <p>
+ * Request chunks are requested one at a time and only while the subscriber of the parts has demand and no decoded
+ * part is waiting to be emitted. Each chunk is parsed and released on the thread that publishes it; part content
+ * larger than the spill threshold is written to a temporary file by the executor, in order, and the next chunk is
+ * requested once that is done. Temporary files are read by the executor as well, so no file I/O blocks the event
+ * loop. Parts are emitted by whichever thread drains the queue of ready parts, serialized by the {@code wip} counter.
+ */
+final class MultiPartDecoder implements Flow.Publisher<BodyPart> {
+
+    private static final Logger LOGGER = Logger.getLogger(MultiPartDecoder.class.getName());
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] HEADERS_END = {'\r', '\n', '\r', '\n'};
+    private static final byte[] EMPTY = new byte[0];
+    private static final int MAX_HEADERS_SIZE = 8192;
+    private static final int FILE_CHUNK_SIZE = 8192;
+
+    private final Flow.Publisher<DataChunk> chunks;
+    // delimiter preceding each part, including the line break ending the previous part
+    private final byte[] delimiter;
+    private final int spillThreshold;
+    private final Path spillDirectory;
+    private final Executor executor;
+    // temporary files not deleted yet
+    private final Queue<Path> files;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final Queue<BodyPart> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong demand = new AtomicLong();
+
+    private volatile Flow.Subscriber<? super BodyPart> subscriber;
+    private volatile Flow.Subscription upstream;
+    // a chunk is requested and not yet received
+    private volatile boolean requested;
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private volatile Throwable error;
+    // accessed only by the draining thread
+    private boolean terminated;
+
+    // accessed only by the publishing thread; the leading line break lets the first delimiter match without one
+    private State state = State.PREAMBLE;
+    private byte[] carry = CRLF;
+    private PartSink sink;
+    // file I/O of the parts, whatever follows it is chained after it
+    private CompletableFuture<Void> io = CompletableFuture.completedFuture(null);
+
+    MultiPartDecoder(Flow.Publisher<DataChunk> chunks,
+                     String boundary,
+                     int spillThreshold,
+                     Path spillDirectory,
+                     Executor executor,
+                     Queue<Path> files) {
+        this.chunks = chunks;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        this.spillThreshold = spillThreshold;
+        this.spillDirectory = spillDirectory;
+        this.executor = executor;
+        this.files = files;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BodyPart> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Only single subscriber is allowed!"));
+            return;
+        }
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("Rule §3.9: non-positive request: " + n));
+                    return;
+                }
+                demand.getAndUpdate(current -> (Long.MAX_VALUE - current <= n) ? Long.MAX_VALUE : current + n);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                cancelUpstream();
+                drain();
+            }
+        });
+        chunks.subscribe(new ChunkSubscriber());
+    }
+
+    /**
+     * Deletes the temporary files which were not deleted yet.
+     */
+    void deleteFiles() {
+        Path file;
+        while ((file = files.poll()) != null) {
+            delete(file);
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (cancelled) {
+                discardReady();
+            } else if (!terminated) {
+                emitReady();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emitReady() {
+        while (demand.get() > 0) {
+            BodyPart part = ready.poll();
+            if (part == null) {
+                break;
+            }
+            demand.decrementAndGet();
+            subscriber.onNext(part);
+            if (cancelled) {
+                return;
+            }
+        }
+        // done is read before the queue, a part added before done is set is then never missed
+        boolean d = done;
+        boolean empty = ready.isEmpty();
+        if (d && empty) {
+            terminated = true;
+            Throwable throwable = error;
+            if (throwable == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(throwable);
+            }
+        } else if (empty && demand.get() > 0 && !requested) {
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                // the next chunk is only requested once all decoded parts were emitted
+                requested = true;
+                subscription.request(1);
+            }
+        }
+    }
+
+    private void discardReady() {
+        BodyPart part;
+        while ((part = ready.poll()) != null) {
+            part.content().subscribe(new DiscardingSubscriber());
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        cancelUpstream();
+        error = throwable;
+        done = true;
+        discardReady();
+        drain();
+    }
+
+    private void cancelUpstream() {
+        Flow.Subscription subscription = upstream;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private void parse(DataChunk chunk) {
+        byte[] buffer;
+        try {
+            ByteBuffer data = chunk.data();
+            buffer = new byte[carry.length + data.remaining()];
+            System.arraycopy(carry, 0, buffer, 0, carry.length);
+            data.get(buffer, carry.length, data.remaining());
+        } finally {
+            chunk.release();
+        }
+        int length = buffer.length;
+        int position = 0;
+        parsing:
+        while (true) {
+            switch (state) {
+            case PREAMBLE: {
+                int index = indexOf(buffer, position, length, delimiter);
+                if (index < 0) {
+                    // keep only what could be the start of the delimiter
+                    position = Math.max(position, length - delimiter.length + 1);
+                    break parsing;
+                }
+                position = index + delimiter.length;
+                state = State.DELIMITER;
+                break;
+            }
+            case DELIMITER: {
+                if (length - position < 2) {
+                    break parsing;
+                }
+                if (buffer[position] == '-' && buffer[position + 1] == '-') {
+                    state = State.EPILOGUE;
+                    position = length;
+                    break parsing;
+                }
+                int index = indexOf(buffer, position, length, CRLF);
+                if (index < 0) {
+                    checkHeadersSize(length - position);
+                    break parsing;
+                }
+                for (int i = position; i < index; i++) {
+                    if (buffer[i] != ' ' && buffer[i] != '\t') {
+                        throw new IllegalArgumentException("Malformed multipart content: invalid boundary line");
+                    }
+                }
+                position = index + CRLF.length;
+                state = State.HEADERS;
+                break;
+            }
+            case HEADERS: {
+                if (length - position < 2) {
+                    break parsing;
+                }
+                Parameters headers;
+                if (buffer[position] == '\r' && buffer[position + 1] == '\n') {
+                    headers = ReadOnlyParameters.empty();
+                    position += CRLF.length;
+                } else {
+                    int index = indexOf(buffer, position, length, HEADERS_END);
+                    if (index < 0) {
+                        checkHeadersSize(length - position);
+                        break parsing;
+                    }
+                    checkHeadersSize(index - position);
+                    headers = parseHeaders(new String(buffer, position, index - position, StandardCharsets.UTF_8));
+                    position = index + HEADERS_END.length;
+                }
+                sink = new PartSink(headers);
+                state = State.BODY;
+                break;
+            }
+            case BODY: {
+                int index = indexOf(buffer, position, length, delimiter);
+                if (index < 0) {
+                    // keep only what could be the start of the delimiter
+                    int end = Math.max(position, length - delimiter.length + 1);
+                    sink.write(buffer, position, end - position);
+                    position = end;
+                    break parsing;
+                }
+                sink.write(buffer, position, index - position);
+                sink.finish();
+                sink = null;
+                position = index + delimiter.length;
+                state = State.DELIMITER;
+                break;
+            }
+            default:
+                position = length;
+                break parsing;
+            }
+        }
+        carry = (position < length) ? Arrays.copyOfRange(buffer, position, length) : EMPTY;
+    }
+
+    private static void checkHeadersSize(int size) {
+        if (size > MAX_HEADERS_SIZE) {
+            throw new IllegalArgumentException("Malformed multipart content: part headers exceed "
+                                                       + MAX_HEADERS_SIZE + " bytes");
+        }
+    }
+
+    private static Parameters parseHeaders(String text) {
+        Map<String, List<String>> headers = new HashMap<>();
+        for (String line : text.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Malformed multipart content: invalid header line '" + line + "'");
+            }
+            headers.computeIfAbsent(line.substring(0, colon).trim(), name -> new ArrayList<>())
+                    .add(line.substring(colon + 1).trim());
+        }
+        return new ReadOnlyParameters(headers);
+    }
+
+    /**
+     * Parameters of a {@code Content-Disposition} header value, names are in lower case.
+     *
+     * @param value the header value
+     * @return the parameters
+     */
+    static Map<String, String> dispositionParameters(String value) {
+        Map<String, String> parameters = new HashMap<>();
+        int length = value.length();
+        int position = value.indexOf(';');
+        while (position >= 0 && position < length) {
+            // skip the separator and whitespace
+            position++;
+            while (position < length && Character.isWhitespace(value.charAt(position))) {
+                position++;
+            }
+            int nameStart = position;
+            while (position < length && value.charAt(position) != '=' && value.charAt(position) != ';') {
+                position++;
+            }
+            String name = value.substring(nameStart, position).trim().toLowerCase(Locale.ROOT);
+            if (position >= length || value.charAt(position) == ';') {
+                continue;
+            }
+            // skip '='
+            position++;
+            StringBuilder parameterValue = new StringBuilder();
+            if (position < length && value.charAt(position) == '"') {
+                position++;
+                while (position < length && value.charAt(position) != '"') {
+                    char c = value.charAt(position++);
+                    if (c == '\\' && position < length) {
+                        c = value.charAt(position++);
+                    }
+                    parameterValue.append(c);
+                }
+                position = value.indexOf(';', position);
+            } else {
+                int end = value.indexOf(';', position);
+                parameterValue.append(value, position, (end < 0) ? length : end);
+                position = end;
+            }
+            if (!name.isEmpty()) {
+                parameters.put(name, parameterValue.toString().trim());
+            }
+        }
+        return parameters;
+    }
+
+    private static int indexOf(byte[] buffer, int from, int to, byte[] pattern) {
+        int last = to - pattern.length;
+        byte first = pattern[0];
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < pattern.length; j++) {
+                if (buffer[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private void afterIo(Runnable task) {
+        if (io.isDone()) {
+            task.run();
+        } else {
+            io = io.thenRun(task);
+        }
+    }
+
+    private static Throwable ioFailure(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof UncheckedIOException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private void delete(Path file) {
+        files.remove(file);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Cannot delete temporary file " + file, e);
+        }
+    }
+
+    private enum State {
+        PREAMBLE,
+        DELIMITER,
+        HEADERS,
+        BODY,
+        EPILOGUE
+    }
+
+    private final class ChunkSubscriber implements Flow.Subscriber<DataChunk> {
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            drain();
+        }
+
+        @Override
+        public void onNext(DataChunk chunk) {
+            if (done || cancelled) {
+                chunk.release();
+                discardSink();
+                return;
+            }
+            try {
+                parse(chunk);
+            } catch (RuntimeException e) {
+                discardSink();
+                fail(e);
+                return;
+            }
+            io.whenComplete((result, throwable) -> {
+                if (throwable == null) {
+                    requested = false;
+                    drain();
+                } else {
+                    fail(ioFailure(throwable));
+                }
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            discardSink();
+            io.whenComplete((result, ioThrowable) -> {
+                // a failed file I/O already failed the parts
+                if (ioThrowable == null) {
+                    error = throwable;
+                    done = true;
+                    drain();
+                }
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            if (state != State.EPILOGUE) {
+                discardSink();
+                error = new IllegalArgumentException("Malformed multipart content: missing closing boundary");
+            }
+            io.whenComplete((result, throwable) -> {
+                // a failed file I/O already failed the parts
+                if (throwable == null) {
+                    done = true;
+                    drain();
+                }
+            });
+        }
+
+        private void discardSink() {
+            if (sink != null) {
+                sink.discard();
+                sink = null;
+            }
+        }
+    }
+
+    /**
+     * Content of the part being decoded, kept in memory up to the spill threshold. The temporary file is created,
+     * written and closed by the executor, the written buffers are never modified by the parser.
+     */
+    private final class PartSink {
+        private final Parameters headers;
+        private byte[] memory = EMPTY;
+        private int count;
+        private long size;
+        private boolean spilled;
+        // accessed only by the file I/O tasks
+        private Path file;
+        private FileChannel channel;
+
+        private PartSink(Parameters headers) {
+            this.headers = headers;
+        }
+
+        private void write(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return;
+            }
+            size += length;
+            if (!spilled && length <= spillThreshold - count) {
+                if (count + length > memory.length) {
+                    int capacity = Math.max(count + length, Math.min(spillThreshold, Math.max(1024, memory.length * 2)));
+                    memory = Arrays.copyOf(memory, capacity);
+                }
+                System.arraycopy(bytes, offset, memory, count, length);
+                count += length;
+                return;
+            }
+            if (!spilled) {
+                spilled = true;
+                ByteBuffer kept = ByteBuffer.wrap(memory, 0, count);
+                memory = EMPTY;
+                count = 0;
+                spill(() -> {
+                    file = Files.createTempFile(spillDirectory, "helidon-multipart-", ".part");
+                    files.add(file);
+                    channel = FileChannel.open(file, StandardOpenOption.WRITE);
+                    writeFully(kept);
+                });
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+            spill(() -> writeFully(buffer));
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private void finish() {
+            Map<String, String> disposition = headers.first(Http.Header.CONTENT_DISPOSITION)
+                    .map(MultiPartDecoder::dispositionParameters)
+                    .orElseGet(Map::of);
+            if (!spilled) {
+                byte[] bytes = memory;
+                int length = count;
+                // each subscription gets its own chunk, read chunks are consumed; an empty part has an empty chunk
+                Flow.Publisher<DataChunk> content = contentSubscriber -> Multi.just(
+                        DataChunk.create(ByteBuffer.wrap(bytes, 0, length))).subscribe(contentSubscriber);
+                BodyPart part = new BodyPart(headers, disposition, size, false, content);
+                afterIo(() -> ready.add(part));
+                return;
+            }
+            long partSize = size;
+            spill(() -> {
+                channel.close();
+                ready.add(new BodyPart(headers, disposition, partSize, true, new FilePublisher(file)));
+            });
+        }
+
+        private void discard() {
+            if (spilled) {
+                io = io.whenCompleteAsync((result, throwable) -> discardFile(), executor);
+            }
+        }
+
+        private void spill(IoTask task) {
+            io = io.thenRunAsync(() -> {
+                try {
+                    task.run();
+                } catch (IOException e) {
+                    discardFile();
+                    throw new UncheckedIOException(e);
+                }
+            }, executor);
+        }
+
+        private void discardFile() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Cannot close temporary file " + file, e);
+                }
+            }
+            if (file != null) {
+                delete(file);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoTask {
+        void run() throws IOException;
+    }
+
+    /**
+     * Publishes the content of a temporary file and deletes the file once it was read or the subscription was
+     * cancelled. The file is opened and read by the executor.
+     */
+    private final class FilePublisher implements Flow.Publisher<DataChunk> {
+        private final Path file;
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+        // accessed only by the draining thread
+        private Flow.Subscriber<? super DataChunk> subscriber;
+        private FileChannel channel;
+        private boolean terminated;
+
+        private FilePublisher(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+            Flow.Subscription subscription = new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    if (n <= 0) {
+                        failure = new IllegalArgumentException("Rule §3.9: non-positive request: " + n);
+                    } else {
+                        demand.getAndUpdate(current -> (Long.MAX_VALUE - current <= n) ? Long.MAX_VALUE : current + n);
+                    }
+                    drain();
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                    drain();
+                }
+            };
+            if (!subscribed.compareAndSet(false, true)) {
+                subscriber.onSubscribe(subscription);
+                subscriber.onError(new IllegalStateException("Only single subscriber is allowed!"));
+                return;
+            }
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(subscription);
+            drain();
+        }
+
+        private void drain() {
+            if (subscriber == null || wip.getAndIncrement() != 0) {
+                return;
+            }
+            executor.execute(() -> {
+                int missed = 1;
+                do {
+                    if (!terminated) {
+                        emit();
+                    }
+                    missed = wip.addAndGet(-missed);
+                } while (missed != 0);
+            });
+        }
+
+        private void emit() {
+            try {
+                if (channel == null && !cancelled && failure == null) {
+                    channel = FileChannel.open(file, StandardOpenOption.READ);
+                }
+                while (!cancelled && failure == null && demand.get() > 0) {
+                    ByteBuffer buffer = ByteBuffer.allocate(FILE_CHUNK_SIZE);
+                    if (channel.read(buffer) < 0) {
+                        close();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    buffer.flip();
+                    demand.decrementAndGet();
+                    subscriber.onNext(DataChunk.create(buffer));
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+            if (cancelled) {
+                close();
+            } else if (failure != null) {
+                close();
+                subscriber.onError(failure);
+            }
+        }
+
+        private void close() {
+            terminated = true;
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Cannot close temporary file " + file, e);
+                }
+            }
+            delete(file);
+        }
+    }
+
+    /**
+     * Cancels the content of a part which is never emitted, so its temporary file is deleted.
+     */
+    private static final class DiscardingSubscriber implements Flow.Subscriber<DataChunk> {
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.cancel();
+        }
+
+        @Override
+        public void onNext(DataChunk item) {
+            item.release();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
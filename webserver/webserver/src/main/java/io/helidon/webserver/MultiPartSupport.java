@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import io.helidon.common.LazyValue;
+import io.helidon.common.http.MediaType;
+
+/**
+ * Provides support for {@code multipart/form-data} requests, e.g. file uploads, adding a reader for {@link MultiPart}.
+ * <p>
+ * Developers will typically add this support to routing:
+ * <pre>{@code
+ * Routing.builder()
+ *        .register(MultiPartSupport.create())
+ *        . ... // any other handlers
+ * }</pre>
+ * <p>
+ * When responding to a request, the developer can use
+ * <pre>{@code
+ *     request.content().as(MultiPart.class).thenAccept(mp -> mp.parts().subscribe(part -> ...))
+ * }</pre>
+ * The request is parsed as the parts are requested and is never buffered as a whole. Each {@link BodyPart} is
+ * published once it was completely received; content not larger than the
+ * {@link Builder#spillThreshold(int) spill threshold} is kept in memory, larger content is written to a temporary
+ * file in the {@link Builder#spillDirectory(Path) spill directory}. Temporary files are written and read by the
+ * {@link Builder#executor(Executor) executor}, never by the event loop, and are deleted once their content was read,
+ * and at the latest when the response is sent.
+ */
+public final class MultiPartSupport implements Service, Handler {
+
+    /**
+     * Default number of bytes of a part kept in memory.
+     */
+    public static final int DEFAULT_SPILL_THRESHOLD = 64 * 1024;
+
+    private static final String BOUNDARY_PARAMETER = "boundary";
+    private static final LazyValue<Executor> EXECUTOR = LazyValue.create(
+            () -> Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "helidon-multipart-file");
+                thread.setDaemon(true);
+                return thread;
+            }));
+
+    private final int spillThreshold;
+    private final Path spillDirectory;
+    private final Executor executor;
+
+    private MultiPartSupport(Builder builder) {
+        this.spillThreshold = builder.spillThreshold;
+        this.spillDirectory = builder.spillDirectory;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * Creates new instance with default settings.
+     *
+     * @return a new instance
+     */
+    public static MultiPartSupport create() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new fluent API builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void update(Routing.Rules rules) {
+        rules.any(this);
+    }
+
+    @Override
+    public void accept(ServerRequest req, ServerResponse res) {
+        req.content().registerReader(MultiPart.class, (chunks, type) -> {
+            Optional<MediaType> contentType = req.headers().contentType();
+            if (contentType.isEmpty() || !MediaType.MULTIPART_FORM_DATA.test(contentType.get())) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException(
+                        "Request content type is not " + MediaType.MULTIPART_FORM_DATA + ": " + contentType.orElse(null)));
+            }
+            String boundary = contentType.get().parameters().get(BOUNDARY_PARAMETER);
+            if (boundary == null || boundary.isEmpty()) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException(
+                        "Request content type has no boundary: " + contentType.get()));
+            }
+            MultiPartDecoder decoder = new MultiPartDecoder(chunks,
+                                                            boundary,
+                                                            spillThreshold,
+                                                            spillDirectory,
+                                                            executor == null ? EXECUTOR.get() : executor,
+                                                            new ConcurrentLinkedQueue<>());
+            res.whenSent().whenComplete((response, throwable) -> decoder.deleteFiles());
+            return CompletableFuture.completedFuture(new MultiPart(decoder));
+        });
+
+        req.next();
+    }
+
+    /**
+     * Fluent API builder for {@link MultiPartSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<MultiPartSupport> {
+        private int spillThreshold = DEFAULT_SPILL_THRESHOLD;
+        private Path spillDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+        private Executor executor;
+
+        private Builder() {
+        }
+
+        @Override
+        public MultiPartSupport build() {
+            return new MultiPartSupport(this);
+        }
+
+        /**
+         * Maximal number of bytes of a part kept in memory, larger parts are written to a temporary file.
+         * Default is {@link #DEFAULT_SPILL_THRESHOLD}.
+         *
+         * @param spillThreshold the threshold, {@code 0} to write content of all parts to temporary files
+         * @return updated builder instance
+         * @throws IllegalArgumentException if the threshold is negative
+         */
+        public Builder spillThreshold(int spillThreshold) {
+            if (spillThreshold < 0) {
+                throw new IllegalArgumentException("Spill threshold must not be negative, but is: " + spillThreshold);
+            }
+            this.spillThreshold = spillThreshold;
+            return this;
+        }
+
+        /**
+         * Directory of the temporary files. Default is the {@code java.io.tmpdir} directory.
+         *
+         * @param spillDirectory the directory
+         * @return updated builder instance
+         */
+        public Builder spillDirectory(Path spillDirectory) {
+            this.spillDirectory = Objects.requireNonNull(spillDirectory, "Parameter 'spillDirectory' is null!");
+            return this;
+        }
+
+        /**
+         * Executor of the blocking I/O of the temporary files. A shared cached thread pool is used by default.
+         *
+         * @param executor the executor
+         * @return updated builder instance
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "Parameter 'executor' is null!");
+            return this;
+        }
+    }
+}
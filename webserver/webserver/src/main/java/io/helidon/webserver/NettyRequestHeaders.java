@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import io.netty.handler.codec.http.HttpHeaders;
+
+/**
+ * A {@link RequestHeaders} implementation which is a read-only view of the Netty request headers.
+ * <p>
+ * Nothing is copied when the request is created. Header names are looked up case-insensitively directly
+ * in the Netty headers and value lists are created only when requested.
+ */
+class NettyRequestHeaders extends HashRequestHeaders {
+
+    private final HttpHeaders headers;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param headers Netty request headers, must not be modified while the request is processed
+     */
+    NettyRequestHeaders(HttpHeaders headers) {
+        this.headers = Objects.requireNonNull(headers, "Parameter 'headers' is null!");
+    }
+
+    @Override
+    public Optional<String> first(String name) {
+        return Optional.ofNullable(headers.get(name));
+    }
+
+    @Override
+    public List<String> all(String name) {
+        List<String> values = headers.getAll(name);
+        return values.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(values);
+    }
+
+    @Override
+    public Map<String, List<String>> toMap() {
+        // names differing in case only are the same header, like in HashRequestHeaders
+        Map<String, List<String>> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, String> entry : headers) {
+            result.computeIfAbsent(entry.getKey(), name -> new ArrayList<>()).add(entry.getValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+
+/**
+ * Resolves a {@link ServerConfiguration.Transport} to the Netty channel and event loop group implementations.
+ * <p>
+ * The native epoll classes are only used once the native library is confirmed to be available, so the
+ * {@code netty-transport-native-epoll} library is an optional dependency.
+ */
+abstract class NettyTransport {
+
+    private static final Logger LOGGER = Logger.getLogger(NettyTransport.class.getName());
+
+    /**
+     * Resolves the transport to use.
+     *
+     * @param transport the configured transport
+     * @return the transport to use, falling back to NIO if native transport is not available
+     */
+    static NettyTransport create(ServerConfiguration.Transport transport) {
+        if (transport == null) {
+            transport = ServerConfiguration.Transport.AUTO;
+        }
+        switch (transport) {
+        case NIO:
+            return new Nio();
+        case EPOLL:
+            if (epollAvailable()) {
+                return new Native();
+            }
+            LOGGER.log(Level.WARNING, "Native epoll transport requested, yet it is not available. Falling back to NIO.",
+                       epollUnavailabilityCause());
+            return new Nio();
+        case AUTO:
+        default:
+            return epollAvailable() ? new Native() : new Nio();
+        }
+    }
+
+    /**
+     * Name of this transport, used for logging.
+     *
+     * @return name of the transport
+     */
+    abstract String name();
+
+    /**
+     * Creates a new event loop group.
+     *
+     * @param threads number of threads or {@code 0} for the Netty default
+     * @return a new event loop group
+     */
+    abstract EventLoopGroup createGroup(int threads);
+
+    /**
+     * Server channel class to use with {@link ServerBootstrap#channel(Class)}.
+     *
+     * @return server channel class
+     */
+    abstract Class<? extends ServerChannel> serverChannelClass();
+
+    /**
+     * Whether a server socket can be bound multiple times to the same port by this transport.
+     *
+     * @return {@code true} if {@code SO_REUSEPORT} is supported
+     */
+    abstract boolean supportsReusePort();
+
+    /**
+     * Configures the bootstrap to allow multiple acceptors on the same port.
+     * Only called if {@link #supportsReusePort()} returns {@code true}.
+     *
+     * @param bootstrap bootstrap to configure
+     */
+    abstract void reusePort(ServerBootstrap bootstrap);
+
+    private static boolean epollAvailable() {
+        try {
+            return Epoll.isAvailable();
+        } catch (LinkageError e) {
+            LOGGER.log(Level.FINEST, "Native epoll transport classes are not on the classpath", e);
+            return false;
+        }
+    }
+
+    private static Throwable epollUnavailabilityCause() {
+        try {
+            return Epoll.unavailabilityCause();
+        } catch (LinkageError e) {
+            return e;
+        }
+    }
+
+    private static final class Nio extends NettyTransport {
+        @Override
+        String name() {
+            return "nio";
+        }
+
+        @Override
+        EventLoopGroup createGroup(int threads) {
+            return new NioEventLoopGroup(threads);
+        }
+
+        @Override
+        Class<? extends ServerChannel> serverChannelClass() {
+            return NioServerSocketChannel.class;
+        }
+
+        @Override
+        boolean supportsReusePort() {
+            return false;
+        }
+
+        @Override
+        void reusePort(ServerBootstrap bootstrap) {
+            throw new UnsupportedOperationException("SO_REUSEPORT is not supported by NIO transport");
+        }
+    }
+
+    private static final class Native extends NettyTransport {
+        @Override
+        String name() {
+            return "epoll";
+        }
+
+        @Override
+        EventLoopGroup createGroup(int threads) {
+            return new EpollEventLoopGroup(threads);
+        }
+
+        @Override
+        Class<? extends ServerChannel> serverChannelClass() {
+            return EpollServerSocketChannel.class;
+        }
+
+        @Override
+        boolean supportsReusePort() {
+            return true;
+        }
+
+        @Override
+        void reusePort(ServerBootstrap bootstrap) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -43,8 +44,6 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.ssl.ApplicationProtocolConfig;
@@ -64,6 +63,7 @@ class NettyWebServer implements WebServer {
     private static final String EXIT_ON_STARTED_KEY = "exit.on.started";
     private static final boolean EXIT_ON_STARTED = "!".equals(System.getProperty(EXIT_ON_STARTED_KEY));
 
+    private final NettyTransport transport;
     private final EventLoopGroup bossGroup;
     private final EventLoopGroup workerGroup;
     private final Map<String, ServerBootstrap> bootstraps = new HashMap<>();
@@ -75,6 +75,7 @@ class NettyWebServer implements WebServer {
     private final CompletableFuture<WebServer> threadGroupsShutdownFuture = new CompletableFuture<>();
     private final ContextualRegistry contextualRegistry;
     private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<Channel>> acceptorChannels = new ConcurrentHashMap<>();
     private final List<HttpInitializer> initializers = new LinkedList<>();
 
     private volatile boolean started;
@@ -95,8 +96,14 @@ class NettyWebServer implements WebServer {
         Set<Map.Entry<String, SocketConfiguration>> sockets = config.sockets().entrySet();
 
         HelidonFeatures.print(HelidonFlavor.SE, config.printFeatureDetails());
-        this.bossGroup = new NioEventLoopGroup(sockets.size());
-        this.workerGroup = config.workersCount() <= 0 ? new NioEventLoopGroup() : new NioEventLoopGroup(config.workersCount());
+        this.transport = NettyTransport.create(config.transport());
+        int acceptorsCount = 0;
+        for (Map.Entry<String, SocketConfiguration> entry : sockets) {
+            acceptorsCount += acceptors(entry.getValue());
+        }
+        this.bossGroup = transport.createGroup(acceptorsCount);
+        this.workerGroup = transport.createGroup(Math.max(config.workersCount(), 0));
+        LOGGER.fine(() -> "Using " + transport.name() + " transport");
         // the contextual registry needs to be created as a different type is expected. Once we remove ContextualRegistry
         // we can simply use the one from config
         Context context = config.context();
@@ -105,6 +112,8 @@ class NettyWebServer implements WebServer {
         } else {
             this.contextualRegistry = ContextualRegistry.create(config.context());
         }
+        // clients created within the server context share the worker event loops
+        this.contextualRegistry.supply(EventLoopGroup.class, () -> workerGroup);
         this.configuration = config;
 
         for (Map.Entry<String, SocketConfiguration> entry : sockets) {
@@ -150,11 +159,15 @@ class NettyWebServer implements WebServer {
             if (soConfig.receiveBufferSize() > 0) {
                 bootstrap.option(ChannelOption.SO_RCVBUF, soConfig.receiveBufferSize());
             }
+            if (acceptors(soConfig) > 1) {
+                transport.reusePort(bootstrap);
+            }
 
-            HttpInitializer childHandler = new HttpInitializer(sslContext, namedRoutings.getOrDefault(name, routing), this);
+            HttpInitializer childHandler = new HttpInitializer(soConfig, sslContext,
+                                                                namedRoutings.getOrDefault(name, routing), this);
             initializers.add(childHandler);
             bootstrap.group(bossGroup, workerGroup)
-                     .channel(NioServerSocketChannel.class)
+                     .channel(transport.serverChannelClass())
                      .handler(new LoggingHandler(LogLevel.DEBUG))
                      .childHandler(childHandler);
 
@@ -214,9 +227,12 @@ class NettyWebServer implements WebServer {
                         LOGGER.info(() -> "Channel '" + name + "' started: " + channel);
                         channels.put(name, channel);
 
+                        bindAcceptors(name, bootstrap, socketConfig, channel);
+
                         channel.closeFuture().addListener(future -> {
                             LOGGER.info(() -> "Channel '" + name + "' closed: " + channel);
                             channels.remove(name);
+                            closeAcceptors(name);
                             if (channelsUpFuture.isCompletedExceptionally()) {
                                 // we're in a startup failure handler
                                 if (channels.isEmpty()) {
@@ -263,6 +279,46 @@ class NettyWebServer implements WebServer {
         return startFuture;
     }
 
+    private int acceptors(SocketConfiguration socketConfig) {
+        return transport.supportsReusePort() ? Math.max(socketConfig.acceptors(), 1) : 1;
+    }
+
+    /**
+     * Binds the additional {@code SO_REUSEPORT} server channels of a socket, once its first channel
+     * is bound and the actual port is known.
+     */
+    private void bindAcceptors(String name, ServerBootstrap bootstrap, SocketConfiguration socketConfig, Channel channel) {
+        int additional = acceptors(socketConfig) - 1;
+        if (additional <= 0) {
+            return;
+        }
+        SocketAddress address = channel.localAddress();
+        List<Channel> acceptors = acceptorChannels.computeIfAbsent(name, key -> new CopyOnWriteArrayList<>());
+        for (int i = 0; i < additional; i++) {
+            bootstrap.bind(address).addListener(acceptorFuture -> {
+                if (!acceptorFuture.isSuccess()) {
+                    LOGGER.log(Level.WARNING, "Channel '" + name + "' failed to bind additional acceptor",
+                               acceptorFuture.cause());
+                    return;
+                }
+                Channel acceptor = ((ChannelFuture) acceptorFuture).channel();
+                LOGGER.fine(() -> "Channel '" + name + "' additional acceptor started: " + acceptor);
+                acceptors.add(acceptor);
+                if (!channel.isOpen()) {
+                    // primary channel closed in the meantime
+                    acceptor.close();
+                }
+            });
+        }
+    }
+
+    private void closeAcceptors(String name) {
+        List<Channel> acceptors = acceptorChannels.remove(name);
+        if (acceptors != null) {
+            acceptors.forEach(Channel::close);
+        }
+    }
+
     private void started(WebServer server) {
         if (EXIT_ON_STARTED) {
             LOGGER.info(String.format("Exiting, -D%s set.",  EXIT_ON_STARTED_KEY));
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,11 @@
 
 package io.helidon.webserver;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Matcher;
@@ -143,6 +145,10 @@ final class PathPattern {
         }
         try {
             if (isRegexp) {
+                List<SegmentPathMatcher.Part> parts = segmentParts(pattern);
+                if (parts != null) {
+                    return new SegmentPathMatcher(pattern.toString(), parts);
+                }
                 return new RegexpPathMatcher(regexp.toString(), paramToGroupName);
             } else {
                 return new CanonicalPathMatcher(canonical.toString());
@@ -152,6 +158,62 @@ final class PathPattern {
         }
     }
 
+    /**
+     * Splits a pattern into literal and parameter parts if it can be matched without a regular expression.
+     * That is, if the pattern contains no optional sequences, escapes or custom parameter regular expressions,
+     * each standard parameter is followed by {@code '/'} or pattern end, and a greedy parameter is only at the end.
+     *
+     * @param pattern a pattern to split
+     * @return the parts or {@code null} if the pattern requires a regular expression
+     */
+    private static List<SegmentPathMatcher.Part> segmentParts(CharSequence pattern) {
+        List<SegmentPathMatcher.Part> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = pattern.length();
+        for (int i = 0; i < length; i++) {
+            char ch = pattern.charAt(i);
+            switch (ch) {
+            case '\\':
+            case '[':
+            case ']':
+            case '}':
+                return null;
+            case '{':
+                int end = i + 1;
+                while (end < length && pattern.charAt(end) != '}') {
+                    char paramChar = pattern.charAt(end);
+                    if (paramChar == ':' || paramChar == '{' || paramChar == '/') {
+                        return null;
+                    }
+                    end++;
+                }
+                if (end >= length) {
+                    return null;
+                }
+                String param = pattern.subSequence(i + 1, end).toString();
+                boolean greedy = param.startsWith("+");
+                boolean last = end == length - 1;
+                if (greedy ? !last : !(last || pattern.charAt(end + 1) == '/')) {
+                    return null;
+                }
+                if (literal.length() > 0) {
+                    parts.add(SegmentPathMatcher.Part.literal(literal.toString()));
+                    literal.setLength(0);
+                }
+                String name = (greedy ? param.substring(1) : param).trim();
+                parts.add(greedy ? SegmentPathMatcher.Part.greedy(name) : SegmentPathMatcher.Part.param(name));
+                i = end;
+                break;
+            default:
+                literal.append(ch);
+            }
+        }
+        if (literal.length() > 0) {
+            parts.add(SegmentPathMatcher.Part.literal(literal.toString()));
+        }
+        return parts;
+    }
+
     private static void escapeIfNeeded(char ch, StringBuilder builder) {
         if (Arrays.binarySearch(REGEXP_META_CHARACTERS, ch) < 0) {
             builder.append(ch);
@@ -330,6 +392,15 @@ final class PathPattern {
             }
         }
 
+        /**
+         * Returns the exact pattern.
+         *
+         * @return the pattern
+         */
+        String pattern() {
+            return pattern;
+        }
+
         @Override
         public String toString() {
             return "CanonicalPathMatcher{"
@@ -338,6 +409,159 @@ final class PathPattern {
         }
     }
 
+    /**
+     * Matcher of patterns consisting of literals and parameters spanning up to the next {@code '/'} character,
+     * optionally ending with a greedy parameter. Behaves exactly as the {@link RegexpPathMatcher} compiled from the
+     * same pattern, but walks the path once without regular expressions.
+     */
+    static class SegmentPathMatcher implements PathMatcher {
+
+        private final String pattern;
+        private final Part[] parts;
+        private final int paramCount;
+
+        /**
+         * Creates new instance.
+         *
+         * @param pattern the original pattern
+         * @param parts   literal and parameter parts of the pattern
+         */
+        SegmentPathMatcher(String pattern, List<Part> parts) {
+            this.pattern = pattern;
+            this.parts = parts.toArray(new Part[0]);
+            int count = 0;
+            for (Part part : parts) {
+                if (part.kind != Part.LITERAL && !part.value.isEmpty()) {
+                    count++;
+                }
+            }
+            this.paramCount = count;
+        }
+
+        @Override
+        public Result match(CharSequence path) {
+            Objects.requireNonNull(path, "Parameter 'path' is null!");
+            String s = path.toString();
+            Map<String, String> params = paramCount == 0 ? null : new HashMap<>(paramCount);
+            if (matchParts(s, params) == s.length()) {
+                return new PositiveResult(params);
+            } else {
+                return NOT_MATCHED_RESULT;
+            }
+        }
+
+        @Override
+        public PrefixResult prefixMatch(CharSequence path) {
+            Objects.requireNonNull(path, "Parameter 'path' is null!");
+            String s = path.toString();
+            Map<String, String> params = paramCount == 0 ? null : new HashMap<>(paramCount);
+            int position = matchParts(s, params);
+            if (position == s.length()) {
+                return new PositiveResult(params, "/");
+            } else if (position >= 0 && s.length() - position > 1 && s.charAt(position) == '/') {
+                return new PositiveResult(params, s.substring(position));
+            } else {
+                return NOT_MATCHED_RESULT;
+            }
+        }
+
+        /**
+         * Matches all parts against the left part of the path.
+         *
+         * @param path   the path
+         * @param params map to put resolved parameters to
+         * @return position in the path after the last part or {@code -1} if not matched
+         */
+        private int matchParts(String path, Map<String, String> params) {
+            int position = 0;
+            for (Part part : parts) {
+                if (part.kind == Part.LITERAL) {
+                    if (!path.startsWith(part.value, position)) {
+                        return -1;
+                    }
+                    position += part.value.length();
+                } else {
+                    int end;
+                    if (part.kind == Part.PARAM) {
+                        end = path.indexOf('/', position);
+                        if (end < 0) {
+                            end = path.length();
+                        }
+                    } else {
+                        end = path.length();
+                        if (containsLineTerminator(path, position)) {
+                            // consistent with '.' of the regular expression
+                            return -1;
+                        }
+                    }
+                    if (end == position) {
+                        return -1;
+                    }
+                    if (!part.value.isEmpty()) {
+                        params.put(part.value, path.substring(position, end));
+                    }
+                    position = end;
+                }
+            }
+            return position;
+        }
+
+        private static boolean containsLineTerminator(String path, int from) {
+            for (int i = from; i < path.length(); i++) {
+                char ch = path.charAt(i);
+                if (ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the original pattern.
+         *
+         * @return the pattern
+         */
+        String pattern() {
+            return pattern;
+        }
+
+        @Override
+        public String toString() {
+            return "SegmentPathMatcher{"
+                    + "pattern='" + pattern + '\''
+                    + '}';
+        }
+
+        /**
+         * A literal or a parameter part of the pattern.
+         */
+        static final class Part {
+            private static final int LITERAL = 0;
+            private static final int PARAM = 1;
+            private static final int GREEDY_PARAM = 2;
+
+            private final int kind;
+            private final String value;
+
+            private Part(int kind, String value) {
+                this.kind = kind;
+                this.value = value;
+            }
+
+            static Part literal(String literal) {
+                return new Part(LITERAL, literal);
+            }
+
+            static Part param(String name) {
+                return new Part(PARAM, name);
+            }
+
+            static Part greedy(String name) {
+                return new Part(GREEDY_PARAM, name);
+            }
+        }
+    }
+
     /**
      * Regular expression based matcher.
      */
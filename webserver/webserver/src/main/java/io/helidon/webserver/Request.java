@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,18 +23,17 @@ import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringTokenizer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Flow;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -48,6 +47,7 @@ import io.helidon.media.common.ContentReaders;
 import io.helidon.tracing.config.SpanTracingConfig;
 import io.helidon.tracing.config.TracingConfigUtil;
 
+import io.netty.handler.codec.http.HttpHeaders;
 import io.opentracing.Span;
 import io.opentracing.SpanContext;
 import io.opentracing.Tracer;
@@ -82,8 +82,9 @@ abstract class Request implements ServerRequest {
         this.webServer = webServer;
         this.context = ContextualRegistry.create(webServer.context());
         this.queryParams = UriComponent.decodeQuery(req.uri().getRawQuery(), true);
-        this.headers = new HashRequestHeaders(bareRequest.headers());
-        this.content = new Content();
+        String decompressedEncoding = decompressedEncoding(req);
+        this.headers = requestHeaders(req, decompressedEncoding != null);
+        this.content = new Content(decompressedEncoding);
     }
 
     /**
@@ -100,6 +101,57 @@ abstract class Request implements ServerRequest {
         this.content = new Content(request.content);
     }
 
+    /**
+     * The content encoding of the request if its content is decompressed by the server.
+     *
+     * @param bareRequest bare request
+     * @return the {@code Content-Encoding} header value or {@code null} if the content is passed as is
+     */
+    private static String decompressedEncoding(BareRequest bareRequest) {
+        SocketConfiguration socketConfig = bareRequest.socketConfiguration();
+        if (socketConfig == null || !socketConfig.compression().requestDecompression()) {
+            return null;
+        }
+        String encoding = null;
+        if (bareRequest instanceof BareRequestImpl) {
+            encoding = ((BareRequestImpl) bareRequest).nettyHeaders().get(Http.Header.CONTENT_ENCODING);
+        } else {
+            for (Map.Entry<String, List<String>> entry : bareRequest.headers().entrySet()) {
+                if (Http.Header.CONTENT_ENCODING.equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty()) {
+                    encoding = entry.getValue().get(0);
+                    break;
+                }
+            }
+        }
+        return ContentDecompressingPublisher.supports(encoding) ? encoding : null;
+    }
+
+    /**
+     * Headers of the request. Once the content is decompressed, {@code Content-Encoding} and {@code Content-Length}
+     * no longer describe it and are removed.
+     *
+     * @param bareRequest  bare request
+     * @param decompressed whether the content is decompressed by the server
+     * @return request headers
+     */
+    private static RequestHeaders requestHeaders(BareRequest bareRequest, boolean decompressed) {
+        if (bareRequest instanceof BareRequestImpl) {
+            HttpHeaders nettyHeaders = ((BareRequestImpl) bareRequest).nettyHeaders();
+            if (decompressed) {
+                nettyHeaders.remove(Http.Header.CONTENT_ENCODING);
+                nettyHeaders.remove(Http.Header.CONTENT_LENGTH);
+            }
+            return new NettyRequestHeaders(nettyHeaders);
+        }
+        Map<String, List<String>> headers = bareRequest.headers();
+        if (decompressed) {
+            headers = new HashMap<>(headers);
+            headers.keySet().removeIf(name -> Http.Header.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || Http.Header.CONTENT_LENGTH.equalsIgnoreCase(name));
+        }
+        return new HashRequestHeaders(headers);
+    }
+
     /**
      * Obtain the charset from the request.
      *
@@ -179,6 +231,10 @@ abstract class Request implements ServerRequest {
         return bareRequest.isSecure();
     }
 
+    BareRequest bareRequest() {
+        return bareRequest;
+    }
+
     @Override
     public RequestHeaders headers() {
         return headers;
@@ -220,47 +276,109 @@ abstract class Request implements ServerRequest {
         }
     }
 
+    /**
+     * Index of the content readers, in lookup order, together with the reader resolved for each requested type.
+     * The default readers are indexed once and shared by all requests. Registering a reader forks an immutable
+     * overlay of the readers registered on the request that falls back to the shared index, so a request that
+     * registers nothing allocates nothing. A lookup never sees a stale resolution and never takes a lock.
+     */
+    private static final class ReaderIndex {
+
+        // the charset depends on the request, stands for the string reader of the request
+        private static final InternalReader<String> STRING_READER = reader(String.class, null);
+        private static final ReaderIndex DEFAULT = new ReaderIndex(new InternalReader<?>[] {
+                STRING_READER,
+                reader(byte[].class, ContentReaders.byteArrayReader()),
+                reader(InputStream.class, ContentReaders.inputStreamReader())
+        }, null);
+
+        private final InternalReader<?>[] readers;
+        private final ReaderIndex parent;
+        // created by the first lookup, a lost race only costs another scan
+        private volatile Map<Class<?>, InternalReader<?>> byType;
+
+        private ReaderIndex(InternalReader<?>[] readers, ReaderIndex parent) {
+            this.readers = readers;
+            this.parent = parent;
+        }
+
+        private ReaderIndex prepend(InternalReader<?> reader) {
+            if (parent == null) {
+                return new ReaderIndex(new InternalReader<?>[] {reader}, this);
+            }
+            InternalReader<?>[] newReaders = new InternalReader<?>[readers.length + 1];
+            newReaders[0] = reader;
+            System.arraycopy(readers, 0, newReaders, 1, readers.length);
+            return new ReaderIndex(newReaders, parent);
+        }
+
+        private InternalReader<?> find(Class<?> type) {
+            Map<Class<?>, InternalReader<?>> cache = byType;
+            if (cache == null) {
+                cache = new ConcurrentHashMap<>();
+                byType = cache;
+            }
+            InternalReader<?> result = cache.get(type);
+            if (result == null) {
+                for (InternalReader<?> reader : readers) {
+                    if (reader.accept(type)) {
+                        result = reader;
+                        break;
+                    }
+                }
+                if (result == null && parent != null) {
+                    result = parent.find(type);
+                }
+                if (result != null) {
+                    cache.putIfAbsent(type, result);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static <T> InternalReader<T> reader(Class<T> clazz, Reader<T> reader) {
+        return new InternalReader<>(aClass -> clazz.isAssignableFrom(aClass), reader);
+    }
+
     class Content implements io.helidon.common.http.Content {
 
         private final Flow.Publisher<DataChunk> originalPublisher;
-        private final Deque<InternalReader<?>> readers;
+        private final AtomicReference<ReaderIndex> readers;
         private final List<Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>>> filters;
-        private final ReadWriteLock readersLock;
-        private final ReadWriteLock filtersLock;
+        private final Reader<String> stringReader;
 
-        private Content() {
+        private Content(String decompressedEncoding) {
             this.originalPublisher = bareRequest.bodyPublisher();
-            this.readers = appendDefaultReaders(new LinkedList<>());
-            this.filters = new ArrayList<>();
-            this.readersLock = new ReentrantReadWriteLock();
-            this.filtersLock = new ReentrantReadWriteLock();
+            this.readers = new AtomicReference<>(ReaderIndex.DEFAULT);
+            // parses the Content-Type up front, a malformed one fails the request right away
+            this.stringReader = stringContentReader();
+            this.filters = appendDefaultFilters(new CopyOnWriteArrayList<>(), decompressedEncoding);
         }
 
         private Content(Content orig) {
             this.originalPublisher = orig.originalPublisher;
             this.readers = orig.readers;
             this.filters = orig.filters;
-            this.readersLock = orig.readersLock;
-            this.filtersLock = orig.filtersLock;
+            this.stringReader = orig.stringReader;
         }
 
-        private Deque<InternalReader<?>> appendDefaultReaders(final Deque<InternalReader<?>> readers) {
-            readers.addLast(reader(String.class, stringContentReader()));
-            readers.addLast(reader(byte[].class, ContentReaders.byteArrayReader()));
-            readers.addLast(reader(InputStream.class, ContentReaders.inputStreamReader()));
-            return readers;
+        private List<Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>>> appendDefaultFilters(
+                final List<Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>>> filters,
+                final String decompressedEncoding) {
+
+            if (decompressedEncoding != null) {
+                long maxSize = bareRequest.socketConfiguration().compression().maxDecompressedSize();
+                filters.add(publisher -> ContentDecompressingPublisher.create(publisher, decompressedEncoding, maxSize));
+            }
+            return filters;
         }
 
         @Override
         public void registerFilter(Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>> function) {
 
             Objects.requireNonNull(function, "Parameter 'function' is null!");
-            try {
-                filtersLock.writeLock().lock();
-                filters.add(function);
-            } finally {
-                filtersLock.writeLock().unlock();
-            }
+            filters.add(function);
         }
 
         @Override
@@ -274,16 +392,7 @@ abstract class Request implements ServerRequest {
         }
 
         public <T> void register(InternalReader<T> reader) {
-            try {
-                readersLock.writeLock().lock();
-                readers.addFirst(reader);
-            } finally {
-                readersLock.writeLock().unlock();
-            }
-        }
-
-        private <T> InternalReader<T> reader(Class<T> clazz, Reader<T> reader) {
-            return new InternalReader<>(aClass -> clazz.isAssignableFrom(aClass), reader);
+            readers.updateAndGet(index -> index.prepend(reader));
         }
 
         @Override
@@ -292,14 +401,11 @@ abstract class Request implements ServerRequest {
             Span readSpan = createReadSpan(type);
             CompletionStage<T> result;
             try {
-                readersLock.readLock().lock();
                 result = (CompletionStage<T>) readerFor(type).apply(chainPublishers(), type);
             } catch (IllegalArgumentException e) {
                 result = failedFuture(e);
             } catch (Exception e) {
                 result = failedFuture(new IllegalArgumentException("Transformation failed!", e));
-            } finally {
-                readersLock.readLock().unlock();
             }
             // Close span
             if (null != readSpan) {
@@ -355,10 +461,14 @@ abstract class Request implements ServerRequest {
 
         @SuppressWarnings("unchecked")
         private <T> Reader<T> readerFor(final Class<T> type) {
-            return (Reader<T>) readers.stream()
-                                      .filter(reader -> reader.accept(type))
-                                      .findFirst()
-                                      .orElseThrow(() -> new IllegalArgumentException("No reader found for class: " + type));
+            InternalReader<?> reader = (type == null) ? null : readers.get().find(type);
+            if (reader == null) {
+                throw new IllegalArgumentException("No reader found for class: " + type);
+            }
+            if (reader == ReaderIndex.STRING_READER) {
+                return (Reader<T>) stringReader;
+            }
+            return (Reader<T>) reader;
         }
 
         private Reader<String> stringContentReader() {
@@ -415,13 +525,8 @@ abstract class Request implements ServerRequest {
 
         private Flow.Publisher<DataChunk> chainPublishers() {
             Flow.Publisher<DataChunk> lastPublisher = originalPublisher;
-            try {
-                filtersLock.readLock().lock();
-                for (Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>> filter : filters) {
-                    lastPublisher = filter.apply(lastPublisher);
-                }
-            } finally {
-                filtersLock.readLock().unlock();
+            for (Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>> filter : filters) {
+                lastPublisher = filter.apply(lastPublisher);
             }
             return lastPublisher;
         }
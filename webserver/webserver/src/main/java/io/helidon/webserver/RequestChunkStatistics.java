@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of request payload chunks created by all web servers in this JVM, intended to detect
+ * request chunks the application does not {@link io.helidon.common.http.DataChunk#release() release}.
+ * <p>
+ * A chunk that is not released by the application is a leak. It is released by the server either when its
+ * request completes or, if {@link ServerConfiguration#requestChunkGcRelease()} is enabled, once it is garbage
+ * collected. The counters can be exposed as metrics, e.g. as gauges.
+ */
+public final class RequestChunkStatistics {
+
+    private static final LongAdder CREATED = new LongAdder();
+    private static final LongAdder RELEASED_ON_COMPLETION = new LongAdder();
+    private static final LongAdder RELEASED_BY_GC = new LongAdder();
+
+    private RequestChunkStatistics() {
+    }
+
+    /**
+     * Number of request chunks created.
+     *
+     * @return number of created chunks
+     */
+    public static long created() {
+        return CREATED.sum();
+    }
+
+    /**
+     * Number of request chunks not released by the application that were released by the server
+     * when their request completed.
+     *
+     * @return number of leaked chunks released on request completion
+     */
+    public static long releasedOnCompletion() {
+        return RELEASED_ON_COMPLETION.sum();
+    }
+
+    /**
+     * Number of request chunks not released by the application that were released by the server
+     * after they were garbage collected.
+     *
+     * @return number of leaked chunks released after garbage collection
+     */
+    public static long releasedByGc() {
+        return RELEASED_BY_GC.sum();
+    }
+
+    static void onCreated() {
+        CREATED.increment();
+    }
+
+    static void onReleasedOnCompletion(int count) {
+        RELEASED_ON_COMPLETION.add(count);
+    }
+
+    static void onReleasedByGc() {
+        RELEASED_BY_GC.increment();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Request payload chunks of a single request.
+ * <p>
+ * By default, chunks are tracked until released and chunks the application did not release are released
+ * deterministically by {@link #requestCompleted()}. If the garbage collector based release is configured,
+ * chunks are linked to a {@link ReferenceHoldingQueue} instead and released once garbage collected.
+ *
+ * @see ServerConfiguration#requestChunkGcRelease()
+ */
+final class RequestChunks {
+
+    private static final Logger LOGGER = Logger.getLogger(RequestChunks.class.getName());
+
+    private final Set<ByteBufRequestChunk> outstanding;
+    private final ReferenceHoldingQueue<DataChunk> queue;
+
+    private RequestChunks(Set<ByteBufRequestChunk> outstanding, ReferenceHoldingQueue<DataChunk> queue) {
+        this.outstanding = outstanding;
+        this.queue = queue;
+    }
+
+    /**
+     * Creates chunks of a new request.
+     *
+     * @param gcRelease whether to use the garbage collector based release
+     * @return new request chunks
+     */
+    static RequestChunks create(boolean gcRelease) {
+        if (gcRelease) {
+            return new RequestChunks(null, new ByteBufRequestChunk.RefHoldingQueue());
+        }
+        return new RequestChunks(ConcurrentHashMap.newKeySet(), null);
+    }
+
+    /**
+     * Wraps a buffer of the request payload.
+     *
+     * @param data the buffer
+     * @return a new chunk
+     */
+    DataChunk wrap(ByteBuf data) {
+        if (queue == null) {
+            return new ByteBufRequestChunk.Tracked(data, this);
+        }
+        return new ByteBufRequestChunk.GcReleased(data, queue);
+    }
+
+    /**
+     * Releases chunks that were garbage collected. Does nothing for tracked chunks, these are released
+     * by {@link #requestCompleted()}.
+     *
+     * @return whether there is nothing else to release
+     */
+    boolean releaseCollected() {
+        if (queue == null) {
+            return false;
+        }
+        return queue.release();
+    }
+
+    /**
+     * Invoked when the response is completed or the connection was closed. Releases all tracked chunks
+     * the application did not release.
+     *
+     * @return whether there is nothing else to release
+     */
+    boolean requestCompleted() {
+        if (queue == null) {
+            int released = releaseAll();
+            if (released > 0) {
+                RequestChunkStatistics.onReleasedOnCompletion(released);
+                LOGGER.fine(() -> "Released " + released + " request chunks not released by the application.");
+            }
+            return true;
+        }
+        return queue.release();
+    }
+
+    /**
+     * Releases all chunks, invoked when the server shuts down.
+     */
+    void shutdown() {
+        if (queue == null) {
+            releaseAll();
+        } else {
+            queue.shutdown();
+        }
+    }
+
+    void track(ByteBufRequestChunk chunk) {
+        outstanding.add(chunk);
+    }
+
+    void untrack(ByteBufRequestChunk chunk) {
+        outstanding.remove(chunk);
+    }
+
+    private int releaseAll() {
+        int released = 0;
+        for (ByteBufRequestChunk chunk : outstanding) {
+            if (!chunk.isReleased()) {
+                chunk.release();
+                released++;
+            }
+        }
+        return released;
+    }
+}
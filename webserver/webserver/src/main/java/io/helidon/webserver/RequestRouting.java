@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package io.helidon.webserver;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -112,7 +113,8 @@ class RequestRouting implements Routing {
      */
     private static class Crawler {
 
-        private final List<Route> routes;
+        private final RouteList routes;
+        private final BitSet candidates;
         private final Request.Path contextPath;
         private final String path;
         private final String rawPath;
@@ -130,9 +132,10 @@ class RequestRouting implements Routing {
          * @param rawPath     not decoded URI path to route.
          * @param method      an HTTP method to route.
          */
-        private Crawler(List<Route> routes, Request.Path contextPath, String path, String rawPath,
+        private Crawler(RouteList routes, Request.Path contextPath, String path, String rawPath,
                         Http.RequestMethod method) {
             this.routes = routes;
+            this.candidates = routes.candidates(path);
             this.path = path;
             this.rawPath = rawPath;
             this.contextPath = contextPath;
@@ -147,18 +150,19 @@ class RequestRouting implements Routing {
          * @param rawPath not decoded URI path to route.
          * @param method an HTTP method to route.
          */
-        Crawler(List<Route> routes, String path, String rawPath, Http.RequestMethod method) {
+        Crawler(RouteList routes, String path, String rawPath, Http.RequestMethod method) {
             this(routes, null, path, rawPath, method);
         }
 
         /**
          * Returns next {@link HandlerRoute} to execute or {@code null} if there are no more acceptable routes.
+         * Only routes which are {@link RouteList#candidates(String) candidates} for the path are tested.
          * It is not synchronized.
          *
          * @return a next item.
          */
         public Item next() {
-            while ((subCrawler != null) || (++index < routes.size())) {
+            while ((subCrawler != null) || (nextCandidate() >= 0)) {
                 if (subCrawler != null) {
                     Item result = subCrawler.next();
                     if (result != null) {
@@ -199,6 +203,13 @@ class RequestRouting implements Routing {
             return null;
         }
 
+        private int nextCandidate() {
+            int next = candidates.nextSetBit(index + 1);
+            // once exhausted, stay exhausted
+            index = next < 0 ? routes.size() : next;
+            return next;
+        }
+
         /**
          * Represents single accepted {@link HandlerRoute} with resolved {@code path parameters}.
          */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,24 +18,26 @@ package io.helidon.webserver;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Multi;
 import io.helidon.common.reactive.Single;
 import io.helidon.media.common.ContentWriters;
 import io.helidon.tracing.config.SpanTracingConfig;
@@ -50,6 +52,12 @@ import io.opentracing.Tracer;
  */
 abstract class Response implements ServerResponse {
     private static final String TRACING_CONTENT_WRITE = "content-write";
+    private static final ClassValue<DefaultWriter> DEFAULT_WRITERS = new ClassValue<>() {
+        @Override
+        protected DefaultWriter computeValue(Class<?> type) {
+            return DefaultWriter.forType(type);
+        }
+    };
 
     private final WebServer webServer;
     private final BareResponse bareResponse;
@@ -59,7 +67,7 @@ abstract class Response implements ServerResponse {
 
     // Content related
     private final SendLockSupport sendLockSupport;
-    private final ArrayList<Writer<?>> writers;
+    private final AtomicReference<WriterIndex> writers;
     private final ArrayList<Function<Flow.Publisher<DataChunk>, Flow.Publisher<DataChunk>>> filters;
 
     /**
@@ -74,7 +82,7 @@ abstract class Response implements ServerResponse {
         this.headers = new HashResponseHeaders(bareResponse);
         this.completionStage = bareResponse.whenCompleted().thenApply(a -> this);
         this.sendLockSupport = new SendLockSupport();
-        this.writers = new ArrayList<>();
+        this.writers = new AtomicReference<>(WriterIndex.EMPTY);
         this.filters = new ArrayList<>();
     }
 
@@ -204,13 +212,11 @@ abstract class Response implements ServerResponse {
             return Single.empty();
         }
 
-        // Try to get a publisher from registered writers
-        synchronized (sendLockSupport) {
-            for (int i = writers.size() - 1; i >= 0; i--) {
-                Writer<T> writer = (Writer<T>) writers.get(i);
-                if (writer.accept(content)) {
-                    return writer.function.apply(content);
-                }
+        // Try to get a publisher from registered writers, the last registered first
+        for (Writer<?> candidate : writers.get().candidates(content.getClass())) {
+            Writer<T> writer = (Writer<T>) candidate;
+            if (writer.accept(content)) {
+                return writer.function.apply(content);
             }
         }
 
@@ -218,19 +224,20 @@ abstract class Response implements ServerResponse {
     }
 
     private <T> Flow.Publisher<DataChunk> createDefaultPublisher(T content) {
-        final Class<?> type = content.getClass();
-        if (File.class.isAssignableFrom(type)) {
+        switch (DEFAULT_WRITERS.get(content.getClass())) {
+        case FILE:
             return toPublisher(((File) content).toPath());
-        } else if (Path.class.isAssignableFrom(type)) {
+        case PATH:
             return toPublisher((Path) content);
-        } else if (ReadableByteChannel.class.isAssignableFrom(type)) {
+        case BYTE_CHANNEL:
             return ContentWriters.byteChannelWriter().apply((ReadableByteChannel) content);
-        } else if (CharSequence.class.isAssignableFrom(type)) {
+        case CHAR_SEQUENCE:
             return toPublisher((CharSequence) content);
-        } else if (byte[].class.isAssignableFrom(type)) {
+        case BYTE_ARRAY:
             return ContentWriters.byteArrayWriter(true).apply((byte[]) content);
+        default:
+            return null;
         }
-        return null;
     }
 
     private Flow.Publisher<DataChunk> toPublisher(CharSequence s) {
@@ -241,30 +248,30 @@ abstract class Response implements ServerResponse {
     }
 
     private Flow.Publisher<DataChunk> toPublisher(Path path) {
-        // Set response length - if possible
+        // Is it existing and readable file
+        if (!Files.exists(path)) {
+            throw new IllegalArgumentException("File path argument doesn't exist!");
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("File path argument isn't a file!");
+        }
+        if (!Files.isReadable(path)) {
+            throw new IllegalArgumentException("File path argument isn't readable!");
+        }
+        long size;
         try {
-            // Is it existing and readable file
-            if (!Files.exists(path)) {
-                throw new IllegalArgumentException("File path argument doesn't exist!");
-            }
-            if (!Files.isRegularFile(path)) {
-                throw new IllegalArgumentException("File path argument isn't a file!");
-            }
-            if (!Files.isReadable(path)) {
-                throw new IllegalArgumentException("File path argument isn't readable!");
-            }
-            // Try to write length
-            try {
-                headers.contentLength(Files.size(path));
-            } catch (Exception e) {
-                // Cannot get length or write length, not a big deal
-            }
-            // And write
-            FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
-            return ContentWriters.byteChannelWriter().apply(fc);
+            size = Files.size(path);
         } catch (IOException e) {
             throw new IllegalArgumentException("Cannot read a file!", e);
         }
+        // Try to write length
+        try {
+            headers.contentLength(size);
+        } catch (Exception e) {
+            // Cannot write length, not a big deal
+        }
+        // The file is not read here, it is transferred to the connection as a region
+        return Multi.just(FileRegionChunk.create(path, 0, size));
     }
 
     @Override
@@ -276,7 +283,8 @@ abstract class Response implements ServerResponse {
     public <T> Response registerWriter(Class<T> type,
                                        MediaType contentType,
                                        Function<? extends T, Flow.Publisher<DataChunk>> function) {
-        sendLockSupport.execute(() -> writers.add(new Writer<>(type, contentType, function)), false);
+        Writer<?> writer = new Writer<>(type, contentType, function);
+        sendLockSupport.execute(() -> writers.updateAndGet(index -> index.prepend(writer)), false);
         return this;
     }
 
@@ -289,7 +297,8 @@ abstract class Response implements ServerResponse {
     public <T> Response registerWriter(Predicate<?> accept,
                                        MediaType contentType,
                                        Function<T, Flow.Publisher<DataChunk>> function) {
-        sendLockSupport.execute(() -> writers.add(new Writer<>(accept, contentType, function)), false);
+        Writer<?> writer = new Writer<>(accept, contentType, function);
+        sendLockSupport.execute(() -> writers.updateAndGet(index -> index.prepend(writer)), false);
         return this;
     }
 
@@ -316,24 +325,109 @@ abstract class Response implements ServerResponse {
         return completionStage;
     }
 
+    /**
+     * Immutable snapshot of the registered writers, in lookup order, together with the writers that may accept each
+     * content type written so far. Writers registered for a type are only candidates for its subtypes, writers
+     * registered with a predicate are candidates for every type. Registering a writer replaces the whole snapshot,
+     * a response without registered writers shares the empty one. The cache is created by the first lookup, so the
+     * snapshots replaced while writers are registered allocate only their array.
+     */
+    private static final class WriterIndex {
+
+        private static final WriterIndex EMPTY = new WriterIndex(new Writer<?>[0]);
+
+        private final Writer<?>[] writers;
+        // a lost race only costs another scan
+        private volatile Map<Class<?>, Writer<?>[]> byType;
+
+        private WriterIndex(Writer<?>[] writers) {
+            this.writers = writers;
+        }
+
+        private WriterIndex prepend(Writer<?> writer) {
+            Writer<?>[] newWriters = new Writer<?>[writers.length + 1];
+            newWriters[0] = writer;
+            System.arraycopy(writers, 0, newWriters, 1, writers.length);
+            return new WriterIndex(newWriters);
+        }
+
+        private Writer<?>[] candidates(Class<?> type) {
+            if (writers.length == 0) {
+                return writers;
+            }
+            Map<Class<?>, Writer<?>[]> cache = byType;
+            if (cache == null) {
+                cache = new ConcurrentHashMap<>();
+                byType = cache;
+            }
+            Writer<?>[] result = cache.get(type);
+            if (result == null) {
+                ArrayList<Writer<?>> candidates = new ArrayList<>(writers.length);
+                for (Writer<?> writer : writers) {
+                    if (writer.acceptType == null || writer.acceptType.isAssignableFrom(type)) {
+                        candidates.add(writer);
+                    }
+                }
+                result = candidates.toArray(new Writer<?>[0]);
+                cache.putIfAbsent(type, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Built-in writer of a content type, if any.
+     */
+    private enum DefaultWriter {
+        FILE,
+        PATH,
+        BYTE_CHANNEL,
+        CHAR_SEQUENCE,
+        BYTE_ARRAY,
+        NONE;
+
+        private static DefaultWriter forType(Class<?> type) {
+            if (File.class.isAssignableFrom(type)) {
+                return FILE;
+            } else if (Path.class.isAssignableFrom(type)) {
+                return PATH;
+            } else if (ReadableByteChannel.class.isAssignableFrom(type)) {
+                return BYTE_CHANNEL;
+            } else if (CharSequence.class.isAssignableFrom(type)) {
+                return CHAR_SEQUENCE;
+            } else if (byte[].class.isAssignableFrom(type)) {
+                return BYTE_ARRAY;
+            }
+            return NONE;
+        }
+    }
+
     class Writer<T> {
+        private final Class<?> acceptType;
         private final Predicate<Object> acceptPredicate;
         private final MediaType requestedContentType;
         private final Function<T, Flow.Publisher<DataChunk>> function;
 
         Writer(Predicate acceptPredicate, MediaType contentType, Function<T, Flow.Publisher<DataChunk>> function) {
+            this(null, acceptPredicate, contentType, function);
+        }
+
+        Writer(Class<?> acceptType, MediaType contentType, Function<T, Flow.Publisher<DataChunk>> function) {
+            // the type is matched by the writer index already
+            this(acceptType, null, contentType, function);
+        }
+
+        private Writer(Class<?> acceptType,
+                       Predicate acceptPredicate,
+                       MediaType contentType,
+                       Function<T, Flow.Publisher<DataChunk>> function) {
             Objects.requireNonNull(function, "Parameter function is null!");
+            this.acceptType = acceptType;
             this.acceptPredicate = acceptPredicate == null ? o -> true : acceptPredicate;
             this.requestedContentType = contentType;
             this.function = function;
         }
 
-        Writer(Class<?> acceptType, MediaType contentType, Function<T, Flow.Publisher<DataChunk>> function) {
-            this(acceptType == null ? null : (Predicate) o -> acceptType.isAssignableFrom(o.getClass()),
-                 contentType,
-                 function);
-        }
-
         boolean accept(Object o) {
             if (o == null || !acceptPredicate.test(o)) {
                 return false;
@@ -360,6 +454,10 @@ abstract class Response implements ServerResponse {
         return bareResponse.requestId();
     }
 
+    BareResponse bareResponse() {
+        return bareResponse;
+    }
+
     private static class SendLockSupport {
 
         private boolean contentSend = false;
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A path segment trie of routes of a single {@link RouteList}.
+ * <p>
+ * For a given path it returns indexes of routes which can possibly match the path, so the routing doesn't have to
+ * test each route one by one. Literal segments are looked up in a hash map, segments containing parameters match any
+ * single segment and a trailing greedy parameter matches any non empty rest of the path. Routes which cannot
+ * be indexed (custom {@link PathMatcher}s, regular expression patterns, routes matching any path) are returned
+ * as candidates of any path. The final decision including resolution of path parameters is still done by the route's
+ * own {@link PathMatcher}, the index is only a filter which never excludes a route which would match.
+ */
+final class RouteIndex {
+
+    private final Node root = new Node();
+    private final BitSet anyPath = new BitSet();
+    private final int size;
+
+    private RouteIndex(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Creates the index of the provided routes.
+     *
+     * @param routes routes in the routing order
+     * @return a new index
+     */
+    static RouteIndex create(List<Route> routes) {
+        RouteIndex index = new RouteIndex(routes.size());
+        for (int i = 0; i < routes.size(); i++) {
+            Route route = routes.get(i);
+            if (route instanceof HandlerRoute) {
+                index.add(i, ((HandlerRoute) route).pathMatcher(), false);
+            } else if (route instanceof RouteList) {
+                index.add(i, ((RouteList) route).pathContext(), true);
+            } else {
+                index.anyPath.set(i);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns indexes of routes which can possibly match the path, in ascending order.
+     *
+     * @param path resolved and normalized URI path
+     * @return indexes of candidate routes
+     */
+    BitSet candidates(String path) {
+        BitSet result = (BitSet) anyPath.clone();
+        if (!path.isEmpty() && path.charAt(0) != '/') {
+            result.set(0, size);
+            return result;
+        }
+        // path "/" has no segments
+        collect(root, path, path.length() <= 1 ? path.length() : 0, result);
+        return result;
+    }
+
+    private void add(int routeIndex, PathMatcher matcher, boolean prefix) {
+        List<String> segments = segments(matcher);
+        if (segments == null) {
+            anyPath.set(routeIndex);
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (segment.contains("{+")) {
+                // greedy parameter must be the last one, it consumes at least one more segment
+                node.greedy.set(routeIndex);
+                return;
+            } else if (segment.indexOf('{') >= 0) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        if (prefix) {
+            node.prefix.set(routeIndex);
+        } else {
+            node.exact.set(routeIndex);
+        }
+    }
+
+    /**
+     * Collects routes matching the rest of the path starting at the given position.
+     *
+     * @param node     current node
+     * @param path     the path
+     * @param position position of the {@code '/'} preceding next segment, or the path length if there is no next segment
+     * @param result   collected route indexes
+     */
+    private void collect(Node node, String path, int position, BitSet result) {
+        result.or(node.prefix);
+        if (position >= path.length()) {
+            result.or(node.exact);
+            return;
+        }
+        result.or(node.greedy);
+        int start = position + 1;
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        if (end == start) {
+            // empty segment doesn't match any literal or parameter
+            return;
+        }
+        if (!node.literals.isEmpty()) {
+            Node child = node.literals.get(path.substring(start, end));
+            if (child != null) {
+                collect(child, path, end, result);
+            }
+        }
+        if (node.wildcard != null) {
+            collect(node.wildcard, path, end, result);
+        }
+    }
+
+    /**
+     * Splits the pattern of a matcher into segments.
+     *
+     * @param matcher a path matcher
+     * @return segments or {@code null} if the matcher cannot be indexed
+     */
+    private static List<String> segments(PathMatcher matcher) {
+        String pattern;
+        if (matcher instanceof PathPattern.CanonicalPathMatcher) {
+            pattern = ((PathPattern.CanonicalPathMatcher) matcher).pattern();
+        } else if (matcher instanceof PathPattern.SegmentPathMatcher) {
+            pattern = ((PathPattern.SegmentPathMatcher) matcher).pattern();
+        } else {
+            return null;
+        }
+        if (pattern.isEmpty() || pattern.charAt(0) != '/') {
+            return null;
+        }
+        List<String> result = new ArrayList<>();
+        if (pattern.length() == 1) {
+            return result;
+        }
+        int start = 1;
+        while (start <= pattern.length()) {
+            int end = pattern.indexOf('/', start);
+            if (end < 0) {
+                end = pattern.length();
+            }
+            if (end == start) {
+                // empty segment or trailing slash
+                return null;
+            }
+            result.add(pattern.substring(start, end));
+            start = end + 1;
+        }
+        return result;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final BitSet exact = new BitSet();
+        private final BitSet prefix = new BitSet();
+        private final BitSet greedy = new BitSet();
+        private Node wildcard;
+    }
+}
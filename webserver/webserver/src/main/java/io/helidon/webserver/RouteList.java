@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package io.helidon.webserver;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -35,6 +36,7 @@ class RouteList extends ArrayList<Route> implements Route {
     // must declare transient, as ArrayList is Serializable (and we are not)
     private final transient PathMatcher pathContext;
     private final transient HttpMethodPredicate methodPredicate;
+    private final transient RouteIndex index;
 
     /**
      * Creates new instance.
@@ -66,6 +68,7 @@ class RouteList extends ArrayList<Route> implements Route {
             this.methodPredicate = null;
         }
         this.pathContext = pathContext;
+        this.index = RouteIndex.create(this);
     }
 
     /**
@@ -103,6 +106,17 @@ class RouteList extends ArrayList<Route> implements Route {
         return pathContext == null ? EMPTY_PATH_MATCHER.prefixMatch(path) : pathContext.prefixMatch(path);
     }
 
+    /**
+     * Returns indexes of routes which can possibly match provided URI path, in the routing order.
+     * Each candidate must still be tested by its own {@link PathMatcher}.
+     *
+     * @param path resolved and normalized URI path (the remaining part of the path context prefix match).
+     * @return indexes of candidate routes.
+     */
+    BitSet candidates(String path) {
+        return index.candidates(path);
+    }
+
     // ***********************************
     // ***    Make a list immutable.   ***
     // ***********************************
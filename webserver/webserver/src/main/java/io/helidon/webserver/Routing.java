@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package io.helidon.webserver;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -613,6 +614,37 @@ public interface Routing {
             delegate.onNewWebServer(webServerConsumer);
             return this;
         }
+
+        // --------------- WEBSOCKET API
+
+        /**
+         * Routes WebSocket upgrade requests matching the path pattern to the endpoint, with
+         * {@link WebSocketConfiguration#DEFAULT default configuration}. Other {@code GET} requests are passed
+         * to the next handler.
+         *
+         * @param pathPattern a URI path pattern
+         * @param endpoint    the endpoint
+         * @return an updated builder
+         */
+        public Builder webSocket(String pathPattern, WebSocketEndpoint endpoint) {
+            return webSocket(pathPattern, WebSocketConfiguration.DEFAULT, endpoint);
+        }
+
+        /**
+         * Routes WebSocket upgrade requests matching the path pattern to the endpoint. Other {@code GET} requests
+         * are passed to the next handler.
+         *
+         * @param pathPattern a URI path pattern
+         * @param config      configuration of the connections
+         * @param endpoint    the endpoint
+         * @return an updated builder
+         */
+        public Builder webSocket(String pathPattern, WebSocketConfiguration config, WebSocketEndpoint endpoint) {
+            Objects.requireNonNull(config, "Parameter 'config' is null!");
+            Objects.requireNonNull(endpoint, "Parameter 'endpoint' is null!");
+            delegate.get(pathPattern, new WebSocketUpgradeHandler(config, endpoint));
+            return this;
+        }
         // --------------- ERROR API
 
         /**
@@ -38,8 +38,11 @@ class ServerBasicConfig implements ServerConfiguration {
     private final Tracer tracer;
     private final Map<String, SocketConfiguration> socketConfigs;
     private final ExperimentalConfiguration experimental;
+    private final Http2Configuration http2;
     private final ContextualRegistry context;
     private final boolean printFeatureDetails;
+    private final Transport transport;
+    private final boolean requestChunkGcRelease;
 
     /**
      * Creates new instance.
@@ -51,8 +54,11 @@ class ServerBasicConfig implements ServerConfiguration {
         this.workers = builder.workers();
         this.tracer = builder.tracer();
         this.experimental = builder.experimental();
+        this.http2 = builder.http2();
         this.context = builder.context();
         this.printFeatureDetails = builder.printFeatureDetails();
+        this.transport = builder.transport();
+        this.requestChunkGcRelease = builder.requestChunkGcRelease();
 
         HashMap<String, SocketConfiguration> map = new HashMap<>(builder.sockets());
         map.put(ServerConfiguration.DEFAULT_SOCKET_NAME, this.socketConfig);
@@ -99,6 +105,21 @@ class ServerBasicConfig implements ServerConfiguration {
         return socketConfig.receiveBufferSize();
     }
 
+    @Override
+    public int acceptors() {
+        return socketConfig.acceptors();
+    }
+
+    @Override
+    public CompressionConfiguration compression() {
+        return socketConfig.compression();
+    }
+
+    @Override
+    public AdmissionConfiguration admission() {
+        return socketConfig.admission();
+    }
+
     @Override
     public Tracer tracer() {
         return tracer;
@@ -114,6 +135,11 @@ class ServerBasicConfig implements ServerConfiguration {
         return experimental;
     }
 
+    @Override
+    public Http2Configuration http2() {
+        return http2 == null ? ServerConfiguration.super.http2() : http2;
+    }
+
     @Override
     public Context context() {
         return context;
@@ -124,6 +150,16 @@ class ServerBasicConfig implements ServerConfiguration {
         return printFeatureDetails;
     }
 
+    @Override
+    public Transport transport() {
+        return transport;
+    }
+
+    @Override
+    public boolean requestChunkGcRelease() {
+        return requestChunkGcRelease;
+    }
+
     static class SocketConfig implements SocketConfiguration {
 
         private final int port;
@@ -131,6 +167,9 @@ class ServerBasicConfig implements ServerConfiguration {
         private final int backlog;
         private final int timeoutMillis;
         private final int receiveBufferSize;
+        private final int acceptors;
+        private final CompressionConfiguration compression;
+        private final AdmissionConfiguration admission;
         private final SSLContext sslContext;
         private final Set<String> enabledSslProtocols;
 
@@ -143,6 +182,9 @@ class ServerBasicConfig implements ServerConfiguration {
          * @param backlog           a maximum length of the queue of incoming connections
          * @param timeoutMillis     a socket timeout in milliseconds or {@code 0} for infinite
          * @param receiveBufferSize proposed TCP receive window size in bytes
+         * @param acceptors         a number of server channels bound to the same port
+         * @param compression       HTTP response compression configuration
+         * @param admission         admission control configuration
          */
         SocketConfig(int port,
                      InetAddress bindAddress,
@@ -150,12 +192,18 @@ class ServerBasicConfig implements ServerConfiguration {
                      Set<String> sslProtocols,
                      int backlog,
                      int timeoutMillis,
-                     int receiveBufferSize) {
+                     int receiveBufferSize,
+                     int acceptors,
+                     CompressionConfiguration compression,
+                     AdmissionConfiguration admission) {
             this.port = port <= 0 ? 0 : port;
             this.bindAddress = bindAddress;
             this.backlog = backlog <= 0 ? DEFAULT_BACKLOG_SIZE : backlog;
             this.timeoutMillis = timeoutMillis <= 0 ? 0 : timeoutMillis;
             this.receiveBufferSize = receiveBufferSize <= 0 ? 0 : receiveBufferSize;
+            this.acceptors = acceptors <= 0 ? 1 : acceptors;
+            this.compression = compression == null ? CompressionConfiguration.DISABLED : compression;
+            this.admission = admission == null ? AdmissionConfiguration.DISABLED : admission;
             this.sslContext = sslContext;
             this.enabledSslProtocols = sslProtocols;
         }
@@ -164,7 +212,7 @@ class ServerBasicConfig implements ServerConfiguration {
          * Creates default values instance.
          */
         SocketConfig() {
-            this(0, null, null, null, 0, 0, 0);
+            this(0, null, null, null, 0, 0, 0, 1, CompressionConfiguration.DISABLED, AdmissionConfiguration.DISABLED);
         }
 
         @Override
@@ -192,6 +240,21 @@ class ServerBasicConfig implements ServerConfiguration {
             return receiveBufferSize;
         }
 
+        @Override
+        public int acceptors() {
+            return acceptors;
+        }
+
+        @Override
+        public CompressionConfiguration compression() {
+            return compression;
+        }
+
+        @Override
+        public AdmissionConfiguration admission() {
+            return admission;
+        }
+
         @Override
         public SSLContext ssl() {
             return sslContext;
@@ -18,8 +18,10 @@ package io.helidon.webserver;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -188,14 +190,53 @@ public interface ServerConfiguration extends SocketConfiguration {
      */
     boolean printFeatureDetails();
 
+    /**
+     * Returns the Netty transport used for the server channels and event loops.
+     * <p>
+     * Default value is {@link Transport#AUTO}.
+     *
+     * @return a transport to use
+     */
+    default Transport transport() {
+        return Transport.AUTO;
+    }
+
+    /**
+     * Whether request payload chunks not released by the application are released once garbage collected, rather
+     * than when the request completes.
+     * <p>
+     * By default, the server tracks request chunks of each request and releases those the application did not
+     * release as soon as the response is completed or the connection closed. With the garbage collector based
+     * release, unreleased chunks are released only after they are garbage collected, which keeps them usable by
+     * the application after the request completes at the cost of retained direct memory.
+     *
+     * @return whether the garbage collector based release of request chunks is used
+     * @see RequestChunkStatistics
+     */
+    default boolean requestChunkGcRelease() {
+        return false;
+    }
+
+    /**
+     * Returns the HTTP/2 configuration. Falls back to the HTTP/2 configuration of {@link #experimental()}.
+     *
+     * @return HTTP/2 configuration
+     */
+    default Http2Configuration http2() {
+        ExperimentalConfiguration experimental = experimental();
+        if (experimental != null && experimental.http2() != null) {
+            return experimental.http2();
+        }
+        return Http2Configuration.DISABLED;
+    }
+
     /**
      * Checks if HTTP/2 is enabled in config.
      *
      * @return Outcome of test.
      */
     default boolean isHttp2Enabled() {
-        ExperimentalConfiguration experimental = experimental();
-        return experimental != null && experimental.http2() != null && experimental.http2().enable();
+        return http2().enable();
     }
 
     /**
@@ -227,6 +268,25 @@ public interface ServerConfiguration extends SocketConfiguration {
         return new Builder().config(config);
     }
 
+    /**
+     * Network transport used by the server for its channels and event loop groups.
+     */
+    enum Transport {
+        /**
+         * Java NIO based transport; available on all platforms.
+         */
+        NIO,
+        /**
+         * Linux native epoll based transport. Requires {@code netty-transport-native-epoll} on the
+         * classpath; the server falls back to {@link #NIO} if the native library cannot be loaded.
+         */
+        EPOLL,
+        /**
+         * Uses {@link #EPOLL} if available, {@link #NIO} otherwise.
+         */
+        AUTO
+    }
+
     /**
      * A {@link ServerConfiguration} builder.
      */
@@ -237,8 +297,11 @@ public interface ServerConfiguration extends SocketConfiguration {
         private int workers;
         private Tracer tracer;
         private ExperimentalConfiguration experimental;
+        private Http2Configuration http2;
         private ContextualRegistry context;
         private boolean printFeatureDetails;
+        private Transport transport = Transport.AUTO;
+        private boolean requestChunkGcRelease;
 
         private Builder() {
         }
@@ -331,6 +394,98 @@ public interface ServerConfiguration extends SocketConfiguration {
             return this;
         }
 
+        /**
+         * Sets the number of server channels bound to the default server socket using {@code SO_REUSEPORT}.
+         * Only supported by the {@link Transport#EPOLL epoll} transport and ignored otherwise. Default value is {@code 1}.
+         * <p>
+         * Configuration key: {@code acceptors}
+         *
+         * @param acceptors a number of acceptors
+         * @return an updated builder
+         */
+        public Builder acceptors(int acceptors) {
+            this.defaultSocketBuilder.acceptors(acceptors);
+            return this;
+        }
+
+        /**
+         * Configures HTTP response compression of the default server socket.
+         * <p>
+         * Configuration key: {@code compression}
+         *
+         * @param compression a compression configuration
+         * @return an updated builder
+         */
+        public Builder compression(CompressionConfiguration compression) {
+            this.defaultSocketBuilder.compression(compression);
+            return this;
+        }
+
+        /**
+         * Configures HTTP response compression of the default server socket.
+         *
+         * @param compressionBuilder a compression configuration builder; will be built as a first step of this
+         *                           method execution
+         * @return an updated builder
+         */
+        public Builder compression(Supplier<? extends CompressionConfiguration> compressionBuilder) {
+            this.defaultSocketBuilder.compression(compressionBuilder);
+            return this;
+        }
+
+        /**
+         * Configures admission control of the default server socket.
+         * <p>
+         * Configuration key: {@code admission}
+         *
+         * @param admission an admission configuration
+         * @return an updated builder
+         */
+        public Builder admission(AdmissionConfiguration admission) {
+            this.defaultSocketBuilder.admission(admission);
+            return this;
+        }
+
+        /**
+         * Configures admission control of the default server socket.
+         *
+         * @param admissionBuilder an admission configuration builder; will be built as a first step of this
+         *                         method execution
+         * @return an updated builder
+         */
+        public Builder admission(Supplier<? extends AdmissionConfiguration> admissionBuilder) {
+            this.defaultSocketBuilder.admission(admissionBuilder);
+            return this;
+        }
+
+        /**
+         * Sets the Netty transport used for the server channels and event loops. Default value is {@link Transport#AUTO}.
+         * <p>
+         * Configuration key: {@code transport}
+         *
+         * @param transport the transport to use
+         * @return an updated builder
+         */
+        public Builder transport(Transport transport) {
+            this.transport = Objects.requireNonNull(transport, "Parameter 'transport' must not be null!");
+            return this;
+        }
+
+        /**
+         * Set to {@code true} to release request payload chunks not released by the application only once they are
+         * garbage collected, instead of when the request completes. Default value is {@code false}.
+         * <p>
+         * Configuration key: {@code request-chunk-gc-release}
+         *
+         * @param gcRelease whether to use the garbage collector based release of request chunks
+         * @return an updated builder
+         * @see ServerConfiguration#requestChunkGcRelease()
+         */
+        public Builder requestChunkGcRelease(boolean gcRelease) {
+            this.requestChunkGcRelease = gcRelease;
+            return this;
+        }
+
         /**
          * Adds an additional named server socket configuration. As a result, the server will listen
          * on multiple ports.
@@ -442,6 +597,18 @@ public interface ServerConfiguration extends SocketConfiguration {
             return this;
         }
 
+        /**
+         * Configure HTTP/2 support. Takes precedence over the HTTP/2 configuration of
+         * {@link #experimental(ExperimentalConfiguration) experimental features}.
+         *
+         * @param http2 HTTP/2 configuration
+         * @return an updated builder
+         */
+        public Builder http2(Http2Configuration http2) {
+            this.http2 = http2;
+            return this;
+        }
+
         /**
          * Configure experimental features.
          * @param experimental experimental configuration
@@ -487,6 +654,15 @@ public interface ServerConfiguration extends SocketConfiguration {
             }
         }
 
+        private Transport string2Transport(String transport) {
+            try {
+                return Transport.valueOf(transport.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ConfigException("Illegal value of 'transport' configuration key. Expecting one of "
+                                                  + Arrays.toString(Transport.values()) + "!", e);
+            }
+        }
+
         /**
          * Sets configuration values included in provided {@link Config} parameter.
          * <p>
@@ -506,6 +682,8 @@ public interface ServerConfiguration extends SocketConfiguration {
 
             config.get("workers").asInt().ifPresent(this::workersCount);
             config.get("features.print-details").asBoolean().ifPresent(this::printFeatureDetails);
+            config.get("transport").asString().map(this::string2Transport).ifPresent(this::transport);
+            config.get("request-chunk-gc-release").asBoolean().ifPresent(this::requestChunkGcRelease);
 
             // sockets
             Config socketsConfig = config.get("sockets");
@@ -522,14 +700,16 @@ public interface ServerConfiguration extends SocketConfiguration {
                 ExperimentalConfiguration.Builder experimentalBuilder = new ExperimentalConfiguration.Builder();
                 Config http2Config = experimentalConfig.get("http2");
                 if (http2Config.exists()) {
-                    Http2Configuration.Builder http2Builder = new Http2Configuration.Builder();
-                    http2Config.get("enable").asBoolean().ifPresent(http2Builder::enable);
-                    http2Config.get("max-content-length").asInt().ifPresent(http2Builder::maxContentLength);
-                    experimentalBuilder.http2(http2Builder.build());
+                    experimentalBuilder.http2(Http2Configuration.create(http2Config));
                 }
                 experimental = experimentalBuilder.build();
             }
 
+            Config http2Config = config.get("http2");
+            if (http2Config.exists()) {
+                http2 = Http2Configuration.create(http2Config);
+            }
+
             return this;
         }
 
@@ -543,6 +723,27 @@ public interface ServerConfiguration extends SocketConfiguration {
             config.get("backlog").asInt().ifPresent(soConfigBuilder::backlog);
             config.get("timeout").asInt().ifPresent(soConfigBuilder::timeoutMillis);
             config.get("receive-buffer").asInt().ifPresent(soConfigBuilder::receiveBufferSize);
+            config.get("acceptors").asInt().ifPresent(soConfigBuilder::acceptors);
+
+            // compression
+            Config compressionConfig = config.get("compression");
+            if (compressionConfig.exists()) {
+                try {
+                    soConfigBuilder.compression(CompressionConfiguration.create(compressionConfig));
+                } catch (IllegalArgumentException e) {
+                    throw new ConfigException("Cannot load compression configuration.", e);
+                }
+            }
+
+            // admission control
+            Config admissionConfig = config.get("admission");
+            if (admissionConfig.exists()) {
+                try {
+                    soConfigBuilder.admission(AdmissionConfiguration.create(admissionConfig));
+                } catch (IllegalArgumentException e) {
+                    throw new ConfigException("Cannot load admission configuration.", e);
+                }
+            }
             config.get("ssl-protocols").asList(String.class).ifPresent(soConfigBuilder::enabledSSlProtocols);
 
             // ssl
@@ -615,6 +816,10 @@ public interface ServerConfiguration extends SocketConfiguration {
             return experimental;
         }
 
+        Http2Configuration http2() {
+            return http2;
+        }
+
         ContextualRegistry context() {
             return context;
         }
@@ -622,5 +827,13 @@ public interface ServerConfiguration extends SocketConfiguration {
         boolean printFeatureDetails() {
             return printFeatureDetails;
         }
+
+        Transport transport() {
+            return transport;
+        }
+
+        boolean requestChunkGcRelease() {
+            return requestChunkGcRelease;
+        }
     }
 }
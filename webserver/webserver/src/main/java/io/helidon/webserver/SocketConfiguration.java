@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -82,6 +82,42 @@ public interface SocketConfiguration {
      */
     int receiveBufferSize();
 
+    /**
+     * Returns the number of server channels bound to the same address and port of this socket.
+     * If greater than {@code 1}, the server socket is bound multiple times using {@code SO_REUSEPORT},
+     * so the kernel distributes incoming connections among the acceptors. This is only supported
+     * by the native {@link ServerConfiguration.Transport#EPOLL epoll} transport and ignored otherwise.
+     * <p>
+     * Default value is {@code 1}.
+     *
+     * @return a number of acceptors of the server socket
+     */
+    default int acceptors() {
+        return 1;
+    }
+
+    /**
+     * Returns the HTTP response compression configuration of the server socket.
+     * <p>
+     * Default value is {@link CompressionConfiguration#DISABLED}.
+     *
+     * @return a compression configuration
+     */
+    default CompressionConfiguration compression() {
+        return CompressionConfiguration.DISABLED;
+    }
+
+    /**
+     * Returns the admission control configuration of the server socket.
+     * <p>
+     * Default value is {@link AdmissionConfiguration#DISABLED}.
+     *
+     * @return an admission configuration
+     */
+    default AdmissionConfiguration admission() {
+        return AdmissionConfiguration.DISABLED;
+    }
+
     /**
      * Returns a {@link SSLContext} to use with the server socket. If not {@code null} then
      * the server enforces an SSL communication.
@@ -116,6 +152,9 @@ public interface SocketConfiguration {
         private int backlog = 0;
         private int timeoutMillis = 0;
         private int receiveBufferSize = 0;
+        private int acceptors = 1;
+        private CompressionConfiguration compression = CompressionConfiguration.DISABLED;
+        private AdmissionConfiguration admission = AdmissionConfiguration.DISABLED;
 
         private Builder() {
         }
@@ -183,6 +222,65 @@ public interface SocketConfiguration {
             return this;
         }
 
+        /**
+         * Configures the number of server channels bound to the same address and port of this socket
+         * using {@code SO_REUSEPORT}. Only supported by the native
+         * {@link ServerConfiguration.Transport#EPOLL epoll} transport and ignored otherwise.
+         * <p>
+         * Default value is {@code 1}.
+         *
+         * @param acceptors a number of acceptors of the server socket
+         * @return this builder
+         */
+        public Builder acceptors(int acceptors) {
+            this.acceptors = acceptors;
+            return this;
+        }
+
+        /**
+         * Configures HTTP response compression of the server socket.
+         *
+         * @param compression a compression configuration
+         * @return this builder
+         */
+        public Builder compression(CompressionConfiguration compression) {
+            this.compression = compression != null ? compression : CompressionConfiguration.DISABLED;
+            return this;
+        }
+
+        /**
+         * Configures HTTP response compression of the server socket.
+         *
+         * @param compressionBuilder a compression configuration builder; will be built as a first step of this
+         *                           method execution
+         * @return this builder
+         */
+        public Builder compression(Supplier<? extends CompressionConfiguration> compressionBuilder) {
+            return compression(compressionBuilder != null ? compressionBuilder.get() : null);
+        }
+
+        /**
+         * Configures admission control of the server socket.
+         *
+         * @param admission an admission configuration
+         * @return this builder
+         */
+        public Builder admission(AdmissionConfiguration admission) {
+            this.admission = admission != null ? admission : AdmissionConfiguration.DISABLED;
+            return this;
+        }
+
+        /**
+         * Configures admission control of the server socket.
+         *
+         * @param admissionBuilder an admission configuration builder; will be built as a first step of this
+         *                         method execution
+         * @return this builder
+         */
+        public Builder admission(Supplier<? extends AdmissionConfiguration> admissionBuilder) {
+            return admission(admissionBuilder != null ? admissionBuilder.get() : null);
+        }
+
         /**
          * Configures a {@link SSLContext} to use with the server socket. If not {@code null} then
          * the server enforces an SSL communication.
@@ -235,7 +333,7 @@ public interface SocketConfiguration {
         public SocketConfiguration build() {
             return new ServerBasicConfig.SocketConfig(port, bindAddress,
                     sslContext, enabledSslProtocols, backlog, timeoutMillis,
-                    receiveBufferSize);
+                    receiveBufferSize, acceptors, compression, admission);
         }
     }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A server-sent event, see the
+ * <a href="https://html.spec.whatwg.org/multipage/server-sent-events.html">HTML Living Standard</a>.
+ * Events are sent by {@link SseSupport#send(ServerResponse, java.util.concurrent.Flow.Publisher)}.
+ */
+public final class SseEvent {
+
+    private final String id;
+    private final String event;
+    private final String data;
+    private final Duration retry;
+    private final String comment;
+
+    private SseEvent(Builder builder) {
+        this.id = builder.id;
+        this.event = builder.event;
+        this.data = builder.data;
+        this.retry = builder.retry;
+        this.comment = builder.comment;
+    }
+
+    /**
+     * Creates a new event of the default {@code message} type with the provided data.
+     *
+     * @param data data of the event, may contain line breaks
+     * @return a new event
+     */
+    public static SseEvent create(String data) {
+        return builder().data(data).build();
+    }
+
+    /**
+     * A fluent API builder of {@link SseEvent}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Identifier of the event, sent back by the client in the {@code Last-Event-ID} header when it reconnects.
+     *
+     * @return the identifier
+     */
+    public Optional<String> id() {
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * Type of the event.
+     *
+     * @return the event type, clients use {@code message} if not set
+     */
+    public Optional<String> event() {
+        return Optional.ofNullable(event);
+    }
+
+    /**
+     * Data of the event.
+     *
+     * @return the data
+     */
+    public Optional<String> data() {
+        return Optional.ofNullable(data);
+    }
+
+    /**
+     * Reconnection time the client should use.
+     *
+     * @return the reconnection time
+     */
+    public Optional<Duration> retry() {
+        return Optional.ofNullable(retry);
+    }
+
+    /**
+     * Comment sent with the event, ignored by clients.
+     *
+     * @return the comment
+     */
+    public Optional<String> comment() {
+        return Optional.ofNullable(comment);
+    }
+
+    /**
+     * Encodes the event in the {@code text/event-stream} format.
+     *
+     * @return the encoded event
+     */
+    ByteBuffer encode() {
+        StringBuilder sb = new StringBuilder(64 + (data == null ? 0 : data.length()));
+        if (comment != null) {
+            appendLines(sb, "", comment);
+        }
+        if (id != null) {
+            sb.append("id: ").append(id).append('\n');
+        }
+        if (event != null) {
+            sb.append("event: ").append(event).append('\n');
+        }
+        if (retry != null) {
+            sb.append("retry: ").append(retry.toMillis()).append('\n');
+        }
+        if (data != null) {
+            appendLines(sb, "data", data);
+        }
+        sb.append('\n');
+        return ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendLines(StringBuilder sb, String field, String value) {
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '\r' || c == '\n') {
+                sb.append(field).append(": ").append(value, start, i).append('\n');
+                if (c == '\r' && i + 1 < length && value.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        sb.append(field).append(": ").append(value, start, length).append('\n');
+    }
+
+    @Override
+    public String toString() {
+        return "SseEvent{id=" + id + ", event=" + event + ", data=" + data + '}';
+    }
+
+    /**
+     * A fluent API builder of {@link SseEvent}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<SseEvent> {
+        private String id;
+        private String event;
+        private String data;
+        private Duration retry;
+        private String comment;
+
+        private Builder() {
+        }
+
+        @Override
+        public SseEvent build() {
+            return new SseEvent(this);
+        }
+
+        /**
+         * Identifier of the event.
+         *
+         * @param id the identifier, must not contain line breaks or {@code NULL}
+         * @return updated builder instance
+         * @throws IllegalArgumentException if the identifier contains a line break or {@code NULL}
+         */
+        public Builder id(String id) {
+            this.id = singleLine(id, "id");
+            if (id.indexOf('\0') >= 0) {
+                throw new IllegalArgumentException("Event id must not contain NULL: " + id);
+            }
+            return this;
+        }
+
+        /**
+         * Type of the event.
+         *
+         * @param event the event type, must not contain line breaks
+         * @return updated builder instance
+         * @throws IllegalArgumentException if the type contains a line break
+         */
+        public Builder event(String event) {
+            this.event = singleLine(event, "event");
+            return this;
+        }
+
+        /**
+         * Data of the event. Line breaks are sent as multiple {@code data} fields.
+         *
+         * @param data the data
+         * @return updated builder instance
+         */
+        public Builder data(String data) {
+            this.data = Objects.requireNonNull(data, "Parameter 'data' is null!");
+            return this;
+        }
+
+        /**
+         * Reconnection time the client should use.
+         *
+         * @param retry the reconnection time
+         * @return updated builder instance
+         */
+        public Builder retry(Duration retry) {
+            this.retry = Objects.requireNonNull(retry, "Parameter 'retry' is null!");
+            return this;
+        }
+
+        /**
+         * Comment sent with the event. Line breaks are sent as multiple comment lines.
+         *
+         * @param comment the comment
+         * @return updated builder instance
+         */
+        public Builder comment(String comment) {
+            this.comment = Objects.requireNonNull(comment, "Parameter 'comment' is null!");
+            return this;
+        }
+
+        private static String singleLine(String value, String field) {
+            Objects.requireNonNull(value, "Parameter '" + field + "' is null!");
+            if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("Event " + field + " must not contain line breaks: " + value);
+            }
+            return value;
+        }
+    }
+}
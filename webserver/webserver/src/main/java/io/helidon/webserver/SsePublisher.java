@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.helidon.common.http.DataChunk;
+
+/**
+ * Frames {@link SseEvent server-sent events} into flushed data chunks.
+ * <p>
+ * At most {@code maxInFlight} chunks are written and not yet released by the connection, so events are requested
+ * only as fast as a client reads them. When no event is sent for the heartbeat interval, a comment is sent to keep
+ * the connection open through proxies and to detect disconnected clients.
+ */
+final class SsePublisher implements Flow.Publisher<DataChunk> {
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final Flow.Publisher<SseEvent> events;
+    private final int maxInFlight;
+    private final long heartbeatNanos;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    // serializes signals to the downstream subscriber, acquired before the lock of this publisher
+    private final Object emitLock = new Object();
+
+    // guarded by this
+    private Flow.Subscription upstream;
+    private long demand;
+    private long pending;
+    private int inFlight;
+    private long lastEmitted;
+    private boolean terminated;
+    private ScheduledFuture<?> heartbeat;
+
+    private volatile Flow.Subscriber<? super DataChunk> subscriber;
+
+    /**
+     * Creates a new publisher.
+     *
+     * @param events         events to send
+     * @param maxInFlight    maximal number of chunks written and not yet released
+     * @param heartbeatNanos heartbeat interval, {@code 0} to disable heartbeats
+     * @param scheduler      scheduler of heartbeats
+     */
+    SsePublisher(Flow.Publisher<SseEvent> events, int maxInFlight, long heartbeatNanos, ScheduledExecutorService scheduler) {
+        this.events = events;
+        this.maxInFlight = maxInFlight;
+        this.heartbeatNanos = heartbeatNanos;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Only single subscriber is allowed!"));
+            return;
+        }
+        this.subscriber = subscriber;
+        synchronized (this) {
+            lastEmitted = System.nanoTime();
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    cancel();
+                    emitError(new IllegalArgumentException("Rule §3.9: non-positive request: " + n));
+                    return;
+                }
+                synchronized (SsePublisher.this) {
+                    demand = (Long.MAX_VALUE - demand <= n) ? Long.MAX_VALUE : demand + n;
+                }
+                requestEvents();
+            }
+
+            @Override
+            public void cancel() {
+                SsePublisher.this.cancel();
+            }
+        });
+        if (heartbeatNanos > 0) {
+            ScheduledFuture<?> future = scheduler.scheduleWithFixedDelay(this::heartbeat,
+                                                                         heartbeatNanos,
+                                                                         heartbeatNanos,
+                                                                         TimeUnit.NANOSECONDS);
+            synchronized (this) {
+                if (terminated) {
+                    future.cancel(false);
+                } else {
+                    heartbeat = future;
+                }
+            }
+        }
+        events.subscribe(new EventSubscriber());
+    }
+
+    /**
+     * Stops sending events and heartbeats, e.g. because the client disconnected.
+     */
+    void cancel() {
+        Flow.Subscription toCancel;
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            toCancel = terminate();
+        }
+        if (toCancel != null) {
+            toCancel.cancel();
+        }
+    }
+
+    // must be called while holding the lock
+    private Flow.Subscription terminate() {
+        terminated = true;
+        if (heartbeat != null) {
+            heartbeat.cancel(false);
+            heartbeat = null;
+        }
+        Flow.Subscription result = upstream;
+        upstream = null;
+        return result;
+    }
+
+    private void requestEvents() {
+        long n;
+        Flow.Subscription subscription;
+        synchronized (this) {
+            if (terminated || upstream == null) {
+                return;
+            }
+            n = Math.min(demand, maxInFlight - inFlight) - pending;
+            if (n <= 0) {
+                return;
+            }
+            pending += n;
+            subscription = upstream;
+        }
+        subscription.request(n);
+    }
+
+    private void released() {
+        synchronized (this) {
+            inFlight--;
+        }
+        requestEvents();
+    }
+
+    private void heartbeat() {
+        synchronized (emitLock) {
+            synchronized (this) {
+                // heartbeats may exceed the window by one chunk, but never pile up behind a slow client
+                if (terminated
+                        || demand <= pending
+                        || inFlight >= maxInFlight
+                        || System.nanoTime() - lastEmitted < heartbeatNanos) {
+                    return;
+                }
+                demand--;
+                inFlight++;
+                lastEmitted = System.nanoTime();
+            }
+            emit(ByteBuffer.wrap(HEARTBEAT));
+        }
+    }
+
+    private void emit(ByteBuffer data) {
+        DataChunk chunk = DataChunk.create(true, data, this::released, true);
+        synchronized (emitLock) {
+            subscriber.onNext(chunk);
+        }
+    }
+
+    private void emitError(Throwable throwable) {
+        synchronized (emitLock) {
+            subscriber.onError(throwable);
+        }
+    }
+
+    private final class EventSubscriber implements Flow.Subscriber<SseEvent> {
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (SsePublisher.this) {
+                if (terminated || upstream != null) {
+                    subscription.cancel();
+                    return;
+                }
+                upstream = subscription;
+            }
+            requestEvents();
+        }
+
+        @Override
+        public void onNext(SseEvent event) {
+            ByteBuffer data;
+            try {
+                data = event.encode();
+            } catch (RuntimeException e) {
+                cancel();
+                emitError(e);
+                return;
+            }
+            synchronized (SsePublisher.this) {
+                if (terminated) {
+                    return;
+                }
+                pending--;
+                demand--;
+                inFlight++;
+                lastEmitted = System.nanoTime();
+            }
+            emit(data);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (emitLock) {
+                if (complete()) {
+                    subscriber.onError(throwable);
+                }
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (emitLock) {
+                if (complete()) {
+                    subscriber.onComplete();
+                }
+            }
+        }
+
+        private boolean complete() {
+            synchronized (SsePublisher.this) {
+                if (terminated) {
+                    return false;
+                }
+                terminate();
+                return true;
+            }
+        }
+    }
+}
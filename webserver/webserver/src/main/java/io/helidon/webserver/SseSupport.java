@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+
+import io.helidon.common.LazyValue;
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+/**
+ * Sends {@link SseEvent server-sent events} as a {@code text/event-stream} response.
+ * <p>
+ * Each event is flushed to the client as soon as it is written. Events are requested from the publisher only as fast
+ * as the client reads them, and the publisher is cancelled when the client disconnects. Idle connections get
+ * a comment every {@link Builder#heartbeat(Duration) heartbeat interval}.
+ * <pre>{@code
+ * SseSupport sse = SseSupport.create();
+ *
+ * Routing.builder()
+ *         .get("/events", (req, res) -> sse.send(res, dashboard.events()))
+ * }</pre>
+ */
+public final class SseSupport {
+
+    /**
+     * Default heartbeat interval.
+     */
+    public static final Duration DEFAULT_HEARTBEAT = Duration.ofSeconds(15);
+
+    /**
+     * Default maximal number of events written to a connection and not yet sent.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    private static final LazyValue<ScheduledExecutorService> SCHEDULER = LazyValue.create(
+            () -> Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "helidon-sse-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            }));
+
+    private final long heartbeatNanos;
+    private final int maxInFlight;
+    private final ScheduledExecutorService scheduler;
+
+    private SseSupport(Builder builder) {
+        this.heartbeatNanos = builder.heartbeat.toNanos();
+        this.maxInFlight = builder.maxInFlight;
+        this.scheduler = builder.scheduler;
+    }
+
+    /**
+     * Creates a new instance with default configuration.
+     *
+     * @return a new instance
+     */
+    public static SseSupport create() {
+        return builder().build();
+    }
+
+    /**
+     * A fluent API builder of {@link SseSupport}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Sends the events as the response content. The response completes when the publisher completes.
+     *
+     * @param response the response
+     * @param events   events to send
+     * @return a completion stage of the response
+     * @throws IllegalStateException if the content of the response was already sent
+     */
+    public CompletionStage<ServerResponse> send(ServerResponse response, Flow.Publisher<SseEvent> events) {
+        Objects.requireNonNull(response, "Parameter 'response' is null!");
+        Objects.requireNonNull(events, "Parameter 'events' is null!");
+        response.headers().contentType(MediaType.TEXT_EVENT_STREAM);
+        response.headers().put(Http.Header.CACHE_CONTROL, "no-cache");
+        SsePublisher publisher = new SsePublisher(events,
+                                                  maxInFlight,
+                                                  heartbeatNanos,
+                                                  scheduler == null ? SCHEDULER.get() : scheduler);
+        // the response fails when the client disconnects
+        response.whenSent().whenComplete((res, throwable) -> publisher.cancel());
+        return response.send(publisher);
+    }
+
+    /**
+     * A fluent API builder of {@link SseSupport}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<SseSupport> {
+        private Duration heartbeat = DEFAULT_HEARTBEAT;
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        private ScheduledExecutorService scheduler;
+
+        private Builder() {
+        }
+
+        @Override
+        public SseSupport build() {
+            return new SseSupport(this);
+        }
+
+        /**
+         * Interval of heartbeats sent to idle connections.
+         *
+         * @param heartbeat the interval, {@link Duration#ZERO} to disable heartbeats
+         * @return updated builder instance
+         */
+        public Builder heartbeat(Duration heartbeat) {
+            Objects.requireNonNull(heartbeat, "Parameter 'heartbeat' is null!");
+            if (heartbeat.isNegative()) {
+                throw new IllegalArgumentException("Heartbeat interval must not be negative: " + heartbeat);
+            }
+            this.heartbeat = heartbeat;
+            return this;
+        }
+
+        /**
+         * Maximal number of events written to a connection and not yet sent. Further events are not requested
+         * until the client reads the previous ones.
+         *
+         * @param maxInFlight maximal number of events
+         * @return updated builder instance
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("Maximal number of events in flight must be positive: " + maxInFlight);
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Scheduler of heartbeats. A shared single thread scheduler is used by default.
+         *
+         * @param scheduler the scheduler
+         * @return updated builder instance
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = Objects.requireNonNull(scheduler, "Parameter 'scheduler' is null!");
+            return this;
+        }
+    }
+}
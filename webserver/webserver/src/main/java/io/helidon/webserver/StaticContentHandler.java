@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,22 +18,44 @@ package io.helidon.webserver;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.chrono.ChronoZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
 
+import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Multi;
+import io.helidon.common.reactive.Single;
 
 /**
  * Request {@link Handler} processing a static content.
  */
 abstract class StaticContentHandler {
 
+    /**
+     * Precompressed variants in the order of preference, by content coding.
+     */
+    static final Map<String, String> PRECOMPRESSED_EXTENSIONS = Map.of("br", ".br", "gzip", ".gz");
+    static final List<String> PRECOMPRESSED_CODINGS = List.of("br", "gzip");
+
     private final String welcomeFilename;
     private final ContentTypeSelector contentTypeSelector;
+    private final ContentCache cache;
+    private final boolean precompressed;
 
     /**
      * Creates new instance.
@@ -42,14 +64,34 @@ abstract class StaticContentHandler {
      * @param contentTypeSelector a selector for content type
      */
     StaticContentHandler(String welcomeFilename, ContentTypeSelector contentTypeSelector) {
+        this(welcomeFilename, contentTypeSelector, null, false);
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param welcomeFilename     a welcome filename
+     * @param contentTypeSelector a selector for content type
+     * @param cache               in-memory cache of content, {@code null} if content should not be cached
+     * @param precompressed       whether to serve precompressed {@code .br} and {@code .gz} variants of files
+     */
+    StaticContentHandler(String welcomeFilename,
+                         ContentTypeSelector contentTypeSelector,
+                         ContentCache cache,
+                         boolean precompressed) {
         this.welcomeFilename = welcomeFilename;
         this.contentTypeSelector = contentTypeSelector;
+        this.cache = cache;
+        this.precompressed = precompressed;
     }
 
     /**
      * Should release cache (if any exists).
      */
     void releaseCache() {
+        if (cache != null) {
+            cache.clear();
+        }
     }
 
     /**
@@ -92,6 +134,223 @@ abstract class StaticContentHandler {
         return contentTypeSelector;
     }
 
+    ContentCache cache() {
+        return cache;
+    }
+
+    boolean precompressed() {
+        return precompressed;
+    }
+
+    /**
+     * Sends content from the in-memory cache, if cached.
+     *
+     * @param method   GET or HEAD HTTP method
+     * @param key      cache key of the content
+     * @param request  an HTTP request
+     * @param response an HTTP response
+     * @return {@code true} only if the content was cached and processed
+     * @throws HttpException if some known WEB error
+     */
+    boolean sendCached(Http.RequestMethod method, String key, ServerRequest request, ServerResponse response) {
+        if (cache == null) {
+            return false;
+        }
+        CachedContent content = cache.get(key);
+        if (content == null) {
+            return false;
+        }
+        sendCached(method, content, request, response);
+        return true;
+    }
+
+    /**
+     * Sends in-memory content.
+     *
+     * @param method   GET or HEAD HTTP method
+     * @param content  the content
+     * @param request  an HTTP request
+     * @param response an HTTP response
+     * @throws HttpException if some known WEB error
+     */
+    void sendCached(Http.RequestMethod method, CachedContent content, ServerRequest request, ServerResponse response) {
+        RequestHeaders requestHeaders = request.headers();
+        ResponseHeaders responseHeaders = response.headers();
+        String coding = null;
+        if (precompressed && !content.encodings().isEmpty()) {
+            responseHeaders.add(Http.Header.VARY, Http.Header.ACCEPT_ENCODING);
+            coding = requestHeaders.first(Http.Header.RANGE).isPresent()
+                    ? null
+                    : negotiateEncoding(requestHeaders, content.encodings());
+        }
+        processEtag(variantEtag(content.etag(), coding), requestHeaders, responseHeaders);
+        processModifyHeaders(content.lastModified(), requestHeaders, responseHeaders);
+        MediaType type = contentTypeSelector.negotiate(content.mediaType(), requestHeaders);
+        if (type != null) {
+            responseHeaders.contentType(type);
+        }
+
+        if (coding != null) {
+            responseHeaders.put(Http.Header.CONTENT_ENCODING, coding);
+            responseHeaders.contentLength(content.encodedLength(coding));
+            if (method == Http.Method.HEAD) {
+                response.send();
+            } else {
+                response.send(Single.just(content.encoded(coding)));
+            }
+            return;
+        }
+        sendContent(method, content.length(), content::region, content.etag(), content.lastModified(), request, response);
+    }
+
+    /**
+     * Sends a file. If configured, the file is cached in memory, and its precompressed variant is sent
+     * if accepted by the client.
+     *
+     * @param method   GET or HEAD HTTP method
+     * @param file     an existing readable regular file
+     * @param cacheKey cache key of the file, {@code null} if the file should not be cached
+     * @param request  an HTTP request
+     * @param response an HTTP response
+     * @throws IOException   if the file cannot be read
+     * @throws HttpException if some known WEB error
+     */
+    void sendFile(Http.RequestMethod method,
+                  Path file,
+                  String cacheKey,
+                  ServerRequest request,
+                  ServerResponse response) throws IOException {
+        String filename = fileName(file);
+        if (cacheKey != null && cache != null && cache.accepts(Files.size(file))) {
+            Map<String, byte[]> variants = new LinkedHashMap<>();
+            if (precompressed) {
+                for (String coding : PRECOMPRESSED_CODINGS) {
+                    Path variant = file.resolveSibling(filename + PRECOMPRESSED_EXTENSIONS.get(coding));
+                    if (Files.isRegularFile(variant) && cache.accepts(Files.size(variant))) {
+                        variants.put(coding, Files.readAllBytes(variant));
+                    }
+                }
+            }
+            Instant lastModified = Files.getLastModifiedTime(file).toInstant();
+            CachedContent content = CachedContent.create(Files.readAllBytes(file),
+                                                         variants,
+                                                         contentTypeSelector.get(filename),
+                                                         lastModified,
+                                                         file);
+            cache.put(cacheKey, content);
+            sendCached(method, content, request, response);
+            return;
+        }
+
+        String coding = null;
+        Path variant = null;
+        if (precompressed) {
+            Map<String, Path> variants = new LinkedHashMap<>();
+            for (String candidate : PRECOMPRESSED_CODINGS) {
+                Path candidateFile = file.resolveSibling(filename + PRECOMPRESSED_EXTENSIONS.get(candidate));
+                if (Files.isRegularFile(candidateFile) && Files.isReadable(candidateFile)) {
+                    variants.put(candidate, candidateFile);
+                }
+            }
+            if (!variants.isEmpty()) {
+                response.headers().add(Http.Header.VARY, Http.Header.ACCEPT_ENCODING);
+                coding = request.headers().first(Http.Header.RANGE).isPresent()
+                        ? null
+                        : negotiateEncoding(request.headers(), variants.keySet());
+                variant = (coding == null) ? null : variants.get(coding);
+            }
+        }
+
+        // Caching headers support
+        String etag = null;
+        Instant lastMod = null;
+        try {
+            lastMod = Files.getLastModifiedTime(file).toInstant();
+            etag = String.valueOf(lastMod.toEpochMilli());
+            processEtag(variantEtag(etag, coding), request.headers(), response.headers());
+            processModifyHeaders(lastMod, request.headers(), response.headers());
+        } catch (IOException | SecurityException e) {
+            // Cannot get mod time or size - well, we cannot tell if it was modified or not. Don't support cache headers
+        }
+
+        processContentType(filename, request.headers(), response.headers(), contentTypeSelector);
+
+        if (variant != null) {
+            response.headers().put(Http.Header.CONTENT_ENCODING, coding);
+            response.headers().contentLength(Files.size(variant));
+            if (method == Http.Method.HEAD) {
+                response.send();
+            } else {
+                response.send(variant);
+            }
+            return;
+        }
+
+        sendContent(method, file, etag, lastMod, request, response);
+    }
+
+    /**
+     * Entity tag of a representation of the content. Precompressed variants are different representations, so each
+     * needs its own strong entity tag.
+     *
+     * @param etag   entity tag of the content (without quotes), may be {@code null}
+     * @param coding content coding of the variant, {@code null} for the content itself
+     * @return entity tag of the representation
+     */
+    static String variantEtag(String etag, String coding) {
+        if (etag == null || coding == null) {
+            return etag;
+        }
+        return etag + "-" + coding;
+    }
+
+    /**
+     * Selects the most preferred of available content codings accepted by the {@code Accept-Encoding} header.
+     *
+     * @param requestHeaders an HTTP request headers
+     * @param available      available content codings
+     * @return selected content coding or {@code null} if none is accepted
+     */
+    static String negotiateEncoding(RequestHeaders requestHeaders, Set<String> available) {
+        String selected = null;
+        double selectedQuality = 0;
+        double wildcardQuality = -1;
+        Map<String, Double> qualities = new HashMap<>();
+        for (String value : requestHeaders.values(Http.Header.ACCEPT_ENCODING)) {
+            for (String token : value.split(",")) {
+                String[] parts = token.split(";");
+                String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=") || param.startsWith("Q=")) {
+                        try {
+                            quality = Double.parseDouble(param.substring(2).trim());
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if ("*".equals(coding)) {
+                    wildcardQuality = quality;
+                } else {
+                    qualities.put(coding, quality);
+                }
+            }
+        }
+        for (String coding : PRECOMPRESSED_CODINGS) {
+            if (!available.contains(coding)) {
+                continue;
+            }
+            double quality = qualities.getOrDefault(coding, wildcardQuality);
+            if (quality > selectedQuality) {
+                selected = coding;
+                selectedQuality = quality;
+            }
+        }
+        return selected;
+    }
+
     /**
      * Do handle for GET and HEAD HTTP methods.
      *
@@ -229,6 +488,122 @@ abstract class StaticContentHandler {
         return welcomeFilename;
     }
 
+    /**
+     * Sends content of a file. Supports {@code Range} requests: a single satisfiable range is sent as
+     * {@code 206 Partial Content}, multiple ranges as {@code multipart/byteranges}. The file content is not read by
+     * the handler, it is sent as file regions.
+     *
+     * @param method       GET or HEAD HTTP method
+     * @param file         the file to send
+     * @param etag         entity tag of the file (without quotes), may be {@code null}
+     * @param lastModified last modification time of the file, may be {@code null}
+     * @param request      an HTTP request
+     * @param response     an HTTP response
+     * @throws IOException   if the file size cannot be determined
+     * @throws HttpException if no requested range is satisfiable
+     */
+    static void sendContent(Http.RequestMethod method,
+                            Path file,
+                            String etag,
+                            Instant lastModified,
+                            ServerRequest request,
+                            ServerResponse response) throws IOException {
+        sendContent(method,
+                    Files.size(file),
+                    (position, count) -> FileRegionChunk.create(file, position, count),
+                    etag,
+                    lastModified,
+                    request,
+                    response);
+    }
+
+    /**
+     * Sends content of provided length. Supports {@code Range} requests the same way as
+     * {@link #sendContent(Http.RequestMethod, Path, String, Instant, ServerRequest, ServerResponse)}.
+     *
+     * @param method       GET or HEAD HTTP method
+     * @param length       length of the content
+     * @param regions      provides chunks of regions of the content
+     * @param etag         entity tag of the content (without quotes), may be {@code null}
+     * @param lastModified last modification time of the content, may be {@code null}
+     * @param request      an HTTP request
+     * @param response     an HTTP response
+     * @throws HttpException if no requested range is satisfiable
+     */
+    static void sendContent(Http.RequestMethod method,
+                            long length,
+                            BiFunction<Long, Long, List<DataChunk>> regions,
+                            String etag,
+                            Instant lastModified,
+                            ServerRequest request,
+                            ServerResponse response) {
+        ResponseHeaders responseHeaders = response.headers();
+        responseHeaders.put(Http.Header.ACCEPT_RANGES, "bytes");
+        if (method == Http.Method.HEAD) {
+            responseHeaders.contentLength(length);
+            response.send();
+            return;
+        }
+
+        Optional<String> rangeHeader = request.headers().first(Http.Header.RANGE);
+        boolean ifRangeMatches = request.headers()
+                .first(Http.Header.IF_RANGE)
+                .map(ifRange -> ByteRange.ifRangeMatches(ifRange, etag, lastModified))
+                .orElse(true);
+        List<ByteRange> ranges = (rangeHeader.isPresent() && ifRangeMatches)
+                ? ByteRange.parse(rangeHeader.get(), length)
+                : null;
+        if (ranges == null) {
+            // no or invalid ranges, send everything
+            responseHeaders.contentLength(length);
+            response.send(Multi.just(regions.apply(0L, length)));
+            return;
+        }
+        if (ranges.isEmpty()) {
+            responseHeaders.put(Http.Header.CONTENT_RANGE, "bytes */" + length);
+            throw new HttpException("Requested range not satisfiable!", Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416);
+        }
+
+        response.status(Http.Status.PARTIAL_CONTENT_206);
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            responseHeaders.put(Http.Header.CONTENT_RANGE, range.contentRange(length));
+            responseHeaders.contentLength(range.length());
+            response.send(Multi.just(regions.apply(range.start(), range.length())));
+            return;
+        }
+
+        // multipart/byteranges
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        Optional<MediaType> contentType = responseHeaders.contentType();
+        List<DataChunk> chunks = new ArrayList<>(ranges.size() * 2 + 1);
+        long contentLength = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            ByteRange range = ranges.get(i);
+            StringBuilder partHeader = new StringBuilder();
+            if (i > 0) {
+                partHeader.append("\r\n");
+            }
+            partHeader.append("--").append(boundary).append("\r\n");
+            contentType.ifPresent(type -> partHeader.append(Http.Header.CONTENT_TYPE).append(": ").append(type).append("\r\n"));
+            partHeader.append(Http.Header.CONTENT_RANGE).append(": ").append(range.contentRange(length)).append("\r\n\r\n");
+            contentLength += addAscii(chunks, partHeader.toString());
+            chunks.addAll(regions.apply(range.start(), range.length()));
+            contentLength += range.length();
+        }
+        contentLength += addAscii(chunks, "\r\n--" + boundary + "--\r\n");
+
+        responseHeaders.put(Http.Header.CONTENT_TYPE, "multipart/byteranges; boundary=" + boundary);
+        responseHeaders.contentLength(contentLength);
+        response.send(Multi.just(chunks));
+    }
+
+    private static int addAscii(List<DataChunk> chunks, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        chunks.add(DataChunk.create(false, ByteBuffer.wrap(bytes), true));
+        return bytes.length;
+    }
+
     /**
      * Determines and set a Content-Type header based on filename extension.
      *
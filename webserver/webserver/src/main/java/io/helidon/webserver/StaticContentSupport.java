@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package io.helidon.webserver;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
@@ -39,6 +40,16 @@ import io.helidon.common.http.MediaType;
  */
 public class StaticContentSupport implements Service {
 
+    /**
+     * Default maximal size in bytes of a single file held by the in-memory cache.
+     */
+    public static final long DEFAULT_CACHE_MAX_FILE_SIZE = 1024 * 1024;
+
+    /**
+     * Default minimal interval between checks of a cached file for modification.
+     */
+    public static final Duration DEFAULT_CACHE_REVALIDATION = Duration.ofSeconds(1);
+
     private final StaticContentHandler handler;
 
     private int webServerCounter = 0;
@@ -166,6 +177,10 @@ public class StaticContentSupport implements Service {
 
         private final Map<String, MediaType> specificContentTypes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
         private String welcomeFileName;
+        private long cacheMaxSize;
+        private long cacheMaxFileSize = DEFAULT_CACHE_MAX_FILE_SIZE;
+        private Duration cacheRevalidation = DEFAULT_CACHE_REVALIDATION;
+        private boolean precompressed;
 
         Builder(Path fsRoot) {
             Objects.requireNonNull(fsRoot, "Attribute fsRoot is null!");
@@ -218,6 +233,66 @@ public class StaticContentSupport implements Service {
             return this;
         }
 
+        /**
+         * Enables an in-memory cache of the content. Files are held in direct buffers together with their
+         * entity tags, last modification times and precompressed variants, so the hot content is served
+         * without any disk I/O. Files served from the file system are checked for modification at most once per
+         * {@link #cacheRevalidation(Duration) revalidation interval}. The least recently used files are evicted when
+         * the cache is full. The cache is disabled by default.
+         *
+         * @param maxSize maximal number of bytes of all cached content, {@code 0} to disable the cache
+         * @return updated builder
+         */
+        public Builder cacheMaxSize(long maxSize) {
+            this.cacheMaxSize = Math.max(maxSize, 0);
+            return this;
+        }
+
+        /**
+         * Sets the maximal size of a single file held by the in-memory cache, larger files are always
+         * served from the disk. Defaults to {@link #DEFAULT_CACHE_MAX_FILE_SIZE}.
+         *
+         * @param maxFileSize maximal number of bytes of a cached file
+         * @return updated builder
+         * @see #cacheMaxSize(long)
+         */
+        public Builder cacheMaxFileSize(long maxFileSize) {
+            this.cacheMaxFileSize = Math.max(maxFileSize, 0);
+            return this;
+        }
+
+        /**
+         * Sets the minimal interval between checks of a cached file for modification, a modified file may be served
+         * from the cache for up to this long. Defaults to {@link #DEFAULT_CACHE_REVALIDATION}.
+         *
+         * @param revalidation the interval, {@link Duration#ZERO} to check the file on each request
+         * @return updated builder
+         * @see #cacheMaxSize(long)
+         */
+        public Builder cacheRevalidation(Duration revalidation) {
+            Objects.requireNonNull(revalidation, "Parameter 'revalidation' is null!");
+            if (revalidation.isNegative()) {
+                throw new IllegalArgumentException("Revalidation interval must not be negative: " + revalidation);
+            }
+            this.cacheRevalidation = revalidation;
+            return this;
+        }
+
+        /**
+         * Enables serving of precompressed variants of files. If a file {@code app.js} is requested and there is
+         * a file {@code app.js.br} or {@code app.js.gz} next to it, the variant is sent with the corresponding
+         * {@code Content-Encoding}, if accepted by the client. Range requests are always served from the original file.
+         * Variants of classpath resources packaged in a jar file are only served if the
+         * {@link #cacheMaxSize(long) in-memory cache} is enabled.
+         *
+         * @param precompressed whether to serve precompressed variants
+         * @return updated builder
+         */
+        public Builder precompressed(boolean precompressed) {
+            this.precompressed = precompressed;
+            return this;
+        }
+
         /**
          * Builds new {@link StaticContentSupport} instance.
          *
@@ -226,11 +301,14 @@ public class StaticContentSupport implements Service {
         @Override
         public StaticContentSupport build() {
             ContentTypeSelector selector = new ContentTypeSelector(specificContentTypes);
+            ContentCache cache = cacheMaxSize > 0
+                    ? new ContentCache(cacheMaxSize, cacheMaxFileSize, cacheRevalidation.toNanos())
+                    : null;
             StaticContentHandler handler;
             if (fsRoot != null) {
-                handler = FileSystemContentHandler.create(welcomeFileName, selector, fsRoot);
+                handler = FileSystemContentHandler.create(welcomeFileName, selector, fsRoot, cache, precompressed);
             } else if (clRoot != null) {
-                handler = ClassPathContentHandler.create(welcomeFileName, selector, clRoot, classLoader);
+                handler = ClassPathContentHandler.create(welcomeFileName, selector, clRoot, classLoader, cache, precompressed);
             } else {
                 throw new IllegalArgumentException("Builder was created without specified static content root!");
             }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import io.helidon.config.Config;
+
+/**
+ * Configuration of a WebSocket route.
+ * <p>
+ * Frames longer than {@link #maxFramePayloadLength()} and messages longer than {@link #maxMessageSize()}
+ * close the connection with status {@code 1009}. Connections without any traffic for {@link #idleTimeoutMillis()}
+ * are closed with status {@code 1001}. When {@link #perMessageDeflate()} is enabled, the {@code permessage-deflate}
+ * extension is accepted if requested by the client.
+ */
+public interface WebSocketConfiguration {
+
+    /**
+     * Default maximal payload length of a single frame in bytes.
+     */
+    int DEFAULT_MAX_FRAME_PAYLOAD_LENGTH = 64 * 1024;
+
+    /**
+     * Default maximal size of an aggregated message in bytes.
+     */
+    int DEFAULT_MAX_MESSAGE_SIZE = 1024 * 1024;
+
+    /**
+     * Default idle timeout in milliseconds.
+     */
+    long DEFAULT_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * Default configuration.
+     */
+    WebSocketConfiguration DEFAULT = builder().build();
+
+    /**
+     * Maximal payload length of a single frame in bytes.
+     *
+     * @return maximal frame payload length
+     */
+    int maxFramePayloadLength();
+
+    /**
+     * Maximal size of a message aggregated from its frames in bytes.
+     *
+     * @return maximal message size
+     */
+    int maxMessageSize();
+
+    /**
+     * Time without reads or writes after which the connection is closed, {@code 0} to never close idle connections.
+     *
+     * @return idle timeout in milliseconds
+     */
+    long idleTimeoutMillis();
+
+    /**
+     * Whether the {@code permessage-deflate} extension is accepted.
+     *
+     * @return {@code true} if messages may be compressed
+     */
+    boolean perMessageDeflate();
+
+    /**
+     * Supported subprotocols, the first one requested by the client is selected.
+     *
+     * @return supported subprotocols
+     */
+    Set<String> subprotocols();
+
+    /**
+     * Create a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates new instance from external configuration source.
+     *
+     * @param config the externalized configuration
+     * @return a new instance
+     */
+    static WebSocketConfiguration create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Builder for {@link WebSocketConfiguration}.
+     */
+    final class Builder implements io.helidon.common.Builder<WebSocketConfiguration> {
+
+        private final Set<String> subprotocols = new LinkedHashSet<>();
+        private int maxFramePayloadLength = DEFAULT_MAX_FRAME_PAYLOAD_LENGTH;
+        private int maxMessageSize = DEFAULT_MAX_MESSAGE_SIZE;
+        private long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+        private boolean perMessageDeflate = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets maximal payload length of a single frame in bytes.
+         * Default value is {@link #DEFAULT_MAX_FRAME_PAYLOAD_LENGTH}.
+         * <p>
+         * Configuration key: {@code max-frame-payload-length}
+         *
+         * @param maxFramePayloadLength maximal frame payload length
+         * @return this builder
+         * @throws IllegalArgumentException if the length is not positive
+         */
+        public Builder maxFramePayloadLength(int maxFramePayloadLength) {
+            if (maxFramePayloadLength < 1) {
+                throw new IllegalArgumentException("Maximal frame payload length must be positive, but is: "
+                                                           + maxFramePayloadLength);
+            }
+            this.maxFramePayloadLength = maxFramePayloadLength;
+            return this;
+        }
+
+        /**
+         * Sets maximal size of an aggregated message in bytes.
+         * Default value is {@link #DEFAULT_MAX_MESSAGE_SIZE}.
+         * <p>
+         * Configuration key: {@code max-message-size}
+         *
+         * @param maxMessageSize maximal message size
+         * @return this builder
+         * @throws IllegalArgumentException if the size is not positive
+         */
+        public Builder maxMessageSize(int maxMessageSize) {
+            if (maxMessageSize < 1) {
+                throw new IllegalArgumentException("Maximal message size must be positive, but is: " + maxMessageSize);
+            }
+            this.maxMessageSize = maxMessageSize;
+            return this;
+        }
+
+        /**
+         * Sets time without reads or writes after which the connection is closed, {@code 0} to disable.
+         * Default value is {@link #DEFAULT_IDLE_TIMEOUT_MILLIS}.
+         * <p>
+         * Configuration key: {@code idle-timeout-millis}
+         *
+         * @param idleTimeoutMillis idle timeout in milliseconds
+         * @return this builder
+         */
+        public Builder idleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = Math.max(idleTimeoutMillis, 0);
+            return this;
+        }
+
+        /**
+         * Enables or disables the {@code permessage-deflate} extension. Enabled by default.
+         * <p>
+         * Configuration key: {@code permessage-deflate}
+         *
+         * @param perMessageDeflate whether messages may be compressed
+         * @return this builder
+         */
+        public Builder perMessageDeflate(boolean perMessageDeflate) {
+            this.perMessageDeflate = perMessageDeflate;
+            return this;
+        }
+
+        /**
+         * Adds a supported subprotocol.
+         *
+         * @param subprotocol the subprotocol
+         * @return this builder
+         */
+        public Builder addSubprotocol(String subprotocol) {
+            this.subprotocols.add(Objects.requireNonNull(subprotocol, "Parameter 'subprotocol' must not be null!"));
+            return this;
+        }
+
+        /**
+         * Sets supported subprotocols.
+         * <p>
+         * Configuration key: {@code subprotocols}
+         *
+         * @param subprotocols the subprotocols
+         * @return this builder
+         */
+        public Builder subprotocols(Collection<String> subprotocols) {
+            this.subprotocols.clear();
+            subprotocols.forEach(this::addSubprotocol);
+            return this;
+        }
+
+        /**
+         * Sets configuration values included in provided {@link Config} parameter.
+         *
+         * @param config the configuration to use
+         * @return this builder
+         */
+        public Builder config(Config config) {
+            config.get("max-frame-payload-length").asInt().ifPresent(this::maxFramePayloadLength);
+            config.get("max-message-size").asInt().ifPresent(this::maxMessageSize);
+            config.get("idle-timeout-millis").asLong().ifPresent(this::idleTimeoutMillis);
+            config.get("permessage-deflate").asBoolean().ifPresent(this::perMessageDeflate);
+            config.get("subprotocols").asList(String.class).ifPresent(this::subprotocols);
+            return this;
+        }
+
+        @Override
+        public WebSocketConfiguration build() {
+            int maxFramePayloadLength = this.maxFramePayloadLength;
+            int maxMessageSize = this.maxMessageSize;
+            long idleTimeoutMillis = this.idleTimeoutMillis;
+            boolean perMessageDeflate = this.perMessageDeflate;
+            Set<String> subprotocols = Set.copyOf(this.subprotocols);
+
+            return new WebSocketConfiguration() {
+                @Override
+                public int maxFramePayloadLength() {
+                    return maxFramePayloadLength;
+                }
+
+                @Override
+                public int maxMessageSize() {
+                    return maxMessageSize;
+                }
+
+                @Override
+                public long idleTimeoutMillis() {
+                    return idleTimeoutMillis;
+                }
+
+                @Override
+                public boolean perMessageDeflate() {
+                    return perMessageDeflate;
+                }
+
+                @Override
+                public Set<String> subprotocols() {
+                    return subprotocols;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Flow;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.reactive.Multi;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CorruptedWebSocketFrameException;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketCloseStatus;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Bridges a WebSocket connection to a {@link WebSocketEndpoint}.
+ * <p>
+ * All state is accessed on the event loop of the connection only. Reading from the connection is suspended while
+ * there is no demand for inbound messages, and one outbound message is requested once the previous one is written.
+ * When the client closes the connection, the close frame is echoed once the outbound messages complete.
+ */
+final class WebSocketConnection extends ChannelInboundHandlerAdapter {
+
+    private static final Logger LOGGER = Logger.getLogger(WebSocketConnection.class.getName());
+
+    private static final int NORMAL_CLOSURE = 1000;
+    private static final int GOING_AWAY = 1001;
+    private static final int MESSAGE_TOO_BIG = 1009;
+    private static final int INTERNAL_ERROR = 1011;
+
+    private final WebSocketEndpoint endpoint;
+    private final ServerRequest request;
+    private final Inbound inbound = new Inbound();
+
+    private ChannelHandlerContext ctx;
+    private Flow.Subscription outbound;
+    private boolean closed;
+    private int closeStatus = NORMAL_CLOSURE;
+
+    WebSocketConnection(WebSocketEndpoint endpoint, ServerRequest request) {
+        this.endpoint = endpoint;
+        this.request = request;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    /**
+     * Connects the endpoint, must be called on the event loop once the handler is added.
+     */
+    void start() {
+        inbound.updateAutoRead();
+        Flow.Publisher<WebSocketMessage> messages;
+        try {
+            messages = endpoint.connect(request, inbound);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "WebSocket endpoint failed to connect", e);
+            close(INTERNAL_ERROR, "Internal error");
+            return;
+        }
+        if (messages != null) {
+            messages.subscribe(new Outbound());
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        try {
+            if (msg instanceof TextWebSocketFrame) {
+                inbound.offer(WebSocketMessage.text(((TextWebSocketFrame) msg).text()));
+            } else if (msg instanceof BinaryWebSocketFrame) {
+                byte[] bytes = ByteBufUtil.getBytes(((BinaryWebSocketFrame) msg).content());
+                inbound.offer(WebSocketMessage.binary(ByteBuffer.wrap(bytes)));
+            } else if (msg instanceof PingWebSocketFrame) {
+                ctx.writeAndFlush(new PongWebSocketFrame(((PingWebSocketFrame) msg).content().retain()));
+            } else if (msg instanceof CloseWebSocketFrame) {
+                // closing handshake initiated by the client, pending outbound messages are sent first
+                int status = ((CloseWebSocketFrame) msg).statusCode();
+                closeStatus = status < 0 ? NORMAL_CLOSURE : status;
+                inbound.complete(null);
+                if (outbound == null) {
+                    close(closeStatus, null);
+                }
+            }
+            // pong frames and the last content of the upgrade request are ignored
+        } finally {
+            ReferenceCountUtil.release(msg);
+        }
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+        if (evt instanceof IdleStateEvent) {
+            LOGGER.finest(() -> "Closing idle WebSocket connection");
+            close(GOING_AWAY, "Idle timeout");
+        } else {
+            ctx.fireUserEventTriggered(evt);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        // closed without the closing handshake
+        inbound.complete(closed ? null : new ClosedChannelException());
+        closed = true;
+        cancelOutbound();
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        if (cause instanceof TooLongFrameException) {
+            LOGGER.log(Level.FINE, "WebSocket message too big", cause);
+            close(MESSAGE_TOO_BIG, "Message too big");
+        } else if (cause instanceof CorruptedWebSocketFrameException) {
+            // e.g. 1009 for a frame over the limit, the frame decoder leaves closing the connection to us
+            LOGGER.log(Level.FINE, "Invalid WebSocket frame", cause);
+            WebSocketCloseStatus status = ((CorruptedWebSocketFrameException) cause).closeStatus();
+            close(status.code(), status.reasonText());
+        } else {
+            LOGGER.log(Level.FINE, "WebSocket connection failed", cause);
+            inbound.complete(cause);
+            cancelOutbound();
+            ctx.close();
+        }
+    }
+
+    private void close(int status, String reason) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        ctx.writeAndFlush(new CloseWebSocketFrame(status, reason))
+                .addListener(ChannelFutureListener.CLOSE);
+        cancelOutbound();
+    }
+
+    private void cancelOutbound() {
+        Flow.Subscription subscription = outbound;
+        outbound = null;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private void execute(Runnable runnable) {
+        if (ctx.executor().inEventLoop()) {
+            runnable.run();
+        } else {
+            ctx.executor().execute(runnable);
+        }
+    }
+
+    private final class Outbound implements Flow.Subscriber<WebSocketMessage> {
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            execute(() -> {
+                if (closed || outbound != null) {
+                    subscription.cancel();
+                    return;
+                }
+                outbound = subscription;
+                subscription.request(1);
+            });
+        }
+
+        @Override
+        public void onNext(WebSocketMessage message) {
+            execute(() -> {
+                if (closed) {
+                    return;
+                }
+                Object frame = message.isText()
+                        ? new TextWebSocketFrame(message.text())
+                        : new BinaryWebSocketFrame(Unpooled.wrappedBuffer(message.data()));
+                ctx.writeAndFlush(frame).addListener(future -> {
+                    Flow.Subscription subscription = outbound;
+                    if (!future.isSuccess()) {
+                        ctx.close();
+                    } else if (subscription != null) {
+                        subscription.request(1);
+                    }
+                });
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            execute(() -> {
+                LOGGER.log(Level.WARNING, "WebSocket endpoint failed", throwable);
+                outbound = null;
+                close(INTERNAL_ERROR, "Internal error");
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            execute(() -> {
+                outbound = null;
+                close(closeStatus, null);
+            });
+        }
+    }
+
+    private final class Inbound implements Multi<WebSocketMessage> {
+        private final ArrayDeque<WebSocketMessage> queue = new ArrayDeque<>();
+        private Flow.Subscriber<? super WebSocketMessage> subscriber;
+        private long demand;
+        private boolean draining;
+        private boolean cancelled;
+        private boolean done;
+        private Throwable error;
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super WebSocketMessage> subscriber) {
+            execute(() -> {
+                if (this.subscriber != null) {
+                    subscriber.onSubscribe(new Flow.Subscription() {
+                        @Override
+                        public void request(long n) {
+                        }
+
+                        @Override
+                        public void cancel() {
+                        }
+                    });
+                    subscriber.onError(new IllegalStateException("Only single subscriber is allowed!"));
+                    return;
+                }
+                this.subscriber = subscriber;
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                        execute(() -> {
+                            if (n <= 0) {
+                                cancelled = true;
+                                subscriber.onError(new IllegalArgumentException("Rule §3.9: non-positive request: " + n));
+                                return;
+                            }
+                            demand = (Long.MAX_VALUE - demand <= n) ? Long.MAX_VALUE : demand + n;
+                            drain();
+                        });
+                    }
+
+                    @Override
+                    public void cancel() {
+                        execute(() -> {
+                            cancelled = true;
+                            queue.clear();
+                            // keep reading to process control frames
+                            updateAutoRead();
+                        });
+                    }
+                });
+                drain();
+            });
+        }
+
+        private void offer(WebSocketMessage message) {
+            if (!cancelled && !done) {
+                queue.add(message);
+                drain();
+            }
+        }
+
+        private void complete(Throwable throwable) {
+            if (!done) {
+                done = true;
+                error = throwable;
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (draining || subscriber == null) {
+                updateAutoRead();
+                return;
+            }
+            draining = true;
+            try {
+                while (!cancelled && demand > 0 && !queue.isEmpty()) {
+                    demand--;
+                    subscriber.onNext(queue.poll());
+                }
+                if (!cancelled && done && queue.isEmpty()) {
+                    cancelled = true;
+                    if (error == null) {
+                        subscriber.onComplete();
+                    } else {
+                        subscriber.onError(error);
+                    }
+                }
+            } finally {
+                draining = false;
+            }
+            updateAutoRead();
+        }
+
+        private void updateAutoRead() {
+            if (ctx != null && !closed) {
+                ctx.channel().config().setAutoRead(cancelled || (demand > 0 && queue.isEmpty()));
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.concurrent.Flow;
+
+import io.helidon.common.reactive.Multi;
+
+/**
+ * A WebSocket endpoint registered by {@link Routing.Builder#webSocket(String, WebSocketEndpoint)}.
+ * <p>
+ * The endpoint is called once for each connection, when the upgrade handshake completes. It receives
+ * the messages sent by the client and returns the messages to send. The connection is closed when the returned
+ * publisher completes, or with status {@code 1011} when it fails. Messages are read from the connection only
+ * as they are requested from {@code inbound}, and requested from the returned publisher only as they are written.
+ * <pre>{@code
+ * Routing.builder()
+ *         .webSocket("/echo", (req, inbound) -> inbound.map(message -> message))
+ * }</pre>
+ */
+@FunctionalInterface
+public interface WebSocketEndpoint {
+
+    /**
+     * Connects the endpoint to a new WebSocket connection. This method is called on an event loop thread
+     * and must not block.
+     *
+     * @param request the upgrade request
+     * @param inbound messages sent by the client, completed when the client closes the connection
+     * @return messages to send to the client, {@code null} to only receive messages until the client closes
+     * the connection
+     */
+    Flow.Publisher<WebSocketMessage> connect(ServerRequest request, Multi<WebSocketMessage> inbound);
+}
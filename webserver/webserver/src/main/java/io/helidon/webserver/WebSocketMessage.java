@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A complete WebSocket message, either text or binary. Messages fragmented into multiple frames are aggregated.
+ */
+public final class WebSocketMessage {
+
+    private final String text;
+    private final ByteBuffer data;
+
+    private WebSocketMessage(String text, ByteBuffer data) {
+        this.text = text;
+        this.data = data;
+    }
+
+    /**
+     * Creates a text message.
+     *
+     * @param text the text
+     * @return a new message
+     */
+    public static WebSocketMessage text(String text) {
+        return new WebSocketMessage(Objects.requireNonNull(text, "Parameter 'text' is null!"), null);
+    }
+
+    /**
+     * Creates a binary message.
+     *
+     * @param data the data, remaining bytes are sent
+     * @return a new message
+     */
+    public static WebSocketMessage binary(ByteBuffer data) {
+        return new WebSocketMessage(null, Objects.requireNonNull(data, "Parameter 'data' is null!").asReadOnlyBuffer());
+    }
+
+    /**
+     * Creates a binary message.
+     *
+     * @param data the data
+     * @return a new message
+     */
+    public static WebSocketMessage binary(byte[] data) {
+        return binary(ByteBuffer.wrap(Objects.requireNonNull(data, "Parameter 'data' is null!")));
+    }
+
+    /**
+     * Whether this is a text message.
+     *
+     * @return {@code true} for a text message, {@code false} for a binary message
+     */
+    public boolean isText() {
+        return text != null;
+    }
+
+    /**
+     * Text of a text message.
+     *
+     * @return the text
+     * @throws IllegalStateException if this is a binary message
+     */
+    public String text() {
+        if (text == null) {
+            throw new IllegalStateException("Not a text message");
+        }
+        return text;
+    }
+
+    /**
+     * Data of the message. Text is encoded in {@code UTF-8}.
+     *
+     * @return read-only data of the message
+     */
+    public ByteBuffer data() {
+        if (text != null) {
+            return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+        }
+        return data.duplicate();
+    }
+
+    @Override
+    public String toString() {
+        return text != null ? "WebSocketMessage{text=" + text + '}' : "WebSocketMessage{binary=" + data.remaining() + " bytes}";
+    }
+}
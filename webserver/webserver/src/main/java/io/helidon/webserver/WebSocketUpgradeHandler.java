@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.Http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.websocketx.WebSocketDecoderConfig;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketHandshakeException;
+import io.netty.handler.codec.http.websocketx.WebSocketServerHandshaker;
+import io.netty.handler.codec.http.websocketx.WebSocketServerHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+import io.netty.handler.timeout.IdleStateHandler;
+
+/**
+ * Upgrades requests with {@code Upgrade: websocket} header to WebSocket connections handled
+ * by a {@link WebSocketEndpoint}. Other requests are passed to the next handler.
+ * <p>
+ * The handshake is done on the event loop of the connection once the request was read. Then the HTTP handlers
+ * of the connection are replaced by WebSocket handlers and the HTTP response is completed.
+ */
+final class WebSocketUpgradeHandler implements Handler {
+
+    private static final Logger LOGGER = Logger.getLogger(WebSocketUpgradeHandler.class.getName());
+    private static final Http.ResponseStatus UPGRADE_REQUIRED = Http.ResponseStatus.create(426, "Upgrade Required");
+
+    private final WebSocketConfiguration config;
+    private final WebSocketEndpoint endpoint;
+    private final String subprotocols;
+
+    WebSocketUpgradeHandler(WebSocketConfiguration config, WebSocketEndpoint endpoint) {
+        this.config = config;
+        this.endpoint = endpoint;
+        this.subprotocols = config.subprotocols().isEmpty() ? null : String.join(",", config.subprotocols());
+    }
+
+    @Override
+    public void accept(ServerRequest req, ServerResponse res) {
+        if (!isUpgrade(req) || !(req instanceof Request) || !(res instanceof Response)) {
+            req.next();
+            return;
+        }
+        BareRequest bareRequest = ((Request) req).bareRequest();
+        BareResponse bareResponse = ((Response) res).bareResponse();
+        if (!(bareRequest instanceof BareRequestImpl) || !(bareResponse instanceof BareResponseImpl)) {
+            req.next();
+            return;
+        }
+        HttpRequest nettyRequest = ((BareRequestImpl) bareRequest).nettyRequest();
+        ChannelHandlerContext ctx = ((BareRequestImpl) bareRequest).channelContext();
+
+        String location = (req.isSecure() ? "wss://" : "ws://")
+                + req.headers().first(Http.Header.HOST).orElse("localhost")
+                + req.uri().getRawPath();
+        WebSocketDecoderConfig decoderConfig = WebSocketDecoderConfig.newBuilder()
+                // the aggregator passes an unfragmented message through as is, the frame decoder enforces the limit on it
+                .maxFramePayloadLength(Math.min(config.maxFramePayloadLength(), config.maxMessageSize()))
+                .allowExtensions(config.perMessageDeflate())
+                // the decoder would write the close frame in front of the frame encoder
+                .closeOnProtocolViolation(false)
+                .build();
+        WebSocketServerHandshaker handshaker = new WebSocketServerHandshakerFactory(location, subprotocols, decoderConfig)
+                .newHandshaker(nettyRequest);
+        if (handshaker == null) {
+            res.status(UPGRADE_REQUIRED)
+                    .headers()
+                    .put(HttpHeaderNames.SEC_WEBSOCKET_VERSION.toString(), "13");
+            res.send();
+            return;
+        }
+        // the request is completely read on the event loop before the HTTP handlers are replaced
+        ctx.executor().execute(() -> handshake(ctx, handshaker, nettyRequest, req, res, (BareResponseImpl) bareResponse));
+    }
+
+    private void handshake(ChannelHandlerContext ctx,
+                           WebSocketServerHandshaker handshaker,
+                           HttpRequest nettyRequest,
+                           ServerRequest req,
+                           ServerResponse res,
+                           BareResponseImpl bareResponse) {
+        FullHttpRequest request = new DefaultFullHttpRequest(nettyRequest.protocolVersion(),
+                                                             nettyRequest.method(),
+                                                             nettyRequest.uri(),
+                                                             Unpooled.EMPTY_BUFFER);
+        request.headers().set(nettyRequest.headers());
+        HttpHeaders responseHeaders = new DefaultHttpHeaders();
+        WebSocketServerExtension extension = config.perMessageDeflate()
+                ? perMessageDeflate(nettyRequest.headers().get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS))
+                : null;
+        if (extension != null) {
+            responseHeaders.set(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS, format(extension.newReponseData()));
+        }
+        try {
+            handshaker.handshake(ctx.channel(), request, responseHeaders, ctx.newPromise())
+                    .addListener(future -> {
+                        if (future.isSuccess()) {
+                            connect(ctx, extension, req, bareResponse);
+                        } else {
+                            LOGGER.log(Level.FINE, "WebSocket handshake failed", future.cause());
+                            bareResponse.onError(future.cause());
+                            ctx.close();
+                        }
+                    });
+        } catch (WebSocketHandshakeException e) {
+            LOGGER.log(Level.FINE, "Invalid WebSocket handshake request", e);
+            res.status(Http.Status.BAD_REQUEST_400).send();
+        } finally {
+            request.release();
+        }
+    }
+
+    private void connect(ChannelHandlerContext ctx,
+                         WebSocketServerExtension extension,
+                         ServerRequest req,
+                         BareResponseImpl bareResponse) {
+        ChannelPipeline pipeline = ctx.pipeline();
+        pipeline.remove(ctx.handler());
+        if (config.idleTimeoutMillis() > 0) {
+            pipeline.addLast(new IdleStateHandler(0, 0, config.idleTimeoutMillis(), TimeUnit.MILLISECONDS));
+        }
+        if (extension != null) {
+            pipeline.addLast(extension.newExtensionDecoder());
+            pipeline.addLast(extension.newExtensionEncoder());
+        }
+        pipeline.addLast(new WebSocketFrameAggregator(config.maxMessageSize()));
+        WebSocketConnection connection = new WebSocketConnection(endpoint, req);
+        pipeline.addLast(connection);
+        // completes the HTTP exchange, which re-enables reading from the connection
+        bareResponse.upgraded();
+        connection.start();
+    }
+
+    private static boolean isUpgrade(ServerRequest req) {
+        boolean upgrade = req.headers()
+                .first(Http.Header.UPGRADE)
+                .map(value -> HttpHeaderValues.WEBSOCKET.contentEqualsIgnoreCase(value.trim()))
+                .orElse(false);
+        return upgrade && req.headers()
+                .all(Http.Header.CONNECTION)
+                .stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .anyMatch(token -> HttpHeaderValues.UPGRADE.contentEqualsIgnoreCase(token.trim()));
+    }
+
+    /**
+     * Negotiates the {@code permessage-deflate} extension requested by the client.
+     *
+     * @param header value of the {@code Sec-WebSocket-Extensions} header, may be {@code null}
+     * @return the accepted extension or {@code null}
+     */
+    private static WebSocketServerExtension perMessageDeflate(String header) {
+        if (header == null) {
+            return null;
+        }
+        PerMessageDeflateServerExtensionHandshaker handshaker = new PerMessageDeflateServerExtensionHandshaker();
+        for (String offer : header.split(",")) {
+            String[] parts = offer.split(";");
+            Map<String, String> parameters = new LinkedHashMap<>();
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                int eq = parameter.indexOf('=');
+                if (eq < 0) {
+                    parameters.put(parameter, null);
+                } else {
+                    parameters.put(parameter.substring(0, eq).trim(), unquote(parameter.substring(eq + 1).trim()));
+                }
+            }
+            WebSocketServerExtension extension = handshaker.handshakeExtension(
+                    new WebSocketExtensionData(parts[0].trim(), parameters));
+            if (extension != null) {
+                return extension;
+            }
+        }
+        return null;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static String format(WebSocketExtensionData data) {
+        StringBuilder sb = new StringBuilder(data.name());
+        data.parameters().forEach((name, value) -> {
+            sb.append("; ").append(name);
+            if (value != null) {
+                sb.append('=').append(value);
+            }
+        });
+        return sb.toString();
+    }
+}
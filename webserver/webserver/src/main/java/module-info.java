@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,8 @@ module io.helidon.webserver {
     requires io.netty.common;
     requires io.netty.buffer;
     requires io.netty.codec.http2;
+    requires static io.netty.transport.epoll;
+    requires static io.netty.transport.unix.common;
 
     exports io.helidon.webserver;
 }
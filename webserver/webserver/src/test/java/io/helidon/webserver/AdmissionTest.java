@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.http.Http;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests admission control.
+ */
+public class AdmissionTest {
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor();
+
+    private static volatile CountDownLatch release = new CountDownLatch(0);
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        webServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .admission(AdmissionConfiguration.builder()
+                                           .enabled(true)
+                                           .maxConcurrentRequests(1)
+                                           .retryAfterSeconds(3))
+                        .build(),
+                Routing.builder()
+                        .get("/slow", (req, res) -> CompletableFuture.runAsync(() -> {
+                            try {
+                                release.await(10, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            res.send("slow");
+                        }))
+                        .get("/fast", (req, res) -> res.send("fast"))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void close() throws Exception {
+        EXECUTOR.shutdownNow();
+        if (webServer != null) {
+            webServer.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testRejectOverLimit() throws Exception {
+        release = new CountDownLatch(1);
+        HttpURLConnection slow = open("/slow");
+        CompletableFuture<Integer> slowStatus = CompletableFuture.supplyAsync(() -> {
+            try {
+                return slow.getResponseCode();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            // wait for the slow request to be admitted
+            int status = Http.Status.OK_200.code();
+            for (int i = 0; i < 100 && status == Http.Status.OK_200.code(); i++) {
+                HttpURLConnection fast = open("/fast");
+                status = fast.getResponseCode();
+                if (status == Http.Status.SERVICE_UNAVAILABLE_503.code()) {
+                    assertThat(fast.getHeaderField(Http.Header.RETRY_AFTER), is("3"));
+                } else {
+                    Thread.sleep(50);
+                }
+            }
+            assertThat(status, is(Http.Status.SERVICE_UNAVAILABLE_503.code()));
+        } finally {
+            release.countDown();
+        }
+        assertThat(slowStatus.get(10, TimeUnit.SECONDS), is(Http.Status.OK_200.code()));
+        // the permit is released once the response is completed on the server
+        int status = Http.Status.SERVICE_UNAVAILABLE_503.code();
+        for (int i = 0; i < 100 && status != Http.Status.OK_200.code(); i++) {
+            status = open("/fast").getResponseCode();
+            if (status != Http.Status.OK_200.code()) {
+                Thread.sleep(50);
+            }
+        }
+        assertThat(status, is(Http.Status.OK_200.code()));
+    }
+
+    @Test
+    public void testPerConnectionLimitHttp2() throws Exception {
+        CountDownLatch streamsRelease = new CountDownLatch(1);
+        WebServer server = WebServer.create(
+                ServerConfiguration.builder()
+                        .http2(Http2Configuration.builder()
+                                       .enable(true)
+                                       .build())
+                        .admission(AdmissionConfiguration.builder()
+                                           .enabled(true)
+                                           .maxConcurrentRequests(100)
+                                           .maxConcurrentRequestsPerConnection(2))
+                        .build(),
+                Routing.builder()
+                        .get("/slow", (req, res) -> CompletableFuture.runAsync(() -> {
+                            try {
+                                streamsRelease.await(10, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            res.send("slow");
+                        }))
+                        .get("/fast", (req, res) -> res.send("fast"))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .build();
+            URI base = URI.create("http://localhost:" + server.port());
+            // upgrade the connection first, then all the requests are streams of the same connection
+            HttpResponse<String> upgrade = client.send(HttpRequest.newBuilder(base.resolve("/fast")).build(),
+                                                       HttpResponse.BodyHandlers.ofString());
+            assertThat(upgrade.version(), is(HttpClient.Version.HTTP_2));
+
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                responses.add(client.sendAsync(HttpRequest.newBuilder(base.resolve("/slow")).build(),
+                                               HttpResponse.BodyHandlers.ofString()));
+            }
+            try {
+                // two streams wait for the release, the other two are rejected right away
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (responses.stream().filter(CompletableFuture::isDone).count() < 2
+                        && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+            } finally {
+                streamsRelease.countDown();
+            }
+            int rejected = 0;
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                if (response.get(10, TimeUnit.SECONDS).statusCode() == Http.Status.SERVICE_UNAVAILABLE_503.code()) {
+                    rejected++;
+                }
+            }
+            assertThat(rejected, is(2));
+        } finally {
+            server.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testQueue() throws Exception {
+        AdmissionController controller = AdmissionController.create(AdmissionConfiguration.builder()
+                                                                            .enabled(true)
+                                                                            .maxConcurrentRequests(1)
+                                                                            .maxQueuedRequests(1)
+                                                                            .queueTimeoutMillis(0)
+                                                                            .build());
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            controller.admit(EXECUTOR, admitted::incrementAndGet, rejected::incrementAndGet);
+        }
+        assertThat(admitted.get(), is(1));
+        assertThat(rejected.get(), is(1));
+
+        // the permit is passed to the queued request
+        controller.release(0);
+        EXECUTOR.submit(() -> { }).get(10, TimeUnit.SECONDS);
+        assertThat(admitted.get(), is(2));
+        assertThat(controller.inFlight(), is(1));
+
+        controller.release(0);
+        assertThat(controller.inFlight(), is(0));
+    }
+
+    @Test
+    public void testQueueTimeout() throws Exception {
+        AdmissionController controller = AdmissionController.create(AdmissionConfiguration.builder()
+                                                                            .enabled(true)
+                                                                            .maxConcurrentRequests(1)
+                                                                            .maxQueuedRequests(1)
+                                                                            .queueTimeoutMillis(10)
+                                                                            .build());
+        CountDownLatch rejected = new CountDownLatch(1);
+        controller.admit(EXECUTOR, () -> { }, () -> { });
+        controller.admit(EXECUTOR, () -> { }, rejected::countDown);
+        assertThat(rejected.await(10, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void testAdaptiveLimit() {
+        AdmissionController controller = AdmissionController.create(AdmissionConfiguration.builder()
+                                                                            .enabled(true)
+                                                                            .adaptive(true)
+                                                                            .maxConcurrentRequests(20)
+                                                                            .minLimit(5)
+                                                                            .targetLatencyMillis(100)
+                                                                            .build());
+        assertThat(controller.limit(), is(20));
+        for (int i = 0; i < 20; i++) {
+            controller.admit(EXECUTOR, () -> { }, () -> { });
+        }
+        // slow requests decrease the limit, not below the minimum
+        for (int i = 0; i < 20; i++) {
+            controller.release(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+        assertThat(controller.limit(), is(5));
+
+        // fast requests using the limit increase it
+        for (int round = 0; round < 10; round++) {
+            int limit = controller.limit();
+            for (int i = 0; i < limit; i++) {
+                controller.admit(EXECUTOR, () -> { }, () -> { });
+            }
+            for (int i = 0; i < limit; i++) {
+                controller.release(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        assertThat(controller.limit(), is(20));
+        assertThat(controller.inFlight(), is(0));
+    }
+
+    @Test
+    public void testDisabled() {
+        assertThat(AdmissionController.create(AdmissionConfiguration.DISABLED), is(nullValue()));
+    }
+
+    private static HttpURLConnection open(String path) throws Exception {
+        return (HttpURLConnection) new URL("http://localhost:" + webServer.port() + path).openConnection();
+    }
+}
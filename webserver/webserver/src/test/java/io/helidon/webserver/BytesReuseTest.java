@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,9 +46,9 @@ import org.junit.jupiter.api.Test;
 import static io.helidon.webserver.utils.SocketHttpClient.longData;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.core.StringEndsWith.endsWith;
 import static org.hamcrest.core.StringStartsWith.startsWith;
-import static org.junit.jupiter.api.Assertions.fail;
 
 /**
  * The BytesReuseTest verifies whether the {@link DataChunk} instances get released properly.
@@ -188,25 +188,29 @@ public class BytesReuseTest {
     }
 
     @Test
-    public void requestChunkDataRemainsWhenNotReleased() throws Exception {
+    public void requestChunkDataGetsReleasedOnCompletionWhenNotReleased() throws Exception {
+        long leaked = RequestChunkStatistics.releasedOnCompletion();
         doSubscriberPostRequest(false);
-        for (DataChunk chunk : chunkReference) {
-            assertThat("The chunk was released: ID " + chunk.id(), chunk.isReleased(), is(false));
+        // the response is completed by the server once written, possibly after the client received it
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (chunkReference.stream().anyMatch(chunk -> !chunk.isReleased()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
         }
-        assertThat(new String(chunkReference.peek().bytes()), startsWith("myData"));
+        assertChunkReferencesAreReleased();
+        assertThat(RequestChunkStatistics.releasedOnCompletion() - leaked, greaterThanOrEqualTo((long) chunkReference.size()));
     }
 
     @Test
-    @Disabled("This test takes minutes before it throws OutOfMemoryError")
-    public void requestChunkDataRemainsWhenNotReleasedOutOfMemoryError() throws Exception {
+    @Disabled("This test takes minutes")
+    public void requestChunkDataNotReleasedDoesNotEndWithOutOfMemoryError() throws Exception {
+        // chunks are released by the server on request completion, even if referenced by the application
         for (int i = 0; i < 100_000; i++) {
             try {
-                requestChunkDataRemainsWhenNotReleased();
+                doSubscriberPostRequest(false);
             } finally {
                 LOGGER.log(Level.INFO, "Iteration reached: {0}", i);
             }
         }
-        fail("An assertion was expected: OutOfMemoryError");
     }
 
     @Test
@@ -286,7 +290,7 @@ public class BytesReuseTest {
      * {@link DataChunk} instances.
      * It takes several seconds which is why it's disabled by default.
      * <p>
-     * Note that since {@link ByteBufRequestChunk} releases the underlying {@link io.netty.buffer.ByteBuf} on
+     * Note that since {@link ByteBufRequestChunk.GcReleased} releases the underlying {@link io.netty.buffer.ByteBuf} on
      * {@link Object#finalize()} call, the {@link OutOfMemoryError} never occurs in case that the
      * {@link #chunkReference} doesn't get filled.
      *
@@ -349,7 +353,7 @@ public class BytesReuseTest {
     }
 
     /**
-     * This test shows that in case that {@link ByteBufRequestChunk#finalize()} is disabled, there would
+     * This test shows that in case that {@link ByteBufRequestChunk.GcReleased#finalize()} is disabled, there would
      * remain unreleased {@link io.netty.buffer.ByteBuf} instances that the {@link HttpInitializer} should
      * take care of.
      *
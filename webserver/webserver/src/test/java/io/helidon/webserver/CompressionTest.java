@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests HTTP response compression.
+ */
+public class CompressionTest {
+
+    private static final String LARGE = "compress me ".repeat(1000);
+
+    private static Path file;
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        file = Files.createTempFile("compression", ".txt");
+        Files.writeString(file, LARGE);
+        webServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .compression(CompressionConfiguration.builder()
+                                             .enabled(true)
+                                             .addEncoding(CompressionConfiguration.GZIP)
+                                             .minSize(100))
+                        .build(),
+                Routing.builder()
+                        .get("/large", (req, res) -> res.send(LARGE))
+                        .get("/small", (req, res) -> res.send("small"))
+                        .get("/binary", (req, res) -> {
+                            res.headers().contentType(MediaType.APPLICATION_OCTET_STREAM);
+                            res.send(LARGE.getBytes(StandardCharsets.UTF_8));
+                        })
+                        .get("/file", (req, res) -> {
+                            res.headers().contentType(MediaType.TEXT_PLAIN);
+                            res.send(file);
+                        })
+                        .get("/range", (req, res) -> {
+                            res.status(Http.Status.PARTIAL_CONTENT_206);
+                            res.headers().put(Http.Header.CONTENT_RANGE,
+                                              "bytes 0-" + (LARGE.length() - 1) + "/" + (LARGE.length() * 2));
+                            res.send(LARGE);
+                        })
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void close() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testGzip() throws Exception {
+        HttpURLConnection conn = open("/large", "gzip, deflate");
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(conn.getHeaderField("Content-Encoding"), is("gzip"));
+        assertThat(conn.getHeaderField("Vary"), is("accept-encoding"));
+        try (InputStream is = new GZIPInputStream(conn.getInputStream())) {
+            assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8), is(LARGE));
+        }
+    }
+
+    @Test
+    public void testDisabledEncoding() throws Exception {
+        HttpURLConnection conn = open("/large", "deflate");
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(conn.getHeaderField("Content-Encoding"), nullValue());
+        try (InputStream is = conn.getInputStream()) {
+            assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8), is(LARGE));
+        }
+    }
+
+    @Test
+    public void testNoAcceptEncoding() throws Exception {
+        HttpURLConnection conn = open("/large", null);
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(conn.getHeaderField("Content-Encoding"), nullValue());
+    }
+
+    @Test
+    public void testBelowMinSize() throws Exception {
+        HttpURLConnection conn = open("/small", "gzip");
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(conn.getHeaderField("Content-Encoding"), nullValue());
+    }
+
+    @Test
+    public void testNotCompressibleMediaType() throws Exception {
+        HttpURLConnection conn = open("/binary", "gzip");
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(conn.getHeaderField("Content-Encoding"), nullValue());
+    }
+
+    @Test
+    public void testFile() throws Exception {
+        // the compressor reads the file in memory mapped windows, which are unmapped once written
+        for (int i = 0; i < 2; i++) {
+            HttpURLConnection conn = open("/file", "gzip");
+            assertThat(conn.getResponseCode(), is(200));
+            assertThat(conn.getHeaderField("Content-Encoding"), is("gzip"));
+            try (InputStream is = new GZIPInputStream(conn.getInputStream())) {
+                assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8), is(LARGE));
+            }
+        }
+    }
+
+    @Test
+    public void testPartialContent() throws Exception {
+        HttpURLConnection conn = open("/range", "gzip");
+        assertThat(conn.getResponseCode(), is(206));
+        assertThat(conn.getHeaderField("Content-Encoding"), nullValue());
+        try (InputStream is = conn.getInputStream()) {
+            assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8), is(LARGE));
+        }
+    }
+
+    @Test
+    public void testInvalidLevel() {
+        assertThrows(IllegalArgumentException.class, () -> CompressionConfiguration.builder().level(10));
+    }
+
+    @Test
+    public void testDeflateOnly() throws Exception {
+        WebServer server = WebServer.create(
+                ServerConfiguration.builder()
+                        .compression(CompressionConfiguration.builder()
+                                             .enabled(true)
+                                             .addEncoding(CompressionConfiguration.DEFLATE))
+                        .build(),
+                Routing.builder()
+                        .get("/large", (req, res) -> res.send(LARGE))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        try {
+            HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + server.port() + "/large")
+                    .openConnection();
+            conn.setRequestProperty("Accept-Encoding", "*");
+            assertThat(conn.getResponseCode(), is(200));
+            assertThat(conn.getHeaderField("Content-Encoding"), is("deflate"));
+            try (InputStream is = new InflaterInputStream(conn.getInputStream())) {
+                assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8), is(LARGE));
+            }
+        } finally {
+            server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static HttpURLConnection open(String path, String acceptEncoding) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + webServer.port() + path)
+                .openConnection();
+        if (acceptEncoding != null) {
+            conn.setRequestProperty("Accept-Encoding", acceptEncoding);
+        }
+        return conn;
+    }
+}
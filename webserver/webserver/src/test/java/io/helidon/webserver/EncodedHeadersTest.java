@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+import io.netty.util.AsciiString;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Tests {@link EncodedHeaders}.
+ */
+public class EncodedHeadersTest {
+
+    @Test
+    public void testDate() {
+        String date = EncodedHeaders.date();
+        ZonedDateTime parsed = Http.DateTime.parse(date);
+        assertThat(Duration.between(parsed, ZonedDateTime.now()).abs().getSeconds(), is(lessThan(2L)));
+        assertThat(date.endsWith(" GMT"), is(true));
+        assertThat(EncodedHeaders.value(date), instanceOf(AsciiString.class));
+    }
+
+    @Test
+    public void testNames() {
+        CharSequence contentType = EncodedHeaders.name(Http.Header.CONTENT_TYPE);
+        assertThat(contentType, instanceOf(AsciiString.class));
+        // the casing on the wire is kept
+        assertThat(contentType.toString(), is("Content-Type"));
+        assertThat(EncodedHeaders.name(Http.Header.CONTENT_TYPE), sameInstance(contentType));
+        assertThat(EncodedHeaders.name("X-Custom"), is("X-Custom"));
+    }
+
+    @Test
+    public void testValues() {
+        CharSequence json = EncodedHeaders.value(MediaType.APPLICATION_JSON.toString());
+        assertThat(json, instanceOf(AsciiString.class));
+        assertThat(json.toString(), is(MediaType.APPLICATION_JSON.toString()));
+        assertThat(EncodedHeaders.value("custom"), is("custom"));
+    }
+}
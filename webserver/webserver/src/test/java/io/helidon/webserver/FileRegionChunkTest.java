@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.helidon.common.http.DataChunk;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link FileRegionChunk}.
+ */
+public class FileRegionChunkTest {
+
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    @Test
+    public void testMappedWindows() throws Exception {
+        Path file = Files.createTempFile("file-region", ".txt");
+        try {
+            Files.writeString(file, CONTENT);
+            List<DataChunk> chunks = FileRegionChunk.create(file, 10, 20);
+            assertThat(chunks.size(), is(1));
+            FileRegionChunk region = (FileRegionChunk) chunks.get(0);
+
+            assertThat(string(region.map(0, 6)), is("abcdef"));
+            assertThat(string(region.map(6, 14)), is("ghijklmnopqrst"));
+            assertThat(string(region.data()), is("abcdefghijklmnopqrst"));
+
+            region.release();
+            assertThat(region.isReleased(), is(true));
+            assertThrows(IllegalStateException.class, () -> region.map(0, 1));
+            // released twice is harmless
+            region.release();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testEmptyRegion() throws Exception {
+        Path file = Files.createTempFile("file-region", ".txt");
+        try {
+            assertThat(FileRegionChunk.create(file, 0, 0).isEmpty(), is(true));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link ForwardingHandler} on an embedded channel.
+ */
+public class ForwardingHandlerTest {
+
+    @Test
+    public void testContentAfterResponseCompleted() throws Exception {
+        Routing routing = Routing.builder()
+                .post("/", (req, res) -> res.send("done"))
+                .build();
+        NettyWebServer webServer = (NettyWebServer) WebServer.create(routing);
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpResponseEncoder(),
+                                                      new ForwardingHandler(routing,
+                                                                            webServer,
+                                                                            webServer.configuration(),
+                                                                            null,
+                                                                            new ConcurrentLinkedQueue<>(),
+                                                                            null));
+        try {
+            HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/");
+            HttpUtil.setContentLength(request, 4);
+            channel.writeInbound(request);
+
+            // auto read is enabled again once the response is completed
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!channel.config().isAutoRead() && System.nanoTime() < deadline) {
+                channel.runPendingTasks();
+                Thread.sleep(10);
+            }
+            assertThat(channel.config().isAutoRead(), is(true));
+
+            // the payload nobody is going to read arrives after the response was sent
+            ByteBuf content = Unpooled.directBuffer().writeBytes("body".getBytes(StandardCharsets.US_ASCII));
+            channel.writeInbound(new DefaultLastHttpContent(content));
+            assertThat(content.refCnt(), is(0));
+        } finally {
+            channel.finishAndReleaseAll();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
@@ -104,6 +105,21 @@ public class HashRequestHeadersTest {
                    is(createMt("text", "html", Map.of("level", "2", "q", "0.4"))));
     }
 
+    @Test
+    public void acceptedTypesShared() {
+        String accept = "application/json, text/plain;q=0.9, */*;q=0.1";
+        HashRequestHeaders first = withHeader(Http.Header.ACCEPT, accept);
+        HashRequestHeaders second = withHeader(Http.Header.ACCEPT, accept);
+
+        assertThat(second.acceptedTypes(), is(sameInstance(first.acceptedTypes())));
+        assertThat(first.bestAccepted(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON).orElse(null),
+                   is(MediaType.APPLICATION_JSON));
+        assertThat(second.bestAccepted(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON).orElse(null),
+                   is(MediaType.APPLICATION_JSON));
+        assertThat(second.bestAccepted(MediaType.TEXT_PLAIN, MediaType.TEXT_HTML).orElse(null),
+                   is(MediaType.TEXT_PLAIN));
+    }
+
     @Test
     public void hucDefaultAccept(){
         try {
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.configurable.Resource;
+import io.helidon.common.pki.KeyConfig;
+import io.helidon.config.Config;
+import io.helidon.config.ConfigSources;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.handler.codec.http2.HttpConversionUtil;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests HTTP/2 support.
+ */
+public class Http2Test {
+
+    private static WebServer webServer;
+    private static HttpClient client;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        webServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .http2(Http2Configuration.builder()
+                                       .enable(true)
+                                       .maxConcurrentStreams(10)
+                                       .build())
+                        .build(),
+                Routing.builder()
+                        .get("/hello", (req, res) -> res.send("Hello " + req.version()))
+                        .post("/echo", (req, res) -> res.send(req.content()))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .build();
+    }
+
+    @AfterAll
+    public static void close() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        HttpResponse<String> response = client.send(request("/hello").GET().build(),
+                                                    HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.version(), is(HttpClient.Version.HTTP_2));
+        assertThat(response.body(), is("Hello V2_0"));
+    }
+
+    @Test
+    public void testConcurrentStreams() throws Exception {
+        // upgrade the connection first, then stream all requests over it
+        client.send(request("/hello").GET().build(), HttpResponse.BodyHandlers.discarding());
+
+        String content = "0123456789".repeat(10_000);
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        // stays within the maxConcurrentStreams(10) of the server
+        for (int i = 0; i < 10; i++) {
+            responses.add(client.sendAsync(request("/echo")
+                                                   .POST(HttpRequest.BodyPublishers.ofString(content + i))
+                                                   .build(),
+                                           HttpResponse.BodyHandlers.ofString()));
+        }
+        for (int i = 0; i < responses.size(); i++) {
+            HttpResponse<String> response = responses.get(i).get(10, TimeUnit.SECONDS);
+            assertThat(response.statusCode(), is(200));
+            assertThat(response.version(), is(HttpClient.Version.HTTP_2));
+            assertThat(response.body(), is(content + i));
+        }
+    }
+
+    @Test
+    public void testPriorKnowledge() throws Exception {
+        // HTTP/2 connection preface sent right away, without an upgrade
+        assertThat(http2Get(webServer.port(), null, "/hello"), is("Hello V2_0"));
+    }
+
+    @Test
+    public void testAlpn() throws Exception {
+        WebServer tlsServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .ssl(SSLContextBuilder.create(KeyConfig.pemBuilder()
+                                                              .key(Resource.create("ssl/key.pkcs8.pem"))
+                                                              .certChain(Resource.create("ssl/certificate.pem"))
+                                                              .build()))
+                        .http2(Http2Configuration.builder()
+                                       .enable(true)
+                                       .build())
+                        .build(),
+                Routing.builder()
+                        .get("/hello", (req, res) -> res.send("Hello " + req.version()))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        try {
+            SslContext sslContext = SslContextBuilder.forClient()
+                    .trustManager(InsecureTrustManagerFactory.INSTANCE)
+                    .applicationProtocolConfig(new ApplicationProtocolConfig(
+                            ApplicationProtocolConfig.Protocol.ALPN,
+                            ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                            ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                            ApplicationProtocolNames.HTTP_2))
+                    .build();
+            assertThat(http2Get(tlsServer.port(), sslContext, "/hello"), is("Hello V2_0"));
+        } finally {
+            tlsServer.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testConfig() {
+        Config config = Config.builder()
+                .sources(ConfigSources.create(Map.of(
+                        "http2.enable", "true",
+                        "http2.max-concurrent-streams", "50",
+                        "http2.header-table-size", "8192",
+                        "http2.initial-window-size", "131072")))
+                .disableEnvironmentVariablesSource()
+                .disableSystemPropertiesSource()
+                .build();
+        ServerConfiguration serverConfig = ServerConfiguration.create(config);
+        assertThat(serverConfig.isHttp2Enabled(), is(true));
+        assertThat(serverConfig.http2().maxConcurrentStreams(), is(50L));
+        assertThat(serverConfig.http2().headerTableSize(), is(8192L));
+        assertThat(serverConfig.http2().initialWindowSize(), is(131072));
+        assertThat(serverConfig.http2().maxFrameSize(), is(Http2Configuration.DEFAULT_MAX_FRAME_SIZE));
+    }
+
+    /**
+     * Sends a GET request over an HTTP/2 connection started with the connection preface, i.e. with prior knowledge
+     * on a cleartext connection, or after ALPN negotiated HTTP/2 on a TLS connection.
+     */
+    private static String http2Get(int port, SslContext sslContext, String path) throws Exception {
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            Channel channel = new Bootstrap()
+                    .group(group)
+                    .channel(NioSocketChannel.class)
+                    .handler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        protected void initChannel(SocketChannel ch) {
+                            if (sslContext != null) {
+                                ch.pipeline().addLast(sslContext.newHandler(ch.alloc(), "localhost", port));
+                            }
+                            ch.pipeline().addLast(Http2FrameCodecBuilder.forClient().build(),
+                                                  new Http2MultiplexHandler(new ChannelInboundHandlerAdapter()));
+                        }
+                    })
+                    .connect("localhost", port)
+                    .sync()
+                    .channel();
+            try {
+                CompletableFuture<String> content = new CompletableFuture<>();
+                Http2StreamChannel stream = new Http2StreamChannelBootstrap(channel)
+                        .handler(new ChannelInitializer<Http2StreamChannel>() {
+                            @Override
+                            protected void initChannel(Http2StreamChannel ch) {
+                                ch.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(false),
+                                                      new HttpObjectAggregator(1024 * 1024),
+                                                      new SimpleChannelInboundHandler<FullHttpResponse>() {
+                                                          @Override
+                                                          protected void channelRead0(ChannelHandlerContext ctx,
+                                                                                      FullHttpResponse msg) {
+                                                              content.complete(msg.content()
+                                                                                       .toString(StandardCharsets.UTF_8));
+                                                          }
+
+                                                          @Override
+                                                          public void exceptionCaught(ChannelHandlerContext ctx,
+                                                                                      Throwable cause) {
+                                                              content.completeExceptionally(cause);
+                                                          }
+                                                      });
+                            }
+                        })
+                        .open()
+                        .get(10, TimeUnit.SECONDS);
+                DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path);
+                request.headers().set(HttpHeaderNames.HOST, "localhost:" + port);
+                request.headers().set(HttpConversionUtil.ExtensionHeaderNames.SCHEME.text(),
+                                      sslContext == null ? "http" : "https");
+                stream.writeAndFlush(request);
+                return content.get(10, TimeUnit.SECONDS);
+            } finally {
+                channel.close();
+            }
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    private static HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + webServer.port() + path));
+    }
+}
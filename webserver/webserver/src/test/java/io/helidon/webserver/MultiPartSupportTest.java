@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Multi;
+import io.helidon.media.common.ContentReaders;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link MultiPartSupport}.
+ */
+public class MultiPartSupportTest {
+
+    private static final String BOUNDARY = "AaB03x";
+    private static final String LARGE_CONTENT = "0123456789".repeat(1000);
+
+    private static Path spillDirectory;
+    private static WebServer testServer;
+
+    @BeforeAll
+    public static void startup() throws Exception {
+        spillDirectory = Files.createTempDirectory("multipart-test");
+        testServer = WebServer.create(ServerConfiguration.builder()
+                        .port(0)
+                        .build(),
+                    Routing.builder()
+                        .register(MultiPartSupport.builder()
+                                          .spillThreshold(1024)
+                                          .spillDirectory(spillDirectory)
+                                          .build())
+                        .post("/upload", (req, res) -> req.content()
+                                .as(MultiPart.class)
+                                .thenCompose(mp -> mp.parts()
+                                        .map(part -> part.name().orElse("") + ":" + part.filename().orElse("")
+                                                + ":" + part.size() + ":" + part.isSpilled()
+                                                + ":" + readString(part).length())
+                                        .collectList()
+                                        .toStage())
+                                .thenAccept(parts -> res.send(String.join(",", parts)))
+                                .exceptionally(t -> {
+                                    req.next(t);
+                                    return null;
+                                }))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void shutdown() throws Exception {
+        testServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Files.deleteIfExists(spillDirectory);
+    }
+
+    @Test
+    public void testUpload() throws Exception {
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"field\"\r\n"
+                + "\r\n"
+                + "value\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"file.txt\"\r\n"
+                + "Content-Type: text/plain\r\n"
+                + "\r\n"
+                + LARGE_CONTENT + "\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+
+        URL url = new URL("http://localhost:" + testServer.port() + "/upload");
+        HttpURLConnection cnx = (HttpURLConnection) url.openConnection();
+        cnx.setRequestMethod("POST");
+        cnx.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + BOUNDARY);
+        cnx.setChunkedStreamingMode(100);
+        cnx.setDoOutput(true);
+        try (OutputStream out = cnx.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(cnx.getResponseCode(), is(200));
+        try (InputStream in = cnx.getInputStream()) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                       is("field::5:false:5,file:file.txt:10000:true:10000"));
+        }
+        try (var files = Files.list(spillDirectory)) {
+            assertThat(files.count(), is(0L));
+        }
+    }
+
+    @Test
+    public void testSplitChunks() throws Exception {
+        String body = "preamble\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"a\"\r\n"
+                + "\r\n"
+                + "\r\n--not-a-boundary\r\n"
+                + "--" + BOUNDARY + "  \r\n"
+                + "\r\n"
+                + "\r\n"
+                + "--" + BOUNDARY + "--\r\n"
+                + "epilogue";
+        // one chunk per byte, so the delimiters are split across chunks at every position
+        List<DataChunk> chunks = new ArrayList<>();
+        for (byte b : body.getBytes(StandardCharsets.UTF_8)) {
+            chunks.add(DataChunk.create(new byte[] {b}));
+        }
+
+        List<BodyPart> parts = decoder(Multi.from(chunks), 4).parts()
+                .collectList()
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(parts.size(), is(2));
+        assertThat(parts.get(0).name().orElse(null), is("a"));
+        assertThat(readString(parts.get(0)), is("\r\n--not-a-boundary"));
+        assertThat(parts.get(1).headers().toMap().isEmpty(), is(true));
+        assertThat(readString(parts.get(1)), is(""));
+    }
+
+    @Test
+    public void testMissingClosingBoundary() {
+        String body = "--" + BOUNDARY + "\r\n"
+                + "\r\n"
+                + "incomplete";
+        Multi<DataChunk> chunks = Multi.just(DataChunk.create(body.getBytes(StandardCharsets.UTF_8)));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> decoder(chunks, 1024).parts()
+                .collectList()
+                .get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause(), instanceOf(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void testDispositionParameters() {
+        Map<String, String> parameters = MultiPartDecoder.dispositionParameters(
+                "form-data; name=\"a;b\"; filename=\"x \\\"y\\\".txt\"; Size=10");
+
+        assertThat(parameters.get("name"), is("a;b"));
+        assertThat(parameters.get("filename"), is("x \"y\".txt"));
+        assertThat(parameters.get("size"), is("10"));
+    }
+
+    private static MultiPart decoder(Multi<DataChunk> chunks, int spillThreshold) {
+        return new MultiPart(new MultiPartDecoder(chunks,
+                                                  BOUNDARY,
+                                                  spillThreshold,
+                                                  spillDirectory,
+                                                  ForkJoinPool.commonPool(),
+                                                  new ConcurrentLinkedQueue<>()));
+    }
+
+    private static String readString(BodyPart part) {
+        try {
+            return ContentReaders.readString(part.content(), StandardCharsets.UTF_8)
+                    .get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.List;
+import java.util.Map;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+
+/**
+ * Tests {@link NettyRequestHeaders}.
+ */
+public class NettyRequestHeadersTest {
+
+    @Test
+    public void caseInsensitiveLookup() {
+        HttpHeaders netty = new DefaultHttpHeaders()
+                .add("X-Forwarded-For", "10.0.0.1")
+                .add("x-forwarded-for", "10.0.0.2")
+                .add("Content-Type", "application/json");
+        NettyRequestHeaders headers = new NettyRequestHeaders(netty);
+
+        assertThat(headers.first("X-FORWARDED-FOR").orElse(null), is("10.0.0.1"));
+        assertThat(headers.all("x-forwarded-for"), contains("10.0.0.1", "10.0.0.2"));
+        assertThat(headers.value("X-Forwarded-For").orElse(null), is("10.0.0.1,10.0.0.2"));
+        assertThat(headers.contentType().orElse(null), is(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void missingHeader() {
+        NettyRequestHeaders headers = new NettyRequestHeaders(new DefaultHttpHeaders());
+
+        assertThat(headers.first(Http.Header.ACCEPT).isPresent(), is(false));
+        assertThat(headers.all(Http.Header.ACCEPT), is(empty()));
+        assertThat(headers.acceptedTypes(), is(empty()));
+        assertThat(headers.contentLength().isPresent(), is(false));
+    }
+
+    @Test
+    public void readOnly() {
+        NettyRequestHeaders headers = new NettyRequestHeaders(new DefaultHttpHeaders().add("Foo", "bar"));
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> headers.add("Foo", "baz"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> headers.all("Foo").add("baz"));
+    }
+
+    @Test
+    public void cookiesAndMap() {
+        HttpHeaders netty = new DefaultHttpHeaders()
+                .add(Http.Header.COOKIE, "foo=1; bar=2")
+                .add(Http.Header.COOKIE, "foo=3");
+        NettyRequestHeaders headers = new NettyRequestHeaders(netty);
+
+        assertThat(headers.cookies().all("foo"), contains("1", "3"));
+        Map<String, List<String>> map = headers.toMap();
+        assertThat(map.size(), is(1));
+        assertThat(headers.toMap().get(Http.Header.COOKIE), contains("foo=1; bar=2", "foo=3"));
+    }
+
+    @Test
+    public void mapCaseInsensitive() {
+        HttpHeaders netty = new DefaultHttpHeaders()
+                .add("Accept", "text/plain")
+                .add("accept", "text/html");
+        NettyRequestHeaders headers = new NettyRequestHeaders(netty);
+
+        Map<String, List<String>> map = headers.toMap();
+        assertThat(map.size(), is(1));
+        assertThat(map.get("ACCEPT"), contains("text/plain", "text/html"));
+    }
+}
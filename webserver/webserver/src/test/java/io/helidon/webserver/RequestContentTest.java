@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -334,4 +334,40 @@ public class RequestContentTest {
         CompletionStage<? extends String> complete = request.content().as(String.class);
         assertThat(complete.toCompletableFuture().get(10, TimeUnit.SECONDS), is("TEST-STRING"));
     }
+
+    @Test
+    public void readerRegisteredAfterRead() throws Exception {
+        Request request = requestTestStub(Multi.just(DataChunk.create("PT1M".getBytes())));
+
+        CompletableFuture<?> future = request.content().as(Duration.class).toCompletableFuture();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause(), instanceOf(IllegalArgumentException.class));
+
+        request.content().registerReader(Duration.class,
+                (publisher, clazz) -> ContentReaders
+                        .readString(publisher, Request.contentCharset(request))
+                        .toStage()
+                        .thenApply(Duration::parse));
+
+        Duration result = request.content().as(Duration.class).toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertThat(result, is(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void readerRegisteredOnOtherRequest() throws Exception {
+        Request request = requestTestStub(Multi.just(DataChunk.create("PT1M".getBytes())));
+        request.content().registerReader(Duration.class,
+                (publisher, clazz) -> ContentReaders
+                        .readString(publisher, Request.contentCharset(request))
+                        .toStage()
+                        .thenApply(Duration::parse));
+        assertThat(request.content().as(Duration.class).toCompletableFuture().get(10, TimeUnit.SECONDS),
+                   is(Duration.ofMinutes(1)));
+
+        // the default readers are shared, the reader registered above belongs to its request only
+        Request other = requestTestStub(Multi.just(DataChunk.create("PT1M".getBytes())));
+        CompletableFuture<?> future = other.content().as(Duration.class).toCompletableFuture();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause(), instanceOf(IllegalArgumentException.class));
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.helidon.common.http.Http;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests decompression of request content.
+ */
+public class RequestDecompressionTest {
+
+    private static final String PAYLOAD = "decompress me ".repeat(1000);
+
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        webServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .compression(CompressionConfiguration.builder()
+                                             .requestDecompression(true)
+                                             .maxDecompressedSize(PAYLOAD.length()))
+                        .build(),
+                Routing.builder()
+                        .post("/echo", (req, res) -> req.content()
+                                .as(String.class)
+                                .thenAccept(res::send)
+                                .exceptionally(t -> {
+                                    req.next(t.getCause() == null ? t : t.getCause());
+                                    return null;
+                                }))
+                        .post("/headers", (req, res) -> req.content()
+                                .as(String.class)
+                                .thenAccept(s -> res.send(req.headers().first(Http.Header.CONTENT_ENCODING).orElse("-")
+                                                                  + " " + req.headers().contentLength().isPresent()
+                                                                  + " " + s.length())))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void close() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testGzip() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (OutputStream os = new GZIPOutputStream(baos)) {
+            os.write(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpURLConnection conn = post("gzip", baos.toByteArray());
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(read(conn), is(PAYLOAD));
+    }
+
+    @Test
+    public void testDeflate() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (OutputStream os = new DeflaterOutputStream(baos)) {
+            os.write(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpURLConnection conn = post("deflate", baos.toByteArray());
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(read(conn), is(PAYLOAD));
+    }
+
+    @Test
+    public void testTooLarge() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (OutputStream os = new GZIPOutputStream(baos)) {
+            os.write(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+            os.write(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpURLConnection conn = post("gzip", baos.toByteArray());
+        assertThat(conn.getResponseCode(), is(Http.Status.REQUEST_ENTITY_TOO_LARGE_413.code()));
+    }
+
+    @Test
+    public void testSmallChunks() throws Exception {
+        // gzip header and trailer are split across chunks
+        HttpURLConnection conn = post("/echo", "gzip", gzip(PAYLOAD), 3);
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(read(conn), is(PAYLOAD));
+    }
+
+    @Test
+    public void testHighlyCompressedTooLarge() throws Exception {
+        // a few kilobytes inflating to many megabytes, sent as a single chunk
+        HttpURLConnection conn = post("gzip", gzip("\0".repeat(16 * 1024 * 1024)));
+        assertThat(conn.getResponseCode(), is(Http.Status.REQUEST_ENTITY_TOO_LARGE_413.code()));
+    }
+
+    @Test
+    public void testHeadersRemoved() throws Exception {
+        HttpURLConnection conn = post("/headers", "gzip", gzip(PAYLOAD), 0);
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(read(conn), is("- false " + PAYLOAD.length()));
+    }
+
+    private static byte[] gzip(String payload) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (OutputStream os = new GZIPOutputStream(baos)) {
+            os.write(payload.getBytes(StandardCharsets.UTF_8));
+        }
+        return baos.toByteArray();
+    }
+
+    private static HttpURLConnection post(String encoding, byte[] entity) throws Exception {
+        return post("/echo", encoding, entity, 0);
+    }
+
+    private static HttpURLConnection post(String path, String encoding, byte[] entity, int chunkSize) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + webServer.port() + path)
+                .openConnection();
+        conn.setRequestMethod("POST");
+        conn.setDoOutput(true);
+        if (chunkSize > 0) {
+            conn.setChunkedStreamingMode(chunkSize);
+        }
+        conn.setRequestProperty("Content-Type", "text/plain");
+        conn.setRequestProperty("Content-Encoding", encoding);
+        try (OutputStream os = conn.getOutputStream()) {
+            os.write(entity);
+        }
+        return conn;
+    }
+
+    private static String read(HttpURLConnection conn) throws Exception {
+        try (InputStream is = conn.getInputStream()) {
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
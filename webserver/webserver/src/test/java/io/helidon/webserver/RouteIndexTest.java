@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link RouteIndex}.
+ */
+public class RouteIndexTest {
+
+    private static final RouteIndex INDEX = RouteIndex.create(List.of(
+            route("/a/b"),                                                  // 0
+            route("/a/{id}"),                                               // 1
+            route("/a/{id}/c"),                                             // 2
+            route("/x/{+rest}"),                                            // 3
+            route("/a/{id:\\d+}"),                                          // 4
+            route(null),                                                    // 5
+            new RouteList(PathPattern.compile("/a"), List.of(route("/b"))), // 6
+            route("/")));                                                   // 7
+
+    @Test
+    public void testCandidates() {
+        assertThat(INDEX.candidates("/a/b"), is(bits(0, 1, 4, 5, 6)));
+        assertThat(INDEX.candidates("/a/z"), is(bits(1, 4, 5, 6)));
+        assertThat(INDEX.candidates("/a/z/c"), is(bits(2, 4, 5, 6)));
+        assertThat(INDEX.candidates("/a"), is(bits(4, 5, 6)));
+        assertThat(INDEX.candidates("/x/y/z"), is(bits(3, 4, 5)));
+        assertThat(INDEX.candidates("/x"), is(bits(4, 5)));
+        assertThat(INDEX.candidates("/"), is(bits(4, 5, 7)));
+    }
+
+    @Test
+    public void testRouting() {
+        RouteList routes = new RouteList(List.of(route("/a/b"), route("/a/{id}")));
+        assertThat(routes.candidates("/a/b"), is(bits(0, 1)));
+        assertThat(routes.candidates("/a/c"), is(bits(1)));
+        assertThat(routes.candidates("/b/c"), is(bits()));
+    }
+
+    private static Route route(String pattern) {
+        return new HandlerRoute(null,
+                                pattern == null ? null : PathPattern.compile(pattern),
+                                (req, res) -> res.send());
+    }
+
+    private static BitSet bits(int... indexes) {
+        BitSet result = new BitSet();
+        for (int index : indexes) {
+            result.set(index);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link PathPattern.SegmentPathMatcher}.
+ */
+public class SegmentPathMatcherTest {
+
+    @Test
+    public void testCompiledMatcher() {
+        assertThat(PathPattern.compile("/a/{id}/b"), instanceOf(PathPattern.SegmentPathMatcher.class));
+        assertThat(PathPattern.compile("/a/{+rest}"), instanceOf(PathPattern.SegmentPathMatcher.class));
+        assertThat(PathPattern.compile("/a/{id:\\d+}"), not(instanceOf(PathPattern.SegmentPathMatcher.class)));
+        assertThat(PathPattern.compile("/a[/b]"), not(instanceOf(PathPattern.SegmentPathMatcher.class)));
+        assertThat(PathPattern.compile("/a/{id}b"), not(instanceOf(PathPattern.SegmentPathMatcher.class)));
+        assertThat(PathPattern.compile("/{+a}/b"), not(instanceOf(PathPattern.SegmentPathMatcher.class)));
+    }
+
+    @Test
+    public void testMatch() {
+        PathMatcher matcher = PathPattern.compile("/a/{id}/b");
+        PathMatcher.Result result = matcher.match("/a/12/b");
+        assertThat(result.matches(), is(true));
+        assertThat(result.params().get("id"), is("12"));
+
+        assertThat(matcher.match("/a//b").matches(), is(false));
+        assertThat(matcher.match("/a/12/b/c").matches(), is(false));
+        assertThat(matcher.match("/a/12/c").matches(), is(false));
+        assertThat(matcher.match("/a/12").matches(), is(false));
+    }
+
+    @Test
+    public void testGreedyMatch() {
+        PathMatcher matcher = PathPattern.compile("/files/x{+path}");
+        PathMatcher.Result result = matcher.match("/files/xdir/file.txt");
+        assertThat(result.matches(), is(true));
+        assertThat(result.params().get("path"), is("dir/file.txt"));
+
+        assertThat(matcher.match("/files/x").matches(), is(false));
+    }
+
+    @Test
+    public void testAnonymousParameter() {
+        PathMatcher.Result result = PathPattern.compile("/a/{}/{name}").match("/a/b/c");
+        assertThat(result.matches(), is(true));
+        assertThat(result.params().size(), is(1));
+        assertThat(result.params().get("name"), is("c"));
+    }
+
+    @Test
+    public void testPrefixMatch() {
+        PathMatcher matcher = PathPattern.compile("/a/{id}");
+        PathMatcher.PrefixResult result = matcher.prefixMatch("/a/12/b/c");
+        assertThat(result.matches(), is(true));
+        assertThat(result.params().get("id"), is("12"));
+        assertThat(result.remainingPart(), is("/b/c"));
+
+        result = matcher.prefixMatch("/a/12");
+        assertThat(result.matches(), is(true));
+        assertThat(result.remainingPart(), is("/"));
+
+        result = matcher.prefixMatch("/a/12/");
+        assertThat(result.matches(), is(false));
+        assertThat(result.remainingPart(), is(nullValue()));
+
+        assertThat(PathPattern.compile("/a/{id}/b").prefixMatch("/a/12/bc").matches(), is(false));
+    }
+}
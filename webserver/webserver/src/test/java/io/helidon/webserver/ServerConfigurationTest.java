@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -60,6 +60,8 @@ public class ServerConfigurationTest {
         assertThat(config.receiveBufferSize(), is(0));
         assertThat(config.timeoutMillis(), is(0));
         assertThat(config.workersCount() > 0, is(true));
+        assertThat(config.acceptors(), is(1));
+        assertThat(config.transport(), is(ServerConfiguration.Transport.AUTO));
         assertThat(config.tracer(), IsInstanceOf.instanceOf(GlobalTracer.class));
         assertThat(config.bindAddress(), nullValue());
     }
@@ -96,6 +98,8 @@ public class ServerConfigurationTest {
         assertThat(sc.ssl(), nullValue());
 
         assertThat(sc.workersCount(), is(50));
+        assertThat(sc.transport(), is(ServerConfiguration.Transport.NIO));
+        assertThat(sc.acceptors(), is(1));
 
         assertThat(sc.socket("secure").port(), is(11));
         assertThat(sc.socket("secure").backlog(), is(21));
@@ -109,11 +113,20 @@ public class ServerConfigurationTest {
         assertThat(sc.socket("other").backlog(), is(22));
         assertThat(sc.socket("other").receiveBufferSize(), is(32));
         assertThat(sc.socket("other").timeoutMillis(), is(42));
+        assertThat(sc.socket("other").acceptors(), is(4));
         assertThat(sc.socket("other").bindAddress(), is(InetAddress.getByName("127.0.0.3")));
         assertThat(sc.socket("other").enabledSslProtocols(), hasSize(0));
         assertThat(sc.socket("other").ssl(), nullValue());
     }
 
+    @Test
+    public void noNegativeAcceptors() {
+        SocketConfiguration config = SocketConfiguration.builder()
+                .acceptors(-1)
+                .build();
+        assertThat(config.acceptors(), is(1));
+    }
+
     @Test
     public void sslFromConfig() throws Exception {
         Config config = Config.builder().sources(ConfigSources.classpath("config-with-ssl.conf")).build();
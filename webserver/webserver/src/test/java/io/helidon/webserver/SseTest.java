@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Multi;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link SseSupport} and {@link SseEvent}.
+ */
+public class SseTest {
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor();
+
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        SseSupport sse = SseSupport.create();
+        webServer = WebServer.create(
+                ServerConfiguration.builder().build(),
+                Routing.builder()
+                        .get("/events", (req, res) -> sse.send(res, Multi.just(SseEvent.create("first"),
+                                                                               SseEvent.create("second"))))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void close() throws Exception {
+        SCHEDULER.shutdownNow();
+        if (webServer != null) {
+            webServer.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testEncoding() {
+        SseEvent event = SseEvent.builder()
+                .id("42")
+                .event("update")
+                .retry(Duration.ofSeconds(2))
+                .comment("note")
+                .data("line 1\nline 2\r\n line 3")
+                .build();
+        assertThat(string(event.encode().array()), is(": note\n"
+                                                              + "id: 42\n"
+                                                              + "event: update\n"
+                                                              + "retry: 2000\n"
+                                                              + "data: line 1\n"
+                                                              + "data: line 2\n"
+                                                              + "data:  line 3\n"
+                                                              + "\n"));
+    }
+
+    @Test
+    public void testResponse() throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + webServer.port() + "/events")
+                .openConnection();
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(conn.getContentType(), is("text/event-stream"));
+        assertThat(conn.getHeaderField("Cache-Control"), is("no-cache"));
+        try (InputStream is = conn.getInputStream()) {
+            assertThat(string(is.readAllBytes()), is("data: first\n\ndata: second\n\n"));
+        }
+    }
+
+    @Test
+    public void testEventsRequestedAsChunksAreReleased() {
+        EventSource source = new EventSource();
+        ChunkCollector collector = new ChunkCollector();
+        new SsePublisher(source, 4, 0, SCHEDULER).subscribe(collector);
+
+        // the chunks are not released, only the window of events is requested
+        assertThat(source.requested.get(), is(4L));
+        assertThat(collector.chunks.size(), is(4));
+
+        collector.chunks.get(0).release();
+        collector.chunks.get(1).release();
+        assertThat(source.requested.get(), is(6L));
+        assertThat(collector.chunks.size(), is(6));
+    }
+
+    @Test
+    public void testHeartbeat() throws Exception {
+        EventSource source = new EventSource();
+        source.emit = false;
+        ChunkCollector collector = new ChunkCollector();
+        new SsePublisher(source, 4, TimeUnit.MILLISECONDS.toNanos(10), SCHEDULER).subscribe(collector);
+
+        assertThat(collector.first.await(10, TimeUnit.SECONDS), is(true));
+        DataChunk chunk = collector.chunks.get(0);
+        assertThat(chunk.flush(), is(true));
+        assertThat(string(chunk.bytes()), is(":\n\n"));
+    }
+
+    @Test
+    public void testCancel() {
+        EventSource source = new EventSource();
+        SsePublisher publisher = new SsePublisher(source, 4, TimeUnit.MILLISECONDS.toNanos(10), SCHEDULER);
+        publisher.subscribe(new ChunkCollector());
+        publisher.cancel();
+        assertThat(source.cancelled.get(), is(true));
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class EventSource implements Flow.Publisher<SseEvent> {
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private volatile boolean emit = true;
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super SseEvent> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                    if (emit) {
+                        for (long i = 0; i < n; i++) {
+                            subscriber.onNext(SseEvent.create("event"));
+                        }
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled.set(true);
+                }
+            });
+        }
+    }
+
+    private static final class ChunkCollector implements Flow.Subscriber<DataChunk> {
+        private final List<DataChunk> chunks = new CopyOnWriteArrayList<>();
+        private final CountDownLatch first = new CountDownLatch(1);
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(DataChunk item) {
+            chunks.add(item);
+            first.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.helidon.common.http.Http;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the in-memory cache and precompressed variants of {@link StaticContentSupport}.
+ */
+public class StaticContentCacheTest {
+
+    private static final String CONTENT = "function app() { return 42; }\n".repeat(20);
+
+    private static Path root;
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        root = Files.createTempDirectory("static-cache");
+        Files.writeString(root.resolve("app.js"), CONTENT);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (OutputStream os = new GZIPOutputStream(baos)) {
+            os.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(root.resolve("app.js.gz"), baos.toByteArray());
+        webServer = WebServer.create(Routing.builder()
+                                             .register("/static", StaticContentSupport.builder(root)
+                                                     .cacheMaxSize(1024 * 1024)
+                                                     .precompressed(true)
+                                                     .build())
+                                             .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void close() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+        Files.deleteIfExists(root.resolve("app.js.gz"));
+        Files.deleteIfExists(root.resolve("app.js"));
+        Files.deleteIfExists(root);
+    }
+
+    @Test
+    public void testIdentity() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            HttpURLConnection conn = open(null, null);
+            assertThat(conn.getResponseCode(), is(Http.Status.OK_200.code()));
+            assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is(nullValue()));
+            assertThat(conn.getHeaderField(Http.Header.ETAG), is(notNullValue()));
+            try (InputStream is = conn.getInputStream()) {
+                assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8), is(CONTENT));
+            }
+        }
+    }
+
+    @Test
+    public void testPrecompressed() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            HttpURLConnection conn = open("gzip, deflate", null);
+            assertThat(conn.getResponseCode(), is(Http.Status.OK_200.code()));
+            assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is("gzip"));
+            assertThat(conn.getHeaderField(Http.Header.VARY), is(Http.Header.ACCEPT_ENCODING));
+            try (InputStream is = new GZIPInputStream(conn.getInputStream())) {
+                assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8), is(CONTENT));
+            }
+        }
+    }
+
+    @Test
+    public void testRangeFromCache() throws Exception {
+        open(null, null).getResponseCode();
+        HttpURLConnection conn = open("gzip", "bytes=0-7");
+        assertThat(conn.getResponseCode(), is(Http.Status.PARTIAL_CONTENT_206.code()));
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is(nullValue()));
+        try (InputStream is = conn.getInputStream()) {
+            assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8), is("function"));
+        }
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        String etag = open(null, null).getHeaderField(Http.Header.ETAG);
+        HttpURLConnection conn = open(null, null);
+        conn.setRequestProperty(Http.Header.IF_NONE_MATCH, etag);
+        assertThat(conn.getResponseCode(), is(Http.Status.NOT_MODIFIED_304.code()));
+    }
+
+    @Test
+    public void testPrecompressedEtag() throws Exception {
+        String identityEtag = open(null, null).getHeaderField(Http.Header.ETAG);
+        HttpURLConnection gzipped = open("gzip", null);
+        String gzipEtag = gzipped.getHeaderField(Http.Header.ETAG);
+        assertThat(gzipEtag, is(not(identityEtag)));
+
+        // the identity representation must not validate the gzip one
+        HttpURLConnection conn = open("gzip", null);
+        conn.setRequestProperty(Http.Header.IF_NONE_MATCH, identityEtag);
+        assertThat(conn.getResponseCode(), is(Http.Status.OK_200.code()));
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is("gzip"));
+
+        conn = open("gzip", null);
+        conn.setRequestProperty(Http.Header.IF_NONE_MATCH, gzipEtag);
+        assertThat(conn.getResponseCode(), is(Http.Status.NOT_MODIFIED_304.code()));
+        assertThat(conn.getHeaderField(Http.Header.VARY), is(Http.Header.ACCEPT_ENCODING));
+    }
+
+    @Test
+    public void testPrecompressedHead() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            HttpURLConnection conn = open("gzip", null);
+            conn.setRequestMethod("HEAD");
+            assertThat(conn.getResponseCode(), is(Http.Status.OK_200.code()));
+            assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is("gzip"));
+            assertThat(conn.getHeaderFieldLong(Http.Header.CONTENT_LENGTH, -1), is(Files.size(root.resolve("app.js.gz"))));
+        }
+    }
+
+    @Test
+    public void testEviction() {
+        ContentCache cache = new ContentCache(10, 6, 0);
+        assertThat(cache.accepts(6), is(true));
+        assertThat(cache.accepts(7), is(false));
+        cache.put("a", CachedContent.create(new byte[4], Map.of(), null, null, null));
+        cache.put("b", CachedContent.create(new byte[4], Map.of(), null, null, null));
+        assertThat(cache.get("a"), is(notNullValue()));
+        cache.put("c", CachedContent.create(new byte[4], Map.of(), null, null, null));
+        // "b" is the least recently used
+        assertThat(cache.get("b"), is(nullValue()));
+        assertThat(cache.get("a"), is(notNullValue()));
+        assertThat(cache.get("c"), is(notNullValue()));
+    }
+
+    @Test
+    public void testRevalidation() throws Exception {
+        Path file = Files.createTempFile(root, "revalidated", ".txt");
+        try {
+            Instant lastModified = Files.getLastModifiedTime(file).toInstant();
+            ContentCache cache = new ContentCache(10, 6, TimeUnit.HOURS.toNanos(1));
+            cache.put("a", CachedContent.create(new byte[4], Map.of(), null, lastModified, file));
+            Files.setLastModifiedTime(file, FileTime.from(lastModified.plusSeconds(10)));
+            // checked when cached, not again within the interval
+            assertThat(cache.get("a"), is(notNullValue()));
+
+            ContentCache alwaysChecked = new ContentCache(10, 6, 0);
+            alwaysChecked.put("a", CachedContent.create(new byte[4], Map.of(), null, lastModified, file));
+            assertThat(alwaysChecked.get("a"), is(nullValue()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static HttpURLConnection open(String acceptEncoding, String range) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + webServer.port() + "/static/app.js")
+                .openConnection();
+        if (acceptEncoding != null) {
+            conn.setRequestProperty(Http.Header.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (range != null) {
+            conn.setRequestProperty(Http.Header.RANGE, range);
+        }
+        return conn;
+    }
+}
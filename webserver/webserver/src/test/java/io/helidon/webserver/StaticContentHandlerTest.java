@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package io.helidon.webserver;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -32,6 +33,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -218,6 +220,32 @@ public class StaticContentHandlerTest {
         assertThat(handler.counter.get(), is(1));
     }
 
+    @Test
+    public void parseRanges() {
+        List<ByteRange> ranges = ByteRange.parse("bytes=0-9, 20-, -5", 100);
+        assertThat(ranges.size(), is(3));
+        assertThat(ranges.get(0).contentRange(100), is("bytes 0-9/100"));
+        assertThat(ranges.get(1).contentRange(100), is("bytes 20-99/100"));
+        assertThat(ranges.get(2).contentRange(100), is("bytes 95-99/100"));
+        assertThat(ranges.get(2).length(), is(5L));
+
+        assertThat(ByteRange.parse("bytes=90-200", 100).get(0).contentRange(100), is("bytes 90-99/100"));
+        assertThat(ByteRange.parse("bytes=100-", 100).isEmpty(), is(true));
+        assertThat(ByteRange.parse("bytes=9-5", 100), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=a-5", 100), is(nullValue()));
+        assertThat(ByteRange.parse("items=0-5", 100), is(nullValue()));
+    }
+
+    @Test
+    public void ifRange() {
+        Instant modified = Instant.ofEpochSecond(1_500_000_000L, 123_000_000);
+        assertThat(ByteRange.ifRangeMatches("\"abc\"", "abc", modified), is(true));
+        assertThat(ByteRange.ifRangeMatches("\"abd\"", "abc", modified), is(false));
+        assertThat(ByteRange.ifRangeMatches("W/\"abc\"", "abc", modified), is(false));
+        assertThat(ByteRange.ifRangeMatches("Fri, 14 Jul 2017 02:40:00 GMT", "abc", modified), is(true));
+        assertThat(ByteRange.ifRangeMatches("Fri, 14 Jul 2017 02:40:01 GMT", "abc", modified), is(false));
+    }
+
     static class TestContentHandler extends FileSystemContentHandler {
 
         final AtomicInteger counter = new AtomicInteger(0);
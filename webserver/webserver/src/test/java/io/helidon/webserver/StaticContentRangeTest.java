@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.Http;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests file content and byte range requests served by {@link StaticContentSupport}.
+ */
+public class StaticContentRangeTest {
+
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    private static Path root;
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        root = Files.createTempDirectory("static-range");
+        Files.writeString(root.resolve("file.txt"), CONTENT);
+        webServer = WebServer.create(Routing.builder()
+                                             .register("/files", StaticContentSupport.create(root))
+                                             .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void close() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+        Files.deleteIfExists(root.resolve("file.txt"));
+        Files.deleteIfExists(root);
+    }
+
+    @Test
+    public void testWholeFile() throws Exception {
+        HttpURLConnection conn = open(null);
+        assertThat(conn.getResponseCode(), is(Http.Status.OK_200.code()));
+        assertThat(conn.getHeaderField(Http.Header.ACCEPT_RANGES), is("bytes"));
+        assertThat(read(conn), is(CONTENT));
+    }
+
+    @Test
+    public void testHead() throws Exception {
+        HttpURLConnection conn = open(null);
+        conn.setRequestMethod("HEAD");
+        assertThat(conn.getResponseCode(), is(Http.Status.OK_200.code()));
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_LENGTH), is(String.valueOf(CONTENT.length())));
+    }
+
+    @Test
+    public void testSingleRange() throws Exception {
+        HttpURLConnection conn = open("bytes=10-15");
+        assertThat(conn.getResponseCode(), is(Http.Status.PARTIAL_CONTENT_206.code()));
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_RANGE), is("bytes 10-15/36"));
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_LENGTH), is("6"));
+        assertThat(read(conn), is("abcdef"));
+    }
+
+    @Test
+    public void testSuffixRange() throws Exception {
+        HttpURLConnection conn = open("bytes=-3");
+        assertThat(conn.getResponseCode(), is(Http.Status.PARTIAL_CONTENT_206.code()));
+        assertThat(read(conn), is("xyz"));
+    }
+
+    @Test
+    public void testMultipleRanges() throws Exception {
+        HttpURLConnection conn = open("bytes=0-1,34-");
+        assertThat(conn.getResponseCode(), is(Http.Status.PARTIAL_CONTENT_206.code()));
+        assertThat(conn.getContentType(), containsString("multipart/byteranges; boundary="));
+        String body = read(conn);
+        assertThat(body, containsString("Content-Range: bytes 0-1/36\r\n\r\n01\r\n"));
+        assertThat(body, containsString("Content-Range: bytes 34-35/36\r\n\r\nyz\r\n"));
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_LENGTH),
+                   is(String.valueOf(body.getBytes(StandardCharsets.US_ASCII).length)));
+    }
+
+    @Test
+    public void testNotSatisfiable() throws Exception {
+        HttpURLConnection conn = open("bytes=100-");
+        assertThat(conn.getResponseCode(), is(Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416.code()));
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_RANGE), is("bytes */36"));
+    }
+
+    @Test
+    public void testIfRangeNotMatching() throws Exception {
+        HttpURLConnection conn = open("bytes=10-15");
+        conn.setRequestProperty(Http.Header.IF_RANGE, "\"other\"");
+        assertThat(conn.getResponseCode(), is(Http.Status.OK_200.code()));
+        assertThat(read(conn), is(CONTENT));
+    }
+
+    private static HttpURLConnection open(String range) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + webServer.port() + "/files/file.txt")
+                .openConnection();
+        if (range != null) {
+            conn.setRequestProperty(Http.Header.RANGE, range);
+        }
+        return conn;
+    }
+
+    private static String read(HttpURLConnection conn) throws Exception {
+        try (InputStream is = conn.getInputStream()) {
+            return new String(is.readAllBytes(), StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.reactive.Multi;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests WebSocket routes.
+ */
+public class WebSocketTest {
+
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        webServer = WebServer.create(
+                ServerConfiguration.builder().build(),
+                Routing.builder()
+                        .webSocket("/echo", (req, inbound) -> inbound.map(WebSocketTest::echo))
+                        .get("/echo", (req, res) -> res.send("plain"))
+                        .webSocket("/push", (req, inbound) -> Multi.just(WebSocketMessage.text("first"),
+                                                                         WebSocketMessage.text("second")))
+                        .webSocket("/limited",
+                                   WebSocketConfiguration.builder()
+                                           .maxMessageSize(10)
+                                           .build(),
+                                   (req, inbound) -> inbound)
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void close() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testEcho() throws Exception {
+        Listener listener = new Listener();
+        WebSocket webSocket = connect("/echo", listener);
+        webSocket.sendText("Hello", true).get(10, TimeUnit.SECONDS);
+        webSocket.sendText("World", true).get(10, TimeUnit.SECONDS);
+        webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "").get(10, TimeUnit.SECONDS);
+
+        assertThat(listener.closed.get(10, TimeUnit.SECONDS), is(WebSocket.NORMAL_CLOSURE));
+        assertThat(listener.messages, is(List.of("echo:Hello", "echo:World")));
+    }
+
+    @Test
+    public void testPlainRequest() throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + webServer.port() + "/echo")
+                .openConnection();
+        assertThat(conn.getResponseCode(), is(200));
+        try (InputStream is = conn.getInputStream()) {
+            assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8), is("plain"));
+        }
+    }
+
+    @Test
+    public void testPush() throws Exception {
+        Listener listener = new Listener();
+        connect("/push", listener);
+
+        assertThat(listener.closed.get(10, TimeUnit.SECONDS), is(WebSocket.NORMAL_CLOSURE));
+        assertThat(listener.messages, is(List.of("first", "second")));
+    }
+
+    @Test
+    public void testMessageTooBig() throws Exception {
+        Listener listener = new Listener();
+        WebSocket webSocket = connect("/limited", listener);
+        webSocket.sendText("0123456789".repeat(10), true).get(10, TimeUnit.SECONDS);
+
+        assertThat(listener.closed.get(10, TimeUnit.SECONDS), is(1009));
+    }
+
+    private static WebSocketMessage echo(WebSocketMessage message) {
+        return WebSocketMessage.text("echo:" + message.text());
+    }
+
+    private static WebSocket connect(String path, Listener listener) throws Exception {
+        return HttpClient.newHttpClient()
+                .newWebSocketBuilder()
+                .buildAsync(URI.create("ws://localhost:" + webServer.port() + path), listener)
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private static final class Listener implements WebSocket.Listener {
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<Integer> closed = new CompletableFuture<>();
+        private final StringBuilder text = new StringBuilder();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            text.append(data);
+            if (last) {
+                messages.add(text.toString());
+                text.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            closed.complete(statusCode);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            closed.completeExceptionally(error);
+        }
+    }
+}